@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.avro;
+
+import org.apache.hudi.benchmarks.BenchmarkDataGenerator;
+
+import org.apache.avro.JsonProperties;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link HoodieAvroUtils} rewrite paths used by the write handles for every written record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HoodieAvroUtilsBenchmark {
+
+  private static final int NUM_RECORDS = 1000;
+
+  @Param({"10", "100", "300", "500"})
+  public int numFields;
+
+  private Schema hoodieSchema;
+  private List<GenericRecord> records;
+  private List<GenericRecord> hoodieRecords;
+  private int next = 0;
+
+  @Setup
+  public void setup() {
+    Schema schema = BenchmarkDataGenerator.createSchema(numFields);
+    hoodieSchema = HoodieAvroUtils.addMetadataFields(schema);
+    BenchmarkDataGenerator generator = new BenchmarkDataGenerator(0xAB0);
+    records = generator.generateRecords(schema, NUM_RECORDS);
+    hoodieRecords = generator.generateRecords(hoodieSchema, NUM_RECORDS);
+  }
+
+  /**
+   * Input record into the write schema, as done by {@code HoodieWriteHandle#rewriteRecord}.
+   */
+  @Benchmark
+  public GenericRecord rewriteRecord() {
+    GenericRecord record = records.get(next);
+    next = (next + 1) % NUM_RECORDS;
+    return HoodieAvroUtils.rewriteRecord(record, hoodieSchema);
+  }
+
+  /**
+   * Same as {@link #rewriteRecord()}, without validating the rewritten record.
+   */
+  @Benchmark
+  public GenericRecord rewriteRecordWithoutValidation() {
+    GenericRecord record = records.get(next);
+    next = (next + 1) % NUM_RECORDS;
+    return HoodieAvroUtils.rewriteRecord(record, hoodieSchema, false);
+  }
+
+  /**
+   * Baseline for {@link #rewriteRecord()}, working out the fields to write and setting them by name for every record.
+   */
+  @Benchmark
+  public GenericRecord rewriteRecordByName() {
+    GenericRecord record = records.get(next);
+    next = (next + 1) % NUM_RECORDS;
+    LinkedHashSet<Schema.Field> fieldsToWrite = new LinkedHashSet<>(record.getSchema().getFields());
+    for (Schema.Field f : hoodieSchema.getFields()) {
+      if (!fieldsToWrite.contains(f) && !HoodieAvroUtils.isMetadataField(f.name())) {
+        fieldsToWrite.add(f);
+      }
+    }
+    GenericRecord newRecord = new GenericData.Record(hoodieSchema);
+    for (Schema.Field f : fieldsToWrite) {
+      if (record.get(f.name()) == null) {
+        newRecord.put(f.name(), f.defaultVal() instanceof JsonProperties.Null ? null : f.defaultVal());
+      } else {
+        newRecord.put(f.name(), record.get(f.name()));
+      }
+    }
+    if (!GenericData.get().validate(hoodieSchema, newRecord)) {
+      throw new IllegalStateException("Unable to validate the rewritten record against " + hoodieSchema);
+    }
+    return newRecord;
+  }
+
+  @Benchmark
+  public GenericRecord rewriteRecordWithOnlyNewSchemaFields() {
+    GenericRecord record = hoodieRecords.get(next);
+    next = (next + 1) % NUM_RECORDS;
+    return HoodieAvroUtils.rewriteRecordWithOnlyNewSchemaFields(record, hoodieSchema);
+  }
+
+  @Benchmark
+  public byte[] avroToBytes() {
+    GenericRecord record = hoodieRecords.get(next);
+    next = (next + 1) % NUM_RECORDS;
+    return HoodieAvroUtils.avroToBytes(record);
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.benchmarks;
+
+import org.apache.hudi.avro.HoodieAvroUtils;
+import org.apache.hudi.common.model.HoodieAvroPayload;
+import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieRecordLocation;
+import org.apache.hudi.common.model.HoodieRecordPayload;
+import org.apache.hudi.common.util.FileIOUtils;
+import org.apache.hudi.common.util.Option;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generates the schemas, records and scratch directories used by the benchmarks, so that every suite runs against
+ * data on the local file system that it created itself.
+ */
+public class BenchmarkDataGenerator {
+
+  public static final String RECORD_KEY_FIELD = "_row_key";
+  public static final String PARTITION_PATH_FIELD = "partition_path";
+  public static final String ORDERING_FIELD = "timestamp";
+  public static final String DEFAULT_PARTITION_PATH = "2020/01/01";
+  public static final String DEFAULT_FILE_ID = "benchmark-file-id";
+  public static final String DEFAULT_INSTANT_TIME = "100";
+
+  private final Random random;
+
+  public BenchmarkDataGenerator(long seed) {
+    this.random = new Random(seed);
+  }
+
+  /**
+   * Builds a flat schema with the key, partition and ordering fields followed by {@code numExtraFields} columns of
+   * alternating long, double and string types.
+   */
+  public static Schema createSchema(int numExtraFields) {
+    SchemaBuilder.FieldAssembler<Schema> fields = SchemaBuilder.record("benchmark_record")
+        .namespace("org.apache.hudi.benchmarks").fields()
+        .requiredString(RECORD_KEY_FIELD)
+        .requiredString(PARTITION_PATH_FIELD)
+        .requiredLong(ORDERING_FIELD);
+    for (int i = 0; i < numExtraFields; i++) {
+      switch (i % 3) {
+        case 0:
+          fields = fields.optionalLong("long_col_" + i);
+          break;
+        case 1:
+          fields = fields.optionalDouble("double_col_" + i);
+          break;
+        default:
+          fields = fields.optionalString("string_col_" + i);
+          break;
+      }
+    }
+    return fields.endRecord();
+  }
+
+  /**
+   * Same as {@link #createSchema(int)} with the hoodie metadata fields prepended.
+   */
+  public static Schema createHoodieSchema(int numExtraFields) {
+    return HoodieAvroUtils.addMetadataFields(createSchema(numExtraFields));
+  }
+
+  public String nextRecordKey() {
+    return new UUID(random.nextLong(), random.nextLong()).toString();
+  }
+
+  public List<String> generateRecordKeys(int numKeys) {
+    List<String> keys = new ArrayList<>(numKeys);
+    for (int i = 0; i < numKeys; i++) {
+      keys.add(nextRecordKey());
+    }
+    return keys;
+  }
+
+  /**
+   * Generates one record per key for the given schema. Hoodie metadata fields are populated if the schema has them.
+   */
+  public List<GenericRecord> generateRecords(Schema schema, List<String> keys) {
+    List<GenericRecord> records = new ArrayList<>(keys.size());
+    for (String key : keys) {
+      records.add(generateRecord(schema, key));
+    }
+    return records;
+  }
+
+  public List<GenericRecord> generateRecords(Schema schema, int numRecords) {
+    return generateRecords(schema, generateRecordKeys(numRecords));
+  }
+
+  public GenericRecord generateRecord(Schema schema, String key) {
+    GenericRecord record = new GenericData.Record(schema);
+    for (Schema.Field field : schema.getFields()) {
+      String name = field.name();
+      if (name.equals(RECORD_KEY_FIELD) || name.equals(HoodieRecord.RECORD_KEY_METADATA_FIELD)) {
+        record.put(name, key);
+      } else if (name.equals(PARTITION_PATH_FIELD) || name.equals(HoodieRecord.PARTITION_PATH_METADATA_FIELD)) {
+        record.put(name, DEFAULT_PARTITION_PATH);
+      } else if (name.equals(HoodieRecord.COMMIT_TIME_METADATA_FIELD)) {
+        record.put(name, DEFAULT_INSTANT_TIME);
+      } else if (name.equals(HoodieRecord.COMMIT_SEQNO_METADATA_FIELD)) {
+        record.put(name, DEFAULT_INSTANT_TIME + "_" + random.nextInt(1000));
+      } else if (name.equals(HoodieRecord.FILENAME_METADATA_FIELD)) {
+        record.put(name, DEFAULT_FILE_ID);
+      } else if (name.equals(ORDERING_FIELD)) {
+        record.put(name, random.nextLong());
+      } else if (name.startsWith("long_col_")) {
+        record.put(name, random.nextLong());
+      } else if (name.startsWith("double_col_")) {
+        record.put(name, random.nextDouble());
+      } else {
+        record.put(name, "value-" + random.nextInt());
+      }
+    }
+    return record;
+  }
+
+  /**
+   * Wraps the generated avro records into {@link HoodieRecord}s with a fixed current location.
+   */
+  public static List<HoodieRecord<? extends HoodieRecordPayload>> toHoodieRecords(List<GenericRecord> records) {
+    List<HoodieRecord<? extends HoodieRecordPayload>> hoodieRecords = new ArrayList<>(records.size());
+    for (GenericRecord record : records) {
+      String key = record.get(RECORD_KEY_FIELD).toString();
+      HoodieRecord<HoodieAvroPayload> hoodieRecord = new HoodieRecord<>(new HoodieKey(key, DEFAULT_PARTITION_PATH),
+          new HoodieAvroPayload(Option.of(record)));
+      hoodieRecord.unseal();
+      hoodieRecord.setCurrentLocation(new HoodieRecordLocation(DEFAULT_INSTANT_TIME, DEFAULT_FILE_ID));
+      hoodieRecord.seal();
+      hoodieRecords.add(hoodieRecord);
+    }
+    return hoodieRecords;
+  }
+
+  public static File createTempDir(String prefix) throws IOException {
+    return Files.createTempDirectory(prefix).toFile();
+  }
+
+  public static void deleteTempDir(File dir) throws IOException {
+    if (dir != null && dir.exists()) {
+      FileIOUtils.deleteDirectory(dir);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.bloom;
+
+import org.apache.hudi.benchmarks.BenchmarkDataGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BloomFilter#mightContain(String)} for the {@link SimpleBloomFilter} and
+ * {@link HoodieDynamicBoundedBloomFilter} types, for keys that were added and keys that were not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BloomFilterBenchmark {
+
+  private static final double FPP = 0.000000001;
+
+  @Param({"SIMPLE", "DYNAMIC_V0"})
+  public String bloomFilterType;
+
+  @Param({"60000", "500000"})
+  public int numEntries;
+
+  private BloomFilter bloomFilter;
+  private List<String> presentKeys;
+  private List<String> absentKeys;
+  private int next = 0;
+
+  @Setup
+  public void setup() {
+    BenchmarkDataGenerator generator = new BenchmarkDataGenerator(0xB100);
+    presentKeys = generator.generateRecordKeys(numEntries);
+    absentKeys = generator.generateRecordKeys(numEntries);
+    // dynamic filters start at a tenth of the entries and grow, the way large base files end up
+    bloomFilter = BloomFilterFactory.createBloomFilter(
+        bloomFilterType.equals(BloomFilterTypeCode.SIMPLE.name()) ? numEntries : numEntries / 10, FPP, numEntries,
+        bloomFilterType);
+    presentKeys.forEach(bloomFilter::add);
+    // round trip through the serialized form, which is what the index actually reads from the footers
+    bloomFilter = BloomFilterFactory.fromString(bloomFilter.serializeToString(), bloomFilterType);
+  }
+
+  @Benchmark
+  public boolean mightContainPresent() {
+    String key = presentKeys.get(next);
+    next = (next + 1) % numEntries;
+    return bloomFilter.mightContain(key);
+  }
+
+  @Benchmark
+  public boolean mightContainAbsent() {
+    String key = absentKeys.get(next);
+    next = (next + 1) % numEntries;
+    return bloomFilter.mightContain(key);
+  }
+}
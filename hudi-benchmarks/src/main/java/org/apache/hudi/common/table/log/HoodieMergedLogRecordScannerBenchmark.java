@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.table.log;
+
+import org.apache.hudi.benchmarks.BenchmarkDataGenerator;
+import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.model.HoodieAvroPayload;
+import org.apache.hudi.common.model.HoodieLogFile;
+import org.apache.hudi.common.model.HoodieTableType;
+import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.log.HoodieLogFormat.Writer;
+import org.apache.hudi.common.table.log.block.HoodieAvroDataBlock;
+import org.apache.hudi.common.table.log.block.HoodieLogBlock.HeaderMetadataType;
+import org.apache.hudi.common.util.collection.ExternalSpillableMap.DiskMapType;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link HoodieMergedLogRecordScanner#scan()} over a file slice with several log files whose records update
+ * an overlapping key set. A small memory budget forces the merged records to spill to disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HoodieMergedLogRecordScannerBenchmark {
+
+  private static final int BUFFER_SIZE = 16 * 1024 * 1024;
+
+  @Param({"4", "16"})
+  public int numLogFiles;
+
+  @Param({"20000"})
+  public int numRecordsPerLogFile;
+
+  @Param({"50"})
+  public int numFields;
+
+  @Param({"1073741824", "4194304"})
+  public long maxMemorySizeInBytes;
+
+  @Param({"false", "true"})
+  public boolean readBlocksLazily;
+
+  @Param({"1", "4"})
+  public int logScanParallelism;
+
+  private File baseDir;
+  private File spillDir;
+  private FileSystem fs;
+  private Schema schema;
+  private List<String> logFilePaths;
+
+  @Setup
+  public void setup() throws IOException, InterruptedException {
+    baseDir = BenchmarkDataGenerator.createTempDir("hudi-log-scan-benchmark");
+    spillDir = BenchmarkDataGenerator.createTempDir("hudi-log-scan-spill");
+    String basePath = baseDir.getAbsolutePath();
+    Configuration conf = new Configuration();
+    fs = FSUtils.getFs(basePath, conf);
+    HoodieTableMetaClient.initTableType(conf, basePath, HoodieTableType.MERGE_ON_READ, "benchmark",
+        HoodieAvroPayload.class.getName());
+
+    schema = BenchmarkDataGenerator.createHoodieSchema(numFields);
+    BenchmarkDataGenerator generator = new BenchmarkDataGenerator(0xBEEF);
+    // half of each log file updates keys written by the first log file, the other half are inserts
+    List<String> baseKeys = generator.generateRecordKeys(numRecordsPerLogFile);
+    Path partitionPath = new Path(basePath, BenchmarkDataGenerator.DEFAULT_PARTITION_PATH);
+    logFilePaths = new ArrayList<>();
+    for (int i = 0; i < numLogFiles; i++) {
+      List<String> keys = new ArrayList<>(baseKeys.subList(0, i == 0 ? numRecordsPerLogFile : numRecordsPerLogFile / 2));
+      keys.addAll(generator.generateRecordKeys(numRecordsPerLogFile - keys.size()));
+      Map<HeaderMetadataType, String> header = new HashMap<>();
+      header.put(HeaderMetadataType.INSTANT_TIME, BenchmarkDataGenerator.DEFAULT_INSTANT_TIME);
+      header.put(HeaderMetadataType.SCHEMA, schema.toString());
+      List<IndexedRecord> records = new ArrayList<>(generator.generateRecords(schema, keys));
+
+      Writer writer = HoodieLogFormat.newWriterBuilder().onParentPath(partitionPath)
+          .withFileExtension(HoodieLogFile.DELTA_EXTENSION).withFileId(BenchmarkDataGenerator.DEFAULT_FILE_ID)
+          .overBaseCommit(BenchmarkDataGenerator.DEFAULT_INSTANT_TIME).withLogVersion(i + 1).withFs(fs).build();
+      logFilePaths.add(writer.getLogFile().getPath().toString());
+      writer = writer.appendBlock(new HoodieAvroDataBlock(records, header));
+      writer.close();
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    BenchmarkDataGenerator.deleteTempDir(baseDir);
+    BenchmarkDataGenerator.deleteTempDir(spillDir);
+  }
+
+  @Benchmark
+  public long scan() {
+    HoodieMergedLogRecordScanner scanner = new HoodieMergedLogRecordScanner(fs, baseDir.getAbsolutePath(),
+        logFilePaths, schema, BenchmarkDataGenerator.DEFAULT_INSTANT_TIME, maxMemorySizeInBytes, readBlocksLazily,
+        false, BUFFER_SIZE, spillDir.getAbsolutePath(), DiskMapType.DISK_BASED, false, logScanParallelism);
+    long numMergedRecords = scanner.getNumMergedRecordsInLog();
+    scanner.close();
+    return numMergedRecords;
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.table.log.block;
+
+import org.apache.hudi.benchmarks.BenchmarkDataGenerator;
+import org.apache.hudi.common.table.log.block.HoodieLogBlock.HeaderMetadataType;
+import org.apache.hudi.common.util.Option;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serialization and deserialization of a {@link HoodieAvroDataBlock}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HoodieAvroDataBlockBenchmark {
+
+  @Param({"1000", "10000"})
+  public int numRecords;
+
+  @Param({"10", "100"})
+  public int numFields;
+
+  private Schema schema;
+  private List<IndexedRecord> records;
+  private Map<HeaderMetadataType, String> header;
+  private byte[] content;
+
+  @Setup
+  public void setup() throws IOException {
+    schema = BenchmarkDataGenerator.createHoodieSchema(numFields);
+    records = new ArrayList<>(new BenchmarkDataGenerator(0xCAFE).generateRecords(schema, numRecords));
+    header = new HashMap<>();
+    header.put(HeaderMetadataType.INSTANT_TIME, BenchmarkDataGenerator.DEFAULT_INSTANT_TIME);
+    header.put(HeaderMetadataType.SCHEMA, schema.toString());
+    content = new HoodieAvroDataBlock(new ArrayList<>(records), header).getContentBytes();
+  }
+
+  @Benchmark
+  public byte[] serialize() throws IOException {
+    // serializeRecords() drains the list it is handed, hence the copy
+    return new HoodieAvroDataBlock(new ArrayList<>(records), header).getContentBytes();
+  }
+
+  @Benchmark
+  public List<IndexedRecord> deserialize() {
+    HoodieAvroDataBlock block = new HoodieAvroDataBlock(header, new HashMap<>(), Option.empty(), Option.of(content),
+        null, false);
+    return block.getRecords();
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util.collection;
+
+import org.apache.hudi.benchmarks.BenchmarkDataGenerator;
+import org.apache.hudi.common.model.HoodieAvroPayload;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieRecordPayload;
+import org.apache.hudi.common.util.DefaultSizeEstimator;
+import org.apache.hudi.common.util.HoodieRecordSizeEstimator;
+
+import org.apache.avro.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ExternalSpillableMap} puts and gets with memory budgets that keep everything in memory, and that
+ * spill the majority of the records to disk.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExternalSpillableMapBenchmark {
+
+  @Param({"100000"})
+  public int numRecords;
+
+  @Param({"20"})
+  public int numFields;
+
+  @Param({"1073741824", "16777216"})
+  public long maxMemorySizeInBytes;
+
+  @Param({"false", "true"})
+  public boolean useRecordSerializer;
+
+  private File spillDir;
+  private Schema schema;
+  private List<HoodieRecord<? extends HoodieRecordPayload>> records;
+  private ExternalSpillableMap<String, HoodieRecord<? extends HoodieRecordPayload>> populatedMap;
+  private int nextGet = 0;
+
+  @Setup
+  public void setup() throws IOException {
+    spillDir = BenchmarkDataGenerator.createTempDir("hudi-spillable-map-benchmark");
+    schema = BenchmarkDataGenerator.createHoodieSchema(numFields);
+    records = BenchmarkDataGenerator.toHoodieRecords(
+        new BenchmarkDataGenerator(0xF00D).generateRecords(schema, numRecords));
+    populatedMap = newMap();
+    records.forEach(r -> populatedMap.put(r.getRecordKey(), r));
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    BenchmarkDataGenerator.deleteTempDir(spillDir);
+  }
+
+  @SuppressWarnings("unchecked")
+  private ExternalSpillableMap<String, HoodieRecord<? extends HoodieRecordPayload>> newMap() throws IOException {
+    DiskMapSerializer valueSerializer = useRecordSerializer
+        ? new HoodieRecordDiskMapSerializer<>(HoodieAvroPayload.class.getName()) : new KryoDiskMapSerializer<>();
+    return new ExternalSpillableMap<>(maxMemorySizeInBytes, spillDir.getAbsolutePath(), new DefaultSizeEstimator(),
+        new HoodieRecordSizeEstimator(schema), ExternalSpillableMap.DiskMapType.DISK_BASED, valueSerializer);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int putAll() throws IOException {
+    ExternalSpillableMap<String, HoodieRecord<? extends HoodieRecordPayload>> map = newMap();
+    for (HoodieRecord<? extends HoodieRecordPayload> record : records) {
+      map.put(record.getRecordKey(), record);
+    }
+    return map.getDiskBasedMapNumEntries();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public HoodieRecord<? extends HoodieRecordPayload> get() {
+    String key = records.get(nextGet).getRecordKey();
+    nextGet = (nextGet + 1) % numRecords;
+    return populatedMap.get(key);
+  }
+}
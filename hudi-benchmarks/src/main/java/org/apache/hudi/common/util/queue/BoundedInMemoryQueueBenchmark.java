@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util.queue;
+
+import org.apache.hudi.benchmarks.BenchmarkDataGenerator;
+import org.apache.hudi.common.util.DefaultSizeEstimator;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.queue.BoundedInMemoryExecutor.QueueType;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures single producer / single consumer throughput through a {@link BoundedInMemoryExecutor}, which is how the
+ * merge and insert handles are fed from the base file reader, for each {@link QueueType}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BoundedInMemoryQueueBenchmark {
+
+  private static final int NUM_RECORDS = 1000000;
+
+  @Param({"4194304", "67108864"})
+  public long bufferLimitInBytes;
+
+  @Param({"BLOCKING", "RING_BUFFER"})
+  public QueueType queueType;
+
+  private List<GenericRecord> records;
+  // every tenth record is updated, as the merge handle looks up the incoming records for every base file record
+  private Map<String, GenericRecord> updatedRecords;
+
+  @Setup
+  public void setup() {
+    Schema schema = BenchmarkDataGenerator.createHoodieSchema(20);
+    // a smaller distinct set is cycled through so that record generation does not dominate the heap
+    List<GenericRecord> distinct = new BenchmarkDataGenerator(0xD00D).generateRecords(schema, 10000);
+    records = new ArrayList<>(NUM_RECORDS);
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      records.add(distinct.get(i % distinct.size()));
+    }
+    updatedRecords = new HashMap<>();
+    for (int i = 0; i < distinct.size(); i += 10) {
+      GenericRecord record = distinct.get(i);
+      updatedRecords.put(record.get(BenchmarkDataGenerator.RECORD_KEY_FIELD).toString(), record);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_RECORDS)
+  public long produceAndConsume() {
+    BoundedInMemoryQueueProducer<GenericRecord> producer = new IteratorBasedQueueProducer<>(records.iterator());
+    BoundedInMemoryQueueConsumer<GenericRecord, Long> consumer = new CountingConsumer();
+    return execute(producer, consumer);
+  }
+
+  /**
+   * Consumer looking up every record in the updated records, like {@code HoodieMergeHandle#write(GenericRecord)}.
+   */
+  @Benchmark
+  @OperationsPerInvocation(NUM_RECORDS)
+  public long produceAndMerge() {
+    BoundedInMemoryQueueProducer<GenericRecord> producer = new IteratorBasedQueueProducer<>(records.iterator());
+    BoundedInMemoryQueueConsumer<GenericRecord, Long> consumer = new MergingConsumer(updatedRecords);
+    return execute(producer, consumer);
+  }
+
+  private long execute(BoundedInMemoryQueueProducer<GenericRecord> producer,
+      BoundedInMemoryQueueConsumer<GenericRecord, Long> consumer) {
+    BoundedInMemoryExecutor<GenericRecord, GenericRecord, Long> executor = new BoundedInMemoryExecutor<>(
+        bufferLimitInBytes, Collections.singletonList(producer), Option.of(consumer), Function.identity(),
+        new DefaultSizeEstimator<>(), queueType);
+    try {
+      return executor.execute();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Consumer that only counts the records it sees.
+   */
+  private static class CountingConsumer extends BoundedInMemoryQueueConsumer<GenericRecord, Long> {
+
+    private long count = 0;
+
+    @Override
+    protected void consumeOneRecord(GenericRecord record) {
+      count++;
+    }
+
+    @Override
+    protected void finish() {
+    }
+
+    @Override
+    protected Long getResult() {
+      return count;
+    }
+  }
+
+  /**
+   * Consumer that counts the records with a newer version in the updated records.
+   */
+  private static class MergingConsumer extends BoundedInMemoryQueueConsumer<GenericRecord, Long> {
+
+    private final Map<String, GenericRecord> updatedRecords;
+    private long numUpdated = 0;
+
+    private MergingConsumer(Map<String, GenericRecord> updatedRecords) {
+      this.updatedRecords = updatedRecords;
+    }
+
+    @Override
+    protected void consumeOneRecord(GenericRecord record) {
+      if (updatedRecords.get(record.get(BenchmarkDataGenerator.RECORD_KEY_FIELD).toString()) != null) {
+        numUpdated++;
+      }
+    }
+
+    @Override
+    protected void finish() {
+    }
+
+    @Override
+    protected Long getResult() {
+      return numUpdated;
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.bloom;
+
+import org.apache.hudi.benchmarks.BenchmarkDataGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link KeyRangeLookupTree#getMatchingIndexFiles(String)}, which is what
+ * {@link IntervalTreeBasedIndexFileFilter} does for every incoming record key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class KeyRangeLookupTreeBenchmark {
+
+  private static final int NUM_LOOKUP_KEYS = 100000;
+
+  @Param({"1000", "10000"})
+  public int numFiles;
+
+  // Number of following files whose key ranges each file's range overlaps, 0 means disjoint ranges
+  @Param({"0", "8"})
+  public int overlappingFiles;
+
+  private KeyRangeLookupTree tree;
+  private List<String> lookupKeys;
+  private int next = 0;
+
+  @Setup
+  public void setup() {
+    BenchmarkDataGenerator generator = new BenchmarkDataGenerator(0x7EE);
+    List<String> keys = generator.generateRecordKeys(numFiles * 2);
+    Collections.sort(keys);
+    List<KeyRangeNode> nodes = new ArrayList<>(numFiles);
+    for (int i = 0; i < numFiles; i++) {
+      int minIndex = 2 * i;
+      int maxIndex = Math.min(keys.size() - 1, 2 * (i + overlappingFiles) + 1);
+      nodes.add(new KeyRangeNode(keys.get(minIndex), keys.get(maxIndex), "file-" + i));
+    }
+    // files come back from the view in no particular key order, insert them shuffled to keep the tree balanced-ish
+    Collections.shuffle(nodes, new Random(42));
+    tree = new KeyRangeLookupTree();
+    nodes.forEach(tree::insert);
+    lookupKeys = generator.generateRecordKeys(NUM_LOOKUP_KEYS);
+  }
+
+  @Benchmark
+  public Set<String> getMatchingIndexFiles() {
+    String key = lookupKeys.get(next);
+    next = (next + 1) % NUM_LOOKUP_KEYS;
+    return tree.getMatchingIndexFiles(key);
+  }
+}
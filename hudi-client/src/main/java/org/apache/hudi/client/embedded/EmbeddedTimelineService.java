@@ -70,7 +70,7 @@ public class EmbeddedTimelineService {
   }
 
   public void startServer() throws IOException {
-    server = new TimelineService(0, viewManager, hadoopConf.newCopy());
+    server = new TimelineService(0, viewManager, hadoopConf.newCopy(), config.getTimelinePollIntervalMs());
     serverPort = server.startService();
     LOG.info("Started embedded timeline server at " + hostAddr + ":" + serverPort);
   }
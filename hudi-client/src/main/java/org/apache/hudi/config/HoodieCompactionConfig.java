@@ -52,6 +52,14 @@ public class HoodieCompactionConfig extends DefaultHoodieConfig {
   public static final String MAX_COMMITS_TO_KEEP_PROP = "hoodie.keep.max.commits";
   public static final String MIN_COMMITS_TO_KEEP_PROP = "hoodie.keep.min.commits";
   public static final String COMMITS_ARCHIVAL_BATCH_SIZE_PROP = "hoodie.commits.archival.batch";
+  // Merge small archive files into larger ones, sorted by instant time
+  public static final String ARCHIVE_MERGE_ENABLE_PROP = "hoodie.archive.merge.enable";
+  // Archive files below this size are merged
+  public static final String ARCHIVE_MERGE_SMALL_FILE_LIMIT_BYTES_PROP = "hoodie.archive.merge.small.file.limit.bytes";
+  // Minimum number of small archive files to merge at once
+  public static final String ARCHIVE_MERGE_MIN_FILES_PROP = "hoodie.archive.merge.min.files";
+  // Archive files modified more recently than this are left alone
+  public static final String ARCHIVE_MERGE_MIN_FILE_AGE_MS_PROP = "hoodie.archive.merge.min.file.age.ms";
   // Set true to clean bootstrap source files when necessary
   public static final String CLEANER_BOOTSTRAP_BASE_FILE_ENABLED = "hoodie.cleaner.delete.bootstrap.base.file";
   // Upsert uses this file size to compact new data onto existing files..
@@ -103,6 +111,16 @@ public class HoodieCompactionConfig extends DefaultHoodieConfig {
   // used to choose whether to enable reverse log reading (reverse log traversal)
   public static final String COMPACTION_REVERSE_LOG_READ_ENABLED_PROP = "hoodie.compaction.reverse.log.read";
   public static final String DEFAULT_COMPACTION_REVERSE_LOG_READ_ENABLED = "false";
+  // Number of log files read and log blocks deserialized concurrently while scanning a file slice, 1 disables it
+  public static final String COMPACTION_LOG_SCAN_PARALLELISM_PROP = "hoodie.compaction.log.scan.parallelism";
+  public static final String DEFAULT_COMPACTION_LOG_SCAN_PARALLELISM = "1";
+  // Number of file slices compacted concurrently within one Spark task. Slices are packed into tasks by their size,
+  // 1 compacts every file slice in its own task
+  public static final String COMPACTION_TASK_PARALLELISM_PROP = "hoodie.compaction.task.parallelism";
+  public static final String DEFAULT_COMPACTION_TASK_PARALLELISM = "1";
+  // Number of most recent delta commits CostBasedCompactionStrategy looks at to tell hot partitions from cold ones
+  public static final String COSTBASED_COMPACTION_HOT_DELTA_COMMITS_PROP = "hoodie.compaction.costbased.hot.delta.commits";
+  public static final String DEFAULT_COSTBASED_COMPACTION_HOT_DELTA_COMMITS = "10";
   private static final String DEFAULT_CLEANER_POLICY = HoodieCleaningPolicy.KEEP_LATEST_COMMITS.name();
   private static final String DEFAULT_AUTO_CLEAN = "true";
   private static final String DEFAULT_ASYNC_CLEAN = "false";
@@ -114,6 +132,11 @@ public class HoodieCompactionConfig extends DefaultHoodieConfig {
   private static final String DEFAULT_MAX_COMMITS_TO_KEEP = "30";
   private static final String DEFAULT_MIN_COMMITS_TO_KEEP = "20";
   private static final String DEFAULT_COMMITS_ARCHIVAL_BATCH_SIZE = String.valueOf(10);
+  private static final String DEFAULT_ARCHIVE_MERGE_ENABLE = "false";
+  // 20MB
+  private static final String DEFAULT_ARCHIVE_MERGE_SMALL_FILE_LIMIT_BYTES = String.valueOf(20 * 1024 * 1024);
+  private static final String DEFAULT_ARCHIVE_MERGE_MIN_FILES = String.valueOf(10);
+  private static final String DEFAULT_ARCHIVE_MERGE_MIN_FILE_AGE_MS = String.valueOf(0);
   private static final String DEFAULT_CLEANER_BOOTSTRAP_BASE_FILE_ENABLED = "false";
   public static final String TARGET_PARTITIONS_PER_DAYBASED_COMPACTION_PROP =
       "hoodie.compaction.daybased.target.partitions";
@@ -245,6 +268,21 @@ public class HoodieCompactionConfig extends DefaultHoodieConfig {
       return this;
     }
 
+    public Builder withCompactionLogScanParallelism(int logScanParallelism) {
+      props.setProperty(COMPACTION_LOG_SCAN_PARALLELISM_PROP, String.valueOf(logScanParallelism));
+      return this;
+    }
+
+    public Builder withCompactionTaskParallelism(int taskParallelism) {
+      props.setProperty(COMPACTION_TASK_PARALLELISM_PROP, String.valueOf(taskParallelism));
+      return this;
+    }
+
+    public Builder withCostBasedCompactionHotDeltaCommits(int hotDeltaCommits) {
+      props.setProperty(COSTBASED_COMPACTION_HOT_DELTA_COMMITS_PROP, String.valueOf(hotDeltaCommits));
+      return this;
+    }
+
     public Builder withTargetPartitionsPerDayBasedCompaction(int targetPartitionsPerCompaction) {
       props.setProperty(TARGET_PARTITIONS_PER_DAYBASED_COMPACTION_PROP, String.valueOf(targetPartitionsPerCompaction));
       return this;
@@ -255,6 +293,26 @@ public class HoodieCompactionConfig extends DefaultHoodieConfig {
       return this;
     }
 
+    public Builder withArchiveMergeEnable(boolean enable) {
+      props.setProperty(ARCHIVE_MERGE_ENABLE_PROP, String.valueOf(enable));
+      return this;
+    }
+
+    public Builder withArchiveMergeSmallFileLimit(long smallFileLimitBytes) {
+      props.setProperty(ARCHIVE_MERGE_SMALL_FILE_LIMIT_BYTES_PROP, String.valueOf(smallFileLimitBytes));
+      return this;
+    }
+
+    public Builder withArchiveMergeMinFiles(int minFiles) {
+      props.setProperty(ARCHIVE_MERGE_MIN_FILES_PROP, String.valueOf(minFiles));
+      return this;
+    }
+
+    public Builder withArchiveMergeMinFileAgeMs(long minFileAgeMs) {
+      props.setProperty(ARCHIVE_MERGE_MIN_FILE_AGE_MS_PROP, String.valueOf(minFileAgeMs));
+      return this;
+    }
+
     public Builder withCleanBootstrapBaseFileEnabled(Boolean cleanBootstrapSourceFileEnabled) {
       props.setProperty(CLEANER_BOOTSTRAP_BASE_FILE_ENABLED, String.valueOf(cleanBootstrapSourceFileEnabled));
       return this;
@@ -302,10 +360,24 @@ public class HoodieCompactionConfig extends DefaultHoodieConfig {
           COMPACTION_LAZY_BLOCK_READ_ENABLED_PROP, DEFAULT_COMPACTION_LAZY_BLOCK_READ_ENABLED);
       setDefaultOnCondition(props, !props.containsKey(COMPACTION_REVERSE_LOG_READ_ENABLED_PROP),
           COMPACTION_REVERSE_LOG_READ_ENABLED_PROP, DEFAULT_COMPACTION_REVERSE_LOG_READ_ENABLED);
+      setDefaultOnCondition(props, !props.containsKey(COMPACTION_LOG_SCAN_PARALLELISM_PROP),
+          COMPACTION_LOG_SCAN_PARALLELISM_PROP, DEFAULT_COMPACTION_LOG_SCAN_PARALLELISM);
+      setDefaultOnCondition(props, !props.containsKey(COMPACTION_TASK_PARALLELISM_PROP),
+          COMPACTION_TASK_PARALLELISM_PROP, DEFAULT_COMPACTION_TASK_PARALLELISM);
+      setDefaultOnCondition(props, !props.containsKey(COSTBASED_COMPACTION_HOT_DELTA_COMMITS_PROP),
+          COSTBASED_COMPACTION_HOT_DELTA_COMMITS_PROP, DEFAULT_COSTBASED_COMPACTION_HOT_DELTA_COMMITS);
       setDefaultOnCondition(props, !props.containsKey(TARGET_PARTITIONS_PER_DAYBASED_COMPACTION_PROP),
           TARGET_PARTITIONS_PER_DAYBASED_COMPACTION_PROP, DEFAULT_TARGET_PARTITIONS_PER_DAYBASED_COMPACTION);
       setDefaultOnCondition(props, !props.containsKey(COMMITS_ARCHIVAL_BATCH_SIZE_PROP),
           COMMITS_ARCHIVAL_BATCH_SIZE_PROP, DEFAULT_COMMITS_ARCHIVAL_BATCH_SIZE);
+      setDefaultOnCondition(props, !props.containsKey(ARCHIVE_MERGE_ENABLE_PROP),
+          ARCHIVE_MERGE_ENABLE_PROP, DEFAULT_ARCHIVE_MERGE_ENABLE);
+      setDefaultOnCondition(props, !props.containsKey(ARCHIVE_MERGE_SMALL_FILE_LIMIT_BYTES_PROP),
+          ARCHIVE_MERGE_SMALL_FILE_LIMIT_BYTES_PROP, DEFAULT_ARCHIVE_MERGE_SMALL_FILE_LIMIT_BYTES);
+      setDefaultOnCondition(props, !props.containsKey(ARCHIVE_MERGE_MIN_FILES_PROP),
+          ARCHIVE_MERGE_MIN_FILES_PROP, DEFAULT_ARCHIVE_MERGE_MIN_FILES);
+      setDefaultOnCondition(props, !props.containsKey(ARCHIVE_MERGE_MIN_FILE_AGE_MS_PROP),
+          ARCHIVE_MERGE_MIN_FILE_AGE_MS_PROP, DEFAULT_ARCHIVE_MERGE_MIN_FILE_AGE_MS);
       setDefaultOnCondition(props, !props.containsKey(CLEANER_BOOTSTRAP_BASE_FILE_ENABLED),
           CLEANER_BOOTSTRAP_BASE_FILE_ENABLED, DEFAULT_CLEANER_BOOTSTRAP_BASE_FILE_ENABLED);
 
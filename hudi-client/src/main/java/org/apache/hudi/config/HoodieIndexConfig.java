@@ -73,6 +73,16 @@ public class HoodieIndexConfig extends DefaultHoodieConfig {
   // 10M checks in 2500ms, thus amortizing the cost of reading bloom filter across partitions.
   public static final String BLOOM_INDEX_KEYS_PER_BUCKET_PROP = "hoodie.bloom.index.keys.per.bucket";
   public static final String DEFAULT_BLOOM_INDEX_KEYS_PER_BUCKET = "10000000";
+  // Fraction of the incoming keys sampled to estimate the comparisons per file group with, when pruning by ranges.
+  // 1.0 checks every key against the file ranges, at the cost of an extra pass over the input.
+  public static final String BLOOM_INDEX_COMPARISON_SAMPLING_FRACTION_PROP = "hoodie.bloom.index.comparison.sampling.fraction";
+  public static final String DEFAULT_BLOOM_INDEX_COMPARISON_SAMPLING_FRACTION = "0.01";
+  // Keeps the key ranges and bloom filters of base files in memory, so that files unchanged since the last commit
+  // are not opened again. The cache is shared by all writers of the JVM and bounded by its max size.
+  public static final String BLOOM_INDEX_FILE_META_CACHE_ENABLE_PROP = "hoodie.bloom.index.file.meta.cache.enable";
+  public static final String DEFAULT_BLOOM_INDEX_FILE_META_CACHE_ENABLE = "false";
+  public static final String BLOOM_INDEX_FILE_META_CACHE_MAX_BYTES_PROP = "hoodie.bloom.index.file.meta.cache.max.bytes";
+  public static final String DEFAULT_BLOOM_INDEX_FILE_META_CACHE_MAX_BYTES = String.valueOf(256 * 1024 * 1024L);
 
   // ***** HBase Index Configs *****
   public static final String HBASE_ZKQUORUM_PROP = "hoodie.index.hbase.zkquorum";
@@ -103,6 +113,24 @@ public class HoodieIndexConfig extends DefaultHoodieConfig {
   public static final String SIMPLE_INDEX_UPDATE_PARTITION_PATH = "hoodie.simple.index.update.partition.path";
   public static final String DEFAULT_SIMPLE_INDEX_UPDATE_PARTITION_PATH = "false";
 
+  /**
+   * Number of HFile shards the record index spreads the record keys over. Fixed once the index has been written.
+   */
+  public static final String RECORD_INDEX_NUM_SHARDS_PROP = "hoodie.record.index.num.shards";
+  public static final String DEFAULT_RECORD_INDEX_NUM_SHARDS = "32";
+  /**
+   * Number of delta files a record index shard accumulates before they are merged into a new base file.
+   */
+  public static final String RECORD_INDEX_MAX_DELTA_FILES_PROP = "hoodie.record.index.max.delta.files";
+  public static final String DEFAULT_RECORD_INDEX_MAX_DELTA_FILES = "16";
+
+  /**
+   * Number of buckets, and thus file groups, per partition of the bucket index. Record keys are hashed onto the
+   * buckets, so it must not be changed once the table has been written.
+   */
+  public static final String BUCKET_INDEX_NUM_BUCKETS_PROP = "hoodie.bucket.index.num.buckets";
+  public static final String DEFAULT_BUCKET_INDEX_NUM_BUCKETS = "256";
+
   private HoodieIndexConfig(Properties props) {
     super(props);
   }
@@ -202,6 +230,21 @@ public class HoodieIndexConfig extends DefaultHoodieConfig {
       return this;
     }
 
+    public Builder bloomIndexComparisonSamplingFraction(double fraction) {
+      props.setProperty(BLOOM_INDEX_COMPARISON_SAMPLING_FRACTION_PROP, String.valueOf(fraction));
+      return this;
+    }
+
+    public Builder bloomIndexFileMetaCache(boolean enable) {
+      props.setProperty(BLOOM_INDEX_FILE_META_CACHE_ENABLE_PROP, String.valueOf(enable));
+      return this;
+    }
+
+    public Builder bloomIndexFileMetaCacheMaxBytes(long maxBytes) {
+      props.setProperty(BLOOM_INDEX_FILE_META_CACHE_MAX_BYTES_PROP, String.valueOf(maxBytes));
+      return this;
+    }
+
     public Builder withBloomIndexInputStorageLevel(String level) {
       props.setProperty(BLOOM_INDEX_INPUT_STORAGE_LEVEL, level);
       return this;
@@ -237,6 +280,21 @@ public class HoodieIndexConfig extends DefaultHoodieConfig {
       return this;
     }
 
+    public Builder withRecordIndexNumShards(int numShards) {
+      props.setProperty(RECORD_INDEX_NUM_SHARDS_PROP, String.valueOf(numShards));
+      return this;
+    }
+
+    public Builder withRecordIndexMaxDeltaFiles(int maxDeltaFiles) {
+      props.setProperty(RECORD_INDEX_MAX_DELTA_FILES_PROP, String.valueOf(maxDeltaFiles));
+      return this;
+    }
+
+    public Builder withBucketIndexNumBuckets(int numBuckets) {
+      props.setProperty(BUCKET_INDEX_NUM_BUCKETS_PROP, String.valueOf(numBuckets));
+      return this;
+    }
+
     public HoodieIndexConfig build() {
       HoodieIndexConfig config = new HoodieIndexConfig(props);
       setDefaultOnCondition(props, !props.containsKey(INDEX_TYPE_PROP), INDEX_TYPE_PROP, DEFAULT_INDEX_TYPE);
@@ -260,6 +318,12 @@ public class HoodieIndexConfig extends DefaultHoodieConfig {
           BLOOM_INDEX_BUCKETIZED_CHECKING_PROP, DEFAULT_BLOOM_INDEX_BUCKETIZED_CHECKING);
       setDefaultOnCondition(props, !props.containsKey(BLOOM_INDEX_KEYS_PER_BUCKET_PROP),
           BLOOM_INDEX_KEYS_PER_BUCKET_PROP, DEFAULT_BLOOM_INDEX_KEYS_PER_BUCKET);
+      setDefaultOnCondition(props, !props.containsKey(BLOOM_INDEX_COMPARISON_SAMPLING_FRACTION_PROP),
+          BLOOM_INDEX_COMPARISON_SAMPLING_FRACTION_PROP, DEFAULT_BLOOM_INDEX_COMPARISON_SAMPLING_FRACTION);
+      setDefaultOnCondition(props, !props.containsKey(BLOOM_INDEX_FILE_META_CACHE_ENABLE_PROP),
+          BLOOM_INDEX_FILE_META_CACHE_ENABLE_PROP, DEFAULT_BLOOM_INDEX_FILE_META_CACHE_ENABLE);
+      setDefaultOnCondition(props, !props.containsKey(BLOOM_INDEX_FILE_META_CACHE_MAX_BYTES_PROP),
+          BLOOM_INDEX_FILE_META_CACHE_MAX_BYTES_PROP, DEFAULT_BLOOM_INDEX_FILE_META_CACHE_MAX_BYTES);
       setDefaultOnCondition(props, !props.contains(BLOOM_INDEX_FILTER_TYPE),
           BLOOM_INDEX_FILTER_TYPE, DEFAULT_BLOOM_INDEX_FILTER_TYPE);
       setDefaultOnCondition(props, !props.contains(HOODIE_BLOOM_INDEX_FILTER_DYNAMIC_MAX_ENTRIES),
@@ -274,6 +338,12 @@ public class HoodieIndexConfig extends DefaultHoodieConfig {
           DEFAULT_GLOBAL_SIMPLE_INDEX_PARALLELISM);
       setDefaultOnCondition(props, !props.containsKey(SIMPLE_INDEX_UPDATE_PARTITION_PATH),
           SIMPLE_INDEX_UPDATE_PARTITION_PATH, DEFAULT_SIMPLE_INDEX_UPDATE_PARTITION_PATH);
+      setDefaultOnCondition(props, !props.containsKey(RECORD_INDEX_NUM_SHARDS_PROP), RECORD_INDEX_NUM_SHARDS_PROP,
+          DEFAULT_RECORD_INDEX_NUM_SHARDS);
+      setDefaultOnCondition(props, !props.containsKey(RECORD_INDEX_MAX_DELTA_FILES_PROP), RECORD_INDEX_MAX_DELTA_FILES_PROP,
+          DEFAULT_RECORD_INDEX_MAX_DELTA_FILES);
+      setDefaultOnCondition(props, !props.containsKey(BUCKET_INDEX_NUM_BUCKETS_PROP), BUCKET_INDEX_NUM_BUCKETS_PROP,
+          DEFAULT_BUCKET_INDEX_NUM_BUCKETS);
       // Throws IllegalArgumentException if the value set is not a known Hoodie Index Type
       HoodieIndex.IndexType.valueOf(props.getProperty(INDEX_TYPE_PROP));
       return config;
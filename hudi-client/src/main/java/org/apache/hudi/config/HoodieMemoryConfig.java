@@ -19,6 +19,7 @@
 package org.apache.hudi.config;
 
 import org.apache.hudi.common.config.DefaultHoodieConfig;
+import org.apache.hudi.common.util.collection.ExternalSpillableMap;
 
 import javax.annotation.concurrent.Immutable;
 
@@ -55,6 +56,12 @@ public class HoodieMemoryConfig extends DefaultHoodieConfig {
   public static final String SPILLABLE_MAP_BASE_PATH_PROP = "hoodie.memory.spillable.map.path";
   // Default file path prefix for spillable file
   public static final String DEFAULT_SPILLABLE_MAP_BASE_PATH = "/tmp/";
+  // Property to select how spillable maps spill to disk, see ExternalSpillableMap.DiskMapType
+  public static final String SPILLABLE_MAP_DISK_TYPE_PROP = "hoodie.memory.spillable.map.disk.type";
+  public static final String DEFAULT_SPILLABLE_MAP_DISK_TYPE = ExternalSpillableMap.DiskMapType.DISK_BASED.name();
+  // Property to spill records with HoodieRecordDiskMapSerializer, which keeps the payload as avro bytes
+  public static final String SPILLABLE_MAP_RECORD_SERIALIZER_ENABLE_PROP = "hoodie.memory.spillable.map.record.serializer.enable";
+  public static final String DEFAULT_SPILLABLE_MAP_RECORD_SERIALIZER_ENABLE = "false";
 
   // Property to control how what fraction of the failed record, exceptions we report back to driver.
   public static final String WRITESTATUS_FAILURE_FRACTION_PROP = "hoodie.memory.writestatus.failure.fraction";
@@ -107,6 +114,16 @@ public class HoodieMemoryConfig extends DefaultHoodieConfig {
       return this;
     }
 
+    public Builder withSpillableMapDiskType(ExternalSpillableMap.DiskMapType diskMapType) {
+      props.setProperty(SPILLABLE_MAP_DISK_TYPE_PROP, diskMapType.name());
+      return this;
+    }
+
+    public Builder withSpillableMapRecordSerializer(boolean enable) {
+      props.setProperty(SPILLABLE_MAP_RECORD_SERIALIZER_ENABLE_PROP, String.valueOf(enable));
+      return this;
+    }
+
     public Builder withWriteStatusFailureFraction(double failureFraction) {
       props.setProperty(WRITESTATUS_FAILURE_FRACTION_PROP, String.valueOf(failureFraction));
       return this;
@@ -118,6 +135,10 @@ public class HoodieMemoryConfig extends DefaultHoodieConfig {
           String.valueOf(DEFAULT_MAX_DFS_STREAM_BUFFER_SIZE));
       setDefaultOnCondition(props, !props.containsKey(SPILLABLE_MAP_BASE_PATH_PROP), SPILLABLE_MAP_BASE_PATH_PROP,
           DEFAULT_SPILLABLE_MAP_BASE_PATH);
+      setDefaultOnCondition(props, !props.containsKey(SPILLABLE_MAP_DISK_TYPE_PROP), SPILLABLE_MAP_DISK_TYPE_PROP,
+          DEFAULT_SPILLABLE_MAP_DISK_TYPE);
+      setDefaultOnCondition(props, !props.containsKey(SPILLABLE_MAP_RECORD_SERIALIZER_ENABLE_PROP),
+          SPILLABLE_MAP_RECORD_SERIALIZER_ENABLE_PROP, DEFAULT_SPILLABLE_MAP_RECORD_SERIALIZER_ENABLE);
       setDefaultOnCondition(props, !props.containsKey(WRITESTATUS_FAILURE_FRACTION_PROP),
           WRITESTATUS_FAILURE_FRACTION_PROP, String.valueOf(DEFAULT_WRITESTATUS_FAILURE_FRACTION));
       return config;
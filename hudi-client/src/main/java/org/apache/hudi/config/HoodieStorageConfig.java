@@ -60,6 +60,10 @@ public class HoodieStorageConfig extends DefaultHoodieConfig {
   public static final String LOGFILE_TO_PARQUET_COMPRESSION_RATIO = "hoodie.logfile.to.parquet.compression.ratio";
   // Default compression ratio for log file to parquet, general 3x
   public static final String DEFAULT_LOGFILE_TO_PARQUET_COMPRESSION_RATIO = String.valueOf(0.35);
+  // Copy the row groups of the old parquet file that no incoming record key falls into as is, when merging. The size
+  // limit of the writer only sees the merged records, so the new file can exceed the max file size by the copied row groups
+  public static final String PARQUET_MERGE_ROW_GROUP_PASSTHROUGH_ENABLE = "hoodie.parquet.merge.rowgroup.passthrough.enable";
+  public static final String DEFAULT_PARQUET_MERGE_ROW_GROUP_PASSTHROUGH_ENABLE = "false";
 
   private HoodieStorageConfig(Properties props) {
     super(props);
@@ -140,6 +144,11 @@ public class HoodieStorageConfig extends DefaultHoodieConfig {
       return this;
     }
 
+    public Builder parquetMergeRowGroupPassthrough(boolean enable) {
+      props.setProperty(PARQUET_MERGE_ROW_GROUP_PASSTHROUGH_ENABLE, String.valueOf(enable));
+      return this;
+    }
+
     public HoodieStorageConfig build() {
       HoodieStorageConfig config = new HoodieStorageConfig(props);
       setDefaultOnCondition(props, !props.containsKey(PARQUET_FILE_MAX_BYTES), PARQUET_FILE_MAX_BYTES,
@@ -158,6 +167,8 @@ public class HoodieStorageConfig extends DefaultHoodieConfig {
           DEFAULT_PARQUET_COMPRESSION_CODEC);
       setDefaultOnCondition(props, !props.containsKey(LOGFILE_TO_PARQUET_COMPRESSION_RATIO),
           LOGFILE_TO_PARQUET_COMPRESSION_RATIO, DEFAULT_LOGFILE_TO_PARQUET_COMPRESSION_RATIO);
+      setDefaultOnCondition(props, !props.containsKey(PARQUET_MERGE_ROW_GROUP_PASSTHROUGH_ENABLE),
+          PARQUET_MERGE_ROW_GROUP_PASSTHROUGH_ENABLE, DEFAULT_PARQUET_MERGE_ROW_GROUP_PASSTHROUGH_ENABLE);
 
       setDefaultOnCondition(props, !props.containsKey(HFILE_BLOCK_SIZE_BYTES), HFILE_BLOCK_SIZE_BYTES,
           DEFAULT_HFILE_BLOCK_SIZE_BYTES);
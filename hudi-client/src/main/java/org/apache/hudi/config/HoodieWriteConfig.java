@@ -28,6 +28,8 @@ import org.apache.hudi.common.model.HoodieCleaningPolicy;
 import org.apache.hudi.common.table.timeline.versioning.TimelineLayoutVersion;
 import org.apache.hudi.common.table.view.FileSystemViewStorageConfig;
 import org.apache.hudi.common.util.ReflectionUtils;
+import org.apache.hudi.common.util.collection.ExternalSpillableMap;
+import org.apache.hudi.common.util.queue.BoundedInMemoryExecutor.QueueType;
 import org.apache.hudi.execution.bulkinsert.BulkInsertSortMode;
 import org.apache.hudi.index.HoodieIndex;
 import org.apache.hudi.metrics.MetricsReporterType;
@@ -76,6 +78,8 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
   public static final String ROLLBACK_PARALLELISM = "hoodie.rollback.parallelism";
   public static final String WRITE_BUFFER_LIMIT_BYTES = "hoodie.write.buffer.limit.bytes";
   public static final String DEFAULT_WRITE_BUFFER_LIMIT_BYTES = String.valueOf(4 * 1024 * 1024);
+  public static final String WRITE_BUFFER_QUEUE_TYPE = "hoodie.write.buffer.queue.type";
+  public static final String DEFAULT_WRITE_BUFFER_QUEUE_TYPE = QueueType.BLOCKING.name();
   public static final String COMBINE_BEFORE_INSERT_PROP = "hoodie.combine.before.insert";
   public static final String DEFAULT_COMBINE_BEFORE_INSERT = "false";
   public static final String COMBINE_BEFORE_UPSERT_PROP = "hoodie.combine.before.upsert";
@@ -132,6 +136,9 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
 
   public static final String EXTERNAL_RECORD_AND_SCHEMA_TRANSFORMATION = AVRO_SCHEMA + ".externalTransformation";
   public static final String DEFAULT_EXTERNAL_RECORD_AND_SCHEMA_TRANSFORMATION = "false";
+  // Validate every record rewritten into the writer schema against it, which catches values of the wrong type early
+  public static final String WRITE_RECORD_VALIDATE = "hoodie.write.record.validate";
+  public static final String DEFAULT_WRITE_RECORD_VALIDATE = "true";
 
   private ConsistencyGuardConfig consistencyGuardConfig;
 
@@ -188,6 +195,10 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
     return Boolean.parseBoolean(props.getProperty(EXTERNAL_RECORD_AND_SCHEMA_TRANSFORMATION));
   }
 
+  public boolean shouldValidateWrittenRecords() {
+    return Boolean.parseBoolean(props.getProperty(WRITE_RECORD_VALIDATE));
+  }
+
   public Integer getTimelineLayoutVersion() {
     return Integer.parseInt(props.getProperty(TIMELINE_LAYOUT_VERSION));
   }
@@ -224,6 +235,10 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
     return Integer.parseInt(props.getProperty(WRITE_BUFFER_LIMIT_BYTES, DEFAULT_WRITE_BUFFER_LIMIT_BYTES));
   }
 
+  public QueueType getWriteBufferQueueType() {
+    return QueueType.valueOf(props.getProperty(WRITE_BUFFER_QUEUE_TYPE, DEFAULT_WRITE_BUFFER_QUEUE_TYPE).toUpperCase());
+  }
+
   public boolean shouldCombineBeforeInsert() {
     return Boolean.parseBoolean(props.getProperty(COMBINE_BEFORE_INSERT_PROP));
   }
@@ -360,6 +375,18 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
     return Boolean.valueOf(props.getProperty(HoodieCompactionConfig.COMPACTION_REVERSE_LOG_READ_ENABLED_PROP));
   }
 
+  public int getCompactionLogScanParallelism() {
+    return Integer.parseInt(props.getProperty(HoodieCompactionConfig.COMPACTION_LOG_SCAN_PARALLELISM_PROP));
+  }
+
+  public int getCompactionTaskParallelism() {
+    return Integer.parseInt(props.getProperty(HoodieCompactionConfig.COMPACTION_TASK_PARALLELISM_PROP));
+  }
+
+  public int getCostBasedCompactionHotDeltaCommits() {
+    return Integer.parseInt(props.getProperty(HoodieCompactionConfig.COSTBASED_COMPACTION_HOT_DELTA_COMMITS_PROP));
+  }
+
   public String getPayloadClass() {
     return props.getProperty(HoodieCompactionConfig.PAYLOAD_CLASS_PROP);
   }
@@ -372,6 +399,22 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
     return Integer.parseInt(props.getProperty(HoodieCompactionConfig.COMMITS_ARCHIVAL_BATCH_SIZE_PROP));
   }
 
+  public boolean isArchiveMergeEnabled() {
+    return Boolean.parseBoolean(props.getProperty(HoodieCompactionConfig.ARCHIVE_MERGE_ENABLE_PROP));
+  }
+
+  public long getArchiveMergeSmallFileLimitBytes() {
+    return Long.parseLong(props.getProperty(HoodieCompactionConfig.ARCHIVE_MERGE_SMALL_FILE_LIMIT_BYTES_PROP));
+  }
+
+  public int getArchiveMergeMinFiles() {
+    return Integer.parseInt(props.getProperty(HoodieCompactionConfig.ARCHIVE_MERGE_MIN_FILES_PROP));
+  }
+
+  public long getArchiveMergeMinFileAgeMs() {
+    return Long.parseLong(props.getProperty(HoodieCompactionConfig.ARCHIVE_MERGE_MIN_FILE_AGE_MS_PROP));
+  }
+
   public Boolean shouldCleanBootstrapBaseFile() {
     return Boolean.valueOf(props.getProperty(HoodieCompactionConfig.CLEANER_BOOTSTRAP_BASE_FILE_ENABLED));
   }
@@ -504,6 +547,18 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
     return Integer.parseInt(props.getProperty(HoodieIndexConfig.BLOOM_INDEX_KEYS_PER_BUCKET_PROP));
   }
 
+  public double getBloomIndexComparisonSamplingFraction() {
+    return Double.parseDouble(props.getProperty(HoodieIndexConfig.BLOOM_INDEX_COMPARISON_SAMPLING_FRACTION_PROP));
+  }
+
+  public boolean isBloomIndexFileMetaCacheEnabled() {
+    return Boolean.parseBoolean(props.getProperty(HoodieIndexConfig.BLOOM_INDEX_FILE_META_CACHE_ENABLE_PROP));
+  }
+
+  public long getBloomIndexFileMetaCacheMaxBytes() {
+    return Long.parseLong(props.getProperty(HoodieIndexConfig.BLOOM_INDEX_FILE_META_CACHE_MAX_BYTES_PROP));
+  }
+
   public boolean getBloomIndexUpdatePartitionPath() {
     return Boolean.parseBoolean(props.getProperty(HoodieIndexConfig.BLOOM_INDEX_UPDATE_PARTITION_PATH));
   }
@@ -524,6 +579,18 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
     return Boolean.parseBoolean(props.getProperty(HoodieIndexConfig.SIMPLE_INDEX_UPDATE_PARTITION_PATH));
   }
 
+  public int getRecordIndexNumShards() {
+    return Integer.parseInt(props.getProperty(HoodieIndexConfig.RECORD_INDEX_NUM_SHARDS_PROP));
+  }
+
+  public int getRecordIndexMaxDeltaFiles() {
+    return Integer.parseInt(props.getProperty(HoodieIndexConfig.RECORD_INDEX_MAX_DELTA_FILES_PROP));
+  }
+
+  public int getBucketIndexNumBuckets() {
+    return Integer.parseInt(props.getProperty(HoodieIndexConfig.BUCKET_INDEX_NUM_BUCKETS_PROP));
+  }
+
   /**
    * storage properties.
    */
@@ -559,6 +626,10 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
     return Double.parseDouble(props.getProperty(HoodieStorageConfig.LOGFILE_TO_PARQUET_COMPRESSION_RATIO));
   }
 
+  public boolean isParquetMergeRowGroupPassthroughEnabled() {
+    return Boolean.parseBoolean(props.getProperty(HoodieStorageConfig.PARQUET_MERGE_ROW_GROUP_PASSTHROUGH_ENABLE));
+  }
+
   public long getHFileMaxFileSize() {
     return Long.parseLong(props.getProperty(HoodieStorageConfig.HFILE_FILE_MAX_BYTES));
   }
@@ -684,6 +755,15 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
     return props.getProperty(HoodieMemoryConfig.SPILLABLE_MAP_BASE_PATH_PROP);
   }
 
+  public ExternalSpillableMap.DiskMapType getSpillableDiskMapType() {
+    return ExternalSpillableMap.DiskMapType.valueOf(
+        props.getProperty(HoodieMemoryConfig.SPILLABLE_MAP_DISK_TYPE_PROP).toUpperCase());
+  }
+
+  public boolean isSpillableMapRecordSerializerEnabled() {
+    return Boolean.parseBoolean(props.getProperty(HoodieMemoryConfig.SPILLABLE_MAP_RECORD_SERIALIZER_ENABLE_PROP));
+  }
+
   public double getWriteStatusFailureFraction() {
     return Double.parseDouble(props.getProperty(HoodieMemoryConfig.WRITESTATUS_FAILURE_FRACTION_PROP));
   }
@@ -850,6 +930,11 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
       return this;
     }
 
+    public Builder withWriteBufferQueueType(QueueType queueType) {
+      props.setProperty(WRITE_BUFFER_QUEUE_TYPE, queueType.name());
+      return this;
+    }
+
     public Builder combineInput(boolean onInsert, boolean onUpsert) {
       props.setProperty(COMBINE_BEFORE_INSERT_PROP, String.valueOf(onInsert));
       props.setProperty(COMBINE_BEFORE_UPSERT_PROP, String.valueOf(onUpsert));
@@ -965,6 +1050,11 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
       return this;
     }
 
+    public Builder withWriteRecordValidation(boolean enabled) {
+      props.setProperty(WRITE_RECORD_VALIDATE, String.valueOf(enabled));
+      return this;
+    }
+
     public Builder withProperties(Properties properties) {
       this.props.putAll(properties);
       return this;
@@ -981,6 +1071,8 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
           DEFAULT_ROLLBACK_PARALLELISM);
       setDefaultOnCondition(props, !props.containsKey(ROLLBACK_USING_MARKERS), ROLLBACK_USING_MARKERS,
           DEFAULT_ROLLBACK_USING_MARKERS);
+      setDefaultOnCondition(props, !props.containsKey(WRITE_BUFFER_QUEUE_TYPE), WRITE_BUFFER_QUEUE_TYPE,
+          DEFAULT_WRITE_BUFFER_QUEUE_TYPE);
       setDefaultOnCondition(props, !props.containsKey(COMBINE_BEFORE_INSERT_PROP), COMBINE_BEFORE_INSERT_PROP,
           DEFAULT_COMBINE_BEFORE_INSERT);
       setDefaultOnCondition(props, !props.containsKey(COMBINE_BEFORE_UPSERT_PROP), COMBINE_BEFORE_UPSERT_PROP,
@@ -1033,6 +1125,8 @@ public class HoodieWriteConfig extends DefaultHoodieConfig {
 
       setDefaultOnCondition(props, !props.containsKey(EXTERNAL_RECORD_AND_SCHEMA_TRANSFORMATION),
           EXTERNAL_RECORD_AND_SCHEMA_TRANSFORMATION, DEFAULT_EXTERNAL_RECORD_AND_SCHEMA_TRANSFORMATION);
+      setDefaultOnCondition(props, !props.containsKey(WRITE_RECORD_VALIDATE), WRITE_RECORD_VALIDATE,
+          DEFAULT_WRITE_RECORD_VALIDATE);
       setDefaultOnCondition(props, !props.containsKey(TIMELINE_LAYOUT_VERSION), TIMELINE_LAYOUT_VERSION,
           String.valueOf(TimelineLayoutVersion.CURR_VERSION));
     }
@@ -44,7 +44,8 @@ public class SparkBoundedInMemoryExecutor<I, O, E> extends BoundedInMemoryExecut
 
   public SparkBoundedInMemoryExecutor(final HoodieWriteConfig hoodieConfig, BoundedInMemoryQueueProducer<I> producer,
       BoundedInMemoryQueueConsumer<O, E> consumer, Function<I, O> bufferedIteratorTransform) {
-    super(hoodieConfig.getWriteBufferLimitBytes(), producer, Option.of(consumer), bufferedIteratorTransform);
+    super(hoodieConfig.getWriteBufferLimitBytes(), producer, Option.of(consumer), bufferedIteratorTransform,
+        hoodieConfig.getWriteBufferQueueType());
     this.sparkThreadTaskContext = TaskContext.get();
   }
 
@@ -34,7 +34,9 @@ import org.apache.hudi.config.HoodieWriteConfig;
 import org.apache.hudi.exception.HoodieIndexException;
 import org.apache.hudi.index.bloom.HoodieBloomIndex;
 import org.apache.hudi.index.bloom.HoodieGlobalBloomIndex;
+import org.apache.hudi.index.bucket.HoodieBucketIndex;
 import org.apache.hudi.index.hbase.HBaseIndex;
+import org.apache.hudi.index.record.HoodieRecordIndex;
 import org.apache.hudi.index.simple.HoodieGlobalSimpleIndex;
 import org.apache.hudi.index.simple.HoodieSimpleIndex;
 import org.apache.hudi.table.HoodieTable;
@@ -80,6 +82,10 @@ public abstract class HoodieIndex<T extends HoodieRecordPayload> implements Seri
         return new HoodieSimpleIndex<>(config);
       case GLOBAL_SIMPLE:
         return new HoodieGlobalSimpleIndex<>(config);
+      case RECORD:
+        return new HoodieRecordIndex<>(config);
+      case BUCKET:
+        return new HoodieBucketIndex<>(config);
       default:
         throw new HoodieIndexException("Index type unspecified, set " + config.getIndexType());
     }
@@ -116,6 +122,15 @@ public abstract class HoodieIndex<T extends HoodieRecordPayload> implements Seri
   @PublicAPIMethod(maturity = ApiMaturityLevel.STABLE)
   public abstract boolean rollbackCommit(String instantTime);
 
+  /**
+   * Rollback the effects of the commit made at instantTime, for indexes that keep their state within the given table.
+   * Defaults to {@link #rollbackCommit(String)}.
+   */
+  @PublicAPIMethod(maturity = ApiMaturityLevel.EVOLVING)
+  public boolean rollbackCommit(String instantTime, HoodieTable<?> hoodieTable) {
+    return rollbackCommit(instantTime);
+  }
+
   /**
    * An index is `global` if {@link HoodieKey} to fileID mapping, does not depend on the `partitionPath`. Such an
    * implementation is able to obtain the same mapping, for two hoodie keys with same `recordKey` but different
@@ -149,6 +164,6 @@ public abstract class HoodieIndex<T extends HoodieRecordPayload> implements Seri
   }
 
   public enum IndexType {
-    HBASE, INMEMORY, BLOOM, GLOBAL_BLOOM, SIMPLE, GLOBAL_SIMPLE
+    HBASE, INMEMORY, BLOOM, GLOBAL_BLOOM, SIMPLE, GLOBAL_SIMPLE, RECORD, BUCKET
   }
 }
@@ -50,15 +50,18 @@ public class HoodieIndexUtils {
                                                                                       final JavaSparkContext jsc,
                                                                                       final HoodieTable hoodieTable) {
     jsc.setJobGroup(HoodieIndexUtils.class.getSimpleName(), "Load latest base files from all partitions");
-    return jsc.parallelize(partitions, Math.max(partitions.size(), 1))
-        .flatMap(partitionPath -> {
+    // Every task fetches the base files of its share of the partitions with one call to the file system view
+    int parallelism = Math.min(Math.max(partitions.size(), 1), Math.max(jsc.defaultParallelism(), 1));
+    return jsc.parallelize(partitions, parallelism)
+        .mapPartitions(partitionPaths -> {
+          List<String> partitionPathsOfTask = new ArrayList<>();
+          partitionPaths.forEachRemaining(partitionPathsOfTask::add);
           Option<HoodieInstant> latestCommitTime = hoodieTable.getMetaClient().getCommitsTimeline()
               .filterCompletedInstants().lastInstant();
           List<Pair<String, HoodieBaseFile>> filteredFiles = new ArrayList<>();
-          if (latestCommitTime.isPresent()) {
+          if (latestCommitTime.isPresent() && !partitionPathsOfTask.isEmpty()) {
             filteredFiles = hoodieTable.getBaseFileOnlyView()
-                .getLatestBaseFilesBeforeOrOn(partitionPath, latestCommitTime.get().getTimestamp())
-                .map(f -> Pair.of(partitionPath, f))
+                .getLatestBaseFilesBeforeOrOnForPartitions(partitionPathsOfTask, latestCommitTime.get().getTimestamp())
                 .collect(toList());
           }
           return filteredFiles.iterator();
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.bloom;
+
+import org.apache.hudi.common.bloom.BloomFilter;
+import org.apache.hudi.common.util.ObjectSizeCalculator;
+import org.apache.hudi.common.util.Option;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JVM wide cache of the key ranges and bloom filters read from base file footers, bounded by their estimated size
+ * and evicted least recently used first.
+ * <p>
+ * Entries are keyed by the full path of the base file. A base file is never modified once written and its name carries
+ * the file id and the commit time, so a file group rewritten by a later commit is looked up under a new key and the
+ * entry of its previous version simply ages out. Long running writers, such as the DeltaStreamer, thereby only read the
+ * footers of base files written since the previous commit.
+ */
+public class BloomIndexFileMetaCache {
+
+  private static final Logger LOG = LogManager.getLogger(BloomIndexFileMetaCache.class);
+
+  // Rough size of the key range of an entry, besides the keys themselves
+  private static final long KEY_RANGE_OVERHEAD_IN_BYTES = 64;
+
+  private static BloomIndexFileMetaCache instance;
+
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long maxSizeInBytes;
+  private long sizeInBytes = 0;
+  private long hits = 0;
+  private long misses = 0;
+
+  BloomIndexFileMetaCache(long maxSizeInBytes) {
+    this.maxSizeInBytes = maxSizeInBytes;
+  }
+
+  /**
+   * Returns the cache of this JVM, resized to the given bound if it already exists.
+   */
+  public static synchronized BloomIndexFileMetaCache getInstance(long maxSizeInBytes) {
+    if (instance == null) {
+      instance = new BloomIndexFileMetaCache(maxSizeInBytes);
+    } else {
+      instance.resize(maxSizeInBytes);
+    }
+    return instance;
+  }
+
+  /**
+   * Returns the cached key range of the base file, if any.
+   */
+  public synchronized Option<String[]> getKeyRange(String baseFilePath) {
+    Entry entry = entries.get(baseFilePath);
+    String[] keyRange = entry == null ? null : entry.keyRange;
+    recordLookup(keyRange != null);
+    return Option.ofNullable(keyRange);
+  }
+
+  /**
+   * Caches the key range of the base file. The key ranges are read on the executors and cached by the driver once they
+   * are collected, which is where they are looked up.
+   */
+  public synchronized void putKeyRange(String baseFilePath, String[] minMaxKeys) {
+    Entry entry = entries.computeIfAbsent(baseFilePath, path -> new Entry());
+    if (entry.keyRange == null) {
+      entry.keyRange = minMaxKeys;
+      long size = KEY_RANGE_OVERHEAD_IN_BYTES + 2L * (minMaxKeys[0].length() + minMaxKeys[1].length());
+      entry.sizeInBytes += size;
+      sizeInBytes += size;
+      evict();
+    }
+  }
+
+  /**
+   * Returns the bloom filter of the base file, reading it with the given loader on a miss. Cached bloom filters are
+   * shared between threads and must only be probed, never added to.
+   */
+  public BloomFilter getOrLoadBloomFilter(String baseFilePath, Loader<BloomFilter> loader) throws IOException {
+    synchronized (this) {
+      Entry entry = entries.get(baseFilePath);
+      recordLookup(entry != null && entry.bloomFilter != null);
+      if (entry != null && entry.bloomFilter != null) {
+        return entry.bloomFilter;
+      }
+    }
+    BloomFilter bloomFilter = loader.load();
+    long size = ObjectSizeCalculator.getObjectSize(bloomFilter);
+    synchronized (this) {
+      Entry entry = entries.computeIfAbsent(baseFilePath, path -> new Entry());
+      if (entry.bloomFilter == null) {
+        entry.bloomFilter = bloomFilter;
+        entry.sizeInBytes += size;
+        sizeInBytes += size;
+        evict();
+      }
+    }
+    return bloomFilter;
+  }
+
+  public synchronized long getSizeInBytes() {
+    return sizeInBytes;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  synchronized void clear() {
+    entries.clear();
+    sizeInBytes = 0;
+    hits = 0;
+    misses = 0;
+  }
+
+  private void recordLookup(boolean hit) {
+    if (hit) {
+      hits++;
+    } else {
+      misses++;
+    }
+  }
+
+  private void resize(long maxSizeInBytes) {
+    if (this.maxSizeInBytes != maxSizeInBytes) {
+      LOG.info("Resizing bloom index file meta cache from " + this.maxSizeInBytes + " to " + maxSizeInBytes + " bytes");
+      this.maxSizeInBytes = maxSizeInBytes;
+      evict();
+    }
+  }
+
+  private void evict() {
+    Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+    int numEvicted = 0;
+    while (sizeInBytes > maxSizeInBytes && iterator.hasNext()) {
+      sizeInBytes -= iterator.next().getValue().sizeInBytes;
+      iterator.remove();
+      numEvicted++;
+    }
+    if (numEvicted > 0 && LOG.isDebugEnabled()) {
+      LOG.debug("Evicted " + numEvicted + " entries from bloom index file meta cache, hits (" + hits + "), misses ("
+          + misses + "), size (" + sizeInBytes + ")");
+    }
+  }
+
+  /**
+   * Reads the cached value from the base file.
+   */
+  @FunctionalInterface
+  public interface Loader<V> {
+    V load() throws IOException;
+  }
+
+  private static class Entry {
+
+    private String[] keyRange;
+    private BloomFilter bloomFilter;
+    private long sizeInBytes = 0;
+  }
+}
@@ -81,7 +81,7 @@ public class BucketizedBloomCheckPartitioner extends Partitioner {
     fileGroupToComparisons.forEach((f, c) -> bucketsPerFileGroup.put(f, (int) Math.ceil((c * 1.0) / keysPerBucket)));
     int totalBuckets = bucketsPerFileGroup.values().stream().mapToInt(i -> i).sum();
     // If totalBuckets > targetPartitions, no need to have extra partitions
-    this.partitions = Math.min(targetPartitions, totalBuckets);
+    this.partitions = Math.max(1, Math.min(targetPartitions, totalBuckets));
 
     // PHASE 1 : start filling upto minimum number of buckets into partitions, taking all but one bucket from each file
     // This tries to first optimize for goal 1 above, with knowledge that each partition needs a certain minimum number
@@ -145,6 +145,10 @@ public class BucketizedBloomCheckPartitioner extends Partitioner {
     final Pair<String, String> parts = (Pair<String, String>) key;
     final long hashOfKey = NumericUtils.getMessageDigestHash("MD5", parts.getRight());
     final List<Integer> candidatePartitions = fileGroupToPartitions.get(parts.getLeft());
+    if (candidatePartitions == null) {
+      // comparisons were estimated from a sample that missed this file group, spread its keys over all partitions
+      return Math.floorMod((int) hashOfKey, partitions);
+    }
     final int idx = (int) Math.floorMod((int) hashOfKey, candidatePartitions.size());
     assert idx >= 0;
     return candidatePartitions.get(idx);
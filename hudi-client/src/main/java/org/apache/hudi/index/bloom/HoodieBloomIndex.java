@@ -20,6 +20,7 @@ package org.apache.hudi.index.bloom;
 
 import org.apache.hudi.client.WriteStatus;
 import org.apache.hudi.client.utils.SparkConfigUtils;
+import org.apache.hudi.common.model.HoodieBaseFile;
 import org.apache.hudi.common.model.HoodieKey;
 import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.model.HoodieRecordLocation;
@@ -43,6 +44,7 @@ import org.apache.spark.storage.StorageLevel;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -60,6 +62,7 @@ import static org.apache.hudi.index.HoodieIndexUtils.getLatestBaseFilesForAllPar
 public class HoodieBloomIndex<T extends HoodieRecordPayload> extends HoodieIndex<T> {
 
   private static final Logger LOG = LogManager.getLogger(HoodieBloomIndex.class);
+  private static final long COMPARISON_SAMPLING_SEED = 0xB100L;
 
   public HoodieBloomIndex(HoodieWriteConfig config) {
     super(config);
@@ -139,8 +142,14 @@ public class HoodieBloomIndex<T extends HoodieRecordPayload> extends HoodieIndex
   private JavaPairRDD<HoodieKey, HoodieRecordLocation> lookupIndex(
       JavaPairRDD<String, String> partitionRecordKeyPairRDD, final JavaSparkContext jsc,
       final HoodieTable hoodieTable) {
-    // Obtain records per partition, in the incoming records
-    Map<String, Long> recordsPerPartition = partitionRecordKeyPairRDD.countByKey();
+    // Obtain records per partition, in the incoming records. If the comparisons per file group are estimated, the
+    // keys to estimate them from are sampled in the same pass.
+    Option<SampledComparisonEstimator> comparisonEstimator = shouldSampleComparisons()
+        ? Option.of(SampledComparisonEstimator.sample(partitionRecordKeyPairRDD,
+            config.getBloomIndexComparisonSamplingFraction(), COMPARISON_SAMPLING_SEED))
+        : Option.empty();
+    Map<String, Long> recordsPerPartition = comparisonEstimator.isPresent()
+        ? comparisonEstimator.get().getRecordsPerPartition() : partitionRecordKeyPairRDD.countByKey();
     List<String> affectedPartitionPathList = new ArrayList<>(recordsPerPartition.keySet());
 
     // Step 2: Load all involved files as <Partition, filename> pairs
@@ -151,8 +160,8 @@ public class HoodieBloomIndex<T extends HoodieRecordPayload> extends HoodieIndex
 
     // Step 3: Obtain a RDD, for each incoming record, that already exists, with the file id,
     // that contains it.
-    Map<String, Long> comparisonsPerFileGroup =
-        computeComparisonsPerFileGroup(recordsPerPartition, partitionToFileInfo, partitionRecordKeyPairRDD);
+    Map<String, Long> comparisonsPerFileGroup = computeComparisonsPerFileGroup(recordsPerPartition,
+        partitionToFileInfo, partitionRecordKeyPairRDD, comparisonEstimator);
     int inputParallelism = partitionRecordKeyPairRDD.partitions().size();
     int joinParallelism = Math.max(inputParallelism, config.getBloomIndexParallelism());
     LOG.info("InputParallelism: ${" + inputParallelism + "}, IndexParallelism: ${"
@@ -161,17 +170,31 @@ public class HoodieBloomIndex<T extends HoodieRecordPayload> extends HoodieIndex
         comparisonsPerFileGroup);
   }
 
+  /**
+   * Only the bucketized checking plans its partitions by the comparisons per file group, which are worth sampling
+   * when ranges prune the files each key is compared against.
+   */
+  private boolean shouldSampleComparisons() {
+    return config.useBloomIndexBucketizedChecking() && config.getBloomIndexPruneByRanges()
+        && config.getBloomIndexComparisonSamplingFraction() < 1.0;
+  }
+
   /**
    * Compute the estimated number of bloom filter comparisons to be performed on each file group.
    */
   private Map<String, Long> computeComparisonsPerFileGroup(final Map<String, Long> recordsPerPartition,
                                                            final Map<String, List<BloomIndexFileInfo>> partitionToFileInfo,
-                                                           JavaPairRDD<String, String> partitionRecordKeyPairRDD) {
+                                                           JavaPairRDD<String, String> partitionRecordKeyPairRDD,
+                                                           Option<SampledComparisonEstimator> comparisonEstimator) {
 
     Map<String, Long> fileToComparisons;
-    if (config.getBloomIndexPruneByRanges()) {
+    if (!config.useBloomIndexBucketizedChecking()) {
+      // sort based checking does not plan by the comparisons
+      fileToComparisons = new HashMap<>();
+    } else if (comparisonEstimator.isPresent()) {
+      fileToComparisons = comparisonEstimator.get().estimateComparisons(createIndexFileFilter(partitionToFileInfo));
+    } else if (config.getBloomIndexPruneByRanges()) {
       // we will just try exploding the input and then count to determine comparisons
-      // FIX(vc): Only do sampling here and extrapolate?
       fileToComparisons = explodeRecordRDDWithFileComparisons(partitionToFileInfo, partitionRecordKeyPairRDD)
           .mapToPair(t -> t).countByKey();
     } else {
@@ -193,23 +216,54 @@ public class HoodieBloomIndex<T extends HoodieRecordPayload> extends HoodieIndex
                                                              final HoodieTable hoodieTable) {
 
     // Obtain the latest data files from all the partitions.
-    List<Pair<String, String>> partitionPathFileIDList = getLatestBaseFilesForAllPartitions(partitions, jsc, hoodieTable).stream()
+    List<Pair<String, HoodieBaseFile>> latestBaseFiles = getLatestBaseFilesForAllPartitions(partitions, jsc, hoodieTable);
+    List<Pair<String, String>> partitionPathFileIDList = latestBaseFiles.stream()
         .map(pair -> Pair.of(pair.getKey(), pair.getValue().getFileId()))
         .collect(toList());
 
     if (config.getBloomIndexPruneByRanges()) {
+      List<Tuple2<String, BloomIndexFileInfo>> fileInfoList = new ArrayList<>();
+      Map<Pair<String, String>, String> filesToRead = new LinkedHashMap<>();
+      Option<BloomIndexFileMetaCache> fileMetaCache = config.isBloomIndexFileMetaCacheEnabled()
+          ? Option.of(BloomIndexFileMetaCache.getInstance(config.getBloomIndexFileMetaCacheMaxBytes())) : Option.empty();
+      for (Pair<String, HoodieBaseFile> pair : latestBaseFiles) {
+        Option<String[]> minMaxKeys = fileMetaCache.isPresent()
+            ? fileMetaCache.get().getKeyRange(pair.getValue().getPath()) : Option.empty();
+        if (minMaxKeys.isPresent()) {
+          fileInfoList.add(new Tuple2<>(pair.getKey(),
+              new BloomIndexFileInfo(pair.getValue().getFileId(), minMaxKeys.get()[0], minMaxKeys.get()[1])));
+        } else {
+          filesToRead.put(Pair.of(pair.getKey(), pair.getValue().getFileId()), pair.getValue().getPath());
+        }
+      }
+      if (fileMetaCache.isPresent()) {
+        LOG.info("Found key ranges of " + fileInfoList.size() + " out of " + latestBaseFiles.size() + " files in cache");
+      }
+      if (filesToRead.isEmpty()) {
+        return fileInfoList;
+      }
+
       // also obtain file ranges, if range pruning is enabled
       jsc.setJobDescription("Obtain key ranges for file slices (range pruning=on)");
-      return jsc.parallelize(partitionPathFileIDList, Math.max(partitionPathFileIDList.size(), 1)).mapToPair(pf -> {
-        try {
-          HoodieRangeInfoHandle<T> rangeInfoHandle = new HoodieRangeInfoHandle<T>(config, hoodieTable, pf);
-          String[] minMaxKeys = rangeInfoHandle.getMinMaxKeys();
-          return new Tuple2<>(pf.getKey(), new BloomIndexFileInfo(pf.getValue(), minMaxKeys[0], minMaxKeys[1]));
-        } catch (MetadataNotFoundException me) {
-          LOG.warn("Unable to find range metadata in file :" + pf);
-          return new Tuple2<>(pf.getKey(), new BloomIndexFileInfo(pf.getValue()));
-        }
-      }).collect();
+      List<Pair<String, String>> filesToReadList = new ArrayList<>(filesToRead.keySet());
+      List<Tuple2<String, BloomIndexFileInfo>> readFileInfoList =
+          jsc.parallelize(filesToReadList, Math.max(filesToReadList.size(), 1)).mapToPair(pf -> {
+            try {
+              HoodieRangeInfoHandle<T> rangeInfoHandle = new HoodieRangeInfoHandle<T>(config, hoodieTable, pf);
+              String[] minMaxKeys = rangeInfoHandle.getMinMaxKeys();
+              return new Tuple2<>(pf.getKey(), new BloomIndexFileInfo(pf.getValue(), minMaxKeys[0], minMaxKeys[1]));
+            } catch (MetadataNotFoundException me) {
+              LOG.warn("Unable to find range metadata in file :" + pf);
+              return new Tuple2<>(pf.getKey(), new BloomIndexFileInfo(pf.getValue()));
+            }
+          }).collect();
+      if (fileMetaCache.isPresent()) {
+        readFileInfoList.stream().filter(t -> t._2.hasKeyRanges()).forEach(t ->
+            fileMetaCache.get().putKeyRange(filesToRead.get(Pair.of(t._1, t._2.getFileId())),
+                new String[] {t._2.getMinRecordKey(), t._2.getMaxRecordKey()}));
+      }
+      fileInfoList.addAll(readFileInfoList);
+      return fileInfoList;
     } else {
       return partitionPathFileIDList.stream()
           .map(pf -> new Tuple2<>(pf.getKey(), new BloomIndexFileInfo(pf.getValue()))).collect(toList());
@@ -246,6 +300,14 @@ public class HoodieBloomIndex<T extends HoodieRecordPayload> extends HoodieIndex
     return true;
   }
 
+  /**
+   * Filter to find the files a record key needs to be checked against.
+   */
+  IndexFileFilter createIndexFileFilter(final Map<String, List<BloomIndexFileInfo>> partitionToFileIndexInfo) {
+    return config.useBloomIndexTreebasedFilter() ? new IntervalTreeBasedIndexFileFilter(partitionToFileIndexInfo)
+        : new ListBasedIndexFileFilter(partitionToFileIndexInfo);
+  }
+
   /**
    * For each incoming record, produce N output records, 1 each for each file against which the record's key needs to be
    * checked. For tables, where the keys have a definite insert order (e.g: timestamp as prefix), the number of files
@@ -257,9 +319,7 @@ public class HoodieBloomIndex<T extends HoodieRecordPayload> extends HoodieIndex
   JavaRDD<Tuple2<String, HoodieKey>> explodeRecordRDDWithFileComparisons(
       final Map<String, List<BloomIndexFileInfo>> partitionToFileIndexInfo,
       JavaPairRDD<String, String> partitionRecordKeyPairRDD) {
-    IndexFileFilter indexFileFilter =
-        config.useBloomIndexTreebasedFilter() ? new IntervalTreeBasedIndexFileFilter(partitionToFileIndexInfo)
-            : new ListBasedIndexFileFilter(partitionToFileIndexInfo);
+    IndexFileFilter indexFileFilter = createIndexFileFilter(partitionToFileIndexInfo);
 
     return partitionRecordKeyPairRDD.map(partitionRecordKeyPair -> {
       String recordKey = partitionRecordKeyPair._2();
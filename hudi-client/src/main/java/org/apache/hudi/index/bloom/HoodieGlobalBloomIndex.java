@@ -71,6 +71,15 @@ public class HoodieGlobalBloomIndex<T extends HoodieRecordPayload> extends Hoodi
     }
   }
 
+  /**
+   * Keys are checked against the files of all partitions.
+   */
+  @Override
+  IndexFileFilter createIndexFileFilter(final Map<String, List<BloomIndexFileInfo>> partitionToFileIndexInfo) {
+    return config.useBloomIndexTreebasedFilter() ? new IntervalTreeBasedGlobalIndexFileFilter(partitionToFileIndexInfo)
+        : new ListBasedGlobalIndexFileFilter(partitionToFileIndexInfo);
+  }
+
   /**
    * For each incoming record, produce N output records, 1 each for each file against which the record's key needs to be
    * checked. For tables, where the keys have a definite insert order (e.g: timestamp as prefix), the number of files
@@ -86,9 +95,7 @@ public class HoodieGlobalBloomIndex<T extends HoodieRecordPayload> extends Hoodi
       final Map<String, List<BloomIndexFileInfo>> partitionToFileIndexInfo,
       JavaPairRDD<String, String> partitionRecordKeyPairRDD) {
 
-    IndexFileFilter indexFileFilter =
-        config.useBloomIndexTreebasedFilter() ? new IntervalTreeBasedGlobalIndexFileFilter(partitionToFileIndexInfo)
-            : new ListBasedGlobalIndexFileFilter(partitionToFileIndexInfo);
+    IndexFileFilter indexFileFilter = createIndexFileFilter(partitionToFileIndexInfo);
 
     return partitionRecordKeyPairRDD.map(partitionRecordKeyPair -> {
       String recordKey = partitionRecordKeyPair._2();
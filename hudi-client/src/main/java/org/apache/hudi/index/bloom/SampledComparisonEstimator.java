@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.bloom;
+
+import org.apache.hudi.common.util.collection.Pair;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.function.Function2;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import scala.Tuple2;
+
+/**
+ * Estimates the number of bloom filter comparisons per file group from a sample of the incoming record keys, so that
+ * {@link BucketizedBloomCheckPartitioner} can be planned without exploding the whole input against the file ranges.
+ * <p>
+ * The keys are sampled in the same pass that counts the records per partition. Each input partition is sampled on its
+ * own and its sampled keys stand for all of its records, which keeps the estimate right when some input partitions
+ * are much larger than others. The estimate of every file group is padded by a couple of standard deviations, since
+ * under-estimating a hot file group packs too many comparisons into its buckets.
+ */
+public class SampledComparisonEstimator implements Serializable {
+
+  private static final Logger LOG = LogManager.getLogger(SampledComparisonEstimator.class);
+
+  // Bound on the number of sampled keys collected to the driver, split evenly across the input partitions
+  static final int MAX_SAMPLED_KEYS = 1000000;
+  private static final double STANDARD_DEVIATIONS = 2.0;
+
+  private final Map<String, Long> recordsPerPartition;
+  private final List<InputPartitionSample> samples;
+
+  private SampledComparisonEstimator(Map<String, Long> recordsPerPartition, List<InputPartitionSample> samples) {
+    this.recordsPerPartition = recordsPerPartition;
+    this.samples = samples;
+  }
+
+  /**
+   * Counts the records per partition path of the input and samples the given fraction of its keys, in one pass.
+   */
+  public static SampledComparisonEstimator sample(JavaPairRDD<String, String> partitionRecordKeyPairRDD,
+      double fraction, long seed) {
+    final int maxKeysPerInputPartition = Math.max(1, MAX_SAMPLED_KEYS / Math.max(1, partitionRecordKeyPairRDD.getNumPartitions()));
+    List<InputPartitionSample> samples = partitionRecordKeyPairRDD.mapPartitionsWithIndex(
+        (Function2<Integer, Iterator<Tuple2<String, String>>, Iterator<InputPartitionSample>>) (index, records) -> {
+          InputPartitionSample sample = new InputPartitionSample();
+          Random random = new Random(seed + index);
+          long numSelected = 0;
+          while (records.hasNext()) {
+            Tuple2<String, String> partitionRecordKey = records.next();
+            sample.add(partitionRecordKey._1);
+            if (random.nextDouble() >= fraction) {
+              continue;
+            }
+            numSelected++;
+            if (sample.keys.size() < maxKeysPerInputPartition) {
+              sample.keys.add(partitionRecordKey);
+            } else {
+              // reservoir sampling over the selected keys, once the bound is hit
+              long slot = (long) (random.nextDouble() * numSelected);
+              if (slot < maxKeysPerInputPartition) {
+                sample.keys.set((int) slot, partitionRecordKey);
+              }
+            }
+          }
+          return Collections.singletonList(sample).iterator();
+        }, true).collect();
+
+    Map<String, Long> recordsPerPartition = new HashMap<>();
+    samples.forEach(sample -> sample.recordsPerPartition.forEach((partitionPath, count) ->
+        recordsPerPartition.merge(partitionPath, count, Long::sum)));
+    return new SampledComparisonEstimator(recordsPerPartition, samples);
+  }
+
+  /**
+   * Exact number of incoming records per partition path.
+   */
+  public Map<String, Long> getRecordsPerPartition() {
+    return recordsPerPartition;
+  }
+
+  /**
+   * Extrapolates the comparisons per file group from the sampled keys. File groups none of the sampled keys fall into
+   * are left out, {@link BucketizedBloomCheckPartitioner} spreads their comparisons over all partitions.
+   */
+  public Map<String, Long> estimateComparisons(IndexFileFilter indexFileFilter) {
+    // per file group, the sum of the weights of its sampled keys and the sum of their squares
+    Map<String, double[]> fileGroupToWeights = new HashMap<>();
+    long totalRecords = 0;
+    int totalSampledKeys = 0;
+    for (InputPartitionSample sample : samples) {
+      totalRecords += sample.numRecords;
+      totalSampledKeys += sample.keys.size();
+      if (sample.keys.isEmpty()) {
+        continue;
+      }
+      // every sampled key stands for this many records of its input partition
+      double weight = (double) sample.numRecords / sample.keys.size();
+      for (Tuple2<String, String> partitionRecordKey : sample.keys) {
+        for (Pair<String, String> partitionFileId
+            : indexFileFilter.getMatchingFilesAndPartition(partitionRecordKey._1, partitionRecordKey._2)) {
+          double[] weights = fileGroupToWeights.computeIfAbsent(partitionFileId.getRight(), f -> new double[2]);
+          weights[0] += weight;
+          weights[1] += weight * weight;
+        }
+      }
+    }
+
+    Map<String, Long> fileGroupToComparisons = new HashMap<>();
+    for (Map.Entry<String, double[]> entry : fileGroupToWeights.entrySet()) {
+      double estimate = entry.getValue()[0] + STANDARD_DEVIATIONS * Math.sqrt(entry.getValue()[1]);
+      // a file group is never compared against more keys than are coming in
+      fileGroupToComparisons.put(entry.getKey(), Math.min(totalRecords, (long) Math.ceil(estimate)));
+    }
+    LOG.info("Estimated comparisons for " + fileGroupToComparisons.size() + " file groups from " + totalSampledKeys
+        + " sampled keys out of " + totalRecords);
+    return fileGroupToComparisons;
+  }
+
+  /**
+   * Record counts and sampled (partition path, record key) pairs of one input partition.
+   */
+  static class InputPartitionSample implements Serializable {
+
+    private final Map<String, Long> recordsPerPartition = new HashMap<>();
+    private final List<Tuple2<String, String>> keys = new ArrayList<>();
+    private long numRecords = 0;
+
+    private void add(String partitionPath) {
+      recordsPerPartition.merge(partitionPath, 1L, Long::sum);
+      numRecords++;
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.bucket;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Maps record keys onto the buckets of the bucket index, and buckets onto their file groups.
+ * <p>
+ * The file id of a bucket is derived from the partition path and the bucket id alone, which is what lets the bucket
+ * index tag records without looking anything up. It has the shape of the file ids written by the insert path: a
+ * 36 character prefix, starting with the zero padded bucket id, followed by the sequence number of the file written
+ * with the prefix, which is always 0 for a bucket.
+ */
+public class BucketIdentifier {
+
+  private static final String FILE_ID_SUFFIX = "-0";
+
+  public static int getBucketId(String recordKey, int numBuckets) {
+    return (recordKey.hashCode() & Integer.MAX_VALUE) % numBuckets;
+  }
+
+  public static String getFileIdPrefix(String partitionPath, int bucketId) {
+    String partitionUuid = UUID.nameUUIDFromBytes(partitionPath.getBytes(StandardCharsets.UTF_8)).toString();
+    return String.format("%08d", bucketId) + partitionUuid.substring(8);
+  }
+
+  public static String getFileId(String partitionPath, int bucketId) {
+    return getFileIdPrefix(partitionPath, bucketId) + FILE_ID_SUFFIX;
+  }
+
+  public static String getFileId(String partitionPath, String recordKey, int numBuckets) {
+    return getFileId(partitionPath, getBucketId(recordKey, numBuckets));
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.bucket;
+
+import org.apache.hudi.client.WriteStatus;
+import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieRecordLocation;
+import org.apache.hudi.common.model.HoodieRecordPayload;
+import org.apache.hudi.common.table.timeline.HoodieInstant;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.index.HoodieIndex;
+import org.apache.hudi.index.HoodieIndexUtils;
+import org.apache.hudi.table.HoodieTable;
+
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import scala.Tuple2;
+
+/**
+ * An index which hashes the record keys of each partition onto a fixed number of buckets, each of them stored in a
+ * single file group whose id is derived from the bucket (see {@link BucketIdentifier}). Tagging a record is a pure
+ * computation, plus a check whether the file group of its bucket has been written yet, so there is no join against
+ * the existing keys of the table.
+ * <p>
+ * The location of a record is the file group of its bucket, whether or not the record is actually stored in it yet,
+ * which is what the merge handle needs to either update or insert it. The write path routes every bucket into its own
+ * file group, see {@link org.apache.hudi.table.action.commit.BucketIndexPartitioner}.
+ */
+public class HoodieBucketIndex<T extends HoodieRecordPayload> extends HoodieIndex<T> {
+
+  public HoodieBucketIndex(HoodieWriteConfig config) {
+    super(config);
+  }
+
+  @Override
+  public JavaPairRDD<HoodieKey, Option<Pair<String, String>>> fetchRecordLocation(JavaRDD<HoodieKey> hoodieKeys,
+                                                                                  JavaSparkContext jsc, HoodieTable<T> hoodieTable) {
+    final int numBuckets = config.getBucketIndexNumBuckets();
+    return hoodieKeys.mapPartitionsToPair(keys -> {
+      BucketLocator locator = new BucketLocator(hoodieTable, numBuckets);
+      Iterable<HoodieKey> keyIterable = () -> keys;
+      return StreamSupport.stream(keyIterable.spliterator(), false)
+          .map(key -> new Tuple2<>(key, locator.locate(key)
+              .map(location -> Pair.of(key.getPartitionPath(), location.getFileId()))))
+          .iterator();
+    });
+  }
+
+  @Override
+  public JavaRDD<HoodieRecord<T>> tagLocation(JavaRDD<HoodieRecord<T>> recordRDD, JavaSparkContext jsc,
+                                              HoodieTable<T> hoodieTable) {
+    final int numBuckets = config.getBucketIndexNumBuckets();
+    return recordRDD.mapPartitions(records -> {
+      BucketLocator locator = new BucketLocator(hoodieTable, numBuckets);
+      Iterable<HoodieRecord<T>> recordIterable = () -> records;
+      return StreamSupport.stream(recordIterable.spliterator(), false)
+          .map(record -> (HoodieRecord<T>) HoodieIndexUtils.getTaggedRecord(record, locator.locate(record.getKey())))
+          .iterator();
+    }, true);
+  }
+
+  @Override
+  public JavaRDD<WriteStatus> updateLocation(JavaRDD<WriteStatus> writeStatusRDD, JavaSparkContext jsc,
+                                             HoodieTable<T> hoodieTable) {
+    // the buckets are implied by the record keys, nothing to update
+    return writeStatusRDD;
+  }
+
+  @Override
+  public boolean rollbackCommit(String instantTime) {
+    return true;
+  }
+
+  @Override
+  public boolean isGlobal() {
+    return false;
+  }
+
+  @Override
+  public boolean canIndexLogFiles() {
+    return false;
+  }
+
+  @Override
+  public boolean isImplicitWithStorage() {
+    return true;
+  }
+
+  /**
+   * Locates the file groups of buckets for the keys of one Spark partition, listing the latest base files of each
+   * partition path it comes across once.
+   */
+  private static class BucketLocator {
+
+    private final HoodieTable<?> hoodieTable;
+    private final int numBuckets;
+    private final Option<HoodieInstant> latestCommitTime;
+    private final Map<String, Map<String, HoodieRecordLocation>> partitionToFileGroups = new HashMap<>();
+
+    BucketLocator(HoodieTable<?> hoodieTable, int numBuckets) {
+      this.hoodieTable = hoodieTable;
+      this.numBuckets = numBuckets;
+      this.latestCommitTime = hoodieTable.getMetaClient().getCommitsTimeline().filterCompletedInstants().lastInstant();
+    }
+
+    Option<HoodieRecordLocation> locate(HoodieKey key) {
+      Map<String, HoodieRecordLocation> fileGroups =
+          partitionToFileGroups.computeIfAbsent(key.getPartitionPath(), this::loadFileGroups);
+      return Option.ofNullable(fileGroups.get(BucketIdentifier.getFileId(key.getPartitionPath(), key.getRecordKey(), numBuckets)));
+    }
+
+    private Map<String, HoodieRecordLocation> loadFileGroups(String partitionPath) {
+      if (!latestCommitTime.isPresent()) {
+        return new HashMap<>();
+      }
+      return hoodieTable.getBaseFileOnlyView()
+          .getLatestBaseFilesBeforeOrOn(partitionPath, latestCommitTime.get().getTimestamp())
+          .collect(Collectors.toMap(HoodieBaseFile::getFileId,
+              baseFile -> new HoodieRecordLocation(baseFile.getCommitTime(), baseFile.getFileId())));
+    }
+  }
+}
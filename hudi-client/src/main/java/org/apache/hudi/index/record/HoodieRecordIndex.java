@@ -0,0 +1,358 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.record;
+
+import org.apache.hudi.client.WriteStatus;
+import org.apache.hudi.common.config.SerializableConfiguration;
+import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieRecordLocation;
+import org.apache.hudi.common.model.HoodieRecordPayload;
+import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.timeline.HoodieInstant;
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.exception.HoodieIndexException;
+import org.apache.hudi.index.HoodieIndex;
+import org.apache.hudi.io.storage.HoodieHFileConfig;
+import org.apache.hudi.table.HoodieTable;
+
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.spark.Partitioner;
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.api.java.function.Function2;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import scala.Tuple2;
+
+/**
+ * Global index that persists the location of every record key inside the table, under
+ * {@link HoodieTableMetaClient#RECORD_INDEX_ROOT_FOLDER_PATH}, so that tagging is a lookup in sorted HFiles instead of
+ * checking the keys against every base file or against an external HBase cluster.
+ * <p>
+ * Keys are hashed into a fixed number of {@link RecordIndexShard}s. Each commit adds a sorted delta file to the shards
+ * its new keys fall in, and a shard merges its deltas into a base file once there are too many of them. Like
+ * {@link org.apache.hudi.index.hbase.HBaseIndex}, only inserts are added to the index and an entry is only used
+ * once the commit that wrote it completed.
+ */
+public class HoodieRecordIndex<T extends HoodieRecordPayload> extends HoodieIndex<T> {
+
+  private static final Logger LOG = LogManager.getLogger(HoodieRecordIndex.class);
+
+  public static final String INDEX_PROPERTIES_FILE = "index.properties";
+  private static final String NUM_SHARDS_PROPERTY = "hoodie.record.index.num.shards";
+
+  public HoodieRecordIndex(HoodieWriteConfig config) {
+    super(config);
+  }
+
+  @Override
+  public JavaPairRDD<HoodieKey, Option<Pair<String, String>>> fetchRecordLocation(JavaRDD<HoodieKey> hoodieKeys,
+      JavaSparkContext jsc, HoodieTable<T> hoodieTable) {
+    JavaPairRDD<String, HoodieKey> keyedHoodieKeys = hoodieKeys.mapToPair(key -> new Tuple2<>(key.getRecordKey(), key));
+    return keyedHoodieKeys.leftOuterJoin(lookupLocations(keyedHoodieKeys.keys(), jsc, hoodieTable)).values()
+        .mapToPair(entry -> {
+          final HoodieKey key = entry._1;
+          final Option<Pair<String, HoodieRecordLocation>> location = Option.ofNullable(entry._2.orNull());
+          return location
+              .map(loc -> new Tuple2<>(key, Option.of(Pair.of(loc.getLeft(), loc.getRight().getFileId()))))
+              .orElse(new Tuple2<>(key, Option.empty()));
+        });
+  }
+
+  @Override
+  public JavaRDD<HoodieRecord<T>> tagLocation(JavaRDD<HoodieRecord<T>> recordRDD, JavaSparkContext jsc,
+      HoodieTable<T> hoodieTable) {
+    JavaPairRDD<String, HoodieRecord<T>> keyedRecords =
+        recordRDD.mapToPair(record -> new Tuple2<>(record.getRecordKey(), record));
+    return keyedRecords.leftOuterJoin(lookupLocations(keyedRecords.keys(), jsc, hoodieTable)).values()
+        .map(entry -> {
+          HoodieRecord<T> record = entry._1;
+          if (!entry._2.isPresent()) {
+            return record;
+          }
+          // the index is global, tag the record with the partition it was written to
+          Pair<String, HoodieRecordLocation> location = entry._2.get();
+          HoodieRecord<T> taggedRecord =
+              new HoodieRecord<>(new HoodieKey(record.getRecordKey(), location.getLeft()), record.getData());
+          taggedRecord.unseal();
+          taggedRecord.setCurrentLocation(location.getRight());
+          taggedRecord.seal();
+          return taggedRecord;
+        });
+  }
+
+  /**
+   * Looks up the given keys, one task per shard, and returns the (partition path, location) of the keys found.
+   */
+  private JavaPairRDD<String, Pair<String, HoodieRecordLocation>> lookupLocations(JavaRDD<String> recordKeys,
+      JavaSparkContext jsc, HoodieTable<T> hoodieTable) {
+    HoodieTableMetaClient metaClient = hoodieTable.getMetaClient();
+    final Path indexPath = getIndexPath(metaClient);
+    final Option<Integer> numShards = readNumShards(metaClient.getFs(), indexPath);
+    if (!numShards.isPresent()) {
+      // nothing has been indexed yet
+      return JavaPairRDD.fromJavaRDD(jsc.emptyRDD());
+    }
+    final String indexPathStr = indexPath.toString();
+    final SerializableConfiguration hadoopConf = new SerializableConfiguration(hoodieTable.getHadoopConf());
+    final HoodieTimeline completedCommitsTimeline = metaClient.getCommitsTimeline().filterCompletedInstants();
+    final Set<String> pendingInstants = getPendingInstants(metaClient);
+
+    return recordKeys.mapToPair(key -> new Tuple2<>(key, Boolean.TRUE))
+        .partitionBy(new ShardPartitioner(numShards.get()))
+        .mapPartitionsWithIndex((Function2<Integer, Iterator<Tuple2<String, Boolean>>,
+            Iterator<Tuple2<String, Pair<String, HoodieRecordLocation>>>>) (shard, keys) -> {
+          Set<String> keySet = new HashSet<>();
+          keys.forEachRemaining(key -> keySet.add(key._1));
+          RecordIndexShard indexShard = new RecordIndexShard(hadoopConf.get(),
+              new Path(indexPathStr, RecordIndexShard.getShardName(shard)), completedCommitsTimeline, pendingInstants);
+          List<Tuple2<String, Pair<String, HoodieRecordLocation>>> locations = new ArrayList<>();
+          indexShard.lookup(keySet).forEach((key, entry) -> locations.add(new Tuple2<>(key,
+              Pair.of(RecordIndexShard.getPartitionPath(entry), RecordIndexShard.getLocation(entry)))));
+          return locations.iterator();
+        }, true)
+        .mapToPair(location -> location);
+  }
+
+  @Override
+  public JavaRDD<WriteStatus> updateLocation(JavaRDD<WriteStatus> writeStatusRDD, JavaSparkContext jsc,
+      HoodieTable<T> hoodieTable) {
+    HoodieTableMetaClient metaClient = hoodieTable.getMetaClient();
+    final Path indexPath = getIndexPath(metaClient);
+    final int numShards = getOrInitNumShards(metaClient.getFs(), indexPath);
+    final String indexPathStr = indexPath.toString();
+    final SerializableConfiguration hadoopConf = new SerializableConfiguration(hoodieTable.getHadoopConf());
+    final HoodieTimeline completedCommitsTimeline = metaClient.getCommitsTimeline().filterCompletedInstants();
+    final Set<String> pendingInstants = getPendingInstants(metaClient);
+    final HoodieWriteConfig writeConfig = config;
+
+    JavaPairRDD<String, Pair<String, HoodieRecordLocation>> newLocations = writeStatusRDD.flatMapToPair(writeStatus -> {
+      List<Tuple2<String, Pair<String, HoodieRecordLocation>>> locations = new ArrayList<>();
+      for (HoodieRecord record : writeStatus.getWrittenRecords()) {
+        Option<HoodieRecordLocation> newLocation = record.getNewLocation();
+        // updates keep their location, so only inserts need to be added
+        if (!writeStatus.isErrored(record.getKey()) && newLocation.isPresent() && record.getCurrentLocation() == null) {
+          locations.add(new Tuple2<>(record.getRecordKey(), Pair.of(record.getPartitionPath(), newLocation.get())));
+        }
+      }
+      return locations.iterator();
+    });
+
+    long numEntries = newLocations.repartitionAndSortWithinPartitions(new ShardPartitioner(numShards))
+        .mapPartitionsWithIndex((Function2<Integer, Iterator<Tuple2<String, Pair<String, HoodieRecordLocation>>>,
+            Iterator<Long>>) (shard, locations) -> {
+          if (!locations.hasNext()) {
+            return Collections.emptyIterator();
+          }
+          Configuration conf = hadoopConf.get();
+          HoodieHFileConfig hfileConfig = new HoodieHFileConfig(conf, writeConfig.getHFileCompressionAlgorithm(),
+              writeConfig.getHFileBlockSize(), Long.MAX_VALUE, null);
+          RecordIndexShard indexShard = new RecordIndexShard(conf,
+              new Path(indexPathStr, RecordIndexShard.getShardName(shard)), completedCommitsTimeline, pendingInstants);
+          Tuple2<String, Pair<String, HoodieRecordLocation>> first = locations.next();
+          final String instantTime = first._2.getRight().getInstantTime();
+          Iterator<GenericRecord> entries = toEntries(instantTime, first, locations);
+          long written = indexShard.writeDelta(instantTime, entries, hfileConfig);
+          indexShard.mergeIfNeeded(writeConfig.getRecordIndexMaxDeltaFiles(), hfileConfig);
+          return Collections.singletonList(written).iterator();
+        }, true)
+        .fold(0L, Long::sum);
+    LOG.info("Added " + numEntries + " entries to the record index at " + indexPath);
+    return writeStatusRDD;
+  }
+
+  /**
+   * Converts the sorted (record key, (partition path, location)) of a shard back into index entries, checking they
+   * were all written by the same commit.
+   */
+  private static Iterator<GenericRecord> toEntries(String instantTime,
+      Tuple2<String, Pair<String, HoodieRecordLocation>> first,
+      Iterator<Tuple2<String, Pair<String, HoodieRecordLocation>>> rest) {
+    return new Iterator<GenericRecord>() {
+      private Tuple2<String, Pair<String, HoodieRecordLocation>> head = first;
+
+      @Override
+      public boolean hasNext() {
+        return head != null || rest.hasNext();
+      }
+
+      @Override
+      public GenericRecord next() {
+        Tuple2<String, Pair<String, HoodieRecordLocation>> location = head != null ? head : rest.next();
+        head = null;
+        HoodieRecordLocation newLocation = location._2.getRight();
+        if (!instantTime.equals(newLocation.getInstantTime())) {
+          throw new HoodieIndexException("Records of commits " + instantTime + " and " + newLocation.getInstantTime()
+              + " updated the record index together");
+        }
+        return RecordIndexShard.createEntry(location._1, location._2.getLeft(), newLocation);
+      }
+    };
+  }
+
+  @Override
+  public boolean rollbackCommit(String instantTime) {
+    // Entries of a rolled back commit are ignored, their deltas are dropped once the table is known
+    return true;
+  }
+
+  @Override
+  public boolean rollbackCommit(String instantTime, HoodieTable<?> hoodieTable) {
+    // Entries of a rolled back commit are ignored already, drop its deltas so they do not pile up
+    HoodieTableMetaClient metaClient = hoodieTable.getMetaClient();
+    Path indexPath = getIndexPath(metaClient);
+    Option<Integer> numShards = readNumShards(metaClient.getFs(), indexPath);
+    if (!numShards.isPresent()) {
+      return true;
+    }
+    HoodieTimeline completedCommitsTimeline = metaClient.getCommitsTimeline().filterCompletedInstants();
+    Set<String> pendingInstants = getPendingInstants(metaClient);
+    try {
+      for (int shard = 0; shard < numShards.get(); shard++) {
+        RecordIndexShard indexShard = new RecordIndexShard(hoodieTable.getHadoopConf(),
+            new Path(indexPath, RecordIndexShard.getShardName(shard)), completedCommitsTimeline, pendingInstants);
+        indexShard.deleteDelta(instantTime);
+      }
+      return true;
+    } catch (IOException e) {
+      throw new HoodieIndexException("Failed to roll back record index entries of " + instantTime, e);
+    }
+  }
+
+  /**
+   * Only looks up by recordKey.
+   */
+  @Override
+  public boolean isGlobal() {
+    return true;
+  }
+
+  /**
+   * Mapping is kept for log files as well.
+   */
+  @Override
+  public boolean canIndexLogFiles() {
+    return true;
+  }
+
+  /**
+   * Index needs to be explicitly updated after storage write.
+   */
+  @Override
+  public boolean isImplicitWithStorage() {
+    return false;
+  }
+
+  private static Path getIndexPath(HoodieTableMetaClient metaClient) {
+    return new Path(metaClient.getBasePath(), HoodieTableMetaClient.RECORD_INDEX_ROOT_FOLDER_PATH);
+  }
+
+  private static Set<String> getPendingInstants(HoodieTableMetaClient metaClient) {
+    return metaClient.getCommitsTimeline().filterInflightsAndRequested().getInstants()
+        .map(HoodieInstant::getTimestamp).collect(Collectors.toCollection(HashSet::new));
+  }
+
+  private static Option<Integer> readNumShards(FileSystem fs, Path indexPath) {
+    Path propertiesFile = new Path(indexPath, INDEX_PROPERTIES_FILE);
+    try {
+      if (!fs.exists(propertiesFile)) {
+        return Option.empty();
+      }
+      Properties props = new Properties();
+      try (FSDataInputStream in = fs.open(propertiesFile)) {
+        props.load(in);
+      }
+      return Option.of(Integer.parseInt(props.getProperty(NUM_SHARDS_PROPERTY)));
+    } catch (IOException e) {
+      throw new HoodieIndexException("Could not read record index properties from " + propertiesFile, e);
+    }
+  }
+
+  /**
+   * The number of shards can not change once keys have been hashed into them, so it is fixed by the first write.
+   */
+  private int getOrInitNumShards(FileSystem fs, Path indexPath) {
+    Option<Integer> numShards = readNumShards(fs, indexPath);
+    if (numShards.isPresent()) {
+      return numShards.get();
+    }
+    Path propertiesFile = new Path(indexPath, INDEX_PROPERTIES_FILE);
+    Properties props = new Properties();
+    props.setProperty(NUM_SHARDS_PROPERTY, String.valueOf(config.getRecordIndexNumShards()));
+    try (FSDataOutputStream out = fs.create(propertiesFile, false)) {
+      props.store(out, "Record index properties");
+    } catch (IOException e) {
+      throw new HoodieIndexException("Could not initialize record index at " + indexPath, e);
+    }
+    return config.getRecordIndexNumShards();
+  }
+
+  /**
+   * Routes every record key to its shard.
+   */
+  static class ShardPartitioner extends Partitioner {
+
+    private final int numShards;
+
+    ShardPartitioner(int numShards) {
+      this.numShards = numShards;
+    }
+
+    @Override
+    public int numPartitions() {
+      return numShards;
+    }
+
+    @Override
+    public int getPartition(Object key) {
+      return RecordIndexShard.getShard((String) key, numShards);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof ShardPartitioner && ((ShardPartitioner) o).numShards == numShards;
+    }
+
+    @Override
+    public int hashCode() {
+      return numShards;
+    }
+  }
+}
@@ -0,0 +1,365 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.record;
+
+import org.apache.hudi.client.SparkTaskContextSupplier;
+import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.model.HoodieRecordLocation;
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.io.storage.HoodieFileWriter;
+import org.apache.hudi.io.storage.HoodieHFileConfig;
+import org.apache.hudi.io.storage.HoodieHFileReader;
+import org.apache.hudi.io.storage.HoodieHFileWriter;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.io.hfile.CacheConfig;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * One shard of the {@link HoodieRecordIndex}, a directory of HFiles sorted by record key. Every commit that inserts
+ * keys of the shard adds a delta file named after the commit, and once enough deltas piled up they are merged into a
+ * base file, so that a lookup never has to open more than a bounded number of files.
+ * <p>
+ * Entries of a commit are only used once the commit completed, which is what keeps the shard consistent with the
+ * table when a write fails or gets rolled back.
+ */
+class RecordIndexShard {
+
+  private static final Logger LOG = LogManager.getLogger(RecordIndexShard.class);
+
+  static final String DELTA_FILE_EXTENSION = ".delta.hfile";
+  static final String BASE_FILE_EXTENSION = ".base.hfile";
+
+  private static final String RECORD_KEY_FIELD = "recordKey";
+  private static final String PARTITION_PATH_FIELD = "partitionPath";
+  private static final String FILE_ID_FIELD = "fileId";
+  private static final String INSTANT_TIME_FIELD = "instantTime";
+
+  static final Schema ENTRY_SCHEMA = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"HoodieRecordIndexEntry\","
+      + "\"namespace\":\"org.apache.hudi.index.record\",\"fields\":["
+      + "{\"name\":\"" + RECORD_KEY_FIELD + "\",\"type\":\"string\"},"
+      + "{\"name\":\"" + PARTITION_PATH_FIELD + "\",\"type\":\"string\"},"
+      + "{\"name\":\"" + FILE_ID_FIELD + "\",\"type\":\"string\"},"
+      + "{\"name\":\"" + INSTANT_TIME_FIELD + "\",\"type\":\"string\"}]}");
+
+  private final Configuration conf;
+  private final FileSystem fs;
+  private final Path shardPath;
+  private final HoodieTimeline completedCommitsTimeline;
+  private final Set<String> pendingInstants;
+
+  /**
+   * @param completedCommitsTimeline completed commits of the table, entries of other commits are ignored
+   * @param pendingInstants commits still in flight, their deltas are kept around until they complete or roll back
+   */
+  RecordIndexShard(Configuration conf, Path shardPath, HoodieTimeline completedCommitsTimeline,
+      Set<String> pendingInstants) {
+    this.conf = conf;
+    this.fs = FSUtils.getFs(shardPath.toString(), conf);
+    this.shardPath = shardPath;
+    this.completedCommitsTimeline = completedCommitsTimeline;
+    this.pendingInstants = pendingInstants;
+  }
+
+  static int getShard(String recordKey, int numShards) {
+    return (recordKey.hashCode() & Integer.MAX_VALUE) % numShards;
+  }
+
+  static String getShardName(int shard) {
+    return String.format("shard-%05d", shard);
+  }
+
+  static GenericRecord createEntry(String recordKey, String partitionPath, HoodieRecordLocation location) {
+    GenericRecord entry = new GenericData.Record(ENTRY_SCHEMA);
+    entry.put(RECORD_KEY_FIELD, recordKey);
+    entry.put(PARTITION_PATH_FIELD, partitionPath);
+    entry.put(FILE_ID_FIELD, location.getFileId());
+    entry.put(INSTANT_TIME_FIELD, location.getInstantTime());
+    return entry;
+  }
+
+  static String getRecordKey(GenericRecord entry) {
+    return entry.get(RECORD_KEY_FIELD).toString();
+  }
+
+  static String getPartitionPath(GenericRecord entry) {
+    return entry.get(PARTITION_PATH_FIELD).toString();
+  }
+
+  static HoodieRecordLocation getLocation(GenericRecord entry) {
+    return new HoodieRecordLocation(getInstantTime(entry), entry.get(FILE_ID_FIELD).toString());
+  }
+
+  private static String getInstantTime(GenericRecord entry) {
+    return entry.get(INSTANT_TIME_FIELD).toString();
+  }
+
+  private boolean isValidInstant(String instantTime) {
+    // Same rule as the HBase index: the commit is either on the timeline or archived already
+    return !completedCommitsTimeline.empty() && completedCommitsTimeline.containsOrBeforeTimelineStarts(instantTime);
+  }
+
+  /**
+   * Looks up the given keys, newest file first, and returns the entries of the keys written by completed commits.
+   */
+  Map<String, GenericRecord> lookup(Set<String> recordKeys) throws IOException {
+    Map<String, GenericRecord> entries = new HashMap<>();
+    if (recordKeys.isEmpty() || !fs.exists(shardPath)) {
+      return entries;
+    }
+    Option<Pair<String, Path>> baseFile = getLatestBaseFile();
+    List<Pair<String, Path>> deltaFiles = listFiles(DELTA_FILE_EXTENSION).stream()
+        .filter(delta -> !baseFile.isPresent() || delta.getKey().compareTo(baseFile.get().getKey()) > 0)
+        .filter(delta -> isValidInstant(delta.getKey()))
+        .collect(Collectors.toList());
+
+    Set<String> remainingKeys = new HashSet<>(recordKeys);
+    for (int i = deltaFiles.size() - 1; i >= 0 && !remainingKeys.isEmpty(); i--) {
+      readEntries(deltaFiles.get(i).getValue(), remainingKeys, entries);
+    }
+    if (baseFile.isPresent() && !remainingKeys.isEmpty()) {
+      readEntries(baseFile.get().getValue(), remainingKeys, entries);
+    }
+    return entries;
+  }
+
+  private void readEntries(Path file, Set<String> remainingKeys, Map<String, GenericRecord> entries) throws IOException {
+    HoodieHFileReader<GenericRecord> reader = new HoodieHFileReader<>(conf, file, new CacheConfig(conf));
+    try {
+      for (Pair<String, GenericRecord> entry : reader.readRecordsByKeys(remainingKeys, ENTRY_SCHEMA, ENTRY_SCHEMA)) {
+        // a newer entry shadows the older ones, even if its commit has since been rolled back
+        remainingKeys.remove(entry.getKey());
+        if (isValidInstant(getInstantTime(entry.getValue()))) {
+          entries.put(entry.getKey(), entry.getValue());
+        }
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Writes the entries of a commit, sorted by record key, into a new delta file. A delta left behind by an earlier
+   * attempt of the same commit is replaced.
+   *
+   * @return number of entries written
+   */
+  long writeDelta(String instantTime, Iterator<GenericRecord> sortedEntries, HoodieHFileConfig hfileConfig)
+      throws IOException {
+    Path deltaFile = new Path(shardPath, instantTime + DELTA_FILE_EXTENSION);
+    if (fs.exists(deltaFile)) {
+      fs.delete(deltaFile, false);
+    }
+    return writeFile(deltaFile, instantTime, sortedEntries, hfileConfig);
+  }
+
+  /**
+   * Merges the base file and the oldest deltas into a new base file, once more than the given number of deltas of
+   * completed commits are waiting to be merged. Merging stops at the first delta of a pending commit, so the base
+   * file never holds entries that could still be rolled back; deltas of commits that are neither pending nor
+   * completed anymore are dropped on the way.
+   */
+  void mergeIfNeeded(int maxDeltaFiles, HoodieHFileConfig hfileConfig) throws IOException {
+    Option<Pair<String, Path>> baseFile = getLatestBaseFile();
+    List<Pair<String, Path>> deltasToMerge = new ArrayList<>();
+    List<Path> obsoleteFiles = new ArrayList<>();
+    for (Pair<String, Path> delta : listFiles(DELTA_FILE_EXTENSION)) {
+      if (baseFile.isPresent() && delta.getKey().compareTo(baseFile.get().getKey()) <= 0) {
+        // already merged, left behind by an interrupted merge
+        obsoleteFiles.add(delta.getValue());
+      } else if (isValidInstant(delta.getKey())) {
+        deltasToMerge.add(delta);
+      } else if (pendingInstants.contains(delta.getKey())) {
+        break;
+      } else {
+        obsoleteFiles.add(delta.getValue());
+      }
+    }
+    if (deltasToMerge.size() <= maxDeltaFiles) {
+      return;
+    }
+
+    String mergedInstant = deltasToMerge.get(deltasToMerge.size() - 1).getKey();
+    List<Path> filesToMerge = new ArrayList<>();
+    if (baseFile.isPresent()) {
+      filesToMerge.add(baseFile.get().getValue());
+    }
+    deltasToMerge.forEach(delta -> filesToMerge.add(delta.getValue()));
+    List<HoodieHFileReader<GenericRecord>> readers = new ArrayList<>();
+    try {
+      for (Path file : filesToMerge) {
+        readers.add(new HoodieHFileReader<>(conf, file, new CacheConfig(conf)));
+      }
+      Path newBaseFile = new Path(shardPath, mergedInstant + BASE_FILE_EXTENSION);
+      long numEntries = writeFile(newBaseFile, mergedInstant, new MergedEntryIterator(readers), hfileConfig);
+      LOG.info("Merged " + filesToMerge.size() + " files with " + numEntries + " entries into " + newBaseFile);
+    } finally {
+      readers.forEach(HoodieHFileReader::close);
+    }
+
+    // the new base file shadows everything it was merged from
+    obsoleteFiles.addAll(filesToMerge);
+    for (Path file : obsoleteFiles) {
+      fs.delete(file, false);
+    }
+  }
+
+  /**
+   * Deletes the delta written by the given commit, if any.
+   */
+  boolean deleteDelta(String instantTime) throws IOException {
+    return fs.delete(new Path(shardPath, instantTime + DELTA_FILE_EXTENSION), false);
+  }
+
+  private Option<Pair<String, Path>> getLatestBaseFile() throws IOException {
+    List<Pair<String, Path>> baseFiles = listFiles(BASE_FILE_EXTENSION);
+    return baseFiles.isEmpty() ? Option.empty() : Option.of(baseFiles.get(baseFiles.size() - 1));
+  }
+
+  /**
+   * Lists the files of the shard with the given extension as (instant time, path), oldest first.
+   */
+  private List<Pair<String, Path>> listFiles(String extension) throws IOException {
+    if (!fs.exists(shardPath)) {
+      return new ArrayList<>();
+    }
+    FileStatus[] statuses = fs.listStatus(shardPath, path -> path.getName().endsWith(extension));
+    return Arrays.stream(statuses)
+        .map(status -> {
+          String name = status.getPath().getName();
+          return Pair.of(name.substring(0, name.length() - extension.length()), status.getPath());
+        })
+        .sorted(Comparator.comparing(Pair::getKey))
+        .collect(Collectors.toList());
+  }
+
+  private long writeFile(Path file, String instantTime, Iterator<GenericRecord> sortedEntries,
+      HoodieHFileConfig hfileConfig) throws IOException {
+    HoodieFileWriter<GenericRecord> writer =
+        new HoodieHFileWriter<>(instantTime, file, hfileConfig, ENTRY_SCHEMA, new SparkTaskContextSupplier());
+    long numEntries = 0;
+    try {
+      // the writer needs strictly ascending keys, of duplicate keys the last one wins
+      GenericRecord pending = null;
+      while (sortedEntries.hasNext()) {
+        GenericRecord entry = sortedEntries.next();
+        if (pending != null && !getRecordKey(pending).equals(getRecordKey(entry))) {
+          writer.writeAvro(getRecordKey(pending), pending);
+          numEntries++;
+        }
+        pending = entry;
+      }
+      if (pending != null) {
+        writer.writeAvro(getRecordKey(pending), pending);
+        numEntries++;
+      }
+    } finally {
+      writer.close();
+    }
+    return numEntries;
+  }
+
+  /**
+   * Merges sorted files into one sorted stream of the newest entry per key, dropping entries of commits that are not
+   * valid anymore. Readers are passed oldest first.
+   */
+  private class MergedEntryIterator implements Iterator<GenericRecord> {
+
+    private final PriorityQueue<Pair<Integer, Iterator<GenericRecord>>> queue;
+    private final Map<Integer, GenericRecord> heads = new HashMap<>();
+    private GenericRecord next;
+
+    MergedEntryIterator(List<HoodieHFileReader<GenericRecord>> readers) throws IOException {
+      // smallest key first, and for the same key the newest file first
+      Comparator<Pair<Integer, Iterator<GenericRecord>>> byKey = Comparator.comparing(
+          source -> getRecordKey(heads.get(source.getKey())));
+      this.queue = new PriorityQueue<>(Math.max(1, readers.size()),
+          byKey.thenComparing(Comparator.comparing((Pair<Integer, Iterator<GenericRecord>> source) -> source.getKey())
+              .reversed()));
+      for (int i = 0; i < readers.size(); i++) {
+        advance(Pair.of(i, (Iterator<GenericRecord>) readers.get(i).getRecordIterator(ENTRY_SCHEMA)));
+      }
+    }
+
+    private void advance(Pair<Integer, Iterator<GenericRecord>> source) {
+      if (source.getValue().hasNext()) {
+        heads.put(source.getKey(), source.getValue().next());
+        queue.add(source);
+      } else {
+        heads.remove(source.getKey());
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (next == null && !queue.isEmpty()) {
+        Pair<Integer, Iterator<GenericRecord>> newest = queue.poll();
+        GenericRecord entry = heads.get(newest.getKey());
+        String recordKey = getRecordKey(entry);
+        advance(newest);
+        // skip the older entries of the same key
+        while (!queue.isEmpty() && getRecordKey(heads.get(queue.peek().getKey())).equals(recordKey)) {
+          advance(queue.poll());
+        }
+        if (isValidInstant(getInstantTime(entry))) {
+          next = entry;
+        }
+      }
+      return next != null;
+    }
+
+    @Override
+    public GenericRecord next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      GenericRecord entry = next;
+      next = null;
+      return entry;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "RecordIndexShard{" + shardPath + "}";
+  }
+}
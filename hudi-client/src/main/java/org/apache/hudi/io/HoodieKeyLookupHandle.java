@@ -26,6 +26,7 @@ import org.apache.hudi.common.util.HoodieTimer;
 import org.apache.hudi.common.util.collection.Pair;
 import org.apache.hudi.config.HoodieWriteConfig;
 import org.apache.hudi.exception.HoodieIndexException;
+import org.apache.hudi.index.bloom.BloomIndexFileMetaCache;
 import org.apache.hudi.table.HoodieTable;
 
 import org.apache.hadoop.conf.Configuration;
@@ -63,7 +64,12 @@ public class HoodieKeyLookupHandle<T extends HoodieRecordPayload> extends Hoodie
     HoodieTimer timer = new HoodieTimer().startTimer();
 
     try {
-      this.bloomFilter = createNewFileReader().readBloomFilter();
+      if (config.isBloomIndexFileMetaCacheEnabled()) {
+        this.bloomFilter = BloomIndexFileMetaCache.getInstance(config.getBloomIndexFileMetaCacheMaxBytes())
+            .getOrLoadBloomFilter(getLatestDataFile().getPath(), () -> createNewFileReader().readBloomFilter());
+      } else {
+        this.bloomFilter = createNewFileReader().readBloomFilter();
+      }
     } catch (IOException e) {
       throw new HoodieIndexException(String.format("Error reading bloom filter from %s: %s", partitionPathFilePair, e));
     }
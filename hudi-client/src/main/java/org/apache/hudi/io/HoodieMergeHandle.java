@@ -23,6 +23,7 @@ import org.apache.hudi.client.WriteStatus;
 import org.apache.hudi.client.utils.SparkConfigUtils;
 import org.apache.hudi.common.fs.FSUtils;
 import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.model.HoodieFileFormat;
 import org.apache.hudi.common.model.HoodiePartitionMetadata;
 import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.model.HoodieRecordLocation;
@@ -33,25 +34,33 @@ import org.apache.hudi.common.model.IOType;
 import org.apache.hudi.common.util.DefaultSizeEstimator;
 import org.apache.hudi.common.util.HoodieRecordSizeEstimator;
 import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.collection.DiskMapSerializer;
 import org.apache.hudi.common.util.collection.ExternalSpillableMap;
+import org.apache.hudi.common.util.collection.HoodieRecordDiskMapSerializer;
+import org.apache.hudi.common.util.collection.KryoDiskMapSerializer;
 import org.apache.hudi.config.HoodieWriteConfig;
 import org.apache.hudi.exception.HoodieIOException;
 import org.apache.hudi.exception.HoodieUpsertException;
 import org.apache.hudi.io.storage.HoodieFileWriter;
+import org.apache.hudi.io.storage.HoodieParquetRowGroupPassthrough;
+import org.apache.hudi.io.storage.HoodieParquetWriter;
 import org.apache.hudi.table.HoodieTable;
 
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.generic.IndexedRecord;
+import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 @SuppressWarnings("Duplicates")
 public class HoodieMergeHandle<T extends HoodieRecordPayload> extends HoodieWriteHandle<T> {
@@ -70,12 +79,21 @@ public class HoodieMergeHandle<T extends HoodieRecordPayload> extends HoodieWrit
   protected long insertRecordsWritten = 0;
   protected boolean useWriterSchema;
   private HoodieBaseFile baseFileToMerge;
+  private Option<HoodieParquetRowGroupPassthrough> rowGroupPassthrough = Option.empty();
+  // Local file the merged records are written to, when row groups of the old file are copied as is
+  private Path mergedRecordsPath;
 
   public HoodieMergeHandle(HoodieWriteConfig config, String instantTime, HoodieTable<T> hoodieTable,
        Iterator<HoodieRecord<T>> recordItr, String partitionPath, String fileId, SparkTaskContextSupplier sparkTaskContextSupplier) {
     super(config, instantTime, partitionPath, fileId, hoodieTable, sparkTaskContextSupplier);
-    init(fileId, recordItr);
-    init(fileId, partitionPath, hoodieTable.getBaseFileOnlyView().getLatestBaseFile(partitionPath, fileId).get());
+    try {
+      init(fileId, recordItr);
+      init(fileId, partitionPath, hoodieTable.getBaseFileOnlyView().getLatestBaseFile(partitionPath, fileId).get());
+    } catch (RuntimeException e) {
+      // the handle is never closed, the records spilled so far would be left behind
+      closeNewRecords();
+      throw e;
+    }
   }
 
   /**
@@ -133,8 +151,24 @@ public class HoodieMergeHandle<T extends HoodieRecordPayload> extends HoodieWrit
       // Create Marker file
       createMarkerFile(partitionPath, newFileName);
 
+      // Copy the row groups of the old file that none of the new records fall into as is. The merged records are
+      // written to a local file named like the new file, since the records carry the name of their file. The writer
+      // only sees the size of the merged records, so the new file can exceed the max file size by the copied row groups
+      Path writerPath = newFilePath;
+      if (supportsRowGroupPassthrough()) {
+        rowGroupPassthrough = HoodieParquetRowGroupPassthrough.create(hoodieTable.getHadoopConf(), oldFilePath,
+            writerSchemaWithMetafields, keyToNewRecords.keySet());
+        if (rowGroupPassthrough.isPresent()) {
+          mergedRecordsPath = new Path(new File(new File(config.getSpillableMapBasePath(), "merge-" + UUID.randomUUID()),
+              newFileName).toURI());
+          // in case the handle fails before it is closed
+          mergedRecordsPath.getFileSystem(hoodieTable.getHadoopConf()).deleteOnExit(mergedRecordsPath.getParent());
+          writerPath = mergedRecordsPath;
+        }
+      }
+
       // Create the writer for writing the new version file
-      fileWriter = createNewFileWriter(instantTime, newFilePath, hoodieTable, config, writerSchemaWithMetafields, sparkTaskContextSupplier);
+      fileWriter = createNewFileWriter(instantTime, writerPath, hoodieTable, config, writerSchemaWithMetafields, sparkTaskContextSupplier);
     } catch (IOException io) {
       LOG.error("Error in update task at commit " + instantTime, io);
       writeStatus.setGlobalError(io);
@@ -143,6 +177,17 @@ public class HoodieMergeHandle<T extends HoodieRecordPayload> extends HoodieWrit
     }
   }
 
+  /**
+   * Whether the row groups of the old file without updates can be copied to the new file as is. This holds as long as
+   * the old records are neither rewritten nor need to be written in a particular order.
+   */
+  protected boolean supportsRowGroupPassthrough() {
+    return config.isParquetMergeRowGroupPassthroughEnabled()
+        && !config.shouldUseExternalSchemaTransformation()
+        && !baseFileToMerge.getBootstrapBaseFile().isPresent()
+        && HoodieFileFormat.PARQUET.getFileExtension().equals(hoodieTable.getBaseFileExtension());
+  }
+
   /**
    * Load the new incoming records in a map and return partitionPath.
    */
@@ -151,8 +196,11 @@ public class HoodieMergeHandle<T extends HoodieRecordPayload> extends HoodieWrit
       // Load the new records in a map
       long memoryForMerge = SparkConfigUtils.getMaxMemoryPerPartitionMerge(config.getProps());
       LOG.info("MaxMemoryPerPartitionMerge => " + memoryForMerge);
+      DiskMapSerializer<HoodieRecord<T>> valueSerializer = config.isSpillableMapRecordSerializerEnabled()
+          ? new HoodieRecordDiskMapSerializer<>(config.getPayloadClass()) : new KryoDiskMapSerializer<>();
       this.keyToNewRecords = new ExternalSpillableMap<>(memoryForMerge, config.getSpillableMapBasePath(),
-          new DefaultSizeEstimator(), new HoodieRecordSizeEstimator(writerSchema));
+          new DefaultSizeEstimator(), new HoodieRecordSizeEstimator(writerSchema), config.getSpillableDiskMapType(),
+          valueSerializer);
     } catch (IOException io) {
       throw new HoodieIOException("Cannot instantiate an ExternalSpillableMap", io);
     }
@@ -279,10 +327,19 @@ public class HoodieMergeHandle<T extends HoodieRecordPayload> extends HoodieWrit
       keyToNewRecords.clear();
       writtenRecordKeys.clear();
 
+      if (rowGroupPassthrough.isPresent()) {
+        // the records of the copied row groups are written too, their keys go into the footer of the new file
+        recordsWritten += rowGroupPassthrough.get().forEachCopiedRecordKey(((HoodieParquetWriter) fileWriter)::addRecordKey);
+      }
+
       if (fileWriter != null) {
         fileWriter.close();
       }
 
+      if (rowGroupPassthrough.isPresent()) {
+        rowGroupPassthrough.get().writeNewFile(mergedRecordsPath, newFilePath);
+      }
+
       long fileSizeInBytes = FSUtils.getFileSize(fs, newFilePath);
       HoodieWriteStat stat = writeStatus.getStat();
 
@@ -303,6 +360,29 @@ public class HoodieMergeHandle<T extends HoodieRecordPayload> extends HoodieWrit
       return writeStatus;
     } catch (IOException e) {
       throw new HoodieUpsertException("Failed to close UpdateHandle", e);
+    } finally {
+      closeNewRecords();
+      deleteMergedRecordsFile();
+    }
+  }
+
+  private void closeNewRecords() {
+    if (keyToNewRecords instanceof ExternalSpillableMap) {
+      ((ExternalSpillableMap) keyToNewRecords).close();
+    }
+  }
+
+  private void deleteMergedRecordsFile() {
+    if (mergedRecordsPath == null) {
+      return;
+    }
+    Path mergeDir = mergedRecordsPath.getParent();
+    try {
+      FileSystem localFs = mergeDir.getFileSystem(hoodieTable.getHadoopConf());
+      localFs.delete(mergeDir, true);
+      localFs.cancelDeleteOnExit(mergeDir);
+    } catch (IOException e) {
+      LOG.warn("Failed to delete the merged records file " + mergedRecordsPath, e);
     }
   }
 
@@ -323,4 +403,8 @@ public class HoodieMergeHandle<T extends HoodieRecordPayload> extends HoodieWrit
   public HoodieBaseFile baseFileForMerge() {
     return baseFileToMerge;
   }
+
+  public Option<HoodieParquetRowGroupPassthrough> getRowGroupPassthrough() {
+    return rowGroupPassthrough;
+  }
 }
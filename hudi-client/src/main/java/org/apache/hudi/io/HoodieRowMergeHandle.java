@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.io;
+
+import org.apache.hudi.client.HoodieInternalWriteStatus;
+import org.apache.hudi.client.model.HoodieInternalRow;
+import org.apache.hudi.client.utils.SparkConfigUtils;
+import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.model.HoodiePartitionMetadata;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieWriteStat;
+import org.apache.hudi.common.model.IOType;
+import org.apache.hudi.common.util.DefaultSizeEstimator;
+import org.apache.hudi.common.util.HoodieTimer;
+import org.apache.hudi.common.util.collection.ExternalSpillableMap;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.exception.HoodieIOException;
+import org.apache.hudi.exception.HoodieUpsertException;
+import org.apache.hudi.io.storage.HoodieInternalRowFileWriter;
+import org.apache.hudi.io.storage.HoodieInternalRowFileWriterFactory;
+import org.apache.hudi.table.HoodieTable;
+import org.apache.hudi.table.MarkerFiles;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.types.StructType;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Merge handle with InternalRow for the datasource implementation of upsert. Counterpart of {@link HoodieMergeHandle}
+ * for payloads that overwrite the stored record with the latest one: the rows of the old base file are passed in one
+ * by one and copied as is, unless an incoming row with the same key replaces them. Incoming rows without a match in
+ * the old file are appended as inserts on {@link #close()}.
+ */
+public class HoodieRowMergeHandle implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+  private static final Logger LOG = LogManager.getLogger(HoodieRowMergeHandle.class);
+  private static final AtomicLong SEQGEN = new AtomicLong(1);
+
+  private static final int RECORD_KEY_POS = HoodieRecord.HOODIE_META_COLUMNS_NAME_TO_POS.get(HoodieRecord.RECORD_KEY_METADATA_FIELD);
+  private static final int PARTITION_PATH_POS = HoodieRecord.HOODIE_META_COLUMNS_NAME_TO_POS.get(HoodieRecord.PARTITION_PATH_METADATA_FIELD);
+
+  private final String instantTime;
+  private final int taskPartitionId;
+  private final long taskId;
+  private final long taskEpochId;
+  private final HoodieTable table;
+  private final HoodieWriteConfig writeConfig;
+  private final String partitionPath;
+  private final String fileId;
+  private final FileSystem fs;
+  private final Path oldFilePath;
+  private final Path newFilePath;
+  private final HoodieInternalWriteStatus writeStatus;
+  private final HoodieTimer currTimer;
+  private final ExternalSpillableMap<String, InternalRow> keyToNewRows;
+  private final Set<String> writtenRecordKeys = new HashSet<>();
+  private final HoodieInternalRowFileWriter fileWriter;
+
+  private long recordsWritten = 0;
+  private long updatedRecordsWritten = 0;
+  private long insertRecordsWritten = 0;
+
+  public HoodieRowMergeHandle(HoodieTable table, HoodieWriteConfig writeConfig, String partitionPath, String fileId,
+      HoodieBaseFile baseFileToMerge, Iterator<InternalRow> newRows, String instantTime, int taskPartitionId,
+      long taskId, long taskEpochId, StructType structType) {
+    this.table = table;
+    this.writeConfig = writeConfig;
+    this.partitionPath = partitionPath;
+    this.fileId = fileId;
+    this.instantTime = instantTime;
+    this.taskPartitionId = taskPartitionId;
+    this.taskId = taskId;
+    this.taskEpochId = taskEpochId;
+    this.currTimer = new HoodieTimer();
+    this.currTimer.startTimer();
+    this.fs = table.getMetaClient().getFs();
+    this.writeStatus = new HoodieInternalWriteStatus(!table.getIndex().isImplicitWithStorage(),
+        writeConfig.getWriteStatusFailureFraction());
+    writeStatus.setPartitionPath(partitionPath);
+    writeStatus.setFileId(fileId);
+
+    long memoryForMerge = SparkConfigUtils.getMaxMemoryPerPartitionMerge(writeConfig.getProps());
+    try {
+      this.keyToNewRows = new ExternalSpillableMap<>(memoryForMerge, writeConfig.getSpillableMapBasePath(),
+          new DefaultSizeEstimator(), new DefaultSizeEstimator(), writeConfig.getSpillableDiskMapType());
+    } catch (IOException e) {
+      throw new HoodieIOException("Cannot instantiate an ExternalSpillableMap", e);
+    }
+    while (newRows.hasNext()) {
+      // the incoming rows may be reused by their iterator
+      InternalRow row = newRows.next().copy();
+      keyToNewRows.put(row.getUTF8String(RECORD_KEY_POS).toString(), row);
+    }
+    LOG.info("Number of new rows to merge into fileId " + fileId + " => " + keyToNewRows.size()
+        + ", spilled to disk => " + keyToNewRows.getDiskBasedMapNumEntries());
+
+    String newFileName = FSUtils.makeDataFileName(instantTime, getWriteToken(), fileId, table.getBaseFileExtension());
+    Path partitionFullPath = FSUtils.getPartitionPath(writeConfig.getBasePath(), partitionPath);
+    this.oldFilePath = new Path(partitionFullPath, baseFileToMerge.getFileName());
+    this.newFilePath = new Path(partitionFullPath, newFileName);
+    try {
+      HoodiePartitionMetadata partitionMetadata = new HoodiePartitionMetadata(fs, instantTime,
+          new Path(writeConfig.getBasePath()), partitionFullPath);
+      partitionMetadata.trySave(taskPartitionId);
+      new MarkerFiles(table, instantTime).create(partitionPath, newFileName, IOType.MERGE);
+      this.fileWriter = HoodieInternalRowFileWriterFactory.getInternalRowFileWriter(newFilePath, table, writeConfig, structType);
+    } catch (IOException e) {
+      throw new HoodieUpsertException("Failed to initialize HoodieRowMergeHandle for FileId: " + fileId + " on commit "
+          + instantTime + " on path " + writeConfig.getBasePath(), e);
+    }
+    LOG.info(String.format("Merging new rows into oldPath %s, as newPath %s", oldFilePath, newFilePath));
+  }
+
+  /**
+   * Goes through a row of the old base file. If an incoming row with the same key shows up, it is written in place of
+   * the old one.
+   *
+   * @param oldRow row of the old base file, with the meta columns first.
+   */
+  public void write(InternalRow oldRow) {
+    String key = oldRow.getUTF8String(RECORD_KEY_POS).toString();
+    InternalRow newRow = keyToNewRows.get(key);
+    if (newRow != null) {
+      writeNewRow(key, newRow);
+      writtenRecordKeys.add(key);
+      updatedRecordsWritten++;
+      return;
+    }
+    try {
+      // existing rows keep their meta columns, like records copied by HoodieMergeHandle
+      fileWriter.writeRow(key, oldRow);
+      recordsWritten++;
+    } catch (IOException e) {
+      throw new HoodieUpsertException("Failed to merge old row into new file for key " + key + " from old file "
+          + oldFilePath + " to new file " + newFilePath, e);
+    }
+  }
+
+  /**
+   * Writes the incoming rows that did not replace an old row, closes the {@link HoodieRowMergeHandle} and returns the
+   * stats and status of the writes to this handle.
+   */
+  public HoodieInternalWriteStatus close() throws IOException {
+    Iterator<InternalRow> newRowsItr = keyToNewRows.iterator();
+    while (newRowsItr.hasNext()) {
+      InternalRow newRow = newRowsItr.next();
+      String key = newRow.getUTF8String(RECORD_KEY_POS).toString();
+      if (!writtenRecordKeys.contains(key)) {
+        writeNewRow(key, newRow);
+        insertRecordsWritten++;
+      }
+    }
+    keyToNewRows.close();
+    writtenRecordKeys.clear();
+    fileWriter.close();
+
+    HoodieWriteStat stat = new HoodieWriteStat();
+    stat.setPartitionPath(partitionPath);
+    stat.setFileId(fileId);
+    stat.setPrevCommit(FSUtils.getCommitTime(oldFilePath.getName()));
+    stat.setPath(new Path(writeConfig.getBasePath()), newFilePath);
+    stat.setNumWrites(recordsWritten);
+    stat.setNumDeletes(0);
+    stat.setNumUpdateWrites(updatedRecordsWritten);
+    stat.setNumInserts(insertRecordsWritten);
+    long fileSizeInBytes = FSUtils.getFileSize(fs, newFilePath);
+    stat.setTotalWriteBytes(fileSizeInBytes);
+    stat.setFileSizeInBytes(fileSizeInBytes);
+    stat.setTotalWriteErrors(writeStatus.getFailedRowsSize());
+    HoodieWriteStat.RuntimeStats runtimeStats = new HoodieWriteStat.RuntimeStats();
+    runtimeStats.setTotalUpsertTime(currTimer.endTimer());
+    stat.setRuntimeStats(runtimeStats);
+    writeStatus.setStat(stat);
+    LOG.info(String.format("RowMergeHandle for partitionPath %s fileID %s, took %d ms.", partitionPath, fileId,
+        runtimeStats.getTotalUpsertTime()));
+    return writeStatus;
+  }
+
+  public Path getOldFilePath() {
+    return oldFilePath;
+  }
+
+  private void writeNewRow(String key, InternalRow row) {
+    String seqId = HoodieRecord.generateSequenceId(instantTime, taskPartitionId, SEQGEN.getAndIncrement());
+    HoodieInternalRow internalRow = new HoodieInternalRow(instantTime, seqId, key,
+        row.getUTF8String(PARTITION_PATH_POS).toString(), newFilePath.getName(), row);
+    try {
+      fileWriter.writeRow(key, internalRow);
+      writeStatus.markSuccess(key);
+    } catch (Throwable t) {
+      writeStatus.markFailure(key, t);
+    }
+    recordsWritten++;
+  }
+
+  private String getWriteToken() {
+    return taskPartitionId + "-" + taskId + "-" + taskEpochId;
+  }
+}
@@ -63,6 +63,12 @@ public class HoodieSortedMergeHandle<T extends HoodieRecordPayload> extends Hood
     newRecordKeysSorted.addAll(keyToNewRecords.keySet());
   }
 
+  @Override
+  protected boolean supportsRowGroupPassthrough() {
+    // copied row groups would break the sort order of the new file
+    return false;
+  }
+
   /**
    * Go through an old record. Here if we detect a newer version shows up, we write the new one to the file.
    */
@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.io.storage;
+
+import org.apache.hudi.avro.HoodieAvroUtils;
+import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.fs.HoodieWrapperFileSystem;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.ParquetReaderIterator;
+import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.exception.HoodieIOException;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.avro.AvroReadSupport;
+import org.apache.parquet.avro.AvroSchemaConverter;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.PrimitiveComparator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Splits the row groups of a parquet base file that is being merged into the ones that may hold any of the incoming
+ * record keys, going by the min/max statistics of their record key column, and the untouched ones. Only the records of
+ * the former need to be read and merged, the latter are copied into the new version of the file as raw column chunks.
+ * <p>
+ * The merged records are written to a file of their own first, which is stitched together with the untouched row
+ * groups of the old file once the merge is done.
+ */
+public class HoodieParquetRowGroupPassthrough {
+
+  private static final Logger LOG = LogManager.getLogger(HoodieParquetRowGroupPassthrough.class);
+
+  private final Configuration conf;
+  private final Path oldFilePath;
+  private final List<BlockMetaData> untouchedRowGroups;
+  // Byte ranges of the old file, consecutive row groups of the same kind share a range
+  private final List<Pair<Long, Long>> touchedRanges;
+  private final List<Pair<Long, Long>> untouchedRanges;
+
+  private HoodieParquetRowGroupPassthrough(Configuration conf, Path oldFilePath, List<BlockMetaData> untouchedRowGroups,
+      List<Pair<Long, Long>> touchedRanges, List<Pair<Long, Long>> untouchedRanges) {
+    this.conf = conf;
+    this.oldFilePath = oldFilePath;
+    this.untouchedRowGroups = untouchedRowGroups;
+    this.touchedRanges = touchedRanges;
+    this.untouchedRanges = untouchedRanges;
+  }
+
+  /**
+   * Plans the merge of the given record keys into the old file. Returns empty if every row group needs to be merged,
+   * or the row groups cannot be copied since the schema of the old file differs from the one of the new file.
+   */
+  public static Option<HoodieParquetRowGroupPassthrough> create(Configuration conf, Path oldFilePath,
+      Schema writerSchemaWithMetafields, Set<String> newRecordKeys) throws IOException {
+    ParquetMetadata footer = ParquetFileReader.readFooter(conf, oldFilePath, ParquetMetadataConverter.NO_FILTER);
+    if (!footer.getFileMetaData().getSchema().equals(new AvroSchemaConverter().convert(writerSchemaWithMetafields))) {
+      LOG.info("Schema of " + oldFilePath + " differs from the writer schema, merging all of its row groups");
+      return Option.empty();
+    }
+
+    List<Binary> sortedKeys = newRecordKeys.stream().map(Binary::fromString)
+        .sorted(PrimitiveComparator.UNSIGNED_LEXICOGRAPHICAL_BINARY_COMPARATOR).collect(Collectors.toList());
+    List<BlockMetaData> rowGroups = footer.getBlocks();
+    boolean[] touched = new boolean[rowGroups.size()];
+    for (int i = 0; i < rowGroups.size(); i++) {
+      touched[i] = mayContainAnyKey(rowGroups.get(i), sortedKeys);
+    }
+
+    List<BlockMetaData> untouchedRowGroups = new ArrayList<>();
+    List<Pair<Long, Long>> touchedRanges = new ArrayList<>();
+    List<Pair<Long, Long>> untouchedRanges = new ArrayList<>();
+    int rangeStart = 0;
+    for (int i = 0; i < rowGroups.size(); i++) {
+      if (!touched[i]) {
+        untouchedRowGroups.add(rowGroups.get(i));
+      }
+      boolean lastRowGroup = i == rowGroups.size() - 1;
+      if (lastRowGroup || touched[i] != touched[i + 1]) {
+        // a row group is read if the midpoint of its column chunks falls into the range, so a range ends where the
+        // next row group starts
+        long start = rowGroups.get(rangeStart).getStartingPos();
+        long end = lastRowGroup ? Long.MAX_VALUE : rowGroups.get(i + 1).getStartingPos();
+        (touched[i] ? touchedRanges : untouchedRanges).add(Pair.of(start, end));
+        rangeStart = i + 1;
+      }
+    }
+
+    if (untouchedRowGroups.isEmpty()) {
+      return Option.empty();
+    }
+    LOG.info("Copying " + untouchedRowGroups.size() + " out of " + rowGroups.size() + " row groups of " + oldFilePath
+        + " as is");
+    return Option.of(new HoodieParquetRowGroupPassthrough(conf, oldFilePath, untouchedRowGroups, touchedRanges,
+        untouchedRanges));
+  }
+
+  /**
+   * Whether the record key range of the row group holds any of the sorted keys. Row groups without statistics on their
+   * record key column are always merged.
+   */
+  private static boolean mayContainAnyKey(BlockMetaData rowGroup, List<Binary> sortedKeys) {
+    for (ColumnChunkMetaData column : rowGroup.getColumns()) {
+      if (!column.getPath().toDotString().equals(HoodieRecord.RECORD_KEY_METADATA_FIELD)) {
+        continue;
+      }
+      Statistics<?> stats = column.getStatistics();
+      if (stats == null || stats.isEmpty() || !stats.hasNonNullValue()) {
+        return true;
+      }
+      Binary min = Binary.fromConstantByteArray(stats.getMinBytes());
+      Binary max = Binary.fromConstantByteArray(stats.getMaxBytes());
+      int pos = Collections.binarySearch(sortedKeys, min, PrimitiveComparator.UNSIGNED_LEXICOGRAPHICAL_BINARY_COMPARATOR);
+      // the first key not smaller than the min must not be larger than the max
+      int firstInRange = pos >= 0 ? pos : -pos - 1;
+      return firstInRange < sortedKeys.size()
+          && PrimitiveComparator.UNSIGNED_LEXICOGRAPHICAL_BINARY_COMPARATOR.compare(sortedKeys.get(firstInRange), max) <= 0;
+    }
+    return true;
+  }
+
+  /**
+   * Records of the row groups of the old file that need to be merged.
+   */
+  public Iterator<GenericRecord> getRecordIterator(Schema readSchema) {
+    Configuration readConf = new Configuration(conf);
+    AvroReadSupport.setAvroReadSchema(readConf, readSchema);
+    return new RangesIterator(readConf, touchedRanges);
+  }
+
+  /**
+   * Hands the record keys of the copied row groups to the given consumer, reading only the record key column.
+   *
+   * @return number of copied records
+   */
+  public long forEachCopiedRecordKey(Consumer<String> consumer) throws IOException {
+    Configuration readConf = new Configuration(conf);
+    AvroReadSupport.setAvroReadSchema(readConf, HoodieAvroUtils.getRecordKeySchema());
+    AvroReadSupport.setRequestedProjection(readConf, HoodieAvroUtils.getRecordKeySchema());
+    RangesIterator keys = new RangesIterator(readConf, untouchedRanges);
+    long numKeys = 0;
+    try {
+      while (keys.hasNext()) {
+        consumer.accept(keys.next().get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString());
+        numKeys++;
+      }
+    } finally {
+      keys.close();
+    }
+    return numKeys;
+  }
+
+  /**
+   * Writes the new version of the file, made of the copied row groups of the old file followed by the row groups of
+   * the file with the merged records. The footer of the latter, which tracks the keys of all the records, becomes the
+   * footer of the new file.
+   */
+  public void writeNewFile(Path mergedRecordsPath, Path newFilePath) throws IOException {
+    ParquetMetadata mergedFooter = ParquetFileReader.readFooter(conf, mergedRecordsPath,
+        ParquetMetadataConverter.NO_FILTER);
+    ParquetFileWriter writer = new ParquetFileWriter(FSUtils.registerFileSystem(newFilePath, conf),
+        mergedFooter.getFileMetaData().getSchema(), HoodieWrapperFileSystem.convertToHoodiePath(newFilePath, conf),
+        ParquetFileWriter.Mode.CREATE);
+    writer.start();
+    appendRowGroups(writer, oldFilePath, untouchedRowGroups);
+    appendRowGroups(writer, mergedRecordsPath, mergedFooter.getBlocks());
+    writer.end(mergedFooter.getFileMetaData().getKeyValueMetaData());
+  }
+
+  private void appendRowGroups(ParquetFileWriter writer, Path path, List<BlockMetaData> rowGroups) throws IOException {
+    FileSystem fs = FSUtils.getFs(path.toString(), conf);
+    try (FSDataInputStream in = fs.open(path)) {
+      writer.appendRowGroups(in, rowGroups, false);
+    }
+  }
+
+  /**
+   * Reads the records of a list of byte ranges of the old file, one range after the other.
+   */
+  private class RangesIterator implements Iterator<GenericRecord> {
+
+    private final Configuration readConf;
+    private final Iterator<Pair<Long, Long>> ranges;
+    private ParquetReaderIterator<GenericRecord> current;
+
+    private RangesIterator(Configuration readConf, List<Pair<Long, Long>> ranges) {
+      this.readConf = readConf;
+      this.ranges = ranges.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+      try {
+        while (current == null || !current.hasNext()) {
+          close();
+          if (!ranges.hasNext()) {
+            return false;
+          }
+          Pair<Long, Long> range = ranges.next();
+          current = new ParquetReaderIterator<>(AvroParquetReader.<GenericRecord>builder(oldFilePath).withConf(readConf)
+              .withFileRange(range.getLeft(), range.getRight()).build());
+        }
+        return true;
+      } catch (IOException e) {
+        throw new HoodieIOException("Unable to read row groups of " + oldFilePath, e);
+      }
+    }
+
+    @Override
+    public GenericRecord next() {
+      if (!hasNext()) {
+        throw new HoodieIOException("No more records left to read from " + oldFilePath);
+      }
+      return current.next();
+    }
+
+    private void close() throws IOException {
+      if (current != null) {
+        current.close();
+        current = null;
+      }
+    }
+  }
+}
@@ -94,4 +94,12 @@ public class HoodieParquetWriter<T extends HoodieRecordPayload, R extends Indexe
     super.write(object);
     writeSupport.add(key);
   }
+
+  /**
+   * Tracks the key of a record that ends up in the file without being written by this writer, such as a record of a
+   * row group copied as is, in the bloom filter and min/max record keys of the file.
+   */
+  public void addRecordKey(String key) {
+    writeSupport.add(key);
+  }
 }
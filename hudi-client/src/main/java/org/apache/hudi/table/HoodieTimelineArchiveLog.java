@@ -22,16 +22,23 @@ import org.apache.hadoop.conf.Configuration;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.generic.IndexedRecord;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 
+import org.apache.hudi.avro.model.HoodieArchiveMergePlan;
+import org.apache.hudi.avro.model.HoodieArchivedBlockIndex;
 import org.apache.hudi.avro.model.HoodieArchivedMetaEntry;
 import org.apache.hudi.avro.model.HoodieCompactionPlan;
 import org.apache.hudi.avro.model.HoodieRollbackMetadata;
 import org.apache.hudi.avro.model.HoodieSavepointMetadata;
 import org.apache.hudi.common.model.ActionType;
+import org.apache.hudi.common.fs.FSUtils;
 import org.apache.hudi.common.model.HoodieArchivedLogFile;
 import org.apache.hudi.common.model.HoodieCommitMetadata;
+import org.apache.hudi.common.model.HoodieLogFile;
 import org.apache.hudi.common.model.HoodieRollingStatMetadata;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
 import org.apache.hudi.common.table.log.HoodieLogFormat;
@@ -39,6 +46,8 @@ import org.apache.hudi.common.table.log.HoodieLogFormat.Writer;
 import org.apache.hudi.common.table.log.block.HoodieAvroDataBlock;
 import org.apache.hudi.common.table.log.block.HoodieLogBlock;
 import org.apache.hudi.common.table.log.block.HoodieLogBlock.HeaderMetadataType;
+import org.apache.hudi.common.table.timeline.ArchivedTimelineIndex;
+import org.apache.hudi.common.table.timeline.ArchivedTimelineMergePlan;
 import org.apache.hudi.common.table.timeline.HoodieActiveTimeline;
 import org.apache.hudi.common.table.timeline.HoodieArchivedTimeline;
 import org.apache.hudi.common.table.timeline.HoodieInstant;
@@ -59,12 +68,15 @@ import org.apache.spark.api.java.JavaSparkContext;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -78,6 +90,10 @@ public class HoodieTimelineArchiveLog {
 
   private static final Logger LOG = LogManager.getLogger(HoodieTimelineArchiveLog.class);
 
+  private static final String MERGE_TEMP_FOLDER_NAME = ".archive_merge_tmp";
+  private static final String COMMIT_TIME_KEY = "commitTime";
+  private static final String ACTION_TYPE_KEY = "actionType";
+
   private final Path archiveFilePath;
   private final HoodieWriteConfig config;
   private Writer writer;
@@ -123,10 +139,11 @@ public class HoodieTimelineArchiveLog {
    * Check if commits need to be archived. If yes, archive commits.
    */
   public boolean archiveIfRequired(JavaSparkContext jsc) throws IOException {
+    completeOrRollbackArchiveMerge();
+    boolean success = true;
     try {
       List<HoodieInstant> instantsToArchive = getInstantsToArchive().collect(Collectors.toList());
 
-      boolean success = true;
       if (!instantsToArchive.isEmpty()) {
         this.writer = openWriter();
         LOG.info("Archiving instants " + instantsToArchive);
@@ -136,11 +153,152 @@ public class HoodieTimelineArchiveLog {
       } else {
         LOG.info("No Instants to archive");
       }
-
-      return success;
     } finally {
       close();
     }
+    if (config.isArchiveMergeEnabled()) {
+      mergeArchiveFiles();
+    }
+    return success;
+  }
+
+  /**
+   * Merges the small archive files into one file, sorted by instant time, once there are enough of them. Files
+   * modified more recently than the configured age and the latest file, which archiving appends to, are left alone.
+   * The merged file is written aside and replaces its source files following a {@link ArchivedTimelineMergePlan}.
+   */
+  private void mergeArchiveFiles() throws IOException {
+    FileSystem fs = metaClient.getFs();
+    String archiveFolder = metaClient.getArchivePath();
+    FileStatus[] archiveFiles = fs.globStatus(new Path(archiveFolder + "/.commits_.archive*"));
+    if (archiveFiles == null || archiveFiles.length < 2) {
+      return;
+    }
+    Arrays.sort(archiveFiles, new HoodieArchivedTimeline.ArchiveFileVersionComparator());
+    long maxModificationTime = System.currentTimeMillis() - config.getArchiveMergeMinFileAgeMs();
+    List<FileStatus> smallFiles = Arrays.stream(archiveFiles).skip(1)
+        .filter(f -> f.getLen() < config.getArchiveMergeSmallFileLimitBytes() && f.getModificationTime() <= maxModificationTime)
+        .collect(Collectors.toList());
+    if (smallFiles.size() < config.getArchiveMergeMinFiles()) {
+      LOG.info("Found " + smallFiles.size() + " small archive files, not merging them yet");
+      return;
+    }
+
+    List<String> sourceFiles = new ArrayList<>();
+    List<IndexedRecord> records = new ArrayList<>();
+    for (FileStatus smallFile : smallFiles) {
+      Option<List<IndexedRecord>> fileRecords = readArchiveFile(smallFile);
+      if (fileRecords.isPresent()) {
+        sourceFiles.add(smallFile.getPath().getName());
+        records.addAll(fileRecords.get());
+      }
+    }
+    if (sourceFiles.size() < config.getArchiveMergeMinFiles()) {
+      return;
+    }
+    records.sort(Comparator.comparing(record -> ((GenericRecord) record).get(COMMIT_TIME_KEY).toString()));
+
+    // the merged file takes the next version, the archive files are named after the same file id
+    Path tempFolder = new Path(archiveFolder, MERGE_TEMP_FOLDER_NAME);
+    fs.delete(tempFolder, true);
+    fs.mkdirs(tempFolder);
+    Writer mergeWriter;
+    try {
+      mergeWriter = HoodieLogFormat.newWriterBuilder().onParentPath(tempFolder)
+          .withFileId(archiveFilePath.getName()).withFileExtension(HoodieArchivedLogFile.ARCHIVE_EXTENSION)
+          .withFs(fs).overBaseCommit("").withLogVersion(FSUtils.getFileVersionFromLog(archiveFiles[0].getPath()) + 1)
+          .withLogWriteToken(HoodieLogFormat.UNKNOWN_WRITE_TOKEN).withSizeThreshold(Long.MAX_VALUE).build();
+    } catch (InterruptedException e) {
+      throw new HoodieException("Unable to initialize HoodieLogFormat writer", e);
+    }
+    String mergedFileName = mergeWriter.getLogFile().getFileName();
+    List<HoodieArchivedBlockIndex> mergedBlocks = new ArrayList<>();
+    try {
+      Map<HeaderMetadataType, String> header = new HashMap<>();
+      header.put(HeaderMetadataType.SCHEMA, HoodieArchivedMetaEntry.getClassSchema().toString());
+      int batchSize = config.getCommitArchivalBatchSize();
+      for (int i = 0; i < records.size(); i += batchSize) {
+        List<IndexedRecord> batch = new ArrayList<>(records.subList(i, Math.min(i + batchSize, records.size())));
+        long position = mergeWriter.getCurrentSize();
+        mergeWriter = mergeWriter.appendBlock(new HoodieAvroDataBlock(batch, header));
+        mergedBlocks.add(ArchivedTimelineIndex.newBlock(mergedFileName, position, mergeWriter.getCurrentSize() - position,
+            batch.stream().map(record -> (GenericRecord) record)
+                .map(record -> new HoodieInstant(false, record.get(ACTION_TYPE_KEY).toString(),
+                    record.get(COMMIT_TIME_KEY).toString()))
+                .collect(Collectors.toList())));
+      }
+    } catch (InterruptedException e) {
+      throw new HoodieException("Failed to write merged archive file " + mergedFileName, e);
+    } finally {
+      mergeWriter.close();
+    }
+
+    LOG.info("Merging archive files " + sourceFiles + " into " + mergedFileName);
+    HoodieArchiveMergePlan plan = new HoodieArchiveMergePlan(1, sourceFiles, mergedFileName, mergedBlocks);
+    ArchivedTimelineMergePlan.save(fs, archiveFolder, plan);
+    Path mergedFilePath = new Path(archiveFolder, mergedFileName);
+    if (!fs.rename(new Path(tempFolder, mergedFileName), mergedFilePath)) {
+      throw new HoodieIOException("Could not move merged archive file into " + mergedFilePath);
+    }
+    completeArchiveMerge(plan);
+  }
+
+  /**
+   * Reads the records of an archive file to merge, empty if it holds blocks other than avro data blocks, which leaves
+   * the file out of the merge.
+   */
+  private Option<List<IndexedRecord>> readArchiveFile(FileStatus archiveFile) throws IOException {
+    List<IndexedRecord> records = new ArrayList<>();
+    try (HoodieLogFormat.Reader reader = HoodieLogFormat.newReader(metaClient.getFs(),
+        new HoodieLogFile(archiveFile.getPath()), HoodieArchivedMetaEntry.getClassSchema())) {
+      while (reader.hasNext()) {
+        HoodieLogBlock block = reader.next();
+        if (!(block instanceof HoodieAvroDataBlock)) {
+          LOG.warn("Found " + block.getBlockType() + " block in archive file " + archiveFile.getPath() + ", not merging it");
+          return Option.empty();
+        }
+        records.addAll(((HoodieAvroDataBlock) block).getRecords());
+      }
+    }
+    return Option.of(records);
+  }
+
+  /**
+   * Completes a merge of archive files whose merged file was moved into the archive folder, rolls back one whose
+   * merged file was not.
+   */
+  private void completeOrRollbackArchiveMerge() throws IOException {
+    Option<HoodieArchiveMergePlan> plan = ArchivedTimelineMergePlan.load(metaClient.getFs(), metaClient.getArchivePath());
+    if (!plan.isPresent()) {
+      return;
+    }
+    if (metaClient.getFs().exists(new Path(metaClient.getArchivePath(), plan.get().getMergedFile()))) {
+      LOG.info("Completing merge of archive files into " + plan.get().getMergedFile());
+      completeArchiveMerge(plan.get());
+    } else {
+      LOG.info("Rolling back merge of archive files into " + plan.get().getMergedFile());
+      ArchivedTimelineMergePlan.delete(metaClient.getFs(), metaClient.getArchivePath());
+      metaClient.getFs().delete(new Path(metaClient.getArchivePath(), MERGE_TEMP_FOLDER_NAME), true);
+    }
+  }
+
+  private void completeArchiveMerge(HoodieArchiveMergePlan plan) throws IOException {
+    FileSystem fs = metaClient.getFs();
+    String archiveFolder = metaClient.getArchivePath();
+    ArchivedTimelineIndex archivedTimelineIndex = ArchivedTimelineIndex.load(fs, archiveFolder);
+    Set<String> replacedFiles = new HashSet<>(plan.getSourceFiles());
+    replacedFiles.add(plan.getMergedFile());
+    archivedTimelineIndex.removeBlocksOfFiles(replacedFiles);
+    archivedTimelineIndex.addMergedBlocks(plan.getMergedBlocks());
+    archivedTimelineIndex.save(fs, archiveFolder);
+    for (String sourceFile : plan.getSourceFiles()) {
+      Path sourceFilePath = new Path(archiveFolder, sourceFile);
+      if (fs.exists(sourceFilePath) && !fs.delete(sourceFilePath, false)) {
+        throw new HoodieIOException("Could not delete merged archive file " + sourceFilePath);
+      }
+    }
+    ArchivedTimelineMergePlan.delete(fs, archiveFolder);
+    fs.delete(new Path(archiveFolder, MERGE_TEMP_FOLDER_NAME), true);
   }
 
   private Stream<HoodieInstant> getCleanInstantsToArchive() {
@@ -273,13 +431,14 @@ public class HoodieTimelineArchiveLog {
       HoodieTimeline commitTimeline = metaClient.getActiveTimeline().getAllCommitsTimeline().filterCompletedInstants();
       Schema wrapperSchema = HoodieArchivedMetaEntry.getClassSchema();
       LOG.info("Wrapper schema " + wrapperSchema.toString());
+      ArchivedTimelineIndex archivedTimelineIndex = ArchivedTimelineIndex.load(metaClient.getFs(), metaClient.getArchivePath());
       List<IndexedRecord> records = new ArrayList<>();
       for (HoodieInstant hoodieInstant : instants) {
         try {
           deleteAnyLeftOverMarkerFiles(jsc, hoodieInstant);
           records.add(convertToAvroRecord(commitTimeline, hoodieInstant));
           if (records.size() >= this.config.getCommitArchivalBatchSize()) {
-            writeToFile(wrapperSchema, records);
+            writeToFile(wrapperSchema, records, archivedTimelineIndex);
           }
         } catch (Exception e) {
           LOG.error("Failed to archive commits, .commit file: " + hoodieInstant.getFileName(), e);
@@ -288,7 +447,8 @@ public class HoodieTimelineArchiveLog {
           }
         }
       }
-      writeToFile(wrapperSchema, records);
+      writeToFile(wrapperSchema, records, archivedTimelineIndex);
+      archivedTimelineIndex.save(metaClient.getFs(), metaClient.getArchivePath());
     } catch (Exception e) {
       throw new HoodieCommitException("Failed to archive commits", e);
     }
@@ -301,12 +461,22 @@ public class HoodieTimelineArchiveLog {
     }
   }
 
-  private void writeToFile(Schema wrapperSchema, List<IndexedRecord> records) throws Exception {
+  private void writeToFile(Schema wrapperSchema, List<IndexedRecord> records, ArchivedTimelineIndex archivedTimelineIndex)
+      throws Exception {
     if (records.size() > 0) {
       Map<HeaderMetadataType, String> header = new HashMap<>();
       header.put(HoodieLogBlock.HeaderMetadataType.SCHEMA, wrapperSchema.toString());
       HoodieAvroDataBlock block = new HoodieAvroDataBlock(records, header);
-      this.writer = writer.appendBlock(block);
+      Writer blockWriter = this.writer;
+      long position = blockWriter.getCurrentSize();
+      this.writer = blockWriter.appendBlock(block);
+      // the writer rolls over to a new file once the block takes the file past its size threshold
+      long blockEnd = this.writer == blockWriter ? this.writer.getCurrentSize()
+          : metaClient.getFs().getFileStatus(blockWriter.getLogFile().getPath()).getLen();
+      archivedTimelineIndex.addBlock(blockWriter.getLogFile().getFileName(), position, blockEnd - position,
+          records.stream().map(r -> (HoodieArchivedMetaEntry) r)
+              .map(entry -> new HoodieInstant(false, entry.getActionType(), entry.getCommitTime()))
+              .collect(Collectors.toList()));
       records.clear();
     }
   }
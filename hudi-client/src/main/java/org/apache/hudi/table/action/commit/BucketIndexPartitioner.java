@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.table.action.commit;
+
+import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.model.HoodieRecordLocation;
+import org.apache.hudi.common.model.HoodieRecordPayload;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.index.bucket.BucketIdentifier;
+import org.apache.hudi.table.HoodieTable;
+import org.apache.hudi.table.WorkloadProfile;
+import org.apache.hudi.table.WorkloadStat;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.spark.api.java.JavaSparkContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import scala.Tuple2;
+
+import static org.apache.hudi.index.HoodieIndexUtils.getLatestBaseFilesForAllPartitions;
+
+/**
+ * Packs incoming records into the file groups of their buckets, when the table uses the bucket index. Every touched
+ * file group gets its own bucket (RDD partition): an update bucket when the file group exists, so that new records of
+ * the bucket are merged into it, and otherwise an insert bucket that writes the file group of the bucket. There is no
+ * small file handling, the file groups of a bucket index never change.
+ */
+public class BucketIndexPartitioner<T extends HoodieRecordPayload<T>> extends UpsertPartitioner<T> {
+
+  private static final Logger LOG = LogManager.getLogger(BucketIndexPartitioner.class);
+
+  private final int numBuckets;
+  private final List<BucketInfo> bucketInfos = new ArrayList<>();
+  private final Map<String, Integer> fileIdToBucket = new HashMap<>();
+
+  public BucketIndexPartitioner(WorkloadProfile profile, JavaSparkContext jsc, HoodieTable<T> table,
+      HoodieWriteConfig config) {
+    super(profile, table, config);
+    this.numBuckets = config.getBucketIndexNumBuckets();
+    assignBuckets(profile, jsc);
+    LOG.info("Total Buckets :" + bucketInfos.size() + " for " + numBuckets + " buckets per partition");
+  }
+
+  private void assignBuckets(WorkloadProfile profile, JavaSparkContext jsc) {
+    List<String> insertPartitionPaths = profile.getPartitionPaths().stream()
+        .filter(partitionPath -> profile.getWorkloadStat(partitionPath).getNumInserts() > 0)
+        .collect(Collectors.toList());
+    // file groups of the buckets the inserts may fall into, which exist if the table was not tagged, e.g on insert
+    Set<String> existingFileIds = insertPartitionPaths.isEmpty() ? Collections.emptySet()
+        : getLatestBaseFilesForAllPartitions(insertPartitionPaths, jsc, table).stream()
+            .map(partitionBaseFile -> partitionBaseFile.getValue().getFileId()).collect(Collectors.toSet());
+
+    for (String partitionPath : profile.getPartitionPaths()) {
+      WorkloadStat stat = profile.getWorkloadStat(partitionPath);
+      for (String fileId : stat.getUpdateLocationToCount().keySet()) {
+        addBucket(BucketType.UPDATE, partitionPath, fileId, fileId);
+      }
+      if (stat.getNumInserts() > 0) {
+        // the workload profile only counts the inserts, so any bucket of the partition may receive some
+        for (int bucketId = 0; bucketId < numBuckets; bucketId++) {
+          String fileId = BucketIdentifier.getFileId(partitionPath, bucketId);
+          if (fileIdToBucket.containsKey(fileId)) {
+            continue;
+          }
+          if (existingFileIds.contains(fileId)) {
+            addBucket(BucketType.UPDATE, partitionPath, fileId, fileId);
+          } else {
+            addBucket(BucketType.INSERT, partitionPath, fileId, BucketIdentifier.getFileIdPrefix(partitionPath, bucketId));
+          }
+        }
+      }
+    }
+  }
+
+  private void addBucket(BucketType bucketType, String partitionPath, String fileId, String fileIdPrefix) {
+    BucketInfo bucketInfo = new BucketInfo();
+    bucketInfo.bucketType = bucketType;
+    bucketInfo.fileIdPrefix = fileIdPrefix;
+    bucketInfo.partitionPath = partitionPath;
+    fileIdToBucket.put(fileId, bucketInfos.size());
+    bucketInfos.add(bucketInfo);
+  }
+
+  @Override
+  public BucketInfo getBucketInfo(int bucketNumber) {
+    return bucketInfos.get(bucketNumber);
+  }
+
+  @Override
+  public List<InsertBucketCumulativeWeightPair> getInsertBuckets(String partitionPath) {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public int numPartitions() {
+    return bucketInfos.size();
+  }
+
+  @Override
+  public int getPartition(Object key) {
+    Tuple2<HoodieKey, Option<HoodieRecordLocation>> keyLocation =
+        (Tuple2<HoodieKey, Option<HoodieRecordLocation>>) key;
+    String fileId = keyLocation._2().isPresent() ? keyLocation._2().get().getFileId()
+        : BucketIdentifier.getFileId(keyLocation._1().getPartitionPath(), keyLocation._1().getRecordKey(), numBuckets);
+    return fileIdToBucket.get(fileId);
+  }
+}
@@ -27,8 +27,10 @@ import org.apache.hudi.common.util.Option;
 import org.apache.hudi.config.HoodieWriteConfig;
 import org.apache.hudi.exception.HoodieUpsertException;
 import org.apache.hudi.execution.LazyInsertIterable;
+import org.apache.hudi.index.HoodieIndex;
 import org.apache.hudi.io.HoodieMergeHandle;
 import org.apache.hudi.io.HoodieSortedMergeHandle;
+import org.apache.hudi.io.SingleFileCreateHandleFactory;
 import org.apache.hudi.table.HoodieTable;
 import org.apache.hudi.table.WorkloadProfile;
 import org.apache.hudi.table.action.HoodieWriteMetadata;
@@ -120,6 +122,11 @@ public abstract class CommitActionExecutor<T extends HoodieRecordPayload<T>>
       LOG.info("Empty partition");
       return Collections.singletonList((List<WriteStatus>) Collections.EMPTY_LIST).iterator();
     }
+    if (config.getIndexType() == HoodieIndex.IndexType.BUCKET) {
+      // the file group of a bucket must not be split into more file groups
+      return new LazyInsertIterable<>(recordItr, true, config, instantTime, (HoodieTable<T>)table, idPfx,
+          sparkTaskContextSupplier, new SingleFileCreateHandleFactory<>());
+    }
     return new LazyInsertIterable<>(recordItr, config, instantTime, (HoodieTable<T>)table, idPfx,
         sparkTaskContextSupplier);
   }
@@ -129,6 +136,9 @@ public abstract class CommitActionExecutor<T extends HoodieRecordPayload<T>>
     if (profile == null) {
       throw new HoodieUpsertException("Need workload profile to construct the upsert partitioner.");
     }
+    if (config.getIndexType() == HoodieIndex.IndexType.BUCKET) {
+      return new BucketIndexPartitioner(profile, jsc, table, config);
+    }
     return new UpsertPartitioner(profile, jsc, table, config);
   }
 
@@ -63,25 +63,29 @@ public class MergeHelper {
     Configuration cfgForHoodieFile = new Configuration(table.getHadoopConf());
     HoodieBaseFile baseFile = upsertHandle.baseFileForMerge();
 
-    final GenericDatumWriter<GenericRecord> gWriter;
-    final GenericDatumReader<GenericRecord> gReader;
-    Schema readSchema;
-    if (externalSchemaTransformation || baseFile.getBootstrapBaseFile().isPresent()) {
-      readSchema = HoodieFileReaderFactory.getFileReader(table.getHadoopConf(), upsertHandle.getOldFilePath()).getSchema();
-      gWriter = new GenericDatumWriter<>(readSchema);
-      gReader = new GenericDatumReader<>(readSchema, upsertHandle.getWriterSchemaWithMetafields());
-    } else {
-      gReader = null;
-      gWriter = null;
-      readSchema = upsertHandle.getWriterSchemaWithMetafields();
-    }
-
     BoundedInMemoryExecutor<GenericRecord, GenericRecord, Void> wrapper = null;
-    HoodieFileReader<GenericRecord> reader = HoodieFileReaderFactory.<T, GenericRecord>getFileReader(cfgForHoodieFile, upsertHandle.getOldFilePath());
+    HoodieFileReader<GenericRecord> reader = null;
     try {
+      final GenericDatumWriter<GenericRecord> gWriter;
+      final GenericDatumReader<GenericRecord> gReader;
+      Schema readSchema;
+      if (externalSchemaTransformation || baseFile.getBootstrapBaseFile().isPresent()) {
+        readSchema = HoodieFileReaderFactory.getFileReader(table.getHadoopConf(), upsertHandle.getOldFilePath()).getSchema();
+        gWriter = new GenericDatumWriter<>(readSchema);
+        gReader = new GenericDatumReader<>(readSchema, upsertHandle.getWriterSchemaWithMetafields());
+      } else {
+        gReader = null;
+        gWriter = null;
+        readSchema = upsertHandle.getWriterSchemaWithMetafields();
+      }
+
+      reader = HoodieFileReaderFactory.<T, GenericRecord>getFileReader(cfgForHoodieFile, upsertHandle.getOldFilePath());
       final Iterator<GenericRecord> readerIterator;
       if (baseFile.getBootstrapBaseFile().isPresent()) {
         readerIterator = getMergingIterator(table, upsertHandle, baseFile, reader, readSchema, externalSchemaTransformation);
+      } else if (upsertHandle.getRowGroupPassthrough().isPresent()) {
+        // only the row groups that may hold updated records are read, the others are copied as is
+        readerIterator = upsertHandle.getRowGroupPassthrough().get().getRecordIterator(readSchema);
       } else {
         readerIterator = reader.getRecordIterator(readSchema);
       }
@@ -38,7 +38,7 @@ import org.apache.log4j.Logger;
 import org.apache.spark.Partitioner;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
-import org.apache.spark.api.java.function.PairFunction;
+import org.apache.spark.api.java.function.PairFlatMapFunction;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -90,12 +90,7 @@ public class UpsertPartitioner<T extends HoodieRecordPayload<T>> extends Partiti
 
   public UpsertPartitioner(WorkloadProfile profile, JavaSparkContext jsc, HoodieTable<T> table,
       HoodieWriteConfig config) {
-    updateLocationToBucket = new HashMap<>();
-    partitionPathToInsertBucketInfos = new HashMap<>();
-    bucketInfoMap = new HashMap<>();
-    this.profile = profile;
-    this.table = table;
-    this.config = config;
+    this(profile, table, config);
     assignUpdates(profile);
     assignInserts(profile, jsc);
 
@@ -104,6 +99,18 @@ public class UpsertPartitioner<T extends HoodieRecordPayload<T>> extends Partiti
         + "UpdateLocations mapped to buckets =>" + updateLocationToBucket);
   }
 
+  /**
+   * For sub classes which assign the incoming records to buckets on their own.
+   */
+  protected UpsertPartitioner(WorkloadProfile profile, HoodieTable<T> table, HoodieWriteConfig config) {
+    updateLocationToBucket = new HashMap<>();
+    partitionPathToInsertBucketInfos = new HashMap<>();
+    bucketInfoMap = new HashMap<>();
+    this.profile = profile;
+    this.table = table;
+    this.config = config;
+  }
+
   private void assignUpdates(WorkloadProfile profile) {
     // each update location gets a partition
     Set<Entry<String, WorkloadStat>> partitionStatEntries = profile.getPartitionPathStatMap().entrySet();
@@ -214,41 +221,60 @@ public class UpsertPartitioner<T extends HoodieRecordPayload<T>> extends Partiti
     Map<String, List<SmallFile>> partitionSmallFilesMap = new HashMap<>();
     if (partitionPaths != null && partitionPaths.size() > 0) {
       jsc.setJobGroup(this.getClass().getSimpleName(), "Getting small files from partitions");
-      JavaRDD<String> partitionPathRdds = jsc.parallelize(partitionPaths, partitionPaths.size());
-      partitionSmallFilesMap = partitionPathRdds.mapToPair((PairFunction<String, String, List<SmallFile>>)
-          partitionPath -> new Tuple2<>(partitionPath, getSmallFiles(partitionPath))).collectAsMap();
+      // Every task looks up the small files of its share of the partitions with one call to the file system view
+      int parallelism = Math.min(partitionPaths.size(), Math.max(1, jsc.defaultParallelism()));
+      JavaRDD<String> partitionPathRdds = jsc.parallelize(partitionPaths, parallelism);
+      partitionSmallFilesMap = partitionPathRdds.mapPartitionsToPair(
+          (PairFlatMapFunction<Iterator<String>, String, List<SmallFile>>) partitions -> {
+            List<String> partitionPathsOfTask = new ArrayList<>();
+            partitions.forEachRemaining(partitionPathsOfTask::add);
+            return getSmallFiles(partitionPathsOfTask).entrySet().stream()
+                .map(entry -> new Tuple2<>(entry.getKey(), entry.getValue())).iterator();
+          }).collectAsMap();
     }
 
     return partitionSmallFilesMap;
   }
 
   /**
-   * Returns a list of small files in the given partition path.
+   * Returns the small files in each of the given partition paths.
    */
-  protected List<SmallFile> getSmallFiles(String partitionPath) {
+  protected Map<String, List<SmallFile>> getSmallFiles(List<String> partitionPaths) {
+    return getSmallBaseFiles(table, config, partitionPaths);
+  }
 
-    // smallFiles only for partitionPath
-    List<SmallFile> smallFileLocations = new ArrayList<>();
+  /**
+   * Returns the latest base files of the given partition paths that are smaller than the configured small file limit.
+   */
+  public static Map<String, List<SmallFile>> getSmallBaseFiles(HoodieTable table, HoodieWriteConfig config,
+      List<String> partitionPaths) {
+
+    // smallFiles only for partitionPaths
+    Map<String, List<SmallFile>> partitionSmallFilesMap = new HashMap<>();
+    partitionPaths.forEach(partitionPath -> partitionSmallFilesMap.put(partitionPath, new ArrayList<>()));
 
     HoodieTimeline commitTimeline = table.getMetaClient().getCommitsTimeline().filterCompletedInstants();
 
     if (!commitTimeline.empty()) { // if we have some commits
       HoodieInstant latestCommitTime = commitTimeline.lastInstant().get();
-      List<HoodieBaseFile> allFiles = table.getBaseFileOnlyView()
-          .getLatestBaseFilesBeforeOrOn(partitionPath, latestCommitTime.getTimestamp()).collect(Collectors.toList());
-
-      for (HoodieBaseFile file : allFiles) {
-        if (file.getFileSize() < config.getParquetSmallFileLimit()) {
-          String filename = file.getFileName();
-          SmallFile sf = new SmallFile();
-          sf.location = new HoodieRecordLocation(FSUtils.getCommitTime(filename), FSUtils.getFileId(filename));
-          sf.sizeBytes = file.getFileSize();
-          smallFileLocations.add(sf);
-        }
-      }
+      table.getBaseFileOnlyView()
+          .getLatestBaseFilesBeforeOrOnForPartitions(partitionPaths, latestCommitTime.getTimestamp())
+          .filter(partitionAndFile -> partitionAndFile.getValue().getFileSize() < config.getParquetSmallFileLimit())
+          .forEach(partitionAndFile -> {
+            HoodieBaseFile file = partitionAndFile.getValue();
+            String filename = file.getFileName();
+            SmallFile sf = new SmallFile();
+            sf.location = new HoodieRecordLocation(FSUtils.getCommitTime(filename), FSUtils.getFileId(filename));
+            sf.sizeBytes = file.getFileSize();
+            partitionSmallFilesMap.computeIfAbsent(partitionAndFile.getKey(), partitionPath -> new ArrayList<>()).add(sf);
+          });
     }
 
-    return smallFileLocations;
+    return partitionSmallFilesMap;
+  }
+
+  public List<String> getSmallFileIds() {
+    return smallFiles.stream().map(smallFile -> smallFile.location.getFileId()).collect(Collectors.toList());
   }
 
   public BucketInfo getBucketInfo(int bucketNumber) {
@@ -298,7 +324,7 @@ public class UpsertPartitioner<T extends HoodieRecordPayload<T>> extends Partiti
    * Obtains the average record size based on records written during previous commits. Used for estimating how many
    * records pack into one file.
    */
-  protected static long averageBytesPerRecord(HoodieTimeline commitTimeline, HoodieWriteConfig hoodieWriteConfig) {
+  public static long averageBytesPerRecord(HoodieTimeline commitTimeline, HoodieWriteConfig hoodieWriteConfig) {
     long avgSize = hoodieWriteConfig.getCopyOnWriteRecordSizeEstimate();
     long fileSizeThreshold = (long) (hoodieWriteConfig.getRecordSizeEstimationThreshold() * hoodieWriteConfig.getParquetSmallFileLimit());
     try {
@@ -40,6 +40,7 @@ import org.apache.hudi.common.util.Option;
 import org.apache.hudi.common.util.ValidationUtils;
 import org.apache.hudi.common.util.collection.Pair;
 import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.exception.HoodieCompactionException;
 import org.apache.hudi.table.HoodieCopyOnWriteTable;
 import org.apache.hudi.table.HoodieTable;
 import org.apache.hudi.table.action.compact.strategy.CompactionStrategy;
@@ -49,6 +50,8 @@ import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
+import org.apache.spark.TaskContext;
+import org.apache.spark.TaskContext$;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
 import org.apache.spark.api.java.function.FlatMapFunction;
@@ -58,9 +61,16 @@ import org.apache.spark.util.LongAccumulator;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -92,15 +102,110 @@ public class HoodieMergeOnReadTableCompactor implements HoodieCompactor {
     HoodieCopyOnWriteTable table = new HoodieCopyOnWriteTable(config, jsc.hadoopConfiguration(), metaClient);
     List<CompactionOperation> operations = compactionPlan.getOperations().stream()
         .map(CompactionOperation::convertFromAvroRecordInstance).collect(toList());
-    LOG.info("Compactor compacting " + operations + " files");
+    int taskParallelism = Math.max(1, config.getCompactionTaskParallelism());
+    List<List<CompactionOperation>> tasks = packOperations(operations, taskParallelism);
+    LOG.info("Compactor compacting " + operations + " files in " + tasks.size() + " tasks");
 
     jsc.setJobGroup(this.getClass().getSimpleName(), "Compacting file slices");
-    return jsc.parallelize(operations, operations.size())
-        .map(s -> compact(table, metaClient, config, s, compactionInstantTime)).flatMap(List::iterator);
+    // the tasks come largest first, so that the biggest file slices do not start last and hold up the job
+    return jsc.parallelize(tasks, tasks.size())
+        .map(ops -> compact(table, metaClient, config, ops, compactionInstantTime, taskParallelism))
+        .flatMap(List::iterator);
   }
 
+  /**
+   * Estimated cost of compacting a file slice, in bytes. Every byte is read once, the bytes of the log files are
+   * counted twice since their records are also deserialized and merged.
+   */
+  static long estimateCost(CompactionOperation operation) {
+    Map<String, Double> metrics = operation.getMetrics();
+    if (metrics == null) {
+      return 0L;
+    }
+    long logFileSize = metrics.getOrDefault(CompactionStrategy.TOTAL_LOG_FILE_SIZE, 0.0).longValue();
+    long readSize = metrics.getOrDefault(CompactionStrategy.TOTAL_IO_READ_MB, 0.0).longValue() * 1024 * 1024;
+    return Math.max(readSize, logFileSize) + logFileSize;
+  }
+
+  /**
+   * Packs the operations into tasks of up to {@code taskParallelism} operations each. Operations are assigned largest
+   * first to the task with the lowest cost so far, which keeps the tasks close in cost. The tasks and the operations
+   * within them are ordered largest first.
+   */
+  static List<List<CompactionOperation>> packOperations(List<CompactionOperation> operations, int taskParallelism) {
+    List<CompactionOperation> sortedOperations = new ArrayList<>(operations);
+    sortedOperations.sort(Comparator.comparingLong(HoodieMergeOnReadTableCompactor::estimateCost).reversed());
+    int numTasks = (sortedOperations.size() + taskParallelism - 1) / taskParallelism;
+    List<List<CompactionOperation>> tasks = new ArrayList<>(numTasks);
+    // cost of every task, along with its index
+    PriorityQueue<long[]> taskCosts = new PriorityQueue<>(Comparator.<long[]>comparingLong(task -> task[0])
+        .thenComparingLong(task -> task[1]));
+    for (int i = 0; i < numTasks; i++) {
+      tasks.add(new ArrayList<>());
+      taskCosts.add(new long[] {0L, i});
+    }
+    for (CompactionOperation operation : sortedOperations) {
+      long[] task = taskCosts.poll();
+      List<CompactionOperation> taskOperations = tasks.get((int) task[1]);
+      taskOperations.add(operation);
+      task[0] += estimateCost(operation);
+      if (taskOperations.size() < taskParallelism) {
+        taskCosts.add(task);
+      }
+    }
+    tasks.sort(Comparator.comparingLong((List<CompactionOperation> task) -> task.stream()
+        .mapToLong(HoodieMergeOnReadTableCompactor::estimateCost).sum()).reversed());
+    return tasks;
+  }
+
+  /**
+   * Compacts the operations of a task, up to {@code taskParallelism} of them at a time. Each concurrent compaction
+   * gets its share of the memory of the task for merging.
+   */
   private List<WriteStatus> compact(HoodieCopyOnWriteTable hoodieCopyOnWriteTable, HoodieTableMetaClient metaClient,
-      HoodieWriteConfig config, CompactionOperation operation, String instantTime) throws IOException {
+      HoodieWriteConfig config, List<CompactionOperation> operations, String instantTime, int taskParallelism)
+      throws IOException {
+    int numThreads = Math.min(taskParallelism, operations.size());
+    long maxMemoryPerCompaction = SparkConfigUtils.getMaxMemoryPerCompaction(config.getProps()) / numThreads;
+    if (numThreads == 1) {
+      List<WriteStatus> writeStatuses = new ArrayList<>();
+      for (CompactionOperation operation : operations) {
+        writeStatuses.addAll(compact(hoodieCopyOnWriteTable, metaClient, config, operation, instantTime,
+            maxMemoryPerCompaction));
+      }
+      return writeStatuses;
+    }
+
+    // the writers look up the ids of the task through the TaskContext, which needs to be passed on to the new threads
+    TaskContext taskContext = TaskContext.get();
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try {
+      List<Future<List<WriteStatus>>> futures = operations.stream().map(operation -> executor.submit(() -> {
+        TaskContext$.MODULE$.setTaskContext(taskContext);
+        try {
+          return compact(hoodieCopyOnWriteTable, metaClient, config, operation, instantTime, maxMemoryPerCompaction);
+        } finally {
+          TaskContext$.MODULE$.unset();
+        }
+      })).collect(toList());
+      List<WriteStatus> writeStatuses = new ArrayList<>();
+      for (Future<List<WriteStatus>> future : futures) {
+        writeStatuses.addAll(future.get());
+      }
+      return writeStatuses;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HoodieCompactionException("Interrupted while compacting file slices for commit " + instantTime, e);
+    } catch (ExecutionException e) {
+      throw new HoodieCompactionException("Failed to compact file slices for commit " + instantTime, e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private List<WriteStatus> compact(HoodieCopyOnWriteTable hoodieCopyOnWriteTable, HoodieTableMetaClient metaClient,
+      HoodieWriteConfig config, CompactionOperation operation, String instantTime, long maxMemoryPerCompaction)
+      throws IOException {
     FileSystem fs = metaClient.getFs();
 
     Schema readerSchema = HoodieAvroUtils.addMetadataFields(new Schema.Parser().parse(config.getSchema()));
@@ -116,49 +221,56 @@ public class HoodieMergeOnReadTableCompactor implements HoodieCompactor {
         .getActiveTimeline().getTimelineOfActions(CollectionUtils.createSet(HoodieTimeline.COMMIT_ACTION,
             HoodieTimeline.ROLLBACK_ACTION, HoodieTimeline.DELTA_COMMIT_ACTION))
         .filterCompletedInstants().lastInstant().get().getTimestamp();
-    LOG.info("MaxMemoryPerCompaction => " + SparkConfigUtils.getMaxMemoryPerCompaction(config.getProps()));
+    LOG.info("MaxMemoryPerCompaction => " + maxMemoryPerCompaction);
 
     List<String> logFiles = operation.getDeltaFileNames().stream().map(
         p -> new Path(FSUtils.getPartitionPath(metaClient.getBasePath(), operation.getPartitionPath()), p).toString())
         .collect(toList());
-    long maxMemoryPerCompaction = SparkConfigUtils.getMaxMemoryPerCompaction(config.getProps());
     HoodieMergedLogRecordScanner scanner = new HoodieMergedLogRecordScanner(fs, metaClient.getBasePath(), logFiles,
         readerSchema, maxInstantTime, maxMemoryPerCompaction, config.getCompactionLazyBlockReadEnabled(),
         config.getCompactionReverseLogReadEnabled(), config.getMaxDFSStreamBufferSize(),
-        config.getSpillableMapBasePath());
-    if (!scanner.iterator().hasNext()) {
-      return new ArrayList<>();
-    }
+        config.getSpillableMapBasePath(), config.getSpillableDiskMapType(),
+        config.isSpillableMapRecordSerializerEnabled(), config.getCompactionLogScanParallelism());
+    // the scanner's spilled records are only cleaned up on close, which has to happen when the write fails too
+    try {
+      if (!scanner.iterator().hasNext()) {
+        return new ArrayList<>();
+      }
 
-    Option<HoodieBaseFile> oldDataFileOpt =
-        operation.getBaseFile(metaClient.getBasePath(), operation.getPartitionPath());
+      Option<HoodieBaseFile> oldDataFileOpt =
+          operation.getBaseFile(metaClient.getBasePath(), operation.getPartitionPath());
 
-    // Compacting is very similar to applying updates to existing file
-    Iterator<List<WriteStatus>> result;
-    // If the dataFile is present, perform updates else perform inserts into a new base file.
-    if (oldDataFileOpt.isPresent()) {
-      result = hoodieCopyOnWriteTable.handleUpdate(instantTime, operation.getPartitionPath(),
-              operation.getFileId(), scanner.getRecords(),
-          oldDataFileOpt.get());
-    } else {
-      result = hoodieCopyOnWriteTable.handleInsert(instantTime, operation.getPartitionPath(), operation.getFileId(),
-          scanner.getRecords());
+      // Compacting is very similar to applying updates to existing file
+      Iterator<List<WriteStatus>> result;
+      // If the dataFile is present, perform updates else perform inserts into a new base file.
+      if (oldDataFileOpt.isPresent()) {
+        result = hoodieCopyOnWriteTable.handleUpdate(instantTime, operation.getPartitionPath(),
+                operation.getFileId(), scanner.getRecords(),
+            oldDataFileOpt.get());
+      } else {
+        result = hoodieCopyOnWriteTable.handleInsert(instantTime, operation.getPartitionPath(), operation.getFileId(),
+            scanner.getRecords());
+      }
+      Iterable<List<WriteStatus>> resultIterable = () -> result;
+      List<WriteStatus> writeStatuses = StreamSupport.stream(resultIterable.spliterator(), false).flatMap(Collection::stream).peek(s -> {
+        s.getStat().setTotalUpdatedRecordsCompacted(scanner.getNumMergedRecordsInLog());
+        s.getStat().setTotalLogFilesCompacted(scanner.getTotalLogFiles());
+        s.getStat().setTotalLogRecords(scanner.getTotalLogRecords());
+        s.getStat().setPartitionPath(operation.getPartitionPath());
+        s.getStat()
+            .setTotalLogSizeCompacted(operation.getMetrics().get(CompactionStrategy.TOTAL_LOG_FILE_SIZE).longValue());
+        s.getStat().setTotalLogBlocks(scanner.getTotalLogBlocks());
+        s.getStat().setTotalCorruptLogBlock(scanner.getTotalCorruptBlocks());
+        s.getStat().setTotalRollbackBlocks(scanner.getTotalRollbacks());
+        // keep the merge and create timings of the write handle, they calibrate CostBasedCompactionStrategy
+        RuntimeStats runtimeStats = s.getStat().getRuntimeStats() != null ? s.getStat().getRuntimeStats() : new RuntimeStats();
+        runtimeStats.setTotalScanTime(scanner.getTotalTimeTakenToReadAndMergeBlocks());
+        s.getStat().setRuntimeStats(runtimeStats);
+      }).collect(toList());
+      return writeStatuses;
+    } finally {
+      scanner.close();
     }
-    Iterable<List<WriteStatus>> resultIterable = () -> result;
-    return StreamSupport.stream(resultIterable.spliterator(), false).flatMap(Collection::stream).peek(s -> {
-      s.getStat().setTotalUpdatedRecordsCompacted(scanner.getNumMergedRecordsInLog());
-      s.getStat().setTotalLogFilesCompacted(scanner.getTotalLogFiles());
-      s.getStat().setTotalLogRecords(scanner.getTotalLogRecords());
-      s.getStat().setPartitionPath(operation.getPartitionPath());
-      s.getStat()
-          .setTotalLogSizeCompacted(operation.getMetrics().get(CompactionStrategy.TOTAL_LOG_FILE_SIZE).longValue());
-      s.getStat().setTotalLogBlocks(scanner.getTotalLogBlocks());
-      s.getStat().setTotalCorruptLogBlock(scanner.getTotalCorruptBlocks());
-      s.getStat().setTotalRollbackBlocks(scanner.getTotalRollbacks());
-      RuntimeStats runtimeStats = new RuntimeStats();
-      runtimeStats.setTotalScanTime(scanner.getTotalTimeTakenToReadAndMergeBlocks());
-      s.getStat().setRuntimeStats(runtimeStats);
-    }).collect(toList());
   }
 
   @Override
@@ -215,7 +327,7 @@ public class HoodieMergeOnReadTableCompactor implements HoodieCompactor {
     LOG.info("Total number of file slices " + totalFileSlices.value());
     // Filter the compactions with the passed in filter. This lets us choose most effective
     // compactions only
-    HoodieCompactionPlan compactionPlan = config.getCompactionStrategy().generateCompactionPlan(config, operations,
+    HoodieCompactionPlan compactionPlan = config.getCompactionStrategy().generateCompactionPlan(config, metaClient, operations,
         CompactionUtils.getAllPendingCompactionPlans(metaClient).stream().map(Pair::getValue).collect(toList()));
     ValidationUtils.checkArgument(
         compactionPlan.getOperations().stream().noneMatch(
@@ -23,6 +23,7 @@ import org.apache.hudi.avro.model.HoodieCompactionPlan;
 import org.apache.hudi.common.fs.FSUtils;
 import org.apache.hudi.common.model.HoodieBaseFile;
 import org.apache.hudi.common.model.HoodieLogFile;
+import org.apache.hudi.common.table.HoodieTableMetaClient;
 import org.apache.hudi.common.util.CompactionUtils;
 import org.apache.hudi.common.util.Option;
 import org.apache.hudi.config.HoodieWriteConfig;
@@ -100,6 +101,21 @@ public abstract class CompactionStrategy implements Serializable {
         .setVersion(CompactionUtils.LATEST_COMPACTION_METADATA_VERSION).build();
   }
 
+  /**
+   * Generate Compaction plan with access to the table's timeline, for strategies that rank compactions on the history
+   * of the table. Defaults to {@link #generateCompactionPlan(HoodieWriteConfig, List, List)}.
+   *
+   * @param writeConfig Hoodie Write Config
+   * @param metaClient Meta client of the table to compact
+   * @param operations Compaction Operations to be ordered and filtered
+   * @param pendingCompactionPlans Pending Compaction Plans for strategy to schedule next compaction plan
+   * @return Compaction plan to be scheduled.
+   */
+  public HoodieCompactionPlan generateCompactionPlan(HoodieWriteConfig writeConfig, HoodieTableMetaClient metaClient,
+      List<HoodieCompactionOperation> operations, List<HoodieCompactionPlan> pendingCompactionPlans) {
+    return generateCompactionPlan(writeConfig, operations, pendingCompactionPlans);
+  }
+
   /**
    * Order and Filter the list of compactions. Use the metrics captured with the captureMetrics to order and filter out
    * compactions
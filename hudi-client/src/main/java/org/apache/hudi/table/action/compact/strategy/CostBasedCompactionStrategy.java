@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.table.action.compact.strategy;
+
+import org.apache.hudi.avro.model.HoodieCompactionOperation;
+import org.apache.hudi.avro.model.HoodieCompactionPlan;
+import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.model.HoodieCommitMetadata;
+import org.apache.hudi.common.model.HoodieFileGroupId;
+import org.apache.hudi.common.model.HoodieWriteStat;
+import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.timeline.HoodieActiveTimeline;
+import org.apache.hudi.common.table.timeline.HoodieInstant;
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.util.CompactionUtils;
+import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.exception.HoodieIOException;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.apache.hudi.common.table.timeline.HoodieTimeline.GREATER_THAN_OR_EQUALS;
+
+/**
+ * CompactionStrategy which ranks file slices by how much snapshot reads gain from compacting them, per MB of
+ * compaction IO, and picks the best ones that fit into the configured IO limit.
+ * <p>
+ * The read amplification of a file slice is the work a snapshot read does on top of reading its base file: reading the
+ * log files, opening every log block and merging every log record into the base records, where updates and deletes
+ * are merged against a base record too. Block and record counts come from the write stats of the delta commits that
+ * appended to the slice. The time to merge a log record is converted into MB of IO with the scan and merge timings of
+ * the last compactions, so that read amplification and compaction cost are in the same unit. The read amplification
+ * is weighted by how many of the recent delta commits wrote to the partition, so hot partitions are compacted ahead of
+ * cold ones.
+ *
+ * @see CompactionStrategy
+ */
+public class CostBasedCompactionStrategy extends CompactionStrategy {
+
+  private static final Logger LOG = LogManager.getLogger(CostBasedCompactionStrategy.class);
+
+  // Cost of opening a log block and reading its header, in MB of IO
+  static final double LOG_BLOCK_COST_MB = 1.0;
+  // Number of most recent compactions whose timings calibrate the cost of merging a log record
+  static final int CALIBRATION_COMPACTIONS = 5;
+
+  @Override
+  public HoodieCompactionPlan generateCompactionPlan(HoodieWriteConfig writeConfig, HoodieTableMetaClient metaClient,
+      List<HoodieCompactionOperation> operations, List<HoodieCompactionPlan> pendingCompactionPlans) {
+    SliceStatistics statistics =
+        SliceStatistics.fromTimeline(metaClient, writeConfig.getCostBasedCompactionHotDeltaCommits());
+    return HoodieCompactionPlan.newBuilder()
+        .setOperations(orderAndFilter(writeConfig, operations, statistics))
+        .setVersion(CompactionUtils.LATEST_COMPACTION_METADATA_VERSION).build();
+  }
+
+  @Override
+  public List<HoodieCompactionOperation> orderAndFilter(HoodieWriteConfig writeConfig,
+      List<HoodieCompactionOperation> operations, List<HoodieCompactionPlan> pendingCompactionPlans) {
+    // Without the timeline, the slices are ranked on the captured metrics alone
+    return orderAndFilter(writeConfig, operations, new SliceStatistics());
+  }
+
+  List<HoodieCompactionOperation> orderAndFilter(HoodieWriteConfig writeConfig,
+      List<HoodieCompactionOperation> operations, SliceStatistics statistics) {
+    double mbPerLogRecord = statistics.getMBPerLogRecord();
+    List<Pair<Double, HoodieCompactionOperation>> rankedOperations = operations.stream()
+        .map(op -> Pair.of(statistics.score(op, mbPerLogRecord), op))
+        .sorted((left, right) -> Double.compare(right.getLeft(), left.getLeft()))
+        .collect(Collectors.toList());
+
+    // Greedily take the slices with the best gain per MB. A slice that does not fit into the remaining IO is passed
+    // over for the next ones, but the best slice is always compacted
+    List<HoodieCompactionOperation> finalOperations = new ArrayList<>();
+    long targetIORemaining = writeConfig.getTargetIOPerCompactionInMB();
+    for (Pair<Double, HoodieCompactionOperation> rankedOperation : rankedOperations) {
+      HoodieCompactionOperation op = rankedOperation.getRight();
+      long opIo = op.getMetrics().get(TOTAL_IO_MB).longValue();
+      if (opIo > targetIORemaining && !finalOperations.isEmpty()) {
+        continue;
+      }
+      targetIORemaining -= opIo;
+      finalOperations.add(op);
+    }
+    LOG.info("Picked " + finalOperations.size() + " out of " + operations.size() + " file slices to compact, "
+        + "merging a log record costs " + mbPerLogRecord + " MB of IO");
+    return finalOperations;
+  }
+
+  /**
+   * Write history of the table, as far as it is on the active timeline: the delta writes of every file group, the
+   * number of recent delta commits per partition and the timings of the last compactions.
+   */
+  static class SliceStatistics {
+
+    private final Map<HoodieFileGroupId, List<Pair<String, HoodieWriteStat>>> fileGroupToDeltaWrites = new HashMap<>();
+    private final Map<String, Integer> partitionToRecentDeltaCommits = new HashMap<>();
+    private long compactedLogRecords = 0;
+    private long compactionScanTimeMs = 0;
+    private long compactionMergeTimeMs = 0;
+    private long compactionWriteBytes = 0;
+
+    static SliceStatistics fromTimeline(HoodieTableMetaClient metaClient, int hotDeltaCommits) {
+      SliceStatistics statistics = new SliceStatistics();
+      HoodieActiveTimeline activeTimeline = metaClient.getActiveTimeline();
+      List<HoodieInstant> deltaCommits = activeTimeline.getDeltaCommitTimeline().filterCompletedInstants()
+          .getInstants().collect(Collectors.toList());
+      for (int i = 0; i < deltaCommits.size(); i++) {
+        HoodieInstant instant = deltaCommits.get(i);
+        statistics.addDeltaCommit(instant.getTimestamp(), readCommitMetadata(activeTimeline, instant),
+            i >= deltaCommits.size() - hotDeltaCommits);
+      }
+      activeTimeline.getCommitTimeline().filterCompletedInstants().getReverseOrderedInstants()
+          .limit(CALIBRATION_COMPACTIONS)
+          .forEach(instant -> statistics.addCompactionCommit(readCommitMetadata(activeTimeline, instant)));
+      return statistics;
+    }
+
+    private static HoodieCommitMetadata readCommitMetadata(HoodieTimeline timeline, HoodieInstant instant) {
+      try {
+        return HoodieCommitMetadata.fromBytes(timeline.getInstantDetails(instant).get(), HoodieCommitMetadata.class);
+      } catch (IOException e) {
+        throw new HoodieIOException("Failed to read commit metadata of " + instant, e);
+      }
+    }
+
+    void addDeltaCommit(String instantTime, HoodieCommitMetadata metadata, boolean recent) {
+      metadata.getPartitionToWriteStats().forEach((partitionPath, writeStats) -> {
+        if (recent) {
+          partitionToRecentDeltaCommits.merge(partitionPath, 1, Integer::sum);
+        }
+        writeStats.stream()
+            .filter(stat -> stat.getPath() != null && FSUtils.isLogFile(new Path(stat.getPath())))
+            .forEach(stat -> fileGroupToDeltaWrites
+                .computeIfAbsent(new HoodieFileGroupId(partitionPath, stat.getFileId()), id -> new ArrayList<>())
+                .add(Pair.of(instantTime, stat)));
+      });
+    }
+
+    void addCompactionCommit(HoodieCommitMetadata metadata) {
+      metadata.getPartitionToWriteStats().values().stream().flatMap(List::stream)
+          .filter(stat -> stat.getTotalLogRecords() > 0 && stat.getRuntimeStats() != null)
+          .forEach(stat -> {
+            compactedLogRecords += stat.getTotalLogRecords();
+            compactionScanTimeMs += stat.getRuntimeStats().getTotalScanTime();
+            compactionMergeTimeMs +=
+                stat.getRuntimeStats().getTotalUpsertTime() + stat.getRuntimeStats().getTotalCreateTime();
+            compactionWriteBytes += stat.getTotalWriteBytes();
+          });
+    }
+
+    /**
+     * Time to scan a log record relative to the time to rewrite a MB of base file, as measured by the last
+     * compactions. 0 without compaction timings, which ranks the slices on their IO alone.
+     */
+    double getMBPerLogRecord() {
+      if (compactedLogRecords == 0 || compactionMergeTimeMs == 0 || compactionWriteBytes == 0) {
+        return 0;
+      }
+      double msPerLogRecord = (double) compactionScanTimeMs / compactedLogRecords;
+      double msPerMB = compactionMergeTimeMs / ((double) compactionWriteBytes / (1024 * 1024));
+      return msPerLogRecord / msPerMB;
+    }
+
+    /**
+     * Weighted read amplification removed by compacting the slice, per MB of compaction cost.
+     */
+    double score(HoodieCompactionOperation operation, double mbPerLogRecord) {
+      List<Pair<String, HoodieWriteStat>> deltaWrites = fileGroupToDeltaWrites.getOrDefault(
+          new HoodieFileGroupId(operation.getPartitionPath(), operation.getFileId()), Collections.emptyList());
+      long logBlocks = 0;
+      long logRecords = 0;
+      long mergedRecords = 0;
+      for (Pair<String, HoodieWriteStat> deltaWrite : deltaWrites) {
+        // log files of a slice without base file carry the instant of the first delta commit to it
+        if (!HoodieTimeline.compareTimestamps(deltaWrite.getLeft(), GREATER_THAN_OR_EQUALS,
+            operation.getBaseInstantTime())) {
+          continue;
+        }
+        HoodieWriteStat stat = deltaWrite.getRight();
+        // every append writes a data block, and a delete block when it deletes records
+        logBlocks += stat.getNumDeletes() > 0 ? 2 : 1;
+        logRecords += stat.getNumWrites() + stat.getNumDeletes();
+        mergedRecords += stat.getNumUpdateWrites() + stat.getNumDeletes();
+      }
+      if (logBlocks == 0) {
+        // the delta commits were archived, fall back to the log files
+        logBlocks = operation.getMetrics().getOrDefault(TOTAL_LOG_FILES, 0d).longValue();
+      }
+
+      Map<String, Double> metrics = operation.getMetrics();
+      double logMB = metrics.getOrDefault(TOTAL_LOG_FILE_SIZE, 0d) / (1024 * 1024);
+      double readAmplificationMB =
+          logMB + logBlocks * LOG_BLOCK_COST_MB + (logRecords + mergedRecords) * mbPerLogRecord;
+      int heat = 1 + partitionToRecentDeltaCommits.getOrDefault(operation.getPartitionPath(), 0);
+      double costMB = Math.max(1.0, metrics.getOrDefault(TOTAL_IO_MB, 0d) + logRecords * mbPerLogRecord);
+      return readAmplificationMB * heat / costMB;
+    }
+  }
+}
@@ -27,11 +27,14 @@ import org.apache.hudi.common.util.Option;
 import org.apache.hudi.config.HoodieWriteConfig;
 import org.apache.hudi.exception.HoodieUpsertException;
 import org.apache.hudi.execution.LazyInsertIterable;
+import org.apache.hudi.index.HoodieIndex;
 import org.apache.hudi.io.AppendHandleFactory;
 import org.apache.hudi.io.HoodieAppendHandle;
 import org.apache.hudi.table.HoodieTable;
 import org.apache.hudi.table.WorkloadProfile;
+import org.apache.hudi.table.action.commit.BucketIndexPartitioner;
 import org.apache.hudi.table.action.commit.CommitActionExecutor;
+import org.apache.hudi.table.action.commit.UpsertPartitioner;
 
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
@@ -48,7 +51,7 @@ public abstract class DeltaCommitActionExecutor<T extends HoodieRecordPayload<T>
   private static final Logger LOG = LogManager.getLogger(DeltaCommitActionExecutor.class);
 
   // UpsertPartitioner for MergeOnRead table type
-  private UpsertDeltaCommitPartitioner mergeOnReadUpsertPartitioner;
+  private UpsertPartitioner mergeOnReadUpsertPartitioner;
 
   public DeltaCommitActionExecutor(JavaSparkContext jsc, HoodieWriteConfig config, HoodieTable table,
                                    String instantTime, WriteOperationType operationType) {
@@ -66,7 +69,12 @@ public abstract class DeltaCommitActionExecutor<T extends HoodieRecordPayload<T>
     if (profile == null) {
       throw new HoodieUpsertException("Need workload profile to construct the upsert partitioner.");
     }
-    mergeOnReadUpsertPartitioner = new UpsertDeltaCommitPartitioner(profile, jsc, table, config);
+    if (config.getIndexType() == HoodieIndex.IndexType.BUCKET) {
+      // there are no small files to merge inserts into, updates of a bucket always go to its log files
+      mergeOnReadUpsertPartitioner = new BucketIndexPartitioner(profile, jsc, table, config);
+    } else {
+      mergeOnReadUpsertPartitioner = new UpsertDeltaCommitPartitioner(profile, jsc, table, config);
+    }
     return mergeOnReadUpsertPartitioner;
   }
 
@@ -35,7 +35,9 @@ import org.apache.hudi.table.action.commit.UpsertPartitioner;
 import org.apache.spark.api.java.JavaSparkContext;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -50,10 +52,10 @@ public class UpsertDeltaCommitPartitioner<T extends HoodieRecordPayload<T>> exte
   }
 
   @Override
-  protected List<SmallFile> getSmallFiles(String partitionPath) {
+  protected Map<String, List<SmallFile>> getSmallFiles(List<String> partitionPaths) {
 
-    // smallFiles only for partitionPath
-    List<SmallFile> smallFileLocations = new ArrayList<>();
+    Map<String, List<SmallFile>> partitionSmallFilesMap = new HashMap<>();
+    partitionPaths.forEach(partitionPath -> partitionSmallFilesMap.put(partitionPath, new ArrayList<>()));
 
     // Init here since this class (and member variables) might not have been initialized
     HoodieTimeline commitTimeline = table.getCompletedCommitsTimeline();
@@ -61,61 +63,66 @@ public class UpsertDeltaCommitPartitioner<T extends HoodieRecordPayload<T>> exte
     // Find out all eligible small file slices
     if (!commitTimeline.empty()) {
       HoodieInstant latestCommitTime = commitTimeline.lastInstant().get();
-      // find smallest file in partition and append to it
-      List<FileSlice> allSmallFileSlices = new ArrayList<>();
-      // If we cannot index log files, then we choose the smallest parquet file in the partition and add inserts to
-      // it. Doing this overtime for a partition, we ensure that we handle small file issues
-      if (!table.getIndex().canIndexLogFiles()) {
-        // TODO : choose last N small files since there can be multiple small files written to a single partition
-        // by different spark partitions in a single batch
-        Option<FileSlice> smallFileSlice = Option.fromJavaOptional(table.getSliceView()
-            .getLatestFileSlicesBeforeOrOn(partitionPath, latestCommitTime.getTimestamp(), false)
-            .filter(
-                fileSlice -> fileSlice.getLogFiles().count() < 1 && fileSlice.getBaseFile().get().getFileSize() < config
-                    .getParquetSmallFileLimit())
-            .min((FileSlice left, FileSlice right) ->
-                left.getBaseFile().get().getFileSize() < right.getBaseFile().get().getFileSize() ? -1 : 1));
-        if (smallFileSlice.isPresent()) {
-          allSmallFileSlices.add(smallFileSlice.get());
-        }
-      } else {
-        // If we can index log files, we can add more inserts to log files for fileIds including those under
-        // pending compaction.
-        List<FileSlice> allFileSlices =
-            table.getSliceView().getLatestFileSlicesBeforeOrOn(partitionPath, latestCommitTime.getTimestamp(), true)
-                .collect(Collectors.toList());
-        for (FileSlice fileSlice : allFileSlices) {
-          if (isSmallFile(fileSlice)) {
-            allSmallFileSlices.add(fileSlice);
-          }
-        }
+      // If we can index log files, we can add more inserts to log files for fileIds including those under
+      // pending compaction.
+      boolean canIndexLogFiles = table.getIndex().canIndexLogFiles();
+      table.getSliceView()
+          .getLatestFileSlicesBeforeOrOnForPartitions(partitionPaths, latestCommitTime.getTimestamp(), canIndexLogFiles)
+          .collect(Collectors.groupingBy(FileSlice::getPartitionPath))
+          .forEach((partitionPath, fileSlices) ->
+              partitionSmallFilesMap.put(partitionPath, getSmallFiles(fileSlices, canIndexLogFiles)));
+    }
+    return partitionSmallFilesMap;
+  }
+
+  /**
+   * Returns the small files among the latest file slices of a partition.
+   */
+  private List<SmallFile> getSmallFiles(List<FileSlice> fileSlices, boolean canIndexLogFiles) {
+    List<SmallFile> smallFileLocations = new ArrayList<>();
+    // find smallest file in partition and append to it
+    List<FileSlice> allSmallFileSlices = new ArrayList<>();
+    // If we cannot index log files, then we choose the smallest parquet file in the partition and add inserts to
+    // it. Doing this overtime for a partition, we ensure that we handle small file issues
+    if (!canIndexLogFiles) {
+      // TODO : choose last N small files since there can be multiple small files written to a single partition
+      // by different spark partitions in a single batch
+      Option<FileSlice> smallFileSlice = Option.fromJavaOptional(fileSlices.stream()
+          .filter(
+              fileSlice -> fileSlice.getLogFiles().count() < 1 && fileSlice.getBaseFile().get().getFileSize() < config
+                  .getParquetSmallFileLimit())
+          .min((FileSlice left, FileSlice right) ->
+              left.getBaseFile().get().getFileSize() < right.getBaseFile().get().getFileSize() ? -1 : 1));
+      if (smallFileSlice.isPresent()) {
+        allSmallFileSlices.add(smallFileSlice.get());
       }
-      // Create SmallFiles from the eligible file slices
-      for (FileSlice smallFileSlice : allSmallFileSlices) {
-        SmallFile sf = new SmallFile();
-        if (smallFileSlice.getBaseFile().isPresent()) {
-          // TODO : Move logic of file name, file id, base commit time handling inside file slice
-          String filename = smallFileSlice.getBaseFile().get().getFileName();
-          sf.location = new HoodieRecordLocation(FSUtils.getCommitTime(filename), FSUtils.getFileId(filename));
-          sf.sizeBytes = getTotalFileSize(smallFileSlice);
-          smallFileLocations.add(sf);
-        } else {
-          HoodieLogFile logFile = smallFileSlice.getLogFiles().findFirst().get();
-          sf.location = new HoodieRecordLocation(FSUtils.getBaseCommitTimeFromLogPath(logFile.getPath()),
-              FSUtils.getFileIdFromLogPath(logFile.getPath()));
-          sf.sizeBytes = getTotalFileSize(smallFileSlice);
-          smallFileLocations.add(sf);
+    } else {
+      for (FileSlice fileSlice : fileSlices) {
+        if (isSmallFile(fileSlice)) {
+          allSmallFileSlices.add(fileSlice);
         }
       }
     }
+    // Create SmallFiles from the eligible file slices
+    for (FileSlice smallFileSlice : allSmallFileSlices) {
+      SmallFile sf = new SmallFile();
+      if (smallFileSlice.getBaseFile().isPresent()) {
+        // TODO : Move logic of file name, file id, base commit time handling inside file slice
+        String filename = smallFileSlice.getBaseFile().get().getFileName();
+        sf.location = new HoodieRecordLocation(FSUtils.getCommitTime(filename), FSUtils.getFileId(filename));
+        sf.sizeBytes = getTotalFileSize(smallFileSlice);
+        smallFileLocations.add(sf);
+      } else {
+        HoodieLogFile logFile = smallFileSlice.getLogFiles().findFirst().get();
+        sf.location = new HoodieRecordLocation(FSUtils.getBaseCommitTimeFromLogPath(logFile.getPath()),
+            FSUtils.getFileIdFromLogPath(logFile.getPath()));
+        sf.sizeBytes = getTotalFileSize(smallFileSlice);
+        smallFileLocations.add(sf);
+      }
+    }
     return smallFileLocations;
   }
 
-  public List<String> getSmallFileIds() {
-    return (List<String>) smallFiles.stream().map(smallFile -> ((SmallFile) smallFile).location.getFileId())
-        .collect(Collectors.toList());
-  }
-
   private long getTotalFileSize(FileSlice fileSlice) {
     if (!fileSlice.getBaseFile().isPresent()) {
       return convertLogFilesSizeToExpectedParquetSize(fileSlice.getLogFiles().collect(Collectors.toList()));
@@ -156,7 +156,7 @@ public abstract class BaseRollbackActionExecutor extends BaseActionExecutor<Hood
   }
 
   private void rollBackIndex() {
-    if (!table.getIndex().rollbackCommit(instantToRollback.getTimestamp())) {
+    if (!table.getIndex().rollbackCommit(instantToRollback.getTimestamp(), table)) {
       throw new HoodieRollbackException("Rollback index changes failed, for time :" + instantToRollback);
     }
     LOG.info("Index rolled back for commits " + instantToRollback);
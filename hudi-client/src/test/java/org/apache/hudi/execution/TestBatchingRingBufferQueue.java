@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.execution;
+
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.table.timeline.HoodieActiveTimeline;
+import org.apache.hudi.common.testutils.HoodieTestDataGenerator;
+import org.apache.hudi.common.util.DefaultSizeEstimator;
+import org.apache.hudi.common.util.FileIOUtils;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.SizeEstimator;
+import org.apache.hudi.common.util.queue.BatchingRingBufferQueue;
+import org.apache.hudi.common.util.queue.BoundedInMemoryExecutor;
+import org.apache.hudi.common.util.queue.BoundedInMemoryExecutor.QueueType;
+import org.apache.hudi.common.util.queue.BoundedInMemoryQueueConsumer;
+import org.apache.hudi.common.util.queue.BoundedInMemoryQueueProducer;
+import org.apache.hudi.common.util.queue.FunctionBasedQueueProducer;
+import org.apache.hudi.common.util.queue.IteratorBasedQueueProducer;
+import org.apache.hudi.exception.HoodieException;
+import org.apache.hudi.execution.LazyInsertIterable.HoodieInsertValueGenResult;
+import org.apache.hudi.testutils.HoodieClientTestHarness;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static org.apache.hudi.execution.LazyInsertIterable.getTransformFunction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests {@link BatchingRingBufferQueue}.
+ */
+public class TestBatchingRingBufferQueue extends HoodieClientTestHarness {
+
+  private final String instantTime = HoodieActiveTimeline.createNewInstantTime();
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    initTestDataGenerator();
+    initExecutorServiceWithFixedThreadPool(2);
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    cleanupResources();
+  }
+
+  // Test to ensure that all the records are read in order, including the ones of the last partially filled batch.
+  @SuppressWarnings("unchecked")
+  @Test
+  @Timeout(value = 60)
+  public void testRecordReading() throws Exception {
+    final int numRecords = 1000;
+    final List<HoodieRecord> hoodieRecords = dataGen.generateInserts(instantTime, numRecords);
+    final BatchingRingBufferQueue<HoodieRecord, HoodieInsertValueGenResult<HoodieRecord>> queue =
+        new BatchingRingBufferQueue(FileIOUtils.KB * 64, getTransformFunction(HoodieTestDataGenerator.AVRO_SCHEMA));
+    // Produce
+    Future<Boolean> resFuture = executorService.submit(() -> {
+      new IteratorBasedQueueProducer<>(hoodieRecords.iterator()).produce(queue);
+      queue.close();
+      return true;
+    });
+    final Iterator<HoodieRecord> originalRecordIterator = hoodieRecords.iterator();
+    int recordsRead = 0;
+    while (queue.iterator().hasNext()) {
+      // Ensure that record ordering is guaranteed.
+      assertEquals(originalRecordIterator.next(), queue.iterator().next().record);
+      recordsRead++;
+    }
+    assertFalse(queue.iterator().hasNext() || originalRecordIterator.hasNext());
+    // all the records should be read successfully.
+    assertEquals(numRecords, recordsRead);
+    assertEquals(0, queue.size());
+    // should not throw any exceptions.
+    resFuture.get();
+  }
+
+  // Test to ensure that the records of every producer are read in order when going through the executor.
+  @Test
+  @Timeout(value = 60)
+  public void testCompositeProducerRecordReading() {
+    final int numRecords = 1000;
+    final int numProducers = 4;
+    final List<List<HoodieRecord>> recs = new ArrayList<>();
+    List<BoundedInMemoryQueueProducer<HoodieRecord>> producers = new ArrayList<>();
+    for (int i = 0; i < numProducers; i++) {
+      final List<HoodieRecord> r = dataGen.generateInserts(instantTime, numRecords);
+      recs.add(r);
+      // Alternate between pull and push based iterators
+      if (i % 2 == 0) {
+        producers.add(new IteratorBasedQueueProducer<>(r.iterator()));
+      } else {
+        producers.add(new FunctionBasedQueueProducer<>((buf) -> {
+          for (HoodieRecord record : r) {
+            try {
+              buf.insertRecord(record);
+            } catch (Exception e) {
+              throw new HoodieException(e);
+            }
+          }
+          return true;
+        }));
+      }
+    }
+
+    List<HoodieRecord> consumed = new ArrayList<>();
+    BoundedInMemoryQueueConsumer<HoodieRecord, Integer> consumer =
+        new BoundedInMemoryQueueConsumer<HoodieRecord, Integer>() {
+
+          @Override
+          protected void consumeOneRecord(HoodieRecord record) {
+            consumed.add(record);
+          }
+
+          @Override
+          protected void finish() {
+          }
+
+          @Override
+          protected Integer getResult() {
+            return consumed.size();
+          }
+        };
+    BoundedInMemoryExecutor<HoodieRecord, HoodieRecord, Integer> executor = new BoundedInMemoryExecutor<>(
+        FileIOUtils.KB * 64, producers, Option.of(consumer), x -> x, new DefaultSizeEstimator<>(),
+        QueueType.RING_BUFFER);
+    try {
+      assertEquals(numProducers * numRecords, executor.execute().intValue());
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Ensure we have seen all the records of each producer, in the order they were produced
+    for (List<HoodieRecord> producerRecords : recs) {
+      List<HoodieRecord> seen = new ArrayList<>(consumed);
+      seen.retainAll(new HashSet<>(producerRecords));
+      assertEquals(producerRecords, seen);
+    }
+  }
+
+  // Test to ensure that record queueing is throttled when we hit memory limit.
+  @SuppressWarnings("unchecked")
+  @Test
+  @Timeout(value = 60)
+  public void testMemoryLimitForBuffering() throws Exception {
+    final int numRecords = 128;
+    final List<HoodieRecord> hoodieRecords = dataGen.generateInserts(instantTime, numRecords);
+    // maximum number of records to keep in memory.
+    final int recordLimit = 5;
+    final SizeEstimator<HoodieInsertValueGenResult<HoodieRecord>> sizeEstimator = new DefaultSizeEstimator<>();
+    HoodieInsertValueGenResult<HoodieRecord> payload =
+        getTransformFunction(HoodieTestDataGenerator.AVRO_SCHEMA).apply(hoodieRecords.get(0));
+    final long objSize = sizeEstimator.sizeEstimate(payload);
+    final long memoryLimitInBytes = recordLimit * objSize;
+    final BatchingRingBufferQueue<HoodieRecord, HoodieInsertValueGenResult<HoodieRecord>> queue =
+        new BatchingRingBufferQueue(memoryLimitInBytes, getTransformFunction(HoodieTestDataGenerator.AVRO_SCHEMA));
+
+    // Produce
+    executorService.submit(() -> {
+      new IteratorBasedQueueProducer<>(hoodieRecords.iterator()).produce(queue);
+      return true;
+    });
+    waitForQueuedRecords(queue, recordLimit);
+    assertEquals(recordLimit, queue.currentRateLimit);
+
+    // try to read 2 records.
+    assertEquals(hoodieRecords.get(0), queue.iterator().next().record);
+    assertEquals(hoodieRecords.get(1), queue.iterator().next().record);
+
+    // Reading frees up room for more records, but never beyond the limit
+    waitForQueuedRecords(queue, recordLimit);
+    assertEquals(recordLimit, queue.currentRateLimit);
+  }
+
+  // Test to ensure that exception in either queueing thread or reader thread is propagated to another thread.
+  @SuppressWarnings("unchecked")
+  @Test
+  @Timeout(value = 60)
+  public void testException() throws Exception {
+    final int numRecords = 256;
+    final List<HoodieRecord> hoodieRecords = dataGen.generateInserts(instantTime, numRecords);
+    final SizeEstimator<HoodieInsertValueGenResult<HoodieRecord>> sizeEstimator = new DefaultSizeEstimator<>();
+    HoodieInsertValueGenResult<HoodieRecord> payload =
+        getTransformFunction(HoodieTestDataGenerator.AVRO_SCHEMA).apply(hoodieRecords.get(0));
+    final long memoryLimitInBytes = 4 * sizeEstimator.sizeEstimate(payload);
+
+    // first let us fail the reader and test that the queueing thread stops and throws the exception back.
+    BatchingRingBufferQueue<HoodieRecord, HoodieInsertValueGenResult<HoodieRecord>> queue1 =
+        new BatchingRingBufferQueue(memoryLimitInBytes, getTransformFunction(HoodieTestDataGenerator.AVRO_SCHEMA));
+    Future<Boolean> resFuture = executorService.submit(() -> {
+      new IteratorBasedQueueProducer<>(hoodieRecords.iterator()).produce(queue1);
+      return true;
+    });
+    waitForQueuedRecords(queue1, 4);
+    final Exception e = new Exception("Failing it :)");
+    queue1.markAsFailed(e);
+    final Throwable thrown1 = assertThrows(ExecutionException.class, resFuture::get, "exception is expected");
+    assertEquals(HoodieException.class, thrown1.getCause().getClass());
+    assertEquals(e, thrown1.getCause().getCause());
+
+    // second let us fail the queueing thread, the exception should get propagated to the reader.
+    final RuntimeException expectedException = new RuntimeException("failing record reading");
+    final Iterator<HoodieRecord> mockHoodieRecordsIterator = mock(Iterator.class);
+    when(mockHoodieRecordsIterator.hasNext()).thenReturn(true);
+    when(mockHoodieRecordsIterator.next()).thenThrow(expectedException);
+    BatchingRingBufferQueue<HoodieRecord, HoodieInsertValueGenResult<HoodieRecord>> queue2 =
+        new BatchingRingBufferQueue(memoryLimitInBytes, getTransformFunction(HoodieTestDataGenerator.AVRO_SCHEMA));
+    Future<Boolean> res = executorService.submit(() -> {
+      try {
+        new IteratorBasedQueueProducer<>(mockHoodieRecordsIterator).produce(queue2);
+      } catch (Exception ex) {
+        queue2.markAsFailed(ex);
+        throw ex;
+      }
+      return true;
+    });
+
+    final Throwable thrown2 = assertThrows(Exception.class, () -> {
+      queue2.iterator().hasNext();
+    }, "exception is expected");
+    assertEquals(expectedException, thrown2.getCause());
+    // queueing thread should also have exited. make sure that it is not running.
+    final Throwable thrown3 = assertThrows(ExecutionException.class, res::get, "exception is expected");
+    assertEquals(expectedException, thrown3.getCause());
+  }
+
+  /**
+   * Waits for the producer to fill up the queue, and checks that it does not go beyond.
+   */
+  private void waitForQueuedRecords(BatchingRingBufferQueue<?, ?> queue, int numRecords) throws InterruptedException {
+    while (queue.size() < numRecords) {
+      Thread.sleep(10);
+    }
+    Thread.sleep(100);
+    assertEquals(numRecords, queue.size());
+  }
+}
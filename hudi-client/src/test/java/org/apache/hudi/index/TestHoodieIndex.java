@@ -79,7 +79,7 @@ public class TestHoodieIndex extends HoodieClientTestHarness {
     initResources();
     config = getConfigBuilder()
         .withIndexConfig(HoodieIndexConfig.newBuilder().withIndexType(indexType)
-            .build()).withAutoCommit(false).build();
+            .withBucketIndexNumBuckets(8).build()).withAutoCommit(false).build();
     writeClient = getHoodieWriteClient(config);
     this.index = writeClient.getIndex();
   }
@@ -90,7 +90,7 @@ public class TestHoodieIndex extends HoodieClientTestHarness {
   }
 
   @ParameterizedTest
-  @EnumSource(value = IndexType.class, names = {"BLOOM", "GLOBAL_BLOOM", "SIMPLE", "GLOBAL_SIMPLE"})
+  @EnumSource(value = IndexType.class, names = {"BLOOM", "GLOBAL_BLOOM", "SIMPLE", "GLOBAL_SIMPLE", "RECORD", "BUCKET"})
   public void testSimpleTagLocationAndUpdate(IndexType indexType) throws Exception {
     setUp(indexType);
     String newCommitTime = "001";
@@ -140,7 +140,7 @@ public class TestHoodieIndex extends HoodieClientTestHarness {
   }
 
   @ParameterizedTest
-  @EnumSource(value = IndexType.class, names = {"BLOOM", "GLOBAL_BLOOM", "SIMPLE", "GLOBAL_SIMPLE"})
+  @EnumSource(value = IndexType.class, names = {"BLOOM", "GLOBAL_BLOOM", "SIMPLE", "GLOBAL_SIMPLE", "RECORD", "BUCKET"})
   public void testTagLocationAndDuplicateUpdate(IndexType indexType) throws Exception {
     setUp(indexType);
     String newCommitTime = "001";
@@ -190,7 +190,7 @@ public class TestHoodieIndex extends HoodieClientTestHarness {
   }
 
   @ParameterizedTest
-  @EnumSource(value = IndexType.class, names = {"BLOOM", "GLOBAL_BLOOM", "SIMPLE", "GLOBAL_SIMPLE"})
+  @EnumSource(value = IndexType.class, names = {"BLOOM", "GLOBAL_BLOOM", "SIMPLE", "GLOBAL_SIMPLE", "RECORD", "BUCKET"})
   public void testSimpleTagLocationAndUpdateWithRollback(IndexType indexType) throws Exception {
     setUp(indexType);
     String newCommitTime = writeClient.startCommit();
@@ -230,8 +230,15 @@ public class TestHoodieIndex extends HoodieClientTestHarness {
 
     // both lists should match
     assertTrue(taggedFileIds.containsAll(fileIds) && fileIds.containsAll(taggedFileIds));
+    Path indexDeltas = new Path(basePath, HoodieTableMetaClient.RECORD_INDEX_ROOT_FOLDER_PATH + "/*/" + newCommitTime + ".*");
+    if (indexType == IndexType.RECORD) {
+      assertTrue(metaClient.getFs().globStatus(indexDeltas).length > 0);
+    }
     // Rollback the last commit
     writeClient.rollback(newCommitTime);
+    if (indexType == IndexType.RECORD) {
+      assertEquals(0, metaClient.getFs().globStatus(indexDeltas).length, "Rollback should drop the record index deltas");
+    }
 
     hoodieTable = HoodieTable.create(metaClient, config, jsc.hadoopConfiguration());
     // Now tagLocation for these records, hbaseIndex should not tag them since it was a rolled
@@ -33,7 +33,9 @@ import org.apache.hudi.exception.HoodieIndexException;
 import org.apache.hudi.index.HoodieIndex.IndexType;
 import org.apache.hudi.index.bloom.HoodieBloomIndex;
 import org.apache.hudi.index.bloom.HoodieGlobalBloomIndex;
+import org.apache.hudi.index.bucket.HoodieBucketIndex;
 import org.apache.hudi.index.hbase.HBaseIndex;
+import org.apache.hudi.index.record.HoodieRecordIndex;
 import org.apache.hudi.index.simple.HoodieSimpleIndex;
 import org.apache.hudi.table.HoodieTable;
 
@@ -61,7 +63,7 @@ public class TestHoodieIndexConfigs {
   }
 
   @ParameterizedTest
-  @EnumSource(value = IndexType.class, names = {"BLOOM", "GLOBAL_BLOOM", "SIMPLE", "GLOBAL_SIMPLE", "HBASE"})
+  @EnumSource(value = IndexType.class, names = {"BLOOM", "GLOBAL_BLOOM", "SIMPLE", "GLOBAL_SIMPLE", "HBASE", "RECORD", "BUCKET"})
   public void testCreateIndex(IndexType indexType) throws Exception {
     HoodieWriteConfig config;
     HoodieWriteConfig.Builder clientConfigBuilder = HoodieWriteConfig.newBuilder();
@@ -94,6 +96,16 @@ public class TestHoodieIndexConfigs {
             .build();
         assertTrue(HoodieIndex.createIndex(config) instanceof HBaseIndex);
         break;
+      case RECORD:
+        config = clientConfigBuilder.withPath(basePath)
+            .withIndexConfig(indexConfigBuilder.withIndexType(IndexType.RECORD).build()).build();
+        assertTrue(HoodieIndex.createIndex(config) instanceof HoodieRecordIndex);
+        break;
+      case BUCKET:
+        config = clientConfigBuilder.withPath(basePath)
+            .withIndexConfig(indexConfigBuilder.withIndexType(IndexType.BUCKET).build()).build();
+        assertTrue(HoodieIndex.createIndex(config) instanceof HoodieBucketIndex);
+        break;
       default:
         // no -op. just for checkstyle errors
     }
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.bloom;
+
+import org.apache.hudi.common.bloom.BloomFilter;
+import org.apache.hudi.common.bloom.BloomFilterFactory;
+import org.apache.hudi.common.bloom.BloomFilterTypeCode;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link BloomIndexFileMetaCache}.
+ */
+public class TestBloomIndexFileMetaCache {
+
+  @Test
+  public void testLoadsOncePerBaseFile() throws IOException {
+    BloomIndexFileMetaCache cache = new BloomIndexFileMetaCache(Long.MAX_VALUE);
+    AtomicInteger numLoads = new AtomicInteger();
+    BloomFilter bloomFilter = createBloomFilter("key1");
+
+    assertSame(bloomFilter, cache.getOrLoadBloomFilter("p1/f1_1-0-1_001.parquet", () -> {
+      numLoads.incrementAndGet();
+      return bloomFilter;
+    }));
+    assertSame(bloomFilter, cache.getOrLoadBloomFilter("p1/f1_1-0-1_001.parquet", () -> {
+      numLoads.incrementAndGet();
+      return createBloomFilter("key2");
+    }));
+    assertEquals(1, numLoads.get());
+
+    // a new version of the file group is loaded again
+    assertFalse(cache.getOrLoadBloomFilter("p1/f1_1-0-1_002.parquet", () -> createBloomFilter("key2"))
+        .mightContain("key1"));
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void testKeyRanges() throws IOException {
+    BloomIndexFileMetaCache cache = new BloomIndexFileMetaCache(Long.MAX_VALUE);
+    assertFalse(cache.getKeyRange("p1/f1_1-0-1_001.parquet").isPresent());
+    cache.putKeyRange("p1/f1_1-0-1_001.parquet", new String[] {"key1", "key9"});
+    assertArrayEquals(new String[] {"key1", "key9"}, cache.getKeyRange("p1/f1_1-0-1_001.parquet").get());
+
+    // the bloom filter of a file is cached alongside its key range
+    cache.getOrLoadBloomFilter("p1/f1_1-0-1_001.parquet", () -> createBloomFilter("key1"));
+    assertEquals(1, cache.size());
+    assertTrue(cache.getKeyRange("p1/f1_1-0-1_001.parquet").isPresent());
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsed() throws IOException {
+    BloomIndexFileMetaCache cache = new BloomIndexFileMetaCache(Long.MAX_VALUE);
+    cache.getOrLoadBloomFilter("f1", () -> createBloomFilter("key1"));
+    long sizePerEntry = cache.getSizeInBytes();
+    assertTrue(sizePerEntry > 0);
+
+    cache = new BloomIndexFileMetaCache(sizePerEntry * 2);
+    cache.getOrLoadBloomFilter("f1", () -> createBloomFilter("key1"));
+    cache.getOrLoadBloomFilter("f2", () -> createBloomFilter("key2"));
+    // f1 is used more recently than f2, f2 is evicted
+    cache.getOrLoadBloomFilter("f1", () -> {
+      throw new IOException("f1 should be cached");
+    });
+    cache.getOrLoadBloomFilter("f3", () -> createBloomFilter("key3"));
+    assertEquals(2, cache.size());
+    assertTrue(cache.getSizeInBytes() <= sizePerEntry * 2);
+
+    cache.getOrLoadBloomFilter("f1", () -> {
+      throw new IOException("f1 should be cached");
+    });
+    BloomIndexFileMetaCache finalCache = cache;
+    assertThrows(IOException.class, () -> finalCache.getOrLoadBloomFilter("f2", () -> {
+      throw new IOException("f2 was evicted");
+    }));
+  }
+
+  private static BloomFilter createBloomFilter(String key) {
+    BloomFilter bloomFilter = BloomFilterFactory.createBloomFilter(1000, 0.000001, -1,
+        BloomFilterTypeCode.SIMPLE.name());
+    bloomFilter.add(key);
+    return bloomFilter;
+  }
+}
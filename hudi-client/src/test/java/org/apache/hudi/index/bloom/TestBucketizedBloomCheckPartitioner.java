@@ -96,4 +96,24 @@ public class TestBucketizedBloomCheckPartitioner {
     });
   }
 
+  @Test
+  public void testUnknownFileGroup() {
+    Map<String, Long> comparisons = new HashMap<String, Long>() {
+      {
+        put("f1", 40L);
+      }
+    };
+    BucketizedBloomCheckPartitioner p = new BucketizedBloomCheckPartitioner(4, comparisons, 10);
+    // file groups missing from the estimate are spread over all partitions
+    IntStream.range(0, 100).forEach(k -> {
+      int partition = p.getPartition(Pair.of("f2", "key" + k));
+      assertTrue(0 <= partition && partition < p.numPartitions(), "partition is out of range: " + partition);
+    });
+
+    // without any estimated comparisons there is still a partition to check against
+    BucketizedBloomCheckPartitioner empty = new BucketizedBloomCheckPartitioner(4, new HashMap<>(), 10);
+    assertEquals(1, empty.numPartitions());
+    assertEquals(0, empty.getPartition(Pair.of("f1", "key")));
+  }
+
 }
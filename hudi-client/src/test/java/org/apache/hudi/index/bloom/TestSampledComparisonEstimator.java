@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.bloom;
+
+import org.apache.hudi.testutils.HoodieClientTestHarness;
+
+import org.apache.spark.api.java.JavaPairRDD;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import scala.Tuple2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link SampledComparisonEstimator}.
+ */
+public class TestSampledComparisonEstimator extends HoodieClientTestHarness {
+
+  private static final String PARTITION_1 = "2016/01/31";
+  private static final String PARTITION_2 = "2015/01/31";
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    initSparkContexts();
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    cleanupResources();
+  }
+
+  @Test
+  public void testRecordsPerPartition() {
+    SampledComparisonEstimator estimator =
+        SampledComparisonEstimator.sample(createInput(8000, 2000), 0.01, 42L);
+    Map<String, Long> recordsPerPartition = estimator.getRecordsPerPartition();
+    assertEquals(2, recordsPerPartition.size());
+    assertEquals(8000L, recordsPerPartition.get(PARTITION_1).longValue());
+    assertEquals(2000L, recordsPerPartition.get(PARTITION_2).longValue());
+  }
+
+  @Test
+  public void testEstimateComparisons() {
+    // keys 0-7999 of partition 1 fall into f1 (0-4999) and f2 (4000-7999), f3 covers none of them
+    Map<String, List<BloomIndexFileInfo>> partitionToFileInfo = new HashMap<>();
+    partitionToFileInfo.put(PARTITION_1, Arrays.asList(
+        new BloomIndexFileInfo("f1", key(0), key(4999)),
+        new BloomIndexFileInfo("f2", key(4000), key(7999)),
+        new BloomIndexFileInfo("f3", key(90000), key(99999))));
+    partitionToFileInfo.put(PARTITION_2, Arrays.asList(new BloomIndexFileInfo("f4")));
+
+    SampledComparisonEstimator estimator =
+        SampledComparisonEstimator.sample(createInput(8000, 2000), 0.1, 42L);
+    Map<String, Long> comparisons = estimator.estimateComparisons(new ListBasedIndexFileFilter(partitionToFileInfo));
+
+    assertFalse(comparisons.containsKey("f3"));
+    assertEstimate(5000, comparisons.get("f1"));
+    assertEstimate(4000, comparisons.get("f2"));
+    assertEstimate(2000, comparisons.get("f4"));
+  }
+
+  @Test
+  public void testEstimateIsCapped() {
+    SampledComparisonEstimator estimator = SampledComparisonEstimator.sample(createInput(1000, 0), 1.0, 42L);
+    Map<String, List<BloomIndexFileInfo>> partitionToFileInfo = new HashMap<>();
+    partitionToFileInfo.put(PARTITION_1, Arrays.asList(new BloomIndexFileInfo("f1")));
+    // every key is checked against the one file, the estimate is capped by the number of incoming keys
+    assertEquals(1000L, estimator.estimateComparisons(new ListBasedIndexFileFilter(partitionToFileInfo))
+        .get("f1").longValue());
+  }
+
+  private void assertEstimate(long expected, Long estimate) {
+    // estimates are padded, so they should not fall below the actual comparisons by much
+    assertTrue(estimate >= expected * 0.9 && estimate <= expected * 1.5,
+        "Estimate " + estimate + " too far off from " + expected);
+  }
+
+  private JavaPairRDD<String, String> createInput(int numRecordsPartition1, int numRecordsPartition2) {
+    List<Tuple2<String, String>> input = new ArrayList<>();
+    for (int i = 0; i < numRecordsPartition1; i++) {
+      input.add(new Tuple2<>(PARTITION_1, key(i)));
+    }
+    for (int i = 0; i < numRecordsPartition2; i++) {
+      input.add(new Tuple2<>(PARTITION_2, key(i)));
+    }
+    return jsc.parallelizePairs(input, 4);
+  }
+
+  private static String key(int i) {
+    return String.format("%06d", i);
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.bucket;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link BucketIdentifier}.
+ */
+public class TestBucketIdentifier {
+
+  @Test
+  public void testBucketId() {
+    Set<Integer> bucketIds = new HashSet<>();
+    for (int i = 0; i < 1000; i++) {
+      String recordKey = UUID.randomUUID().toString();
+      int bucketId = BucketIdentifier.getBucketId(recordKey, 16);
+      assertTrue(bucketId >= 0 && bucketId < 16);
+      assertEquals(bucketId, BucketIdentifier.getBucketId(recordKey, 16));
+      bucketIds.add(bucketId);
+    }
+    assertEquals(16, bucketIds.size());
+  }
+
+  @Test
+  public void testFileId() {
+    String fileId = BucketIdentifier.getFileId("2016/03/15", 7);
+    assertEquals(fileId, BucketIdentifier.getFileId("2016/03/15", 7));
+    assertEquals(BucketIdentifier.getFileIdPrefix("2016/03/15", 7) + "-0", fileId);
+    assertTrue(fileId.startsWith("00000007-"));
+    // the prefix is shaped like the random prefixes of new file groups
+    assertEquals(36, BucketIdentifier.getFileIdPrefix("2016/03/15", 7).length());
+    UUID.fromString(BucketIdentifier.getFileIdPrefix("2016/03/15", 7));
+
+    assertNotEquals(fileId, BucketIdentifier.getFileId("2016/03/15", 8));
+    assertNotEquals(fileId, BucketIdentifier.getFileId("2016/03/16", 7));
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.index.record;
+
+import org.apache.hudi.common.model.HoodieRecordLocation;
+import org.apache.hudi.common.table.timeline.HoodieDefaultTimeline;
+import org.apache.hudi.common.table.timeline.HoodieInstant;
+import org.apache.hudi.common.table.timeline.HoodieInstant.State;
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.testutils.HoodieCommonTestHarness;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.io.storage.HoodieHFileConfig;
+
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.io.compress.Compression;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link RecordIndexShard}.
+ */
+public class TestRecordIndexShard extends HoodieCommonTestHarness {
+
+  private Configuration conf;
+  private Path shardPath;
+  private HoodieHFileConfig hfileConfig;
+
+  @BeforeEach
+  public void setUp() {
+    initPath();
+    conf = new Configuration();
+    shardPath = new Path(basePath, RecordIndexShard.getShardName(0));
+    hfileConfig = new HoodieHFileConfig(conf, Compression.Algorithm.NONE, 64 * 1024, Long.MAX_VALUE, null);
+  }
+
+  @Test
+  public void testLookupSkipsUncommittedDeltas() throws IOException {
+    writeDelta(shard(timeline("001"), Collections.emptySet()), "001", "file1", 0, 10);
+    writeDelta(shard(timeline("001"), Collections.singleton("002")), "002", "file2", 10, 20);
+
+    Map<String, GenericRecord> entries = shard(timeline("001"), Collections.singleton("002")).lookup(keys(0, 20));
+    assertEquals(10, entries.size());
+    entries.values().forEach(entry -> assertEquals("file1", RecordIndexShard.getLocation(entry).getFileId()));
+
+    // once the commit completes its entries are visible
+    entries = shard(timeline("001", "002"), Collections.emptySet()).lookup(keys(0, 20));
+    assertEquals(20, entries.size());
+    assertEquals("file2", RecordIndexShard.getLocation(entries.get(key(15))).getFileId());
+    assertEquals("2016/03/15", RecordIndexShard.getPartitionPath(entries.get(key(15))));
+  }
+
+  @Test
+  public void testNewerDeltaShadowsOlderEntries() throws IOException {
+    RecordIndexShard shard = shard(timeline("001", "002"), Collections.emptySet());
+    writeDelta(shard, "001", "file1", 0, 10);
+    writeDelta(shard, "002", "file2", 5, 15);
+
+    Map<String, GenericRecord> entries = shard.lookup(keys(0, 15));
+    assertEquals(15, entries.size());
+    assertEquals(new HoodieRecordLocation("001", "file1"), RecordIndexShard.getLocation(entries.get(key(4))));
+    assertEquals(new HoodieRecordLocation("002", "file2"), RecordIndexShard.getLocation(entries.get(key(5))));
+  }
+
+  @Test
+  public void testMergeIntoBaseFile() throws IOException {
+    String[] instants = {"001", "002", "003", "004"};
+    RecordIndexShard shard = shard(timeline(instants), Collections.emptySet());
+    for (int i = 0; i < instants.length; i++) {
+      writeDelta(shard, instants[i], "file" + i, i * 5, i * 5 + 10);
+    }
+
+    // not enough deltas yet
+    shard.mergeIfNeeded(4, hfileConfig);
+    assertEquals(4, listFiles(RecordIndexShard.DELTA_FILE_EXTENSION).size());
+
+    shard.mergeIfNeeded(3, hfileConfig);
+    assertEquals(0, listFiles(RecordIndexShard.DELTA_FILE_EXTENSION).size());
+    assertEquals(Collections.singletonList("004" + RecordIndexShard.BASE_FILE_EXTENSION),
+        listFiles(RecordIndexShard.BASE_FILE_EXTENSION));
+
+    Map<String, GenericRecord> entries = shard.lookup(keys(0, 25));
+    assertEquals(25, entries.size());
+    // the newest entry of every key survives the merge
+    assertEquals("file0", RecordIndexShard.getLocation(entries.get(key(0))).getFileId());
+    assertEquals("file1", RecordIndexShard.getLocation(entries.get(key(9))).getFileId());
+    assertEquals("file3", RecordIndexShard.getLocation(entries.get(key(24))).getFileId());
+  }
+
+  @Test
+  public void testMergeStopsAtPendingDelta() throws IOException {
+    // 002 is still in flight, 003 was rolled back
+    RecordIndexShard shard = shard(timeline("001", "004", "005"), Collections.singleton("002"));
+    writeDelta(shard, "001", "file1", 0, 5);
+    writeDelta(shard, "002", "file2", 5, 10);
+    writeDelta(shard, "003", "file3", 10, 15);
+    writeDelta(shard, "004", "file4", 15, 20);
+    writeDelta(shard, "005", "file5", 20, 25);
+
+    shard.mergeIfNeeded(0, hfileConfig);
+    assertEquals(Collections.singletonList("001" + RecordIndexShard.BASE_FILE_EXTENSION),
+        listFiles(RecordIndexShard.BASE_FILE_EXTENSION));
+    assertEquals(4, listFiles(RecordIndexShard.DELTA_FILE_EXTENSION).size());
+
+    // after 002 completed, everything but the rolled back delta is merged and the rolled back one is dropped
+    shard = shard(timeline("001", "002", "004", "005"), Collections.emptySet());
+    shard.mergeIfNeeded(0, hfileConfig);
+    assertEquals(Collections.singletonList("005" + RecordIndexShard.BASE_FILE_EXTENSION),
+        listFiles(RecordIndexShard.BASE_FILE_EXTENSION));
+    assertTrue(listFiles(RecordIndexShard.DELTA_FILE_EXTENSION).isEmpty());
+
+    Map<String, GenericRecord> entries = shard.lookup(keys(0, 25));
+    assertEquals(20, entries.size());
+    assertFalse(entries.containsKey(key(12)));
+  }
+
+  @Test
+  public void testDeleteDelta() throws IOException {
+    RecordIndexShard shard = shard(timeline("001", "002"), Collections.emptySet());
+    writeDelta(shard, "001", "file1", 0, 10);
+    writeDelta(shard, "002", "file2", 10, 20);
+
+    assertTrue(shard.deleteDelta("002"));
+    assertFalse(shard.deleteDelta("003"));
+    assertEquals(10, shard.lookup(keys(0, 20)).size());
+  }
+
+  private RecordIndexShard shard(HoodieTimeline completedCommitsTimeline, Set<String> pendingInstants) {
+    return new RecordIndexShard(conf, shardPath, completedCommitsTimeline, pendingInstants);
+  }
+
+  private static HoodieTimeline timeline(String... instants) {
+    return new HoodieDefaultTimeline(Arrays.stream(instants)
+        .map(instant -> new HoodieInstant(State.COMPLETED, HoodieTimeline.COMMIT_ACTION, instant)),
+        instant -> Option.empty());
+  }
+
+  private void writeDelta(RecordIndexShard shard, String instantTime, String fileId, int from, int to)
+      throws IOException {
+    HoodieRecordLocation location = new HoodieRecordLocation(instantTime, fileId);
+    List<GenericRecord> entries = IntStream.range(from, to)
+        .mapToObj(i -> RecordIndexShard.createEntry(key(i), "2016/03/15", location))
+        .collect(Collectors.toList());
+    assertEquals(to - from, shard.writeDelta(instantTime, entries.iterator(), hfileConfig));
+  }
+
+  private List<String> listFiles(String extension) {
+    String[] names = new File(shardPath.toString()).list((dir, name) -> name.endsWith(extension));
+    return Stream.of(names).sorted().collect(Collectors.toList());
+  }
+
+  private static String key(int i) {
+    return String.format("key-%05d", i);
+  }
+
+  private static Set<String> keys(int from, int to) {
+    return IntStream.range(from, to).mapToObj(TestRecordIndexShard::key).collect(Collectors.toCollection(HashSet::new));
+  }
+}
@@ -18,8 +18,10 @@
 
 package org.apache.hudi.io;
 
+import org.apache.hudi.avro.HoodieAvroUtils;
 import org.apache.hudi.client.HoodieWriteClient;
 import org.apache.hudi.client.WriteStatus;
+import org.apache.hudi.common.bloom.BloomFilter;
 import org.apache.hudi.common.fs.FSUtils;
 import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.model.HoodieWriteStat;
@@ -27,15 +29,21 @@ import org.apache.hudi.common.table.HoodieTableMetaClient;
 import org.apache.hudi.common.table.timeline.HoodieActiveTimeline;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
 import org.apache.hudi.common.testutils.HoodieTestDataGenerator;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.ParquetUtils;
 import org.apache.hudi.config.HoodieCompactionConfig;
 import org.apache.hudi.config.HoodieIndexConfig;
 import org.apache.hudi.config.HoodieStorageConfig;
 import org.apache.hudi.config.HoodieWriteConfig;
 import org.apache.hudi.index.HoodieIndex;
+import org.apache.hudi.io.storage.HoodieParquetRowGroupPassthrough;
 import org.apache.hudi.testutils.HoodieClientTestHarness;
 import org.apache.hudi.testutils.HoodieClientTestUtils;
 
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
 import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
@@ -43,9 +51,14 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.apache.hudi.testutils.Assertions.assertNoWriteErrors;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -296,6 +309,75 @@ public class TestHoodieMergeHandle extends HoodieClientTestHarness {
     }
   }
 
+  @Test
+  public void testRowGroupPassthrough() throws Exception {
+    String partitionPath = HoodieTestDataGenerator.DEFAULT_PARTITION_PATHS[0];
+    dataGen = new HoodieTestDataGenerator(new String[] {partitionPath});
+    // tiny row groups, so that the file has a row group for about every 100 records
+    HoodieWriteConfig config = getConfigBuilder().withBulkInsertParallelism(1)
+        .withStorageConfig(HoodieStorageConfig.newBuilder().parquetMaxFileSize(1024 * 1024).parquetBlockSize(1024)
+            .parquetMergeRowGroupPassthrough(true).build())
+        .build();
+    try (HoodieWriteClient writeClient = getHoodieWriteClient(config);) {
+      String newCommitTime = "001";
+      writeClient.startCommitWithTime(newCommitTime);
+      List<HoodieRecord> records = dataGen.generateInserts(newCommitTime, 1000);
+      List<WriteStatus> statuses = writeClient.bulkInsert(jsc.parallelize(records, 1), newCommitTime).collect();
+      assertNoWriteErrors(statuses);
+      assertEquals(1, statuses.size());
+      Path oldFilePath = new Path(basePath, statuses.get(0).getStat().getPath());
+      assertTrue(ParquetUtils.readMetadata(hadoopConf, oldFilePath).getBlocks().size() > 2);
+
+      // records sorted by key, two updates fall into at most two of the row groups
+      List<HoodieRecord> updates = dataGen.generateUpdates("002", records.subList(0, 2));
+      Set<String> updatedKeys = updates.stream().map(HoodieRecord::getRecordKey).collect(Collectors.toSet());
+      Schema schema = HoodieAvroUtils.addMetadataFields(new Schema.Parser().parse(HoodieTestDataGenerator.TRIP_EXAMPLE_SCHEMA));
+      Option<HoodieParquetRowGroupPassthrough> passthrough =
+          HoodieParquetRowGroupPassthrough.create(hadoopConf, oldFilePath, schema, updatedKeys);
+      assertTrue(passthrough.isPresent());
+      int numMergedRecords = 0;
+      Iterator<GenericRecord> mergedRecords = passthrough.get().getRecordIterator(schema);
+      while (mergedRecords.hasNext()) {
+        updatedKeys.remove(mergedRecords.next().get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString());
+        numMergedRecords++;
+      }
+      assertTrue(updatedKeys.isEmpty(), "Row groups with updated keys must be merged");
+      assertTrue(numMergedRecords < 1000, "Row groups without updated keys must be copied");
+
+      // upsert the two updates along with inserts, which go into the same small file
+      newCommitTime = "002";
+      writeClient.startCommitWithTime(newCommitTime);
+      List<HoodieRecord> upserts = dataGen.generateInserts(newCommitTime, 5);
+      upserts.addAll(updates);
+      statuses = writeClient.upsert(jsc.parallelize(upserts, 1), newCommitTime).collect();
+      assertNoWriteErrors(statuses);
+      assertEquals(1, statuses.size());
+      HoodieWriteStat stat = statuses.get(0).getStat();
+      assertEquals(1005, stat.getNumWrites());
+      assertEquals(2, stat.getNumUpdateWrites());
+      assertEquals(5, stat.getNumInserts());
+
+      // the new file holds every record once and tracks all of their keys
+      Path newFilePath = new Path(basePath, stat.getPath());
+      Set<String> keys = ParquetUtils.readRowKeysFromParquet(hadoopConf, newFilePath);
+      assertEquals(1005, keys.size());
+      records.forEach(record -> assertTrue(keys.contains(record.getRecordKey())));
+      BloomFilter bloomFilter = ParquetUtils.readBloomFilterFromParquetMetadata(hadoopConf, newFilePath);
+      assertTrue(keys.stream().allMatch(bloomFilter::mightContain));
+      String[] minMaxKeys = ParquetUtils.readMinMaxRecordKeys(hadoopConf, newFilePath);
+      assertEquals(keys.stream().min(String::compareTo).get(), minMaxKeys[0]);
+      assertEquals(keys.stream().max(String::compareTo).get(), minMaxKeys[1]);
+      // the local file of the merged records is gone
+      File[] mergeDirs = new File(config.getSpillableMapBasePath()).listFiles((dir, name) -> name.startsWith("merge-"));
+      assertTrue(mergeDirs == null || Arrays.stream(mergeDirs).noneMatch(dir -> new File(dir, newFilePath.getName()).exists()));
+
+      Dataset<Row> dataSet = getRecords();
+      assertEquals(1005, dataSet.count());
+      assertEquals(7, dataSet.filter("_hoodie_commit_time = \"002\" and _hoodie_file_name = \"" + newFilePath.getName() + "\"")
+          .count());
+    }
+  }
+
   private Dataset<Row> getRecords() {
     // Check the entire dataset has 8 records still
     String[] fullPartitionPaths = new String[dataGen.getPartitionPaths().length];
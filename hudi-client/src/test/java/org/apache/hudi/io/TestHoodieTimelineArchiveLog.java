@@ -18,9 +18,18 @@
 
 package org.apache.hudi.io;
 
+import org.apache.hudi.avro.model.HoodieArchiveMergePlan;
+import org.apache.hudi.avro.model.HoodieArchivedBlockIndex;
+import org.apache.hudi.avro.model.HoodieArchivedMetaEntry;
+import org.apache.hudi.common.model.HoodieArchivedLogFile;
 import org.apache.hudi.common.model.HoodieCommitMetadata;
 import org.apache.hudi.common.model.WriteOperationType;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.log.HoodieLogFormat;
+import org.apache.hudi.common.table.log.block.HoodieAvroDataBlock;
+import org.apache.hudi.common.table.log.block.HoodieLogBlock.HeaderMetadataType;
+import org.apache.hudi.common.table.timeline.ArchivedTimelineIndex;
+import org.apache.hudi.common.table.timeline.ArchivedTimelineMergePlan;
 import org.apache.hudi.common.table.timeline.HoodieActiveTimeline;
 import org.apache.hudi.common.table.timeline.HoodieArchivedTimeline;
 import org.apache.hudi.common.table.timeline.HoodieInstant;
@@ -33,19 +42,25 @@ import org.apache.hudi.config.HoodieWriteConfig;
 import org.apache.hudi.table.HoodieTimelineArchiveLog;
 import org.apache.hudi.testutils.HoodieClientTestHarness;
 
+import org.apache.avro.generic.IndexedRecord;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.Path;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -405,6 +420,111 @@ public class TestHoodieTimelineArchiveLog extends HoodieClientTestHarness {
     assertFalse(dfs.exists(markerPath));
   }
 
+  @Test
+  public void testArchivedTimelineIndex() throws IOException {
+    HoodieWriteConfig cfg =
+        HoodieWriteConfig.newBuilder().withPath(basePath).withSchema(HoodieTestDataGenerator.TRIP_EXAMPLE_SCHEMA)
+            .withParallelism(2, 2).forTable("test-trip-table")
+            .withCompactionConfig(HoodieCompactionConfig.newBuilder().retainCommits(1).archiveCommitsWith(2, 3)
+                .withCommitsArchivalBatchSize(1).build())
+            .build();
+    // two archiving runs, appending to the same archive file
+    for (int i = 100; i < 110; i++) {
+      HoodieTestDataGenerator.createCommitFile(basePath, String.valueOf(i), dfs.getConf());
+    }
+    assertTrue(new HoodieTimelineArchiveLog(cfg, dfs.getConf()).archiveIfRequired(jsc));
+    for (int i = 110; i < 114; i++) {
+      HoodieTestDataGenerator.createCommitFile(basePath, String.valueOf(i), dfs.getConf());
+    }
+    assertTrue(new HoodieTimelineArchiveLog(cfg, dfs.getConf()).archiveIfRequired(jsc));
+    metaClient = HoodieTableMetaClient.reload(metaClient);
+
+    FileStatus[] archiveFiles = dfs.globStatus(new Path(metaClient.getArchivePath() + "/.commits_.archive*"));
+    Map<String, List<HoodieArchivedBlockIndex>> indexedBlocks =
+        ArchivedTimelineIndex.load(dfs, metaClient.getArchivePath()).getBlocksOfCoveredFiles(archiveFiles);
+    assertEquals(archiveFiles.length, indexedBlocks.size());
+    assertEquals(12, indexedBlocks.values().stream().mapToInt(List::size).sum());
+
+    Set<HoodieInstant> expectedInstants = IntStream.range(100, 112)
+        .mapToObj(i -> new HoodieInstant(false, HoodieTimeline.COMMIT_ACTION, String.valueOf(i)))
+        .collect(Collectors.toSet());
+    HoodieArchivedTimeline archivedTimeline = metaClient.getArchivedTimeline();
+    assertEquals(expectedInstants, archivedTimeline.getInstants().collect(Collectors.toSet()));
+
+    // only the blocks in range are read
+    archivedTimeline.loadInstantDetailsInMemory("103", "106");
+    for (int i = 100; i < 112; i++) {
+      HoodieInstant instant = new HoodieInstant(false, HoodieTimeline.COMMIT_ACTION, String.valueOf(i));
+      assertEquals(i > 103 && i <= 106, archivedTimeline.getInstantDetails(instant).isPresent());
+    }
+
+    // the archive is read in full without the index
+    dfs.delete(new Path(metaClient.getArchivePath(), ArchivedTimelineIndex.INDEX_FILE_NAME), false);
+    assertEquals(expectedInstants, metaClient.getArchivedTimeline().reload().getInstants().collect(Collectors.toSet()));
+  }
+
+  @Test
+  public void testMergeSmallArchiveFiles() throws Exception {
+    HoodieWriteConfig cfg =
+        HoodieWriteConfig.newBuilder().withPath(basePath).withSchema(HoodieTestDataGenerator.TRIP_EXAMPLE_SCHEMA)
+            .withParallelism(2, 2).forTable("test-trip-table")
+            .withCompactionConfig(HoodieCompactionConfig.newBuilder().retainCommits(1).archiveCommitsWith(2, 3)
+                .withCommitsArchivalBatchSize(3).withArchiveMergeEnable(true).withArchiveMergeMinFiles(3).build())
+            .build();
+    // five small archive files of two instants each, the newest instants in the oldest files
+    for (int version = 1; version <= 5; version++) {
+      writeArchiveFile(version, String.valueOf(110 - 2 * version), String.valueOf(111 - 2 * version));
+    }
+    // a merge which failed before moving its merged file in is rolled back
+    ArchivedTimelineMergePlan.save(dfs, metaClient.getArchivePath(), new HoodieArchiveMergePlan(1,
+        Collections.singletonList(".commits_.archive.1_1-0-1"), ".commits_.archive.9_1-0-1", Collections.emptyList()));
+
+    assertTrue(new HoodieTimelineArchiveLog(cfg, dfs.getConf()).archiveIfRequired(jsc));
+    metaClient = HoodieTableMetaClient.reload(metaClient);
+
+    // all but the latest file are merged into the next version
+    assertFalse(dfs.exists(new Path(metaClient.getArchivePath(), ArchivedTimelineMergePlan.PLAN_FILE_NAME)));
+    FileStatus[] archiveFiles = dfs.globStatus(new Path(metaClient.getArchivePath() + "/.commits_.archive*"));
+    assertEquals(new HashSet<>(Arrays.asList(".commits_.archive.5_1-0-1", ".commits_.archive.6_1-0-1")),
+        Arrays.stream(archiveFiles).map(f -> f.getPath().getName()).collect(Collectors.toSet()));
+
+    // the merged file is indexed and sorted by instant time
+    ArchivedTimelineIndex index = ArchivedTimelineIndex.load(dfs, metaClient.getArchivePath());
+    assertTrue(index.isMerged());
+    List<HoodieArchivedBlockIndex> mergedBlocks = index.getBlocksOfCoveredFiles(archiveFiles).get(".commits_.archive.6_1-0-1");
+    assertEquals(Arrays.asList("102", "105", "108"),
+        mergedBlocks.stream().map(HoodieArchivedBlockIndex::getMinInstantTime).collect(Collectors.toList()));
+
+    Set<HoodieInstant> expectedInstants = IntStream.range(100, 110)
+        .mapToObj(i -> new HoodieInstant(false, HoodieTimeline.COMMIT_ACTION, String.valueOf(i)))
+        .collect(Collectors.toSet());
+    HoodieArchivedTimeline archivedTimeline = metaClient.getArchivedTimeline();
+    assertEquals(expectedInstants, archivedTimeline.getInstants().collect(Collectors.toSet()));
+    archivedTimeline.loadInstantDetailsInMemory("101", "107");
+    for (int i = 100; i < 110; i++) {
+      HoodieInstant instant = new HoodieInstant(false, HoodieTimeline.COMMIT_ACTION, String.valueOf(i));
+      assertEquals(i > 101 && i <= 107, archivedTimeline.getInstantDetails(instant).isPresent());
+    }
+  }
+
+  private void writeArchiveFile(int version, String... instantTimes) throws Exception {
+    List<IndexedRecord> records = new ArrayList<>();
+    for (String instantTime : instantTimes) {
+      HoodieArchivedMetaEntry entry = new HoodieArchivedMetaEntry();
+      entry.setCommitTime(instantTime);
+      entry.setActionType(HoodieTimeline.COMMIT_ACTION);
+      entry.setActionState(State.COMPLETED.name());
+      records.add(entry);
+    }
+    Map<HeaderMetadataType, String> header = new HashMap<>();
+    header.put(HeaderMetadataType.SCHEMA, HoodieArchivedMetaEntry.getClassSchema().toString());
+    HoodieLogFormat.newWriterBuilder().onParentPath(new Path(metaClient.getArchivePath()))
+        .withFileId(HoodieArchivedTimeline.getArchiveLogPath(metaClient.getArchivePath()).getName())
+        .withFileExtension(HoodieArchivedLogFile.ARCHIVE_EXTENSION).withFs(dfs).overBaseCommit("")
+        .withLogVersion(version).withLogWriteToken(HoodieLogFormat.UNKNOWN_WRITE_TOKEN).build()
+        .appendBlock(new HoodieAvroDataBlock(records, header)).close();
+  }
+
   private void verifyInflightInstants(HoodieTableMetaClient metaClient, int expectedTotalInstants) {
     HoodieTimeline timeline = metaClient.getActiveTimeline().reload()
         .getTimelineOfActions(Collections.singleton(HoodieTimeline.CLEAN_ACTION)).filterInflights();
@@ -22,6 +22,7 @@ import org.apache.hudi.avro.model.HoodieCompactionPlan;
 import org.apache.hudi.client.HoodieWriteClient;
 import org.apache.hudi.client.WriteStatus;
 import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.model.CompactionOperation;
 import org.apache.hudi.common.model.FileSlice;
 import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.model.HoodieTableType;
@@ -42,6 +43,7 @@ import org.apache.hudi.exception.HoodieNotSupportedException;
 import org.apache.hudi.index.HoodieIndex;
 import org.apache.hudi.index.bloom.HoodieBloomIndex;
 import org.apache.hudi.table.HoodieTable;
+import org.apache.hudi.table.action.compact.strategy.CompactionStrategy;
 import org.apache.hudi.testutils.HoodieClientTestHarness;
 
 import org.apache.hadoop.conf.Configuration;
@@ -50,7 +52,11 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.apache.hudi.common.testutils.FileCreateUtils.createDeltaCommit;
@@ -189,6 +195,65 @@ public class TestHoodieCompactor extends HoodieClientTestHarness {
     }
   }
 
+  @Test
+  public void testPackOperationsLargestFirst() {
+    List<CompactionOperation> operations = Arrays.asList(operation("f1", 10), operation("f2", 70),
+        operation("f3", 20), operation("f4", 40), operation("f5", 30));
+
+    // one operation per task, largest first
+    List<List<CompactionOperation>> tasks = HoodieMergeOnReadTableCompactor.packOperations(operations, 1);
+    assertEquals(Arrays.asList("f2", "f4", "f5", "f3", "f1"),
+        tasks.stream().map(task -> task.get(0).getFileId()).collect(Collectors.toList()));
+
+    // every operation goes to the cheapest task that has room left
+    tasks = HoodieMergeOnReadTableCompactor.packOperations(operations, 3);
+    assertEquals(2, tasks.size());
+    assertEquals(Arrays.asList("f2", "f3"), tasks.get(0).stream().map(CompactionOperation::getFileId).collect(Collectors.toList()));
+    assertEquals(Arrays.asList("f4", "f5", "f1"), tasks.get(1).stream().map(CompactionOperation::getFileId).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testCompactionWithTaskParallelism() throws Exception {
+    HoodieWriteConfig config = getConfigBuilder()
+        .withCompactionConfig(HoodieCompactionConfig.newBuilder().withMaxNumDeltaCommitsBeforeCompaction(1)
+            .withCompactionTaskParallelism(2).build())
+        .build();
+    try (HoodieWriteClient writeClient = getHoodieWriteClient(config)) {
+      String newCommitTime = "100";
+      writeClient.startCommitWithTime(newCommitTime);
+      List<HoodieRecord> records = dataGen.generateInserts(newCommitTime, 100);
+      writeClient.insert(jsc.parallelize(records, 1), newCommitTime).collect();
+
+      newCommitTime = "101";
+      writeClient.startCommitWithTime(newCommitTime);
+      List<HoodieRecord> updatedRecords = dataGen.generateUpdates(newCommitTime, records);
+      writeClient.upsert(jsc.parallelize(updatedRecords, 1), newCommitTime).collect();
+
+      HoodieTable table = HoodieTable.create(config, hadoopConf);
+      String compactionInstantTime = "102";
+      table.scheduleCompaction(jsc, compactionInstantTime, Option.empty());
+      table.getMetaClient().reloadActiveTimeline();
+      List<WriteStatus> writeStatuses = table.compact(jsc, compactionInstantTime).getWriteStatuses().collect();
+
+      // every file slice with a log file is compacted, by tasks of up to two slices
+      long numFileSlices = Arrays.stream(dataGen.getPartitionPaths())
+          .mapToLong(partitionPath -> table.getSliceView().getLatestFileSlices(partitionPath)
+              .filter(slice -> slice.getLogFiles().count() > 0).count())
+          .sum();
+      assertEquals(numFileSlices, writeStatuses.size());
+      assertEquals(100, writeStatuses.stream().mapToLong(status -> status.getStat().getNumWrites()).sum());
+      assertTrue(writeStatuses.stream().noneMatch(WriteStatus::hasErrors));
+    }
+  }
+
+  private static CompactionOperation operation(String fileId, long logFileSizeMB) {
+    Map<String, Double> metrics = new HashMap<>();
+    metrics.put(CompactionStrategy.TOTAL_LOG_FILE_SIZE, (double) logFileSizeMB * 1024 * 1024);
+    metrics.put(CompactionStrategy.TOTAL_IO_READ_MB, (double) logFileSizeMB);
+    return new CompactionOperation(fileId, "2016/03/15", "000", Option.empty(), Collections.singletonList(fileId + ".log"),
+        Option.empty(), Option.empty(), metrics);
+  }
+
   @Override
   protected HoodieTableType getTableType() {
     return HoodieTableType.MERGE_ON_READ;
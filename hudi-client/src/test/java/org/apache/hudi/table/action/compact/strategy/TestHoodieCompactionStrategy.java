@@ -21,7 +21,10 @@ package org.apache.hudi.table.action.compact.strategy;
 import org.apache.hudi.avro.model.HoodieCompactionOperation;
 import org.apache.hudi.common.model.BaseFile;
 import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.model.HoodieCommitMetadata;
 import org.apache.hudi.common.model.HoodieLogFile;
+import org.apache.hudi.common.model.HoodieWriteStat;
+import org.apache.hudi.common.model.HoodieWriteStat.RuntimeStats;
 import org.apache.hudi.common.util.Option;
 import org.apache.hudi.common.util.collection.Pair;
 import org.apache.hudi.config.HoodieCompactionConfig;
@@ -241,6 +244,97 @@ public class TestHoodieCompactionStrategy {
         "BoundedPartitionAwareCompactionStrategy should have resulted in 1 compaction");
   }
 
+  @Test
+  public void testCostBasedPrefersHotPartitions() {
+    Map<Long, List<Long>> sizesMap = new HashMap<>();
+    sizesMap.put(120 * MB, Collections.singletonList(100 * MB));
+    sizesMap.put(120 * MB + 1, Collections.singletonList(100 * MB));
+    sizesMap.put(20 * MB, Collections.singletonList(5 * MB));
+    Map<Long, String> keyToPartitionMap = new HashMap<>();
+    keyToPartitionMap.put(120 * MB, partitionPaths[0]);
+    keyToPartitionMap.put(120 * MB + 1, partitionPaths[1]);
+    keyToPartitionMap.put(20 * MB, partitionPaths[2]);
+    CostBasedCompactionStrategy strategy = new CostBasedCompactionStrategy();
+    HoodieWriteConfig writeConfig = HoodieWriteConfig.newBuilder().withPath("/tmp")
+        .withCompactionConfig(HoodieCompactionConfig.newBuilder().withCompactionStrategy(strategy)
+            .withTargetIOPerCompactionInMB(400).withCostBasedCompactionHotDeltaCommits(2).build()).build();
+    List<HoodieCompactionOperation> operations = createCompactionOperations(writeConfig, sizesMap, keyToPartitionMap);
+    HoodieCompactionOperation hot = findOperation(operations, partitionPaths[0]);
+    HoodieCompactionOperation cold = findOperation(operations, partitionPaths[1]);
+    HoodieCompactionOperation small = findOperation(operations, partitionPaths[2]);
+
+    // both slices got two appends of the same size, but only the hot one within the last two delta commits
+    CostBasedCompactionStrategy.SliceStatistics statistics = new CostBasedCompactionStrategy.SliceStatistics();
+    statistics.addDeltaCommit("101", deltaCommit(cold, 500, 0), false);
+    statistics.addDeltaCommit("102", deltaCommit(cold, 500, 0), false);
+    statistics.addDeltaCommit("103", deltaCommit(hot, 500, 0), true);
+    statistics.addDeltaCommit("104", deltaCommit(hot, 500, 0), true);
+
+    // 340MB for the hot slice leaves no room for the cold one, the small slice after it still fits
+    List<HoodieCompactionOperation> returned = strategy.orderAndFilter(writeConfig, operations, statistics);
+    assertEquals(Arrays.asList(hot, small), returned,
+        "CostBasedCompactionStrategy should compact the hot partition and fill the rest of the IO limit");
+  }
+
+  @Test
+  public void testCostBasedWeighsUpdatesWithCompactionTimings() {
+    Map<Long, List<Long>> sizesMap = new HashMap<>();
+    sizesMap.put(100 * MB, Collections.singletonList(50 * MB));
+    sizesMap.put(100 * MB + 1, Collections.singletonList(50 * MB));
+    Map<Long, String> keyToPartitionMap = new HashMap<>();
+    keyToPartitionMap.put(100 * MB, partitionPaths[0]);
+    keyToPartitionMap.put(100 * MB + 1, partitionPaths[0]);
+    CostBasedCompactionStrategy strategy = new CostBasedCompactionStrategy();
+    HoodieWriteConfig writeConfig = HoodieWriteConfig.newBuilder().withPath("/tmp")
+        .withCompactionConfig(HoodieCompactionConfig.newBuilder().withCompactionStrategy(strategy).build()).build();
+    List<HoodieCompactionOperation> operations = createCompactionOperations(writeConfig, sizesMap, keyToPartitionMap);
+    HoodieCompactionOperation inserted = operations.get(0);
+    HoodieCompactionOperation updated = operations.get(1);
+
+    CostBasedCompactionStrategy.SliceStatistics statistics = new CostBasedCompactionStrategy.SliceStatistics();
+    statistics.addDeltaCommit("101", deltaCommit(inserted, 1000, 0), true);
+    statistics.addDeltaCommit("102", deltaCommit(updated, 0, 1000), true);
+    assertEquals(0, statistics.getMBPerLogRecord(), 0.0001, "No compaction timings to calibrate on");
+
+    // 1ms to scan a log record and 10ms to rewrite a MB make a log record worth 0.1MB
+    HoodieWriteStat compactionStat = new HoodieWriteStat();
+    compactionStat.setTotalLogRecords(1000);
+    compactionStat.setTotalWriteBytes(100 * MB);
+    RuntimeStats runtimeStats = new RuntimeStats();
+    runtimeStats.setTotalScanTime(1000);
+    runtimeStats.setTotalUpsertTime(1000);
+    compactionStat.setRuntimeStats(runtimeStats);
+    HoodieCommitMetadata compactionMetadata = new HoodieCommitMetadata(true);
+    compactionMetadata.addWriteStat(partitionPaths[0], compactionStat);
+    statistics.addCompactionCommit(compactionMetadata);
+    assertEquals(0.1, statistics.getMBPerLogRecord(), 0.0001);
+
+    List<HoodieCompactionOperation> returned = strategy.orderAndFilter(writeConfig, operations, statistics);
+    assertEquals(Arrays.asList(updated, inserted), returned,
+        "CostBasedCompactionStrategy should compact the slice with updates first");
+    assertEquals(2, strategy.orderAndFilter(writeConfig, operations, new ArrayList<>()).size(),
+        "CostBasedCompactionStrategy should keep all slices within the IO limit without the timeline");
+  }
+
+  private static HoodieCompactionOperation findOperation(List<HoodieCompactionOperation> operations,
+      String partitionPath) {
+    return operations.stream().filter(op -> op.getPartitionPath().equals(partitionPath)).findFirst().get();
+  }
+
+  private static HoodieCommitMetadata deltaCommit(HoodieCompactionOperation operation, long numInserts,
+      long numUpdates) {
+    HoodieWriteStat stat = new HoodieWriteStat();
+    stat.setPartitionPath(operation.getPartitionPath());
+    stat.setFileId(operation.getFileId());
+    stat.setPath(operation.getPartitionPath() + "/." + operation.getFileId() + "_100.log.1_1-0-1");
+    stat.setNumWrites(numInserts + numUpdates);
+    stat.setNumInserts(numInserts);
+    stat.setNumUpdateWrites(numUpdates);
+    HoodieCommitMetadata metadata = new HoodieCommitMetadata();
+    metadata.addWriteStat(operation.getPartitionPath(), stat);
+    return metadata;
+  }
+
   private List<HoodieCompactionOperation> createCompactionOperations(HoodieWriteConfig config,
       Map<Long, List<Long>> sizesMap) {
     Map<Long, String> keyToPartitionMap = sizesMap.keySet().stream()
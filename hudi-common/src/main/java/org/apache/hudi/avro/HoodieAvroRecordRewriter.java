@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.avro;
+
+import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.exception.SchemaCompatabilityException;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.JsonProperties;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rewrites records of one schema into another schema. Which field of the old record goes into which position of the
+ * new record, and the default values of the fields the old record has no value for, are worked out once per pair of
+ * schemas, so that rewriting a record comes down to copying its values by position.
+ */
+public class HoodieAvroRecordRewriter {
+
+  // Bound on the number of cached rewriters, the cache starts over once it is reached
+  private static final int MAX_CACHED_REWRITERS = 1024;
+
+  private static final Map<Pair<Schema, Schema>, HoodieAvroRecordRewriter> REWRITERS = new ConcurrentHashMap<>();
+  private static final Map<Pair<Schema, Schema>, HoodieAvroRecordRewriter> NEW_SCHEMA_FIELDS_REWRITERS =
+      new ConcurrentHashMap<>();
+
+  private final Schema newSchema;
+  // Per field to write, in the order they are written: its position in the old and new schema, -1 if the old schema
+  // has no such field, and the value to write when the old record has none
+  private final int[] oldPositions;
+  private final int[] newPositions;
+  private final Field[] fields;
+  private final Object[] defaultValues;
+  private final boolean[] mutableDefaultValues;
+
+  private HoodieAvroRecordRewriter(Schema oldSchema, Schema newSchema, LinkedHashSet<Field> fieldsToWrite) {
+    this.newSchema = newSchema;
+    int numFields = fieldsToWrite.size();
+    this.oldPositions = new int[numFields];
+    this.newPositions = new int[numFields];
+    this.fields = new Field[numFields];
+    this.defaultValues = new Object[numFields];
+    this.mutableDefaultValues = new boolean[numFields];
+    int i = 0;
+    for (Field field : fieldsToWrite) {
+      Field newField = newSchema.getField(field.name());
+      if (newField == null) {
+        throw new AvroRuntimeException("Not a valid schema field: " + field.name());
+      }
+      Field oldField = oldSchema.getField(field.name());
+      oldPositions[i] = oldField == null ? -1 : oldField.pos();
+      newPositions[i] = newField.pos();
+      fields[i] = field;
+      defaultValues[i] = getDefaultValue(field);
+      // default values of complex types are created anew for every record, as the records may modify them
+      mutableDefaultValues[i] = defaultValues[i] != null && !(defaultValues[i] instanceof CharSequence
+          || defaultValues[i] instanceof Number || defaultValues[i] instanceof Boolean);
+      i++;
+    }
+  }
+
+  /**
+   * Rewriter that sets the fields of the old schema and the non metadata fields only found in the new schema.
+   */
+  public static HoodieAvroRecordRewriter of(Schema oldSchema, Schema newSchema) {
+    return getOrCreate(REWRITERS, oldSchema, newSchema, false);
+  }
+
+  /**
+   * Rewriter that sets the fields of the new schema only.
+   */
+  public static HoodieAvroRecordRewriter withOnlyNewSchemaFields(Schema oldSchema, Schema newSchema) {
+    return getOrCreate(NEW_SCHEMA_FIELDS_REWRITERS, oldSchema, newSchema, true);
+  }
+
+  private static HoodieAvroRecordRewriter getOrCreate(Map<Pair<Schema, Schema>, HoodieAvroRecordRewriter> rewriters,
+      Schema oldSchema, Schema newSchema, boolean onlyNewSchemaFields) {
+    Pair<Schema, Schema> schemas = Pair.of(oldSchema, newSchema);
+    HoodieAvroRecordRewriter rewriter = rewriters.get(schemas);
+    if (rewriter == null) {
+      if (rewriters.size() >= MAX_CACHED_REWRITERS) {
+        rewriters.clear();
+      }
+      rewriter = new HoodieAvroRecordRewriter(oldSchema, newSchema, onlyNewSchemaFields
+          ? new LinkedHashSet<>(newSchema.getFields()) : getCombinedFieldsToWrite(oldSchema, newSchema));
+      rewriters.put(schemas, rewriter);
+    }
+    return rewriter;
+  }
+
+  /**
+   * Generates a super set of fields from both old and new schema.
+   */
+  private static LinkedHashSet<Field> getCombinedFieldsToWrite(Schema oldSchema, Schema newSchema) {
+    LinkedHashSet<Field> allFields = new LinkedHashSet<>(oldSchema.getFields());
+    for (Schema.Field f : newSchema.getFields()) {
+      if (!allFields.contains(f) && !HoodieAvroUtils.isMetadataField(f.name())) {
+        allFields.add(f);
+      }
+    }
+    return allFields;
+  }
+
+  private static Object getDefaultValue(Field field) {
+    Object defaultValue = field.defaultVal();
+    return defaultValue instanceof JsonProperties.Null ? null : defaultValue;
+  }
+
+  /**
+   * Rewrites the record, which has to be of the old schema, and validates the new record against the new schema.
+   */
+  public GenericRecord rewrite(GenericRecord record) {
+    return rewrite(record, true);
+  }
+
+  /**
+   * Rewrites the record, which has to be of the old schema. Validating the new record against the new schema catches
+   * values of the old record that do not match the type of their field in the new schema.
+   */
+  public GenericRecord rewrite(GenericRecord record, boolean validate) {
+    GenericData.Record newRecord = new GenericData.Record(newSchema);
+    for (int i = 0; i < newPositions.length; i++) {
+      Object value = oldPositions[i] < 0 ? null : record.get(oldPositions[i]);
+      if (value == null) {
+        value = mutableDefaultValues[i] ? getDefaultValue(fields[i]) : defaultValues[i];
+      }
+      newRecord.put(newPositions[i], value);
+    }
+    if (validate && !GenericData.get().validate(newSchema, newRecord)) {
+      throw new SchemaCompatabilityException(
+          "Unable to validate the rewritten record " + record + " against schema " + newSchema);
+    }
+    return newRecord;
+  }
+}
@@ -46,11 +46,19 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -74,6 +82,9 @@ public class FSUtils {
 
   private static final PathFilter ALLOW_ALL_FILTER = file -> true;
 
+  // Number of top-level folders of a table listed concurrently, when listing all its partitions
+  public static final int DEFAULT_LISTING_PARALLELISM = 16;
+
   public static Configuration prepareHadoopConf(Configuration conf) {
     conf.set("fs.hdfs.impl", org.apache.hadoop.hdfs.DistributedFileSystem.class.getName());
     conf.set("fs.file.impl", org.apache.hadoop.fs.LocalFileSystem.class.getName());
@@ -195,16 +206,93 @@ public class FSUtils {
    * {@link HoodiePartitionMetadata#HOODIE_PARTITION_METAFILE}.
    */
   public static List<String> getAllFoldersWithPartitionMetaFile(FileSystem fs, String basePathStr) throws IOException {
+    return getAllFoldersWithPartitionMetaFile(fs, basePathStr, DEFAULT_LISTING_PARALLELISM);
+  }
+
+  /**
+   * Obtain all the partition paths, that are present in this table, denoted by presence of
+   * {@link HoodiePartitionMetadata#HOODIE_PARTITION_METAFILE}. Up to the given number of top-level folders are listed
+   * concurrently.
+   */
+  public static List<String> getAllFoldersWithPartitionMetaFile(FileSystem fs, String basePathStr, int parallelism)
+      throws IOException {
     final Path basePath = new Path(basePathStr);
-    final List<String> partitions = new ArrayList<>();
-    processFiles(fs, basePathStr, (locatedFileStatus) -> {
-      Path filePath = locatedFileStatus.getPath();
+    final List<String> partitions = Collections.synchronizedList(new ArrayList<>());
+    processFilesInParallel(fs, basePathStr, fileStatus -> {
+      Path filePath = fileStatus.getPath();
       if (filePath.getName().equals(HoodiePartitionMetadata.HOODIE_PARTITION_METAFILE)) {
         partitions.add(getRelativePartitionPath(basePath, filePath.getParent()));
       }
-      return true;
-    }, true);
-    return partitions;
+    }, parallelism);
+    return partitions.stream().sorted().collect(Collectors.toList());
+  }
+
+  /**
+   * Lists the files of all the partitions of the table, keyed by their relative partition path. Partitions are the
+   * folders holding a {@link HoodiePartitionMetadata#HOODIE_PARTITION_METAFILE}. Up to the given number of top-level
+   * folders are listed concurrently.
+   */
+  public static Map<String, List<FileStatus>> getFilesInAllPartitions(FileSystem fs, String basePathStr,
+      int parallelism) throws IOException {
+    final Path basePath = new Path(basePathStr);
+    final Map<Path, List<FileStatus>> folderToFiles = new ConcurrentHashMap<>();
+    processFilesInParallel(fs, basePathStr, fileStatus -> folderToFiles.computeIfAbsent(fileStatus.getPath().getParent(),
+        folder -> Collections.synchronizedList(new ArrayList<>())).add(fileStatus), parallelism);
+
+    Map<String, List<FileStatus>> partitionToFiles = new HashMap<>();
+    folderToFiles.forEach((folder, files) -> {
+      if (files.stream().anyMatch(file -> file.getPath().getName().equals(HoodiePartitionMetadata.HOODIE_PARTITION_METAFILE))) {
+        partitionToFiles.put(getRelativePartitionPath(basePath, folder), new ArrayList<>(files));
+      }
+    });
+    return partitionToFiles;
+  }
+
+  /**
+   * Recursively processes all files in the base-path but the meta-folder, listing up to the given number of top-level
+   * folders concurrently. Every folder is listed recursively in one go, which object stores serve with flat listings of
+   * many files per call. The consumer is called from several threads.
+   */
+  private static void processFilesInParallel(FileSystem fs, String basePathStr, Consumer<FileStatus> consumer,
+      int parallelism) throws IOException {
+    PathFilter pathFilter = getExcludeMetaPathFilter();
+    List<Path> folders = new ArrayList<>();
+    for (FileStatus child : fs.listStatus(new Path(basePathStr))) {
+      if (child.isFile()) {
+        consumer.accept(child);
+      } else if (pathFilter.accept(child.getPath())) {
+        folders.add(child.getPath());
+      }
+    }
+    if (folders.isEmpty()) {
+      return;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, folders.size())));
+    try {
+      List<Future<?>> futures = folders.stream().map(folder -> executor.submit(() -> {
+        RemoteIterator<LocatedFileStatus> itr = fs.listFiles(folder, true);
+        while (itr.hasNext()) {
+          consumer.accept(itr.next());
+        }
+        return null;
+      })).collect(Collectors.toList());
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HoodieException("Interrupted while listing " + basePathStr, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      } else if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new HoodieException("Failed to list " + basePathStr, e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
   }
 
   /**
@@ -29,6 +29,12 @@ import java.io.Serializable;
  * Base class for all AVRO record based payloads, that can be ordered based on a field.
  */
 public abstract class BaseAvroPayload implements Serializable {
+
+  /**
+   * Ordering value of payloads created without one, compares equal to every other ordering value.
+   */
+  public static final Comparable NATURAL_ORDER = new NaturalOrder();
+
   /**
    * Avro data extracted from the source converted to bytes.
    */
@@ -52,4 +58,34 @@ public abstract class BaseAvroPayload implements Serializable {
       throw new HoodieException("Ordering value is null for record: " + record);
     }
   }
+
+  /**
+   * Instantiate {@link BaseAvroPayload} from already serialized avro data, without decoding it.
+   *
+   * @param recordBytes Avro data of the record, as produced by {@link HoodieAvroUtils#avroToBytes}.
+   * @param orderingVal {@link Comparable} to be used in pre combine.
+   */
+  protected BaseAvroPayload(byte[] recordBytes, Comparable orderingVal) {
+    this.recordBytes = recordBytes;
+    this.orderingVal = orderingVal;
+    if (orderingVal == null) {
+      throw new HoodieException("Ordering value is null for record bytes");
+    }
+  }
+
+  public Comparable getOrderingVal() {
+    return orderingVal;
+  }
+
+  private static class NaturalOrder implements Comparable<Object>, Serializable {
+
+    @Override
+    public int compareTo(Object o) {
+      return 0;
+    }
+
+    private Object readResolve() {
+      return NATURAL_ORDER;
+    }
+  }
 }
@@ -44,7 +44,11 @@ public class OverwriteWithLatestAvroPayload extends BaseAvroPayload
   }
 
   public OverwriteWithLatestAvroPayload(Option<GenericRecord> record) {
-    this(record.isPresent() ? record.get() : null, (record1) -> 0); // natural order
+    this(record.isPresent() ? record.get() : null, NATURAL_ORDER);
+  }
+
+  public OverwriteWithLatestAvroPayload(byte[] recordBytes, Comparable orderingVal) {
+    super(recordBytes, orderingVal);
   }
 
   @Override
@@ -79,6 +79,7 @@ public class HoodieTableMetaClient implements Serializable {
       + File.separator + ".partitions";
   public static final String BOOTSTRAP_INDEX_BY_FILE_ID_FOLDER_PATH = BOOTSTRAP_INDEX_ROOT_FOLDER_PATH + File.separator
       + ".fileids";
+  public static final String RECORD_INDEX_ROOT_FOLDER_PATH = AUXILIARYFOLDER_NAME + File.separator + ".record_index";
 
   public static final String MARKER_EXTN = ".marker";
 
@@ -30,6 +30,7 @@ import org.apache.hudi.common.table.log.block.HoodieDeleteBlock;
 import org.apache.hudi.common.table.log.block.HoodieHFileDataBlock;
 import org.apache.hudi.common.table.log.block.HoodieLogBlock;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.util.Option;
 import org.apache.hudi.common.util.SpillableMapUtils;
 import org.apache.hudi.exception.HoodieIOException;
 
@@ -43,11 +44,18 @@ import org.apache.log4j.Logger;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -69,6 +77,10 @@ import static org.apache.hudi.common.table.log.block.HoodieLogBlock.HoodieLogBlo
 public abstract class AbstractHoodieLogRecordScanner {
 
   private static final Logger LOG = LogManager.getLogger(AbstractHoodieLogRecordScanner.class);
+  // Data blocks deserialized ahead of the merge per scan thread, bounds the records of a parallel scan held on heap
+  private static final int PREFETCH_BLOCKS_PER_THREAD = 2;
+  // Bytes of log files a parallel scan reads ahead of the one being applied, their block contents are held on heap
+  private static final long MAX_READ_AHEAD_BYTES = 256 * 1024 * 1024L;
 
   // Reader schema for the records
   protected final Schema readerSchema;
@@ -103,10 +115,40 @@ public abstract class AbstractHoodieLogRecordScanner {
   private Deque<HoodieLogBlock> currentInstantLogBlocks = new ArrayDeque<>();
   // Progress
   private float progress = 0.0f;
+  // Number of log files read and data blocks deserialized concurrently, 1 scans on the calling thread
+  private final int logScanParallelism;
+  // Executor of a parallel scan, only set while scanning
+  private ExecutorService logScanExecutor;
+  // Records of queued data blocks being deserialized by a parallel scan
+  private final Map<HoodieLogBlock, Future<List<HoodieRecord<? extends HoodieRecordPayload>>>> prefetchedRecords =
+      new IdentityHashMap<>();
+  // Queued data blocks of a parallel scan waiting for room in the prefetch window, in log order
+  private final Deque<HoodieDataBlock> blocksToPrefetch = new ArrayDeque<>();
+  // Time spent reading log blocks, summed across threads - for metrics
+  private final AtomicLong totalTimeTakenToReadBlocksNanos = new AtomicLong(0);
+  // Time spent deserializing data blocks, summed across threads - for metrics
+  private final AtomicLong totalTimeTakenToDeserializeBlocksNanos = new AtomicLong(0);
+  // Time spent merging records and deletes - for metrics
+  private final AtomicLong totalTimeTakenToMergeRecordsNanos = new AtomicLong(0);
+  // Record keys the caller is interested in, records and deletes of other keys are skipped without being decoded
+  private final Option<Set<String>> keyFilter;
 
   // TODO (NA) - Change this to a builder, this constructor is too long
   public AbstractHoodieLogRecordScanner(FileSystem fs, String basePath, List<String> logFilePaths, Schema readerSchema,
       String latestInstantTime, boolean readBlocksLazily, boolean reverseReader, int bufferSize) {
+    this(fs, basePath, logFilePaths, readerSchema, latestInstantTime, readBlocksLazily, reverseReader, bufferSize, 1);
+  }
+
+  public AbstractHoodieLogRecordScanner(FileSystem fs, String basePath, List<String> logFilePaths, Schema readerSchema,
+      String latestInstantTime, boolean readBlocksLazily, boolean reverseReader, int bufferSize,
+      int logScanParallelism) {
+    this(fs, basePath, logFilePaths, readerSchema, latestInstantTime, readBlocksLazily, reverseReader, bufferSize,
+        logScanParallelism, Option.empty());
+  }
+
+  public AbstractHoodieLogRecordScanner(FileSystem fs, String basePath, List<String> logFilePaths, Schema readerSchema,
+      String latestInstantTime, boolean readBlocksLazily, boolean reverseReader, int bufferSize,
+      int logScanParallelism, Option<Set<String>> keyFilter) {
     this.readerSchema = readerSchema;
     this.latestInstantTime = latestInstantTime;
     this.hoodieTableMetaClient = new HoodieTableMetaClient(fs.getConf(), basePath);
@@ -118,12 +160,50 @@ public abstract class AbstractHoodieLogRecordScanner {
     this.reverseReader = reverseReader;
     this.fs = fs;
     this.bufferSize = bufferSize;
+    this.logScanParallelism = Math.max(1, logScanParallelism);
+    this.keyFilter = keyFilter;
   }
 
   /**
    * Scan Log files.
    */
   public void scan() {
+    ExecutorService executor = logScanParallelism > 1 ? Executors.newFixedThreadPool(logScanParallelism) : null;
+    this.logScanExecutor = executor;
+    try {
+      if (executor == null) {
+        scanSequentially();
+      } else {
+        scanInParallel(executor);
+      }
+      // merge the last read block when all the blocks are done reading
+      if (!currentInstantLogBlocks.isEmpty()) {
+        LOG.info("Merging the final data blocks");
+        processQueuedBlocksForInstant(currentInstantLogBlocks, (int) totalLogFiles.get());
+      }
+      // Done
+      progress = 1.0f;
+    } catch (Exception e) {
+      LOG.error("Got exception when reading log file", e);
+      throw new HoodieIOException("IOException when reading log file ");
+    } finally {
+      if (executor != null) {
+        prefetchedRecords.values().forEach(future -> future.cancel(true));
+        prefetchedRecords.clear();
+        blocksToPrefetch.clear();
+        executor.shutdownNow();
+        this.logScanExecutor = null;
+      }
+      LOG.info("Time taken in millis to read log blocks => " + getTotalTimeTakenToReadBlocks()
+          + ", deserialize log blocks => " + getTotalTimeTakenToDeserializeBlocks()
+          + ", merge log records => " + getTotalTimeTakenToMergeRecords());
+    }
+  }
+
+  /**
+   * Walks all the log files through a single {@link HoodieLogFormatReader}, on the calling thread.
+   */
+  private void scanSequentially() throws Exception {
     HoodieLogFormatReader logFormatReaderWrapper = null;
     try {
       // iterate over the paths
@@ -131,120 +211,24 @@ public abstract class AbstractHoodieLogRecordScanner {
           logFilePaths.stream().map(logFile -> new HoodieLogFile(new Path(logFile))).collect(Collectors.toList()),
           readerSchema, readBlocksLazily, reverseReader, bufferSize);
       Set<HoodieLogFile> scannedLogFiles = new HashSet<>();
-      while (logFormatReaderWrapper.hasNext()) {
+      while (true) {
+        long startNanos = System.nanoTime();
+        if (!logFormatReaderWrapper.hasNext()) {
+          break;
+        }
         HoodieLogFile logFile = logFormatReaderWrapper.getLogFile();
-        LOG.info("Scanning log file " + logFile);
-        scannedLogFiles.add(logFile);
-        totalLogFiles.set(scannedLogFiles.size());
         // Use the HoodieLogFileReader to iterate through the blocks in the log file
         HoodieLogBlock r = logFormatReaderWrapper.next();
-        totalLogBlocks.incrementAndGet();
-        if (r.getBlockType() != CORRUPT_BLOCK
-            && !HoodieTimeline.compareTimestamps(r.getLogBlockHeader().get(INSTANT_TIME), HoodieTimeline.LESSER_THAN_OR_EQUALS, this.latestInstantTime
-        )) {
+        totalTimeTakenToReadBlocksNanos.addAndGet(System.nanoTime() - startNanos);
+        if (scannedLogFiles.add(logFile)) {
+          LOG.info("Scanning log file " + logFile);
+          totalLogFiles.set(scannedLogFiles.size());
+        }
+        if (!processBlock(r, logFile, scannedLogFiles.size())) {
           // hit a block with instant time greater than should be processed, stop processing further
           break;
         }
-        switch (r.getBlockType()) {
-          case HFILE_DATA_BLOCK:
-          case AVRO_DATA_BLOCK:
-            LOG.info("Reading a data block from file " + logFile.getPath());
-            if (isNewInstantBlock(r) && !readBlocksLazily) {
-              // If this is an avro data block belonging to a different commit/instant,
-              // then merge the last blocks and records into the main result
-              processQueuedBlocksForInstant(currentInstantLogBlocks, scannedLogFiles.size());
-            }
-            // store the current block
-            currentInstantLogBlocks.push(r);
-            break;
-          case DELETE_BLOCK:
-            LOG.info("Reading a delete block from file " + logFile.getPath());
-            if (isNewInstantBlock(r) && !readBlocksLazily) {
-              // If this is a delete data block belonging to a different commit/instant,
-              // then merge the last blocks and records into the main result
-              processQueuedBlocksForInstant(currentInstantLogBlocks, scannedLogFiles.size());
-            }
-            // store deletes so can be rolled back
-            currentInstantLogBlocks.push(r);
-            break;
-          case COMMAND_BLOCK:
-            // Consider the following scenario
-            // (Time 0, C1, Task T1) -> Running
-            // (Time 1, C1, Task T1) -> Failed (Wrote either a corrupt block or a correct
-            // DataBlock (B1) with commitTime C1
-            // (Time 2, C1, Task T1.2) -> Running (Task T1 was retried and the attempt number is 2)
-            // (Time 3, C1, Task T1.2) -> Finished (Wrote a correct DataBlock B2)
-            // Now a logFile L1 can have 2 correct Datablocks (B1 and B2) which are the same.
-            // Say, commit C1 eventually failed and a rollback is triggered.
-            // Rollback will write only 1 rollback block (R1) since it assumes one block is
-            // written per ingestion batch for a file but in reality we need to rollback (B1 & B2)
-            // The following code ensures the same rollback block (R1) is used to rollback
-            // both B1 & B2
-            LOG.info("Reading a command block from file " + logFile.getPath());
-            // This is a command block - take appropriate action based on the command
-            HoodieCommandBlock commandBlock = (HoodieCommandBlock) r;
-            String targetInstantForCommandBlock =
-                r.getLogBlockHeader().get(HoodieLogBlock.HeaderMetadataType.TARGET_INSTANT_TIME);
-            switch (commandBlock.getType()) { // there can be different types of command blocks
-              case ROLLBACK_PREVIOUS_BLOCK:
-                // Rollback the last read log block
-                // Get commit time from last record block, compare with targetCommitTime,
-                // rollback only if equal, this is required in scenarios of invalid/extra
-                // rollback blocks written due to failures during the rollback operation itself
-                // and ensures the same rollback block (R1) is used to rollback both B1 & B2 with
-                // same instant_time
-                int numBlocksRolledBack = 0;
-                totalRollbacks.incrementAndGet();
-                while (!currentInstantLogBlocks.isEmpty()) {
-                  HoodieLogBlock lastBlock = currentInstantLogBlocks.peek();
-                  // handle corrupt blocks separately since they may not have metadata
-                  if (lastBlock.getBlockType() == CORRUPT_BLOCK) {
-                    LOG.info("Rolling back the last corrupted log block read in " + logFile.getPath());
-                    currentInstantLogBlocks.pop();
-                    numBlocksRolledBack++;
-                  } else if (lastBlock.getBlockType() != CORRUPT_BLOCK
-                      && targetInstantForCommandBlock.contentEquals(lastBlock.getLogBlockHeader().get(INSTANT_TIME))) {
-                    // rollback last data block or delete block
-                    LOG.info("Rolling back the last log block read in " + logFile.getPath());
-                    currentInstantLogBlocks.pop();
-                    numBlocksRolledBack++;
-                  } else if (!targetInstantForCommandBlock
-                      .contentEquals(currentInstantLogBlocks.peek().getLogBlockHeader().get(INSTANT_TIME))) {
-                    // invalid or extra rollback block
-                    LOG.warn("TargetInstantTime " + targetInstantForCommandBlock
-                        + " invalid or extra rollback command block in " + logFile.getPath());
-                    break;
-                  } else {
-                    // this should not happen ideally
-                    LOG.warn("Unable to apply rollback command block in " + logFile.getPath());
-                  }
-                }
-                LOG.info("Number of applied rollback blocks " + numBlocksRolledBack);
-                break;
-              default:
-                throw new UnsupportedOperationException("Command type not yet supported.");
-            }
-            break;
-          case CORRUPT_BLOCK:
-            LOG.info("Found a corrupt block in " + logFile.getPath());
-            totalCorruptBlocks.incrementAndGet();
-            // If there is a corrupt block - we will assume that this was the next data block
-            currentInstantLogBlocks.push(r);
-            break;
-          default:
-            throw new UnsupportedOperationException("Block type not supported yet");
-        }
       }
-      // merge the last read block when all the blocks are done reading
-      if (!currentInstantLogBlocks.isEmpty()) {
-        LOG.info("Merging the final data blocks");
-        processQueuedBlocksForInstant(currentInstantLogBlocks, scannedLogFiles.size());
-      }
-      // Done
-      progress = 1.0f;
-    } catch (Exception e) {
-      LOG.error("Got exception when reading log file", e);
-      throw new HoodieIOException("IOException when reading log file ");
     } finally {
       try {
         if (null != logFormatReaderWrapper) {
@@ -257,6 +241,175 @@ public abstract class AbstractHoodieLogRecordScanner {
     }
   }
 
+  /**
+   * Reads up to logScanParallelism log files ahead on the executor, while the calling thread applies their blocks in
+   * log file order. Queued data blocks are deserialized on the executor ahead of the merge into the subclass
+   * (processNextRecord/processNextDeletedKey), which stays serialized. At most PREFETCH_BLOCKS_PER_THREAD blocks per
+   * thread are deserialized ahead, every block merged makes room for the next one, so the records held outside of
+   * the subclass stay bounded even when the lazy flag queues all the blocks of the file slice. Block contents are
+   * always read eagerly here, so the log files read ahead of the one being applied are bounded by
+   * MAX_READ_AHEAD_BYTES. With the lazy flag nothing is read ahead, only the blocks of the log file being applied are
+   * held, and the flag still controls when queued blocks get merged, same as in the sequential scan.
+   */
+  private void scanInParallel(ExecutorService executor) throws Exception {
+    List<HoodieLogFile> logFiles =
+        logFilePaths.stream().map(logFile -> new HoodieLogFile(new Path(logFile))).collect(Collectors.toList());
+    long readAheadLimit = readBlocksLazily ? 0 : MAX_READ_AHEAD_BYTES;
+    long[] logFileSizes = new long[logFiles.size()];
+    Deque<Future<List<HoodieLogBlock>>> pendingLogFiles = new ArrayDeque<>();
+    long pendingBytes = 0;
+    int nextLogFile = 0;
+    try {
+      for (int i = 0; i < logFiles.size(); i++) {
+        while (nextLogFile < logFiles.size() && pendingLogFiles.size() < logScanParallelism) {
+          if (logFileSizes[nextLogFile] == 0) {
+            logFileSizes[nextLogFile] = fs.getFileStatus(logFiles.get(nextLogFile).getPath()).getLen();
+          }
+          // the log file to apply next is always read, the ones after it only while they fit the read ahead limit
+          if (!pendingLogFiles.isEmpty() && pendingBytes + logFileSizes[nextLogFile] > readAheadLimit) {
+            break;
+          }
+          pendingBytes += logFileSizes[nextLogFile];
+          HoodieLogFile logFile = logFiles.get(nextLogFile++);
+          pendingLogFiles.offer(executor.submit(() -> readLogFile(logFile)));
+        }
+        HoodieLogFile logFile = logFiles.get(i);
+        List<HoodieLogBlock> blocks = pendingLogFiles.poll().get();
+        pendingBytes -= logFileSizes[i];
+        LOG.info("Scanning log file " + logFile);
+        totalLogFiles.set(i + 1);
+        for (HoodieLogBlock r : blocks) {
+          if (!processBlock(r, logFile, i + 1)) {
+            // hit a block with instant time greater than should be processed, stop processing further
+            return;
+          }
+        }
+      }
+    } finally {
+      pendingLogFiles.forEach(future -> future.cancel(true));
+    }
+  }
+
+  /**
+   * Reads all the blocks of a single log file, with their content.
+   */
+  private List<HoodieLogBlock> readLogFile(HoodieLogFile logFile) throws IOException {
+    long startNanos = System.nanoTime();
+    List<HoodieLogBlock> blocks = new ArrayList<>();
+    try (HoodieLogFileReader reader = new HoodieLogFileReader(fs, logFile, readerSchema, bufferSize, false, false)) {
+      while (reader.hasNext()) {
+        blocks.add(reader.next());
+      }
+    }
+    totalTimeTakenToReadBlocksNanos.addAndGet(System.nanoTime() - startNanos);
+    return blocks;
+  }
+
+  /**
+   * Applies a single log block, read from the given log file, in log order.
+   *
+   * @return false if the block belongs to an instant later than the latest instant and scanning should stop
+   */
+  private boolean processBlock(HoodieLogBlock r, HoodieLogFile logFile, int numLogFilesSeen) throws Exception {
+    totalLogBlocks.incrementAndGet();
+    if (r.getBlockType() != CORRUPT_BLOCK
+        && !HoodieTimeline.compareTimestamps(r.getLogBlockHeader().get(INSTANT_TIME), HoodieTimeline.LESSER_THAN_OR_EQUALS, this.latestInstantTime
+    )) {
+      return false;
+    }
+    switch (r.getBlockType()) {
+      case HFILE_DATA_BLOCK:
+      case AVRO_DATA_BLOCK:
+        LOG.info("Reading a data block from file " + logFile.getPath());
+        if (isNewInstantBlock(r) && !readBlocksLazily) {
+          // If this is an avro data block belonging to a different commit/instant,
+          // then merge the last blocks and records into the main result
+          processQueuedBlocksForInstant(currentInstantLogBlocks, numLogFilesSeen);
+        }
+        // store the current block
+        currentInstantLogBlocks.push(r);
+        prefetchRecords((HoodieDataBlock) r);
+        break;
+      case DELETE_BLOCK:
+        LOG.info("Reading a delete block from file " + logFile.getPath());
+        if (isNewInstantBlock(r) && !readBlocksLazily) {
+          // If this is a delete data block belonging to a different commit/instant,
+          // then merge the last blocks and records into the main result
+          processQueuedBlocksForInstant(currentInstantLogBlocks, numLogFilesSeen);
+        }
+        // store deletes so can be rolled back
+        currentInstantLogBlocks.push(r);
+        break;
+      case COMMAND_BLOCK:
+        // Consider the following scenario
+        // (Time 0, C1, Task T1) -> Running
+        // (Time 1, C1, Task T1) -> Failed (Wrote either a corrupt block or a correct
+        // DataBlock (B1) with commitTime C1
+        // (Time 2, C1, Task T1.2) -> Running (Task T1 was retried and the attempt number is 2)
+        // (Time 3, C1, Task T1.2) -> Finished (Wrote a correct DataBlock B2)
+        // Now a logFile L1 can have 2 correct Datablocks (B1 and B2) which are the same.
+        // Say, commit C1 eventually failed and a rollback is triggered.
+        // Rollback will write only 1 rollback block (R1) since it assumes one block is
+        // written per ingestion batch for a file but in reality we need to rollback (B1 & B2)
+        // The following code ensures the same rollback block (R1) is used to rollback
+        // both B1 & B2
+        LOG.info("Reading a command block from file " + logFile.getPath());
+        // This is a command block - take appropriate action based on the command
+        HoodieCommandBlock commandBlock = (HoodieCommandBlock) r;
+        String targetInstantForCommandBlock =
+            r.getLogBlockHeader().get(HoodieLogBlock.HeaderMetadataType.TARGET_INSTANT_TIME);
+        switch (commandBlock.getType()) { // there can be different types of command blocks
+          case ROLLBACK_PREVIOUS_BLOCK:
+            // Rollback the last read log block
+            // Get commit time from last record block, compare with targetCommitTime,
+            // rollback only if equal, this is required in scenarios of invalid/extra
+            // rollback blocks written due to failures during the rollback operation itself
+            // and ensures the same rollback block (R1) is used to rollback both B1 & B2 with
+            // same instant_time
+            int numBlocksRolledBack = 0;
+            totalRollbacks.incrementAndGet();
+            while (!currentInstantLogBlocks.isEmpty()) {
+              HoodieLogBlock lastBlock = currentInstantLogBlocks.peek();
+              // handle corrupt blocks separately since they may not have metadata
+              if (lastBlock.getBlockType() == CORRUPT_BLOCK) {
+                LOG.info("Rolling back the last corrupted log block read in " + logFile.getPath());
+                currentInstantLogBlocks.pop();
+                numBlocksRolledBack++;
+              } else if (lastBlock.getBlockType() != CORRUPT_BLOCK
+                  && targetInstantForCommandBlock.contentEquals(lastBlock.getLogBlockHeader().get(INSTANT_TIME))) {
+                // rollback last data block or delete block
+                LOG.info("Rolling back the last log block read in " + logFile.getPath());
+                cancelPrefetch(currentInstantLogBlocks.pop());
+                numBlocksRolledBack++;
+              } else if (!targetInstantForCommandBlock
+                  .contentEquals(currentInstantLogBlocks.peek().getLogBlockHeader().get(INSTANT_TIME))) {
+                // invalid or extra rollback block
+                LOG.warn("TargetInstantTime " + targetInstantForCommandBlock
+                    + " invalid or extra rollback command block in " + logFile.getPath());
+                break;
+              } else {
+                // this should not happen ideally
+                LOG.warn("Unable to apply rollback command block in " + logFile.getPath());
+              }
+            }
+            LOG.info("Number of applied rollback blocks " + numBlocksRolledBack);
+            break;
+          default:
+            throw new UnsupportedOperationException("Command type not yet supported.");
+        }
+        break;
+      case CORRUPT_BLOCK:
+        LOG.info("Found a corrupt block in " + logFile.getPath());
+        totalCorruptBlocks.incrementAndGet();
+        // If there is a corrupt block - we will assume that this was the next data block
+        currentInstantLogBlocks.push(r);
+        break;
+      default:
+        throw new UnsupportedOperationException("Block type not supported yet");
+    }
+    return true;
+  }
+
   /**
    * Checks if the current logblock belongs to a later instant.
    */
@@ -266,19 +419,96 @@ public abstract class AbstractHoodieLogRecordScanner {
             .contentEquals(currentInstantLogBlocks.peek().getLogBlockHeader().get(INSTANT_TIME));
   }
 
+  /**
+   * In a parallel scan, queues a data block to have its records deserialized on the executor once there is room in
+   * the prefetch window. Blocks cannot be merged before all the blocks of their instant are read, since a later
+   * command block may roll them back, so the window is what keeps their records off the heap.
+   */
+  private void prefetchRecords(HoodieDataBlock dataBlock) {
+    if (logScanExecutor != null) {
+      blocksToPrefetch.offer(dataBlock);
+      fillPrefetchWindow();
+    }
+  }
+
+  /**
+   * Starts deserializing the next queued data blocks, in log order, until the prefetch window is full.
+   */
+  private void fillPrefetchWindow() {
+    while (logScanExecutor != null && !blocksToPrefetch.isEmpty()
+        && prefetchedRecords.size() < logScanParallelism * PREFETCH_BLOCKS_PER_THREAD) {
+      HoodieDataBlock dataBlock = blocksToPrefetch.poll();
+      prefetchedRecords.put(dataBlock, logScanExecutor.submit(() -> convertRecords(dataBlock)));
+    }
+  }
+
+  /**
+   * Drops the prefetched records of a block that got rolled back.
+   */
+  private void cancelPrefetch(HoodieLogBlock logBlock) {
+    Future<List<HoodieRecord<? extends HoodieRecordPayload>>> future = prefetchedRecords.remove(logBlock);
+    if (future != null) {
+      future.cancel(true);
+      fillPrefetchWindow();
+    } else {
+      blocksToPrefetch.removeIf(dataBlock -> dataBlock == logBlock);
+    }
+  }
+
+  /**
+   * Deserializes the records of a data block and converts them to {@link HoodieRecord}s of the table's payload class.
+   */
+  private List<HoodieRecord<? extends HoodieRecordPayload>> convertRecords(HoodieDataBlock dataBlock) {
+    long startNanos = System.nanoTime();
+    List<IndexedRecord> recs = getRecords(dataBlock);
+    List<HoodieRecord<? extends HoodieRecordPayload>> hoodieRecords = new ArrayList<>(recs.size());
+    for (IndexedRecord rec : recs) {
+      hoodieRecords.add(SpillableMapUtils.convertToHoodieRecordPayload((GenericRecord) rec, this.payloadClassFQN));
+    }
+    totalTimeTakenToDeserializeBlocksNanos.addAndGet(System.nanoTime() - startNanos);
+    return hoodieRecords;
+  }
+
   /**
    * Iterate over the GenericRecord in the block, read the hoodie key and partition path and call subclass processors to
    * handle it.
    */
   private void processDataBlock(HoodieDataBlock dataBlock) throws Exception {
+    Future<List<HoodieRecord<? extends HoodieRecordPayload>>> prefetched = prefetchedRecords.remove(dataBlock);
+    if (prefetched != null) {
+      List<HoodieRecord<? extends HoodieRecordPayload>> hoodieRecords = prefetched.get();
+      // the merge is in log order, so the window moves on to the blocks following this one
+      fillPrefetchWindow();
+      totalLogRecords.addAndGet(hoodieRecords.size());
+      long startNanos = System.nanoTime();
+      for (HoodieRecord<? extends HoodieRecordPayload> hoodieRecord : hoodieRecords) {
+        processNextRecord(hoodieRecord);
+      }
+      totalTimeTakenToMergeRecordsNanos.addAndGet(System.nanoTime() - startNanos);
+      return;
+    }
+    // a block still waiting for the prefetch window is deserialized right here
+    if (blocksToPrefetch.peek() == dataBlock) {
+      blocksToPrefetch.poll();
+    } else {
+      blocksToPrefetch.removeIf(block -> block == dataBlock);
+    }
     // TODO (NA) - Implement getRecordItr() in HoodieAvroDataBlock and use that here
-    List<IndexedRecord> recs = dataBlock.getRecords();
+    long startNanos = System.nanoTime();
+    List<IndexedRecord> recs = getRecords(dataBlock);
+    totalTimeTakenToDeserializeBlocksNanos.addAndGet(System.nanoTime() - startNanos);
     totalLogRecords.addAndGet(recs.size());
+    startNanos = System.nanoTime();
     for (IndexedRecord rec : recs) {
       HoodieRecord<? extends HoodieRecordPayload> hoodieRecord =
           SpillableMapUtils.convertToHoodieRecordPayload((GenericRecord) rec, this.payloadClassFQN);
       processNextRecord(hoodieRecord);
     }
+    totalTimeTakenToMergeRecordsNanos.addAndGet(System.nanoTime() - startNanos);
+  }
+
+  private List<IndexedRecord> getRecords(HoodieDataBlock dataBlock) {
+    return keyFilter.isPresent() ? dataBlock.getRecords(keyFilter.get()) : dataBlock.getRecords();
   }
 
   /**
@@ -311,7 +541,11 @@ public abstract class AbstractHoodieLogRecordScanner {
           processDataBlock((HoodieHFileDataBlock) lastBlock);
           break;
         case DELETE_BLOCK:
-          Arrays.stream(((HoodieDeleteBlock) lastBlock).getKeysToDelete()).forEach(this::processNextDeletedKey);
+          long startNanos = System.nanoTime();
+          Arrays.stream(((HoodieDeleteBlock) lastBlock).getKeysToDelete())
+              .filter(key -> !keyFilter.isPresent() || keyFilter.get().contains(key.getRecordKey()))
+              .forEach(this::processNextDeletedKey);
+          totalTimeTakenToMergeRecordsNanos.addAndGet(System.nanoTime() - startNanos);
           break;
         case CORRUPT_BLOCK:
           LOG.warn("Found a corrupt block which was not rolled back");
@@ -354,4 +588,26 @@ public abstract class AbstractHoodieLogRecordScanner {
   public long getTotalCorruptBlocks() {
     return totalCorruptBlocks.get();
   }
+
+  /**
+   * Time taken in millis to read the log blocks. For a parallel scan, this is summed across the reading threads.
+   */
+  public long getTotalTimeTakenToReadBlocks() {
+    return TimeUnit.NANOSECONDS.toMillis(totalTimeTakenToReadBlocksNanos.get());
+  }
+
+  /**
+   * Time taken in millis to deserialize the data blocks. For a parallel scan, this is summed across the threads and
+   * includes converting the records to the payload class.
+   */
+  public long getTotalTimeTakenToDeserializeBlocks() {
+    return TimeUnit.NANOSECONDS.toMillis(totalTimeTakenToDeserializeBlocksNanos.get());
+  }
+
+  /**
+   * Time taken in millis to merge the records and deleted keys of the log blocks.
+   */
+  public long getTotalTimeTakenToMergeRecords() {
+    return TimeUnit.NANOSECONDS.toMillis(totalTimeTakenToMergeRecordsNanos.get());
+  }
 }
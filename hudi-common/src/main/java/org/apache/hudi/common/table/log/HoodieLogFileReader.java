@@ -344,6 +344,14 @@ public class HoodieLogFileReader implements HoodieLogFormat.Reader {
     }
   }
 
+  /**
+   * Moves the reader to the block starting at the given position of the log file, for readers that know where the
+   * blocks they are after start. {@link #hasNext()} and {@link #next()} continue from that block.
+   */
+  public void seekToBlock(long blockPosition) throws IOException {
+    inputStream.seek(blockPosition);
+  }
+
   /**
    * hasPrev is not idempotent.
    */
@@ -24,8 +24,13 @@ import org.apache.hudi.common.model.HoodieRecordPayload;
 import org.apache.hudi.common.util.DefaultSizeEstimator;
 import org.apache.hudi.common.util.HoodieRecordSizeEstimator;
 import org.apache.hudi.common.util.HoodieTimer;
+import org.apache.hudi.common.util.Option;
 import org.apache.hudi.common.util.SpillableMapUtils;
+import org.apache.hudi.common.util.collection.DiskMapSerializer;
 import org.apache.hudi.common.util.collection.ExternalSpillableMap;
+import org.apache.hudi.common.util.collection.ExternalSpillableMap.DiskMapType;
+import org.apache.hudi.common.util.collection.HoodieRecordDiskMapSerializer;
+import org.apache.hudi.common.util.collection.KryoDiskMapSerializer;
 import org.apache.hudi.exception.HoodieIOException;
 
 import org.apache.avro.Schema;
@@ -37,6 +42,7 @@ import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Scans through all the blocks in a list of HoodieLogFile and builds up a compacted/merged list of records which will
@@ -67,15 +73,63 @@ public class HoodieMergedLogRecordScanner extends AbstractHoodieLogRecordScanner
   // A timer for calculating elapsed time in millis
   public final HoodieTimer timer = new HoodieTimer();
 
-  @SuppressWarnings("unchecked")
   public HoodieMergedLogRecordScanner(FileSystem fs, String basePath, List<String> logFilePaths, Schema readerSchema,
       String latestInstantTime, Long maxMemorySizeInBytes, boolean readBlocksLazily, boolean reverseReader,
       int bufferSize, String spillableMapBasePath) {
-    super(fs, basePath, logFilePaths, readerSchema, latestInstantTime, readBlocksLazily, reverseReader, bufferSize);
+    this(fs, basePath, logFilePaths, readerSchema, latestInstantTime, maxMemorySizeInBytes, readBlocksLazily,
+        reverseReader, bufferSize, spillableMapBasePath, DiskMapType.DISK_BASED);
+  }
+
+  public HoodieMergedLogRecordScanner(FileSystem fs, String basePath, List<String> logFilePaths, Schema readerSchema,
+      String latestInstantTime, Long maxMemorySizeInBytes, boolean readBlocksLazily, boolean reverseReader,
+      int bufferSize, String spillableMapBasePath, DiskMapType diskMapType) {
+    this(fs, basePath, logFilePaths, readerSchema, latestInstantTime, maxMemorySizeInBytes, readBlocksLazily,
+        reverseReader, bufferSize, spillableMapBasePath, diskMapType, false);
+  }
+
+  /**
+   * @param useRecordSerializer spill records with {@link HoodieRecordDiskMapSerializer} instead of generic kryo
+   */
+  public HoodieMergedLogRecordScanner(FileSystem fs, String basePath, List<String> logFilePaths, Schema readerSchema,
+      String latestInstantTime, Long maxMemorySizeInBytes, boolean readBlocksLazily, boolean reverseReader,
+      int bufferSize, String spillableMapBasePath, DiskMapType diskMapType, boolean useRecordSerializer) {
+    this(fs, basePath, logFilePaths, readerSchema, latestInstantTime, maxMemorySizeInBytes, readBlocksLazily,
+        reverseReader, bufferSize, spillableMapBasePath, diskMapType, useRecordSerializer, 1);
+  }
+
+  /**
+   * @param useRecordSerializer spill records with {@link HoodieRecordDiskMapSerializer} instead of generic kryo
+   * @param logScanParallelism  number of log files read and data blocks deserialized concurrently, 1 to scan on the
+   *                            calling thread
+   */
+  public HoodieMergedLogRecordScanner(FileSystem fs, String basePath, List<String> logFilePaths, Schema readerSchema,
+      String latestInstantTime, Long maxMemorySizeInBytes, boolean readBlocksLazily, boolean reverseReader,
+      int bufferSize, String spillableMapBasePath, DiskMapType diskMapType, boolean useRecordSerializer,
+      int logScanParallelism) {
+    this(fs, basePath, logFilePaths, readerSchema, latestInstantTime, maxMemorySizeInBytes, readBlocksLazily,
+        reverseReader, bufferSize, spillableMapBasePath, diskMapType, useRecordSerializer, logScanParallelism,
+        Option.empty());
+  }
+
+  /**
+   * @param useRecordSerializer spill records with {@link HoodieRecordDiskMapSerializer} instead of generic kryo
+   * @param logScanParallelism  number of log files read and data blocks deserialized concurrently, 1 to scan on the
+   *                            calling thread
+   * @param keyFilter           if present, only records with these keys are read and merged
+   */
+  @SuppressWarnings("unchecked")
+  public HoodieMergedLogRecordScanner(FileSystem fs, String basePath, List<String> logFilePaths, Schema readerSchema,
+      String latestInstantTime, Long maxMemorySizeInBytes, boolean readBlocksLazily, boolean reverseReader,
+      int bufferSize, String spillableMapBasePath, DiskMapType diskMapType, boolean useRecordSerializer,
+      int logScanParallelism, Option<Set<String>> keyFilter) {
+    super(fs, basePath, logFilePaths, readerSchema, latestInstantTime, readBlocksLazily, reverseReader, bufferSize,
+        logScanParallelism, keyFilter);
     try {
+      DiskMapSerializer valueSerializer = useRecordSerializer
+          ? new HoodieRecordDiskMapSerializer<>(getPayloadClassFQN()) : new KryoDiskMapSerializer<>();
       // Store merged records for all versions for this log file, set the in-memory footprint to maxInMemoryMapSize
       this.records = new ExternalSpillableMap<>(maxMemorySizeInBytes, spillableMapBasePath, new DefaultSizeEstimator(),
-          new HoodieRecordSizeEstimator(readerSchema));
+          new HoodieRecordSizeEstimator(readerSchema), diskMapType, valueSerializer);
       // Do the scan and merge
       timer.startTimer();
       scan();
@@ -128,5 +182,12 @@ public class HoodieMergedLogRecordScanner extends AbstractHoodieLogRecordScanner
   public long getTotalTimeTakenToReadAndMergeBlocks() {
     return totalTimeTakenToReadAndMergeBlocks;
   }
+
+  /**
+   * Releases the merged records, including any that were spilled to disk.
+   */
+  public void close() {
+    records.close();
+  }
 }
 
@@ -21,6 +21,7 @@ package org.apache.hudi.common.table.log.block;
 import org.apache.hudi.avro.HoodieAvroUtils;
 import org.apache.hudi.common.fs.SizeAwareDataInputStream;
 import org.apache.hudi.common.model.HoodieLogFile;
+import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.util.Option;
 import org.apache.hudi.exception.HoodieIOException;
 
@@ -46,6 +47,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.Nonnull;
 
@@ -164,6 +166,82 @@ public class HoodieAvroDataBlock extends HoodieDataBlock {
     deflate();
   }
 
+  /**
+   * Only the fields up to the record key are read for every record, the remaining bytes of records with a key outside
+   * {@code keys} are skipped without being decoded.
+   */
+  @Override
+  protected List<IndexedRecord> deserializeRecords(Set<String> keys) throws IOException {
+    // Get schema from the header
+    Schema writerSchema = new Schema.Parser().parse(super.getLogBlockHeader().get(HeaderMetadataType.SCHEMA));
+    Schema.Field keyField = writerSchema.getField(HoodieRecord.RECORD_KEY_METADATA_FIELD);
+    if (keyField == null || !isStringSchema(keyField.schema())) {
+      return super.deserializeRecords(keys);
+    }
+
+    // If readerSchema was not present, use writerSchema
+    if (schema == null) {
+      schema = writerSchema;
+    }
+
+    byte[] content = getContent().get();
+    SizeAwareDataInputStream dis = new SizeAwareDataInputStream(new DataInputStream(new ByteArrayInputStream(content)));
+
+    // 1. Read version for this data block
+    HoodieAvroDataBlockVersion logBlockVersion = new HoodieAvroDataBlockVersion(dis.readInt());
+
+    GenericDatumReader<IndexedRecord> reader = new GenericDatumReader<>(writerSchema, schema);
+    // 2. Get the total records
+    int totalRecords = 0;
+    if (logBlockVersion.hasRecordCount()) {
+      totalRecords = dis.readInt();
+    }
+    List<IndexedRecord> records = new ArrayList<>();
+
+    // 3. Read the record key of every record, and the full record only when the key matches
+    List<Schema.Field> fields = writerSchema.getFields();
+    for (int i = 0; i < totalRecords; i++) {
+      int recordLength = dis.readInt();
+      int recordOffset = dis.getNumberOfBytesRead();
+      BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(content, recordOffset, recordLength,
+          decoderCache.get());
+      decoderCache.set(decoder);
+      for (int pos = 0; pos < keyField.pos(); pos++) {
+        GenericDatumReader.skip(fields.get(pos).schema(), decoder);
+      }
+      String recordKey = readString(keyField.schema(), decoder);
+      if (recordKey != null && keys.contains(recordKey)) {
+        decoder = DecoderFactory.get().binaryDecoder(content, recordOffset, recordLength, decoderCache.get());
+        decoderCache.set(decoder);
+        records.add(reader.read(null, decoder));
+      }
+      dis.skipBytes(recordLength);
+    }
+    dis.close();
+    return records;
+  }
+
+  private static boolean isStringSchema(Schema schema) {
+    switch (schema.getType()) {
+      case STRING:
+        return true;
+      case UNION:
+        return schema.getTypes().stream().allMatch(type -> type.getType() == Schema.Type.NULL || isStringSchema(type));
+      default:
+        return false;
+    }
+  }
+
+  private static String readString(Schema schema, Decoder decoder) throws IOException {
+    if (schema.getType() == Schema.Type.UNION) {
+      return readString(schema.getTypes().get(decoder.readIndex()), decoder);
+    } else if (schema.getType() == Schema.Type.NULL) {
+      decoder.readNull();
+      return null;
+    }
+    return decoder.readString();
+  }
+
   //----------------------------------------------------------------------------------------
   //                                  DEPRECATED METHODS
   //
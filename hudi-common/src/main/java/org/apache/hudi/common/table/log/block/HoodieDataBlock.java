@@ -18,6 +18,7 @@
 
 package org.apache.hudi.common.table.log.block;
 
+import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.util.Option;
 import org.apache.hudi.exception.HoodieException;
 import org.apache.hudi.exception.HoodieIOException;
@@ -32,6 +33,8 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * DataBlock contains a list of records serialized using formats compatible with the base file format.
@@ -111,6 +114,33 @@ public abstract class HoodieDataBlock extends HoodieLogBlock {
     return records;
   }
 
+  /**
+   * Returns only the records of this block whose record key is in {@code keys}. Formats that can locate a record key
+   * without decoding the whole record skip the others, and the full list of records of the block is not materialized
+   * by this call.
+   */
+  public List<IndexedRecord> getRecords(Set<String> keys) {
+    if (records != null) {
+      return filterRecords(records, keys);
+    }
+    try {
+      boolean inflated = false;
+      if (readBlockLazily && !getContent().isPresent()) {
+        // read log block contents from disk
+        inflate();
+        inflated = true;
+      }
+      List<IndexedRecord> filteredRecords = deserializeRecords(keys);
+      if (inflated) {
+        // the content can be read again if all the records are asked for later
+        deflate();
+      }
+      return filteredRecords;
+    } catch (IOException io) {
+      throw new HoodieIOException("Unable to convert content bytes to records", io);
+    }
+  }
+
   public Schema getSchema() {
     // if getSchema was invoked before converting byte [] to records
     if (records == null) {
@@ -131,4 +161,28 @@ public abstract class HoodieDataBlock extends HoodieLogBlock {
   protected abstract byte[] serializeRecords() throws IOException;
 
   protected abstract void deserializeRecords() throws IOException;
+
+  /**
+   * Deserializes only the records with a record key in {@code keys}, leaving the content in place. By default all the
+   * records are deserialized and filtered afterwards.
+   */
+  protected List<IndexedRecord> deserializeRecords(Set<String> keys) throws IOException {
+    deserializeRecords();
+    return filterRecords(records, keys);
+  }
+
+  /**
+   * Filters records on their record key. Records without the record key metadata field cannot be matched and are all
+   * returned.
+   */
+  protected static List<IndexedRecord> filterRecords(List<IndexedRecord> records, Set<String> keys) {
+    if (records.isEmpty() || records.get(0).getSchema().getField(HoodieRecord.RECORD_KEY_METADATA_FIELD) == null) {
+      return records;
+    }
+    int keyPos = records.get(0).getSchema().getField(HoodieRecord.RECORD_KEY_METADATA_FIELD).pos();
+    return records.stream().filter(record -> {
+      Object key = record.get(keyPos);
+      return key != null && keys.contains(key.toString());
+    }).collect(Collectors.toList());
+  }
 }
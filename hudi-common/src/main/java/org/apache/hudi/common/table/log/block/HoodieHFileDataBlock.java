@@ -47,6 +47,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
 
@@ -156,4 +157,30 @@ public class HoodieHFileDataBlock extends HoodieDataBlock {
     // Free up content to be GC'd, deflate
     deflate();
   }
+
+  /**
+   * Records are stored sorted by record key, so they are looked up in the HFile instead of being read in full.
+   */
+  @Override
+  protected List<IndexedRecord> deserializeRecords(Set<String> keys) throws IOException {
+    // Get schema from the header
+    Schema writerSchema = new Schema.Parser().parse(super.getLogBlockHeader().get(HeaderMetadataType.SCHEMA));
+    if (writerSchema.getField(HoodieRecord.RECORD_KEY_METADATA_FIELD) == null) {
+      // records were written with an integer sequence key
+      return super.deserializeRecords(keys);
+    }
+
+    // If readerSchema was not present, use writerSchema
+    if (schema == null) {
+      schema = writerSchema;
+    }
+
+    HoodieHFileReader<IndexedRecord> reader = new HoodieHFileReader<>(getContent().get());
+    try {
+      return reader.readRecordsByKeys(keys, writerSchema, schema).stream().map(Pair::getSecond)
+          .collect(Collectors.toList());
+    } finally {
+      reader.close();
+    }
+  }
 }
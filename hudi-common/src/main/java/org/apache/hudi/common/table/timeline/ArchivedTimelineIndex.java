@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.table.timeline;
+
+import org.apache.hudi.avro.model.HoodieArchivedBlockIndex;
+import org.apache.hudi.avro.model.HoodieArchivedInstantIndex;
+import org.apache.hudi.avro.model.HoodieArchivedTimelineIndex;
+import org.apache.hudi.common.util.FileIOUtils;
+import org.apache.hudi.exception.HoodieIOException;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sidecar index of the archived timeline. For every block appended to the archive log files, it records the file, the
+ * position and length of the block, the range of its instant times and the instants themselves. Readers build the
+ * archived timeline from the index without decoding the archive, and read only the blocks of the instants they are
+ * after.
+ * <p>
+ * The index is a single file in the archive folder, rewritten by every archiving run. Its blocks are only used for the
+ * archive files they cover completely. Files archived before the index existed, or appended to by a run which failed
+ * before updating the index, are read in full.
+ * <p>
+ * Once archive files were merged, the versions of the archive files no longer follow the order of their instants. The
+ * index records this, so that readers do not rely on it.
+ */
+public class ArchivedTimelineIndex {
+
+  private static final Logger LOG = LogManager.getLogger(ArchivedTimelineIndex.class);
+
+  public static final String INDEX_FILE_NAME = ".archive_index";
+  private static final String TEMP_INDEX_FILE_NAME = INDEX_FILE_NAME + ".tmp";
+
+  private final List<HoodieArchivedBlockIndex> blocks;
+  private boolean merged;
+
+  private ArchivedTimelineIndex(List<HoodieArchivedBlockIndex> blocks, boolean merged) {
+    this.blocks = blocks;
+    this.merged = merged;
+  }
+
+  /**
+   * Loads the index of the archive folder, empty if there is none or it cannot be read.
+   */
+  public static ArchivedTimelineIndex load(FileSystem fs, String archiveFolder) {
+    Path indexPath = new Path(archiveFolder, INDEX_FILE_NAME);
+    try {
+      if (!fs.exists(indexPath)) {
+        return new ArchivedTimelineIndex(new ArrayList<>(), false);
+      }
+      try (FSDataInputStream in = fs.open(indexPath)) {
+        HoodieArchivedTimelineIndex index =
+            TimelineMetadataUtils.deserializeAvroMetadata(FileIOUtils.readAsByteArray(in), HoodieArchivedTimelineIndex.class);
+        return new ArchivedTimelineIndex(new ArrayList<>(index.getBlocks()), index.getMerged());
+      }
+    } catch (IOException | RuntimeException e) {
+      // the archive can always be read without the index
+      LOG.warn("Could not read archived timeline index " + indexPath + ", reading the archive in full", e);
+      return new ArchivedTimelineIndex(new ArrayList<>(), false);
+    }
+  }
+
+  /**
+   * Records a block appended to an archive file.
+   *
+   * @param fileName Name of the archive file
+   * @param position Position of the block in the file
+   * @param length Length of the block
+   * @param instants Instants archived in the block
+   */
+  public void addBlock(String fileName, long position, long length, List<HoodieInstant> instants) {
+    blocks.add(newBlock(fileName, position, length, instants));
+  }
+
+  /**
+   * Index entry of a block of an archive file.
+   */
+  public static HoodieArchivedBlockIndex newBlock(String fileName, long position, long length, List<HoodieInstant> instants) {
+    List<HoodieArchivedInstantIndex> instantIndexes = instants.stream()
+        .map(instant -> new HoodieArchivedInstantIndex(instant.getTimestamp(), instant.getAction()))
+        .collect(Collectors.toList());
+    String minInstantTime = instants.stream().map(HoodieInstant::getTimestamp).min(String::compareTo).get();
+    String maxInstantTime = instants.stream().map(HoodieInstant::getTimestamp).max(String::compareTo).get();
+    return new HoodieArchivedBlockIndex(fileName, position, length, minInstantTime, maxInstantTime, instantIndexes);
+  }
+
+  /**
+   * Writes the index to the archive folder, replacing the previous one.
+   */
+  public void save(FileSystem fs, String archiveFolder) {
+    Path indexPath = new Path(archiveFolder, INDEX_FILE_NAME);
+    Path tempIndexPath = new Path(archiveFolder, TEMP_INDEX_FILE_NAME);
+    try {
+      replaceFile(fs, indexPath, tempIndexPath, TimelineMetadataUtils.serializeAvroMetadata(
+          new HoodieArchivedTimelineIndex(1, blocks, merged), HoodieArchivedTimelineIndex.class).get());
+      LOG.info("Saved archived timeline index of " + blocks.size() + " blocks to " + indexPath);
+    } catch (IOException e) {
+      throw new HoodieIOException("Could not save archived timeline index " + indexPath, e);
+    }
+  }
+
+  /**
+   * Drops the blocks of the given archive files, once they are replaced.
+   */
+  public void removeBlocksOfFiles(Set<String> fileNames) {
+    blocks.removeIf(block -> fileNames.contains(block.getFileName()));
+  }
+
+  /**
+   * Records the blocks of a file merged from other archive files.
+   */
+  public void addMergedBlocks(List<HoodieArchivedBlockIndex> mergedBlocks) {
+    blocks.addAll(mergedBlocks);
+    merged = true;
+  }
+
+  /**
+   * Whether archive files were ever merged, in which case the archive file versions do not follow the instant times.
+   */
+  public boolean isMerged() {
+    return merged;
+  }
+
+  /**
+   * Replaces the file with the given bytes, writing them to a temporary file first so that readers never see a partial
+   * file.
+   */
+  static void replaceFile(FileSystem fs, Path path, Path tempPath, byte[] bytes) throws IOException {
+    try (FSDataOutputStream out = fs.create(tempPath, true)) {
+      out.write(bytes);
+    }
+    if (fs.exists(path) && !fs.delete(path, false)) {
+      throw new HoodieIOException("Could not delete " + path);
+    }
+    if (!fs.rename(tempPath, path)) {
+      throw new HoodieIOException("Could not rename " + tempPath + " to " + path);
+    }
+  }
+
+  /**
+   * Blocks of the given archive files the index covers completely, ordered by position, keyed by file name.
+   */
+  public Map<String, List<HoodieArchivedBlockIndex>> getBlocksOfCoveredFiles(FileStatus[] archiveFiles) {
+    Map<String, List<HoodieArchivedBlockIndex>> fileToBlocks = blocks.stream()
+        .collect(Collectors.groupingBy(HoodieArchivedBlockIndex::getFileName));
+    Map<String, List<HoodieArchivedBlockIndex>> coveredFileToBlocks = new HashMap<>();
+    for (FileStatus archiveFile : archiveFiles) {
+      String fileName = archiveFile.getPath().getName();
+      List<HoodieArchivedBlockIndex> fileBlocks = fileToBlocks.get(fileName);
+      if (fileBlocks == null) {
+        continue;
+      }
+      fileBlocks.sort(Comparator.comparing(HoodieArchivedBlockIndex::getPosition));
+      // the blocks have to follow each other from the start to the end of the file
+      long expectedPosition = 0;
+      boolean contiguous = true;
+      for (HoodieArchivedBlockIndex block : fileBlocks) {
+        contiguous &= block.getPosition() == expectedPosition;
+        expectedPosition = block.getPosition() + block.getLength();
+      }
+      if (contiguous && expectedPosition == archiveFile.getLen()) {
+        coveredFileToBlocks.put(fileName, fileBlocks);
+      } else {
+        LOG.info("Archived timeline index does not cover " + archiveFile.getPath() + ", reading it in full");
+      }
+    }
+    return coveredFileToBlocks;
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.table.timeline;
+
+import org.apache.hudi.avro.model.HoodieArchiveMergePlan;
+import org.apache.hudi.common.util.FileIOUtils;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.exception.HoodieIOException;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Plan of a merge of archive files, saved in the archive folder while the merge is in progress. The merged file is
+ * written aside and moved into the archive folder once the plan is saved. From then on the merged file replaces the
+ * source files of the plan, which are deleted after the archived timeline index is updated.
+ * <p>
+ * A merge that failed before moving the merged file in is rolled back, one that failed after it is completed.
+ */
+public class ArchivedTimelineMergePlan {
+
+  public static final String PLAN_FILE_NAME = ".archive_merge_plan";
+  private static final String TEMP_PLAN_FILE_NAME = PLAN_FILE_NAME + ".tmp";
+
+  /**
+   * Loads the plan of the merge in progress in the archive folder, if there is one.
+   */
+  public static Option<HoodieArchiveMergePlan> load(FileSystem fs, String archiveFolder) {
+    Path planPath = new Path(archiveFolder, PLAN_FILE_NAME);
+    try {
+      if (!fs.exists(planPath)) {
+        return Option.empty();
+      }
+      try (FSDataInputStream in = fs.open(planPath)) {
+        return Option.of(TimelineMetadataUtils.deserializeAvroMetadata(FileIOUtils.readAsByteArray(in),
+            HoodieArchiveMergePlan.class));
+      }
+    } catch (IOException e) {
+      throw new HoodieIOException("Could not read archive merge plan " + planPath, e);
+    }
+  }
+
+  /**
+   * Saves the plan of a merge about to replace its source files.
+   */
+  public static void save(FileSystem fs, String archiveFolder, HoodieArchiveMergePlan plan) {
+    Path planPath = new Path(archiveFolder, PLAN_FILE_NAME);
+    try {
+      ArchivedTimelineIndex.replaceFile(fs, planPath, new Path(archiveFolder, TEMP_PLAN_FILE_NAME),
+          TimelineMetadataUtils.serializeAvroMetadata(plan, HoodieArchiveMergePlan.class).get());
+    } catch (IOException e) {
+      throw new HoodieIOException("Could not save archive merge plan " + planPath, e);
+    }
+  }
+
+  /**
+   * Deletes the plan, once its merge is completed or rolled back.
+   */
+  public static void delete(FileSystem fs, String archiveFolder) {
+    Path planPath = new Path(archiveFolder, PLAN_FILE_NAME);
+    try {
+      fs.delete(planPath, false);
+    } catch (IOException e) {
+      throw new HoodieIOException("Could not delete archive merge plan " + planPath, e);
+    }
+  }
+
+  /**
+   * Names of the listed archive files replaced by the merged file of the merge in progress. They are not deleted yet,
+   * but their instants are in the merged file as well.
+   */
+  public static Set<String> getReplacedFiles(FileSystem fs, String archiveFolder, FileStatus[] archiveFiles) {
+    Option<HoodieArchiveMergePlan> plan = load(fs, archiveFolder);
+    if (!plan.isPresent()
+        || Arrays.stream(archiveFiles).noneMatch(f -> f.getPath().getName().equals(plan.get().getMergedFile()))) {
+      return Collections.emptySet();
+    }
+    return new HashSet<>(plan.get().getSourceFiles());
+  }
+}
@@ -18,10 +18,12 @@
 
 package org.apache.hudi.common.table.timeline;
 
+import org.apache.hudi.avro.model.HoodieArchivedBlockIndex;
 import org.apache.hudi.avro.model.HoodieArchivedMetaEntry;
 import org.apache.hudi.common.model.HoodieLogFile;
 import org.apache.hudi.common.model.HoodiePartitionMetadata;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.log.HoodieLogFileReader;
 import org.apache.hudi.common.table.log.HoodieLogFormat;
 import org.apache.hudi.common.table.log.block.HoodieAvroDataBlock;
 import org.apache.hudi.common.util.Option;
@@ -34,6 +36,7 @@ import org.apache.hadoop.fs.Path;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
@@ -43,6 +46,7 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -58,6 +62,10 @@ import java.util.stream.Stream;
  * reload()
  * <p>
  * </p>
+ * Archive files covered by the {@link ArchivedTimelineIndex} are not decoded to list the instants, and only their
+ * blocks overlapping the requested time range are read to load instant details.
+ * <p>
+ * </p>
  * This class can be serialized and de-serialized and on de-serialization the FileSystem is re-initialized.
  */
 public class HoodieArchivedTimeline extends HoodieDefaultTimeline {
@@ -66,6 +74,7 @@ public class HoodieArchivedTimeline extends HoodieDefaultTimeline {
 
   private static final String HOODIE_COMMIT_ARCHIVE_LOG_FILE_PREFIX = "commits";
   private static final String ACTION_TYPE_KEY = "actionType";
+  private static final int MAX_LOAD_ATTEMPTS = 3;
   private HoodieTableMetaClient metaClient;
   private Map<String, byte[]> readCommits = new HashMap<>();
 
@@ -164,56 +173,126 @@ public class HoodieArchivedTimeline extends HoodieDefaultTimeline {
    * If filter is specified, only the filtered instants are loaded
    */
   private List<HoodieInstant> loadInstants(TimeRangeFilter filter, boolean loadInstantDetails) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return loadInstantsFromArchiveFiles(filter, loadInstantDetails);
+      } catch (FileNotFoundException e) {
+        // an archive merge deleted the files it replaced while they were read, list the archive files again
+        if (attempt >= MAX_LOAD_ATTEMPTS) {
+          throw new HoodieIOException(
+              "Could not load archived commit timeline from path " + metaClient.getArchivePath(), e);
+        }
+        LOG.warn("Archive file deleted while loading the archived timeline, retrying", e);
+      } catch (IOException e) {
+        throw new HoodieIOException(
+            "Could not load archived commit timeline from path " + metaClient.getArchivePath(), e);
+      }
+    }
+  }
+
+  private List<HoodieInstant> loadInstantsFromArchiveFiles(TimeRangeFilter filter, boolean loadInstantDetails)
+      throws IOException {
+    // list all files, leaving out those replaced by a merged file which are not deleted yet
+    FileStatus[] allFsStatuses = metaClient.getFs().globStatus(
+            new Path(metaClient.getArchivePath() + "/.commits_.archive*"));
+    Set<String> replacedFiles =
+        ArchivedTimelineMergePlan.getReplacedFiles(metaClient.getFs(), metaClient.getArchivePath(), allFsStatuses);
+    FileStatus[] fsStatuses = Arrays.stream(allFsStatuses)
+        .filter(f -> !replacedFiles.contains(f.getPath().getName())).toArray(FileStatus[]::new);
+
+    // sort files by version suffix in reverse (implies reverse chronological order, unless files were merged)
+    Arrays.sort(fsStatuses, new ArchiveFileVersionComparator());
+
+    ArchivedTimelineIndex index = ArchivedTimelineIndex.load(metaClient.getFs(), metaClient.getArchivePath());
+    Map<String, List<HoodieArchivedBlockIndex>> indexedBlocks = index.getBlocksOfCoveredFiles(fsStatuses);
+    boolean chronological = !index.isMerged() && replacedFiles.isEmpty();
+
+    List<HoodieInstant> instantsInRange = new ArrayList<>();
+    for (FileStatus fs : fsStatuses) {
+      int instantsInPreviousFile = instantsInRange.size();
+      List<HoodieArchivedBlockIndex> blocks = indexedBlocks.get(fs.getPath().getName());
+      if (blocks != null) {
+        loadIndexedInstants(fs, blocks, filter, loadInstantDetails, instantsInRange);
+      } else {
+        loadInstants(fs, filter, loadInstantDetails, instantsInRange);
+      }
+
+      if (filter != null && chronological) {
+        int instantsInCurrentFile = instantsInRange.size() - instantsInPreviousFile;
+        if (instantsInPreviousFile > 0 && instantsInCurrentFile == 0) {
+          // Note that this is an optimization to skip reading unnecessary archived files
+          // This signals we crossed lower bound of desired time window.
+          break;
+        }
+      }
+    }
+
+    return instantsInRange;
+  }
+
+  /**
+   * Reads all the blocks of an archive file.
+   */
+  private void loadInstants(FileStatus fs, TimeRangeFilter filter, boolean loadInstantDetails,
+      List<HoodieInstant> instantsInRange) throws IOException {
+    //read the archived file
+    HoodieLogFormat.Reader reader = HoodieLogFormat.newReader(metaClient.getFs(),
+            new HoodieLogFile(fs.getPath()), HoodieArchivedMetaEntry.getClassSchema());
     try {
-      // list all files
-      FileStatus[] fsStatuses = metaClient.getFs().globStatus(
-              new Path(metaClient.getArchivePath() + "/.commits_.archive*"));
-
-      // sort files by version suffix in reverse (implies reverse chronological order)
-      Arrays.sort(fsStatuses, new ArchiveFileVersionComparator());
-
-      List<HoodieInstant> instantsInRange = new ArrayList<>();
-      for (FileStatus fs : fsStatuses) {
-        //read the archived file
-        HoodieLogFormat.Reader reader = HoodieLogFormat.newReader(metaClient.getFs(),
-                new HoodieLogFile(fs.getPath()), HoodieArchivedMetaEntry.getClassSchema());
-        try {
-          int instantsInPreviousFile = instantsInRange.size();
-          //read the avro blocks
-          while (reader.hasNext()) {
-            HoodieAvroDataBlock blk = (HoodieAvroDataBlock) reader.next();
-            // TODO If we can store additional metadata in datablock, we can skip parsing records
-            // (such as startTime, endTime of records in the block)
-            List<IndexedRecord> records = blk.getRecords();
-            // filter blocks in desired time window
-            Stream<HoodieInstant> instantsInBlkStream = records.stream()
-                    .map(r -> readCommit((GenericRecord) r, loadInstantDetails));
-
-            if (filter != null) {
-              instantsInBlkStream = instantsInBlkStream.filter(filter::isInRange);
-            }
-
-            instantsInRange.addAll(instantsInBlkStream.collect(Collectors.toList()));
-          }
-
-          if (filter != null) {
-            int instantsInCurrentFile = instantsInRange.size() - instantsInPreviousFile;
-            if (instantsInPreviousFile > 0 && instantsInCurrentFile == 0) {
-              // Note that this is an optimization to skip reading unnecessary archived files
-              // This signals we crossed lower bound of desired time window.
-              break;
-            }
-          }
-        } finally {
-          reader.close();
+      //read the avro blocks
+      while (reader.hasNext()) {
+        instantsInRange.addAll(readBlock((HoodieAvroDataBlock) reader.next(), filter, loadInstantDetails));
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Reads the instants of an archive file covered by the index. The instants are listed from the index, the blocks are
+   * only read to load the details of the instants, and only if they overlap the filter.
+   */
+  private void loadIndexedInstants(FileStatus fs, List<HoodieArchivedBlockIndex> blocks, TimeRangeFilter filter,
+      boolean loadInstantDetails, List<HoodieInstant> instantsInRange) throws IOException {
+    List<HoodieArchivedBlockIndex> blocksInRange = blocks.stream()
+        .filter(block -> filter == null || filter.overlaps(block.getMinInstantTime(), block.getMaxInstantTime()))
+        .collect(Collectors.toList());
+    if (!loadInstantDetails) {
+      blocksInRange.forEach(block -> block.getInstants().stream()
+          .map(instant -> new HoodieInstant(false, instant.getAction(), instant.getInstantTime()))
+          .filter(instant -> filter == null || filter.isInRange(instant))
+          .forEach(instantsInRange::add));
+      return;
+    }
+    if (blocksInRange.isEmpty()) {
+      return;
+    }
+
+    HoodieLogFileReader reader = new HoodieLogFileReader(metaClient.getFs(), new HoodieLogFile(fs.getPath()),
+        HoodieArchivedMetaEntry.getClassSchema());
+    try {
+      for (HoodieArchivedBlockIndex block : blocksInRange) {
+        reader.seekToBlock(block.getPosition());
+        if (!reader.hasNext()) {
+          throw new HoodieIOException("No archived block found in " + fs.getPath() + " at " + block.getPosition());
         }
+        instantsInRange.addAll(readBlock((HoodieAvroDataBlock) reader.next(), filter, true));
       }
+    } finally {
+      reader.close();
+    }
+  }
 
-      return instantsInRange;
-    } catch (IOException e) {
-      throw new HoodieIOException(
-              "Could not load archived commit timeline from path " + metaClient.getArchivePath(), e);
+  private List<HoodieInstant> readBlock(HoodieAvroDataBlock blk, TimeRangeFilter filter, boolean loadInstantDetails) {
+    List<IndexedRecord> records = blk.getRecords();
+    // filter blocks in desired time window
+    Stream<HoodieInstant> instantsInBlkStream = records.stream()
+            .map(r -> readCommit((GenericRecord) r, loadInstantDetails));
+
+    if (filter != null) {
+      instantsInBlkStream = instantsInBlkStream.filter(filter::isInRange);
     }
+    return instantsInBlkStream.collect(Collectors.toList());
   }
 
   private static class TimeRangeFilter {
@@ -228,6 +307,11 @@ public class HoodieArchivedTimeline extends HoodieDefaultTimeline {
     public boolean isInRange(HoodieInstant instant) {
       return HoodieTimeline.isInRange(instant.getTimestamp(), this.startTs, this.endTs);
     }
+
+    public boolean overlaps(String minTs, String maxTs) {
+      return HoodieTimeline.compareTimestamps(maxTs, HoodieTimeline.GREATER_THAN, this.startTs)
+          && HoodieTimeline.compareTimestamps(minTs, HoodieTimeline.LESSER_THAN_OR_EQUALS, this.endTs);
+    }
   }
 
   /**
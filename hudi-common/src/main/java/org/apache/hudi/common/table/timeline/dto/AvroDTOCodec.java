@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.table.timeline.dto;
+
+import org.apache.hudi.avro.model.HoodieViewBaseFile;
+import org.apache.hudi.avro.model.HoodieViewFileGroup;
+import org.apache.hudi.avro.model.HoodieViewFileSlice;
+import org.apache.hudi.avro.model.HoodieViewInstant;
+import org.apache.hudi.exception.HoodieException;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecordBase;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Binary encoding of the view DTOs exchanged with the timeline server. A response is a single avro array of the
+ * avro form of its DTOs, written in blocks so the client decodes DTOs one at a time while the rest of the response is
+ * still coming in. The client asks for it with {@link #CONTENT_TYPE} in its Accept header and decodes JSON instead when
+ * the server answers with another content type.
+ */
+public class AvroDTOCodec {
+
+  public static final String CONTENT_TYPE = "application/avro";
+
+  // Number of DTOs per avro array block
+  private static final int BLOCK_SIZE = 1024;
+
+  private static final Map<Class<?>, Binding<?, ?>> BINDINGS = new HashMap<>();
+
+  static {
+    register(new Binding<>(BaseFileDTO.class, HoodieViewBaseFile.getClassSchema(), BaseFileDTO::toAvro,
+        BaseFileDTO::fromAvro));
+    register(new Binding<>(FileSliceDTO.class, HoodieViewFileSlice.getClassSchema(), FileSliceDTO::toAvro,
+        FileSliceDTO::fromAvro));
+    register(new Binding<>(FileGroupDTO.class, HoodieViewFileGroup.getClassSchema(), FileGroupDTO::toAvro,
+        FileGroupDTO::fromAvro));
+    register(new Binding<>(InstantDTO.class, HoodieViewInstant.getClassSchema(), InstantDTO::toAvro,
+        InstantDTO::fromAvro));
+  }
+
+  private static void register(Binding<?, ?> binding) {
+    BINDINGS.put(binding.dtoClass, binding);
+  }
+
+  /**
+   * Checks if the response can be encoded, i:e it is a timeline or a list of DTOs having an avro form.
+   */
+  public static boolean canEncode(Object response) {
+    if (response instanceof TimelineDTO) {
+      return true;
+    }
+    return response instanceof List && ((List<?>) response).stream().allMatch(dto -> null != dto
+        && BINDINGS.containsKey(dto.getClass()));
+  }
+
+  /**
+   * Encodes a response accepted by {@link #canEncode(Object)}. A timeline is encoded as the list of its instants.
+   */
+  public static void encode(Object response, OutputStream out) throws IOException {
+    List<?> dtos = response instanceof TimelineDTO ? ((TimelineDTO) response).instants : (List<?>) response;
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    Binding<Object, SpecificRecordBase> binding = dtos.isEmpty() ? null : getBinding(dtos.get(0).getClass());
+    encoder.writeArrayStart();
+    for (int start = 0; start < dtos.size(); start += BLOCK_SIZE) {
+      int end = Math.min(dtos.size(), start + BLOCK_SIZE);
+      encoder.setItemCount(end - start);
+      for (int i = start; i < end; i++) {
+        encoder.startItem();
+        binding.writer.write(binding.toAvro.apply(dtos.get(i)), encoder);
+      }
+    }
+    encoder.writeArrayEnd();
+    encoder.flush();
+  }
+
+  /**
+   * Decodes a list of DTOs of the given class.
+   */
+  public static <T> List<T> decodeList(InputStream in, Class<T> dtoClass) throws IOException {
+    Binding<T, SpecificRecordBase> binding = getBinding(dtoClass);
+    BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(in, null);
+    List<T> dtos = new ArrayList<>();
+    for (long count = decoder.readArrayStart(); count > 0; count = decoder.arrayNext()) {
+      for (long i = 0; i < count; i++) {
+        dtos.add(binding.fromAvro.apply(binding.reader.read(null, decoder)));
+      }
+    }
+    return dtos;
+  }
+
+  /**
+   * Decodes a timeline.
+   */
+  public static TimelineDTO decodeTimeline(InputStream in) throws IOException {
+    return TimelineDTO.fromInstants(decodeList(in, InstantDTO.class));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Binding<T, SpecificRecordBase> getBinding(Class<?> dtoClass) {
+    Binding<?, ?> binding = BINDINGS.get(dtoClass);
+    if (null == binding) {
+      throw new HoodieException("No avro encoding for " + dtoClass.getName());
+    }
+    return (Binding<T, SpecificRecordBase>) binding;
+  }
+
+  /**
+   * Ties a DTO class to its avro record.
+   */
+  private static class Binding<T, R extends SpecificRecordBase> {
+
+    private final Class<T> dtoClass;
+    private final Function<T, R> toAvro;
+    private final Function<R, T> fromAvro;
+    private final SpecificDatumWriter<R> writer;
+    private final SpecificDatumReader<R> reader;
+
+    Binding(Class<T> dtoClass, Schema schema, Function<T, R> toAvro, Function<R, T> fromAvro) {
+      this.dtoClass = dtoClass;
+      this.toAvro = toAvro;
+      this.fromAvro = fromAvro;
+      this.writer = new SpecificDatumWriter<>(schema);
+      this.reader = new SpecificDatumReader<>(schema);
+    }
+  }
+}
@@ -18,8 +18,10 @@
 
 package org.apache.hudi.common.table.timeline.dto;
 
+import org.apache.hudi.avro.model.HoodieViewBaseFile;
 import org.apache.hudi.common.model.BaseFile;
 import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.util.collection.Pair;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -38,6 +40,9 @@ public class BaseFileDTO {
   private long fileLen;
   @JsonProperty("bootstrapBaseFile")
   private BaseFileDTO bootstrapBaseFile;
+  // Only set in responses covering many partitions
+  @JsonProperty("partitionPath")
+  private String partitionPath;
 
   public static HoodieBaseFile toHoodieBaseFile(BaseFileDTO dto) {
     if (null == dto) {
@@ -87,4 +92,38 @@ public class BaseFileDTO {
     return dto;
   }
 
+  public static Pair<String, HoodieBaseFile> toPartitionAndHoodieBaseFile(BaseFileDTO dto) {
+    return Pair.of(dto.partitionPath, toHoodieBaseFile(dto));
+  }
+
+  public static BaseFileDTO fromPartitionAndHoodieBaseFile(Pair<String, HoodieBaseFile> partitionAndBaseFile) {
+    BaseFileDTO dto = fromHoodieBaseFile(partitionAndBaseFile.getValue());
+    dto.partitionPath = partitionAndBaseFile.getKey();
+    return dto;
+  }
+
+  static HoodieViewBaseFile toAvro(BaseFileDTO dto) {
+    if (null == dto) {
+      return null;
+    }
+    return HoodieViewBaseFile.newBuilder()
+        .setFileStatus(FileStatusDTO.toAvro(dto.fileStatus))
+        .setFullPath(dto.fullPath)
+        .setFileLen(dto.fileLen)
+        .setBootstrapBaseFile(toAvro(dto.bootstrapBaseFile))
+        .setPartitionPath(dto.partitionPath).build();
+  }
+
+  static BaseFileDTO fromAvro(HoodieViewBaseFile baseFile) {
+    if (null == baseFile) {
+      return null;
+    }
+    BaseFileDTO dto = new BaseFileDTO();
+    dto.fileStatus = FileStatusDTO.fromAvro(baseFile.getFileStatus());
+    dto.fullPath = baseFile.getFullPath();
+    dto.fileLen = null == baseFile.getFileLen() ? 0 : baseFile.getFileLen();
+    dto.bootstrapBaseFile = fromAvro(baseFile.getBootstrapBaseFile());
+    dto.partitionPath = baseFile.getPartitionPath();
+    return dto;
+  }
 }
@@ -18,6 +18,8 @@
 
 package org.apache.hudi.common.table.timeline.dto;
 
+import org.apache.hudi.avro.model.HoodieFSPermission;
+
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.apache.hadoop.fs.permission.FsAction;
@@ -61,4 +63,27 @@ public class FSPermissionDTO implements Serializable {
     }
     return new FsPermission(dto.useraction, dto.groupaction, dto.otheraction, dto.stickyBit);
   }
+
+  static HoodieFSPermission toAvro(FSPermissionDTO dto) {
+    if (null == dto) {
+      return null;
+    }
+    return HoodieFSPermission.newBuilder()
+        .setUserAction(null == dto.useraction ? null : dto.useraction.name())
+        .setGroupAction(null == dto.groupaction ? null : dto.groupaction.name())
+        .setOtherAction(null == dto.otheraction ? null : dto.otheraction.name())
+        .setStickyBit(dto.stickyBit).build();
+  }
+
+  static FSPermissionDTO fromAvro(HoodieFSPermission permission) {
+    if (null == permission) {
+      return null;
+    }
+    FSPermissionDTO dto = new FSPermissionDTO();
+    dto.useraction = null == permission.getUserAction() ? null : FsAction.valueOf(permission.getUserAction());
+    dto.groupaction = null == permission.getGroupAction() ? null : FsAction.valueOf(permission.getGroupAction());
+    dto.otheraction = null == permission.getOtherAction() ? null : FsAction.valueOf(permission.getOtherAction());
+    dto.stickyBit = Boolean.TRUE.equals(permission.getStickyBit());
+    return dto;
+  }
 }
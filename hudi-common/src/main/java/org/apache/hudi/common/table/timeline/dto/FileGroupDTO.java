@@ -18,6 +18,7 @@
 
 package org.apache.hudi.common.table.timeline.dto;
 
+import org.apache.hudi.avro.model.HoodieViewFileGroup;
 import org.apache.hudi.common.model.HoodieFileGroup;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
 
@@ -60,4 +61,22 @@ public class FileGroupDTO {
     dto.slices.stream().map(FileSliceDTO::toFileSlice).forEach(fileSlice -> fileGroup.addFileSlice(fileSlice));
     return fileGroup;
   }
+
+  static HoodieViewFileGroup toAvro(FileGroupDTO dto) {
+    return HoodieViewFileGroup.newBuilder()
+        .setPartitionPath(dto.partition)
+        .setFileId(dto.id)
+        .setSlices(dto.slices.stream().map(FileSliceDTO::toAvro).collect(Collectors.toList()))
+        .setInstants(dto.timeline.instants.stream().map(InstantDTO::toAvro).collect(Collectors.toList())).build();
+  }
+
+  static FileGroupDTO fromAvro(HoodieViewFileGroup fileGroup) {
+    FileGroupDTO dto = new FileGroupDTO();
+    dto.partition = fileGroup.getPartitionPath();
+    dto.id = fileGroup.getFileId();
+    dto.slices = fileGroup.getSlices().stream().map(FileSliceDTO::fromAvro).collect(Collectors.toList());
+    dto.timeline = TimelineDTO.fromInstants(
+        fileGroup.getInstants().stream().map(InstantDTO::fromAvro).collect(Collectors.toList()));
+    return dto;
+  }
 }
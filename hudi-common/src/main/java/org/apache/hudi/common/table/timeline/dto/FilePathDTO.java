@@ -18,6 +18,8 @@
 
 package org.apache.hudi.common.table.timeline.dto;
 
+import org.apache.hudi.avro.model.HoodiePath;
+
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.apache.hadoop.fs.Path;
@@ -54,4 +56,20 @@ public class FilePathDTO {
       throw new RuntimeException(e);
     }
   }
+
+  static HoodiePath toAvro(FilePathDTO dto) {
+    if (null == dto) {
+      return null;
+    }
+    return HoodiePath.newBuilder().setUri(dto.uri).build();
+  }
+
+  static FilePathDTO fromAvro(HoodiePath path) {
+    if (null == path) {
+      return null;
+    }
+    FilePathDTO dto = new FilePathDTO();
+    dto.uri = path.getUri();
+    return dto;
+  }
 }
@@ -18,6 +18,7 @@
 
 package org.apache.hudi.common.table.timeline.dto;
 
+import org.apache.hudi.avro.model.HoodieViewFileSlice;
 import org.apache.hudi.common.model.FileSlice;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -59,4 +60,23 @@ public class FileSliceDTO {
     dto.logFiles.stream().forEach(lf -> slice.addLogFile(LogFileDTO.toHoodieLogFile(lf)));
     return slice;
   }
+
+  static HoodieViewFileSlice toAvro(FileSliceDTO dto) {
+    return HoodieViewFileSlice.newBuilder()
+        .setPartitionPath(dto.partitionPath)
+        .setFileId(dto.fileId)
+        .setBaseInstantTime(dto.baseInstantTime)
+        .setBaseFile(BaseFileDTO.toAvro(dto.baseFile))
+        .setLogFiles(dto.logFiles.stream().map(LogFileDTO::toAvro).collect(Collectors.toList())).build();
+  }
+
+  static FileSliceDTO fromAvro(HoodieViewFileSlice slice) {
+    FileSliceDTO dto = new FileSliceDTO();
+    dto.partitionPath = slice.getPartitionPath();
+    dto.fileId = slice.getFileId();
+    dto.baseInstantTime = slice.getBaseInstantTime();
+    dto.baseFile = BaseFileDTO.fromAvro(slice.getBaseFile());
+    dto.logFiles = slice.getLogFiles().stream().map(LogFileDTO::fromAvro).collect(Collectors.toList());
+    return dto;
+  }
 }
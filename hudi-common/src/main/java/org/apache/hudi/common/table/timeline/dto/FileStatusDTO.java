@@ -18,6 +18,7 @@
 
 package org.apache.hudi.common.table.timeline.dto;
 
+import org.apache.hudi.avro.model.HoodieFileStatus;
 import org.apache.hudi.exception.HoodieException;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -101,4 +102,41 @@ public class FileStatusDTO {
         dto.accessTime, FSPermissionDTO.fromFsPermissionDTO(dto.permission), dto.owner, dto.group,
         FilePathDTO.toPath(dto.symlink), FilePathDTO.toPath(dto.path));
   }
+
+  static HoodieFileStatus toAvro(FileStatusDTO dto) {
+    if (null == dto) {
+      return null;
+    }
+    return HoodieFileStatus.newBuilder()
+        .setPath(FilePathDTO.toAvro(dto.path))
+        .setLength(dto.length)
+        .setIsDir(dto.isdir)
+        .setBlockReplication((int) dto.blockReplication)
+        .setBlockSize(dto.blocksize)
+        .setModificationTime(dto.modificationTime)
+        .setAccessTime(dto.accessTime)
+        .setPermission(FSPermissionDTO.toAvro(dto.permission))
+        .setOwner(dto.owner)
+        .setGroup(dto.group)
+        .setSymlink(FilePathDTO.toAvro(dto.symlink)).build();
+  }
+
+  static FileStatusDTO fromAvro(HoodieFileStatus fileStatus) {
+    if (null == fileStatus) {
+      return null;
+    }
+    FileStatusDTO dto = new FileStatusDTO();
+    dto.path = FilePathDTO.fromAvro(fileStatus.getPath());
+    dto.length = fileStatus.getLength();
+    dto.isdir = fileStatus.getIsDir();
+    dto.blockReplication = fileStatus.getBlockReplication().shortValue();
+    dto.blocksize = fileStatus.getBlockSize();
+    dto.modificationTime = fileStatus.getModificationTime();
+    dto.accessTime = fileStatus.getAccessTime();
+    dto.permission = FSPermissionDTO.fromAvro(fileStatus.getPermission());
+    dto.owner = fileStatus.getOwner();
+    dto.group = fileStatus.getGroup();
+    dto.symlink = FilePathDTO.fromAvro(fileStatus.getSymlink());
+    return dto;
+  }
 }
@@ -18,6 +18,7 @@
 
 package org.apache.hudi.common.table.timeline.dto;
 
+import org.apache.hudi.avro.model.HoodieViewInstant;
 import org.apache.hudi.common.table.timeline.HoodieInstant;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -55,4 +56,19 @@ public class InstantDTO {
 
     return new HoodieInstant(HoodieInstant.State.valueOf(dto.state), dto.action, dto.timestamp);
   }
+
+  static HoodieViewInstant toAvro(InstantDTO dto) {
+    return HoodieViewInstant.newBuilder()
+        .setAction(dto.action)
+        .setTimestamp(dto.timestamp)
+        .setState(dto.state).build();
+  }
+
+  static InstantDTO fromAvro(HoodieViewInstant instant) {
+    InstantDTO dto = new InstantDTO();
+    dto.action = instant.getAction();
+    dto.timestamp = instant.getTimestamp();
+    dto.state = instant.getState();
+    return dto;
+  }
 }
@@ -18,6 +18,7 @@
 
 package org.apache.hudi.common.table.timeline.dto;
 
+import org.apache.hudi.avro.model.HoodieViewLogFile;
 import org.apache.hudi.common.model.HoodieLogFile;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -51,4 +52,19 @@ public class LogFileDTO {
     logFile.fileStatus = FileStatusDTO.fromFileStatus(dataFile.getFileStatus());
     return logFile;
   }
+
+  static HoodieViewLogFile toAvro(LogFileDTO dto) {
+    return HoodieViewLogFile.newBuilder()
+        .setFileStatus(FileStatusDTO.toAvro(dto.fileStatus))
+        .setPath(dto.pathStr)
+        .setFileLen(dto.fileLen).build();
+  }
+
+  static LogFileDTO fromAvro(HoodieViewLogFile logFile) {
+    LogFileDTO dto = new LogFileDTO();
+    dto.fileStatus = FileStatusDTO.fromAvro(logFile.getFileStatus());
+    dto.pathStr = logFile.getPath();
+    dto.fileLen = null == logFile.getFileLen() ? 0 : logFile.getFileLen();
+    return dto;
+  }
 }
@@ -48,4 +48,10 @@ public class TimelineDTO {
     return new HoodieDefaultTimeline(dto.instants.stream().map(InstantDTO::toInstant),
         metaClient.getActiveTimeline()::getInstantDetails);
   }
+
+  static TimelineDTO fromInstants(List<InstantDTO> instants) {
+    TimelineDTO dto = new TimelineDTO();
+    dto.instants = instants;
+    return dto;
+  }
 }
@@ -36,6 +36,7 @@ import org.apache.hudi.common.util.HoodieTimer;
 import org.apache.hudi.common.util.Option;
 import org.apache.hudi.common.util.ValidationUtils;
 import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.exception.HoodieException;
 import org.apache.hudi.exception.HoodieIOException;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.Path;
@@ -46,14 +47,23 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -71,19 +81,31 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
 
   private static final Logger LOG = LogManager.getLogger(AbstractTableFileSystemView.class);
 
+  // Number of stripes the partition locks are spread over
+  private static final int NUM_PARTITION_LOCK_STRIPES = 64;
+
+  // Number of partitions listed concurrently, when fetching from many partitions at once
+  private static final int PARTITION_LOADING_PARALLELISM = 16;
+
   protected HoodieTableMetaClient metaClient;
 
   // This is the commits timeline that will be visible for all views extending this view
-  private HoodieTimeline visibleCommitsAndCompactionTimeline;
+  private volatile HoodieTimeline visibleCommitsAndCompactionTimeline;
 
   // Used to concurrently load and populate partition views
   private final ConcurrentHashMap<String, Boolean> addedPartitions = new ConcurrentHashMap<>(4096);
 
-  // Locks to control concurrency. Sync operations use write-lock blocking all fetch operations.
-  // For the common-case, we allow concurrent read of single or multiple partitions
+  // Locks to control concurrency. Only a complete reset of the view and changes to pending compactions take the global
+  // write-lock, blocking all fetch operations. Loading, reading and incrementally syncing a partition hold the global
+  // read-lock plus the lock of the stripe the partition hashes into, so listing or syncing one partition only stalls
+  // callers of the partitions sharing its stripe.
   private final ReentrantReadWriteLock globalLock = new ReentrantReadWriteLock();
   private final ReadLock readLock = globalLock.readLock();
   private final WriteLock writeLock = globalLock.writeLock();
+  private final ReentrantReadWriteLock[] partitionLocks = createPartitionLocks();
+
+  // Serializes syncs and resets, as an incremental sync does not hold the global write-lock
+  private final ReentrantLock syncLock = new ReentrantLock();
 
   private BootstrapIndex bootstrapIndex;
 
@@ -104,6 +126,16 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
     resetBootstrapBaseFileMapping(Stream.empty());
   }
 
+  /**
+   * Initialize the view over the state kept in storage from a previous run, which reflects the given timeline. The
+   * pending compactions, bootstrap base files and partitions stored are used as they are.
+   */
+  protected void initFromStoredState(HoodieTableMetaClient metaClient, HoodieTimeline storedVisibleActiveTimeline) {
+    this.metaClient = metaClient;
+    refreshTimeline(storedVisibleActiveTimeline);
+    this.bootstrapIndex = BootstrapIndex.getBootstrapIndex(metaClient);
+  }
+
   /**
    * Refresh commits timeline.
    * 
@@ -201,6 +233,7 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
    */
   @Override
   public final void reset() {
+    syncLock.lock();
     try {
       writeLock.lock();
 
@@ -213,6 +246,7 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
       init(metaClient, getTimeline());
     } finally {
       writeLock.unlock();
+      syncLock.unlock();
     }
   }
 
@@ -222,45 +256,250 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
   protected abstract void resetViewState();
 
   /**
-   * Allows lazily loading the partitions if needed.
+   * Allows lazily loading the partitions if needed. The partition is listed holding the write-lock of its stripe, so
+   * only callers of partitions sharing the stripe wait for the listing.
    *
    * @param partition partition to be loaded if not present
    */
   private void ensurePartitionLoadedCorrectly(String partition) {
+    ensurePartitionLoadedCorrectly(partition, Option.empty());
+  }
+
+  /**
+   * Loads the partition if needed, from the given statuses of its files if it was listed already.
+   *
+   * @param partition partition to be loaded if not present
+   * @param listedStatuses statuses of the files in the partition, if listed already
+   */
+  private void ensurePartitionLoadedCorrectly(String partition, Option<FileStatus[]> listedStatuses) {
 
     ValidationUtils.checkArgument(!isClosed(), "View is already closed");
 
+    if (addedPartitions.containsKey(partition)) {
+      return;
+    }
+
     // ensure we list files only once even in the face of concurrency
-    addedPartitions.computeIfAbsent(partition, (partitionPathStr) -> {
+    Lock partitionWriteLock = getPartitionLock(partition).writeLock();
+    partitionWriteLock.lock();
+    try {
+      if (addedPartitions.containsKey(partition)) {
+        return;
+      }
       long beginTs = System.currentTimeMillis();
-      if (!isPartitionAvailableInStore(partitionPathStr)) {
+      if (!isPartitionAvailableInStore(partition)) {
         // Not loaded yet
         try {
-          LOG.info("Building file system view for partition (" + partitionPathStr + ")");
-
-          // Create the path if it does not exist already
-          Path partitionPath = FSUtils.getPartitionPath(metaClient.getBasePath(), partitionPathStr);
-          FSUtils.createPathIfNotExists(metaClient.getFs(), partitionPath);
-          long beginLsTs = System.currentTimeMillis();
-          FileStatus[] statuses = metaClient.getFs().listStatus(partitionPath);
-          long endLsTs = System.currentTimeMillis();
-          LOG.info("#files found in partition (" + partitionPathStr + ") =" + statuses.length + ", Time taken ="
-              + (endLsTs - beginLsTs));
+          LOG.info("Building file system view for partition (" + partition + ")");
+
+          FileStatus[] statuses;
+          if (listedStatuses.isPresent()) {
+            statuses = listedStatuses.get();
+          } else {
+            // Create the path if it does not exist already
+            Path partitionPath = FSUtils.getPartitionPath(metaClient.getBasePath(), partition);
+            FSUtils.createPathIfNotExists(metaClient.getFs(), partitionPath);
+            long beginLsTs = System.currentTimeMillis();
+            statuses = metaClient.getFs().listStatus(partitionPath);
+            long endLsTs = System.currentTimeMillis();
+            LOG.info("#files found in partition (" + partition + ") =" + statuses.length + ", Time taken ="
+                + (endLsTs - beginLsTs));
+          }
           List<HoodieFileGroup> groups = addFilesToView(statuses);
 
           if (groups.isEmpty()) {
-            storePartitionView(partitionPathStr, new ArrayList<>());
+            storePartitionView(partition, new ArrayList<>());
           }
         } catch (IOException e) {
-          throw new HoodieIOException("Failed to list base files in partition " + partitionPathStr, e);
+          throw new HoodieIOException("Failed to list base files in partition " + partition, e);
         }
       } else {
-        LOG.debug("View already built for Partition :" + partitionPathStr + ", FOUND is ");
+        LOG.debug("View already built for Partition :" + partition + ", FOUND is ");
       }
+      addedPartitions.put(partition, true);
       long endTs = System.currentTimeMillis();
-      LOG.info("Time to load partition (" + partitionPathStr + ") =" + (endTs - beginTs));
-      return true;
-    });
+      LOG.info("Time to load partition (" + partition + ") =" + (endTs - beginTs));
+    } finally {
+      partitionWriteLock.unlock();
+    }
+  }
+
+  /**
+   * Loads the partitions not loaded yet, listing up to {@link #PARTITION_LOADING_PARALLELISM} of them concurrently.
+   *
+   * @param partitionPaths formatted partition paths
+   */
+  private void ensurePartitionsLoadedCorrectly(List<String> partitionPaths) {
+    List<String> partitionsToLoad = partitionPaths.stream()
+        .filter(partition -> !addedPartitions.containsKey(partition)).collect(Collectors.toList());
+    if (partitionsToLoad.size() <= 1) {
+      // nothing to gain from a pool, the fetch loads it
+      return;
+    }
+    loadPartitionsInParallel(partitionsToLoad, Collections.emptyMap(), PARTITION_LOADING_PARALLELISM);
+  }
+
+  /**
+   * Loads the given partitions that are not loaded yet, listing and building the file groups of up to the given
+   * number of them concurrently.
+   *
+   * @param partitionPaths Partition paths
+   * @param parallelism Number of partitions loaded concurrently
+   */
+  public final void loadPartitions(List<String> partitionPaths, int parallelism) {
+    ValidationUtils.checkArgument(!isClosed(), "View is already closed");
+    List<String> partitionsToLoad = formatPartitionKeys(partitionPaths).stream()
+        .filter(partition -> !addedPartitions.containsKey(partition)).collect(Collectors.toList());
+    loadPartitionsInParallel(partitionsToLoad, Collections.emptyMap(), parallelism);
+  }
+
+  /**
+   * Loads all the partitions of the table that are not loaded yet, for instance to warm up a timeline server. All the
+   * files of the table are listed with a recursive listing per top-level folder, up to the given number of them
+   * concurrently, and then the file groups of up to as many partitions are built concurrently.
+   *
+   * @param parallelism Number of listings and partitions loaded concurrently
+   */
+  public final void loadAllPartitions(int parallelism) {
+    ValidationUtils.checkArgument(!isClosed(), "View is already closed");
+    long beginLsTs = System.currentTimeMillis();
+    Map<String, List<FileStatus>> partitionToFiles;
+    try {
+      partitionToFiles = FSUtils.getFilesInAllPartitions(metaClient.getFs(), metaClient.getBasePath(), parallelism);
+    } catch (IOException e) {
+      throw new HoodieIOException("Failed to list partitions of " + metaClient.getBasePath(), e);
+    }
+    LOG.info("Listed " + partitionToFiles.size() + " partitions of " + metaClient.getBasePath() + ", Time taken ="
+        + (System.currentTimeMillis() - beginLsTs));
+
+    Map<String, FileStatus[]> listedStatuses = new HashMap<>();
+    partitionToFiles.forEach((partition, files) -> listedStatuses.put(partition, files.toArray(new FileStatus[0])));
+    List<String> partitionsToLoad = listedStatuses.keySet().stream()
+        .filter(partition -> !addedPartitions.containsKey(partition)).collect(Collectors.toList());
+    loadPartitionsInParallel(partitionsToLoad, listedStatuses, parallelism);
+  }
+
+  /**
+   * Loads the given partitions on a pool of the given size. Partitions missing from the listed statuses are listed.
+   */
+  private void loadPartitionsInParallel(List<String> partitionsToLoad, Map<String, FileStatus[]> listedStatuses,
+      int parallelism) {
+    if (partitionsToLoad.isEmpty()) {
+      return;
+    }
+
+    long beginTs = System.currentTimeMillis();
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(partitionsToLoad.size(), parallelism)));
+    try {
+      List<Future<?>> futures = partitionsToLoad.stream().map(partition -> executor.submit(() -> {
+        readLock.lock();
+        try {
+          ensurePartitionLoadedCorrectly(partition, Option.ofNullable(listedStatuses.get(partition)));
+        } finally {
+          readLock.unlock();
+        }
+      })).collect(Collectors.toList());
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HoodieException("Interrupted while loading partitions", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new HoodieException("Failed to load partitions", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    LOG.info("Time to load " + partitionsToLoad.size() + " partitions =" + (System.currentTimeMillis() - beginTs));
+  }
+
+  private ReentrantReadWriteLock getPartitionLock(String partition) {
+    return partitionLocks[Math.floorMod(partition.hashCode(), partitionLocks.length)];
+  }
+
+  private static ReentrantReadWriteLock[] createPartitionLocks() {
+    ReentrantReadWriteLock[] locks = new ReentrantReadWriteLock[NUM_PARTITION_LOCK_STRIPES];
+    for (int i = 0; i < locks.length; i++) {
+      locks[i] = new ReentrantReadWriteLock();
+    }
+    return locks;
+  }
+
+  /**
+   * Loads the partition if needed and runs the fetch against it holding the read-lock of its stripe, so the fetch never
+   * sees the partition half-way through an incremental sync. This only holds for what the fetch computes eagerly,
+   * streams are to be fetched with {@link #fetchStreamFromPartition}.
+   *
+   * @param partitionStr Partition path
+   * @param fetcher Fetch to run against the formatted partition path
+   */
+  private <T> T fetchFromPartition(String partitionStr, Function<String, T> fetcher) {
+    String partitionPath = formatPartitionKey(partitionStr);
+    readLock.lock();
+    try {
+      ensurePartitionLoadedCorrectly(partitionPath);
+      Lock partitionReadLock = getPartitionLock(partitionPath).readLock();
+      partitionReadLock.lock();
+      try {
+        return fetcher.apply(partitionPath);
+      } finally {
+        partitionReadLock.unlock();
+      }
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  /**
+   * Like {@link #fetchFromPartition}, collecting the fetched stream while holding the read-lock of the stripe of the
+   * partition, as the stream is evaluated lazily.
+   *
+   * @param partitionStr Partition path
+   * @param fetcher Fetch to run against the formatted partition path
+   */
+  private <T> Stream<T> fetchStreamFromPartition(String partitionStr, Function<String, Stream<T>> fetcher) {
+    return fetchFromPartition(partitionStr, partitionPath -> fetcher.apply(partitionPath).collect(Collectors.toList()))
+        .stream();
+  }
+
+  /**
+   * Applies a change to the view of a single partition, holding the write-lock of its stripe. Fetches from partitions
+   * in other stripes go on concurrently.
+   *
+   * @param partition Partition path
+   * @param update Change to apply
+   */
+  protected final void updatePartitionView(String partition, Runnable update) {
+    readLock.lock();
+    try {
+      Lock partitionWriteLock = getPartitionLock(partition).writeLock();
+      partitionWriteLock.lock();
+      try {
+        update.run();
+      } finally {
+        partitionWriteLock.unlock();
+      }
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  /**
+   * Applies a change which is not confined to a single partition, like adding or removing pending compactions, holding
+   * the global write-lock.
+   *
+   * @param update Change to apply
+   */
+  protected final void updateViewExclusively(Runnable update) {
+    writeLock.lock();
+    try {
+      update.run();
+    } finally {
+      writeLock.unlock();
+    }
   }
 
   /**
@@ -380,15 +619,8 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
 
   @Override
   public final Stream<HoodieBaseFile> getLatestBaseFiles(String partitionStr) {
-    try {
-      readLock.lock();
-      String partitionPath = formatPartitionKey(partitionStr);
-      ensurePartitionLoadedCorrectly(partitionPath);
-      return fetchLatestBaseFiles(partitionPath)
-          .map(df -> addBootstrapBaseFileIfPresent(new HoodieFileGroupId(partitionPath, df.getFileId()), df));
-    } finally {
-      readLock.unlock();
-    }
+    return fetchStreamFromPartition(partitionStr, partitionPath -> fetchLatestBaseFiles(partitionPath)
+        .map(df -> addBootstrapBaseFileIfPresent(new HoodieFileGroupId(partitionPath, df.getFileId()), df)));
   }
 
   @Override
@@ -403,35 +635,31 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
 
   @Override
   public final Stream<HoodieBaseFile> getLatestBaseFilesBeforeOrOn(String partitionStr, String maxCommitTime) {
-    try {
-      readLock.lock();
-      String partitionPath = formatPartitionKey(partitionStr);
-      ensurePartitionLoadedCorrectly(partitionPath);
-      return fetchAllStoredFileGroups(partitionPath)
-          .map(fileGroup -> Option.fromJavaOptional(fileGroup.getAllBaseFiles()
-              .filter(baseFile -> HoodieTimeline.compareTimestamps(baseFile.getCommitTime(), HoodieTimeline.LESSER_THAN_OR_EQUALS, maxCommitTime
-              ))
-              .filter(df -> !isBaseFileDueToPendingCompaction(df)).findFirst()))
-          .filter(Option::isPresent).map(Option::get)
-          .map(df -> addBootstrapBaseFileIfPresent(new HoodieFileGroupId(partitionPath, df.getFileId()), df));
-    } finally {
-      readLock.unlock();
-    }
+    return fetchStreamFromPartition(partitionStr, partitionPath -> fetchAllStoredFileGroups(partitionPath)
+        .map(fileGroup -> Option.fromJavaOptional(fileGroup.getAllBaseFiles()
+            .filter(baseFile -> HoodieTimeline.compareTimestamps(baseFile.getCommitTime(), HoodieTimeline.LESSER_THAN_OR_EQUALS, maxCommitTime
+            ))
+            .filter(df -> !isBaseFileDueToPendingCompaction(df)).findFirst()))
+        .filter(Option::isPresent).map(Option::get)
+        .map(df -> addBootstrapBaseFileIfPresent(new HoodieFileGroupId(partitionPath, df.getFileId()), df)));
+  }
+
+  @Override
+  public final Stream<Pair<String, HoodieBaseFile>> getLatestBaseFilesBeforeOrOnForPartitions(List<String> partitionStrs,
+      String maxCommitTime) {
+    List<String> partitionPaths = formatPartitionKeys(partitionStrs);
+    ensurePartitionsLoadedCorrectly(partitionPaths);
+    return partitionPaths.stream().flatMap(partitionPath -> getLatestBaseFilesBeforeOrOn(partitionPath, maxCommitTime)
+        .map(baseFile -> Pair.of(partitionPath, baseFile)));
   }
 
   @Override
   public final Option<HoodieBaseFile> getBaseFileOn(String partitionStr, String instantTime, String fileId) {
-    try {
-      readLock.lock();
-      String partitionPath = formatPartitionKey(partitionStr);
-      ensurePartitionLoadedCorrectly(partitionPath);
-      return fetchHoodieFileGroup(partitionPath, fileId).map(fileGroup -> fileGroup.getAllBaseFiles()
-          .filter(baseFile -> HoodieTimeline.compareTimestamps(baseFile.getCommitTime(), HoodieTimeline.EQUALS,
-              instantTime)).filter(df -> !isBaseFileDueToPendingCompaction(df)).findFirst().orElse(null))
-          .map(df -> addBootstrapBaseFileIfPresent(new HoodieFileGroupId(partitionPath, fileId), df));
-    } finally {
-      readLock.unlock();
-    }
+    return fetchFromPartition(partitionStr, partitionPath -> fetchHoodieFileGroup(partitionPath, fileId)
+        .map(fileGroup -> fileGroup.getAllBaseFiles()
+            .filter(baseFile -> HoodieTimeline.compareTimestamps(baseFile.getCommitTime(), HoodieTimeline.EQUALS,
+                instantTime)).filter(df -> !isBaseFileDueToPendingCompaction(df)).findFirst().orElse(null))
+        .map(df -> addBootstrapBaseFileIfPresent(new HoodieFileGroupId(partitionPath, fileId), df)));
   }
 
   /**
@@ -439,15 +667,8 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
    */
   @Override
   public final Option<HoodieBaseFile> getLatestBaseFile(String partitionStr, String fileId) {
-    try {
-      readLock.lock();
-      String partitionPath = formatPartitionKey(partitionStr);
-      ensurePartitionLoadedCorrectly(partitionPath);
-      return fetchLatestBaseFile(partitionPath, fileId)
-          .map(df -> addBootstrapBaseFileIfPresent(new HoodieFileGroupId(partitionPath, fileId), df));
-    } finally {
-      readLock.unlock();
-    }
+    return fetchFromPartition(partitionStr, partitionPath -> fetchLatestBaseFile(partitionPath, fileId)
+        .map(df -> addBootstrapBaseFileIfPresent(new HoodieFileGroupId(partitionPath, fileId), df)));
   }
 
   @Override
@@ -465,30 +686,19 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
 
   @Override
   public final Stream<HoodieBaseFile> getAllBaseFiles(String partitionStr) {
-    try {
-      readLock.lock();
-      String partitionPath = formatPartitionKey(partitionStr);
-      ensurePartitionLoadedCorrectly(partitionPath);
+    return fetchStreamFromPartition(partitionStr, partitionPath -> {
+      HoodieTimeline visibleTimeline = visibleCommitsAndCompactionTimeline;
       return fetchAllBaseFiles(partitionPath)
-          .filter(df -> visibleCommitsAndCompactionTimeline.containsOrBeforeTimelineStarts(df.getCommitTime()))
+          .filter(df -> visibleTimeline.containsOrBeforeTimelineStarts(df.getCommitTime()))
           .filter(df -> !isBaseFileDueToPendingCompaction(df))
           .map(df -> addBootstrapBaseFileIfPresent(new HoodieFileGroupId(partitionPath, df.getFileId()), df));
-    } finally {
-      readLock.unlock();
-    }
+    });
   }
 
   @Override
   public final Stream<FileSlice> getLatestFileSlices(String partitionStr) {
-    try {
-      readLock.lock();
-      String partitionPath = formatPartitionKey(partitionStr);
-      ensurePartitionLoadedCorrectly(partitionPath);
-      return fetchLatestFileSlices(partitionPath).map(this::filterBaseFileAfterPendingCompaction)
-          .map(this::addBootstrapBaseFileIfPresent);
-    } finally {
-      readLock.unlock();
-    }
+    return fetchStreamFromPartition(partitionStr, partitionPath -> fetchLatestFileSlices(partitionPath)
+        .map(this::filterBaseFileAfterPendingCompaction).map(this::addBootstrapBaseFileIfPresent));
   }
 
   /**
@@ -496,46 +706,29 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
    */
   @Override
   public final Option<FileSlice> getLatestFileSlice(String partitionStr, String fileId) {
-    try {
-      readLock.lock();
-      String partitionPath = formatPartitionKey(partitionStr);
-      ensurePartitionLoadedCorrectly(partitionPath);
-      Option<FileSlice> fs = fetchLatestFileSlice(partitionPath, fileId);
-      return fs.map(this::filterBaseFileAfterPendingCompaction).map(this::addBootstrapBaseFileIfPresent);
-    } finally {
-      readLock.unlock();
-    }
+    return fetchFromPartition(partitionStr, partitionPath -> fetchLatestFileSlice(partitionPath, fileId)
+        .map(this::filterBaseFileAfterPendingCompaction).map(this::addBootstrapBaseFileIfPresent));
   }
 
   @Override
   public final Stream<FileSlice> getLatestUnCompactedFileSlices(String partitionStr) {
-    try {
-      readLock.lock();
-      String partitionPath = formatPartitionKey(partitionStr);
-      ensurePartitionLoadedCorrectly(partitionPath);
-      return fetchAllStoredFileGroups(partitionPath).map(fileGroup -> {
-        FileSlice fileSlice = fileGroup.getLatestFileSlice().get();
-        // if the file-group is under compaction, pick the latest before compaction instant time.
-        Option<Pair<String, CompactionOperation>> compactionWithInstantPair =
-            getPendingCompactionOperationWithInstant(fileSlice.getFileGroupId());
-        if (compactionWithInstantPair.isPresent()) {
-          String compactionInstantTime = compactionWithInstantPair.get().getLeft();
-          return fileGroup.getLatestFileSliceBefore(compactionInstantTime);
-        }
-        return Option.of(fileSlice);
-      }).map(Option::get).map(this::addBootstrapBaseFileIfPresent);
-    } finally {
-      readLock.unlock();
-    }
+    return fetchStreamFromPartition(partitionStr, partitionPath -> fetchAllStoredFileGroups(partitionPath).map(fileGroup -> {
+      FileSlice fileSlice = fileGroup.getLatestFileSlice().get();
+      // if the file-group is under compaction, pick the latest before compaction instant time.
+      Option<Pair<String, CompactionOperation>> compactionWithInstantPair =
+          getPendingCompactionOperationWithInstant(fileSlice.getFileGroupId());
+      if (compactionWithInstantPair.isPresent()) {
+        String compactionInstantTime = compactionWithInstantPair.get().getLeft();
+        return fileGroup.getLatestFileSliceBefore(compactionInstantTime);
+      }
+      return Option.of(fileSlice);
+    }).map(Option::get).map(this::addBootstrapBaseFileIfPresent));
   }
 
   @Override
   public final Stream<FileSlice> getLatestFileSlicesBeforeOrOn(String partitionStr, String maxCommitTime,
       boolean includeFileSlicesInPendingCompaction) {
-    try {
-      readLock.lock();
-      String partitionPath = formatPartitionKey(partitionStr);
-      ensurePartitionLoadedCorrectly(partitionPath);
+    return fetchStreamFromPartition(partitionStr, partitionPath -> {
       Stream<FileSlice> fileSliceStream = fetchLatestFileSlicesBeforeOrOn(partitionPath, maxCommitTime);
       if (includeFileSlicesInPendingCompaction) {
         return fileSliceStream.map(this::filterBaseFileAfterPendingCompaction).map(this::addBootstrapBaseFileIfPresent);
@@ -543,28 +736,28 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
         return fileSliceStream.filter(fs -> !isPendingCompactionScheduledForFileId(fs.getFileGroupId()))
             .map(this::addBootstrapBaseFileIfPresent);
       }
-    } finally {
-      readLock.unlock();
-    }
+    });
+  }
+
+  @Override
+  public final Stream<FileSlice> getLatestFileSlicesBeforeOrOnForPartitions(List<String> partitionStrs,
+      String maxCommitTime, boolean includeFileSlicesInPendingCompaction) {
+    List<String> partitionPaths = formatPartitionKeys(partitionStrs);
+    ensurePartitionsLoadedCorrectly(partitionPaths);
+    return partitionPaths.stream().flatMap(partitionPath ->
+        getLatestFileSlicesBeforeOrOn(partitionPath, maxCommitTime, includeFileSlicesInPendingCompaction));
   }
 
   @Override
   public final Stream<FileSlice> getLatestMergedFileSlicesBeforeOrOn(String partitionStr, String maxInstantTime) {
-    try {
-      readLock.lock();
-      String partition = formatPartitionKey(partitionStr);
-      ensurePartitionLoadedCorrectly(partition);
-      return fetchAllStoredFileGroups(partition).map(fileGroup -> {
-        Option<FileSlice> fileSlice = fileGroup.getLatestFileSliceBeforeOrOn(maxInstantTime);
-        // if the file-group is under construction, pick the latest before compaction instant time.
-        if (fileSlice.isPresent()) {
-          fileSlice = Option.of(fetchMergedFileSlice(fileGroup, fileSlice.get()));
-        }
-        return fileSlice;
-      }).filter(Option::isPresent).map(Option::get).map(this::addBootstrapBaseFileIfPresent);
-    } finally {
-      readLock.unlock();
-    }
+    return fetchStreamFromPartition(partitionStr, partition -> fetchAllStoredFileGroups(partition).map(fileGroup -> {
+      Option<FileSlice> fileSlice = fileGroup.getLatestFileSliceBeforeOrOn(maxInstantTime);
+      // if the file-group is under construction, pick the latest before compaction instant time.
+      if (fileSlice.isPresent()) {
+        fileSlice = Option.of(fetchMergedFileSlice(fileGroup, fileSlice.get()));
+      }
+      return fileSlice;
+    }).filter(Option::isPresent).map(Option::get).map(this::addBootstrapBaseFileIfPresent));
   }
 
   @Override
@@ -579,14 +772,8 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
 
   @Override
   public final Stream<FileSlice> getAllFileSlices(String partitionStr) {
-    try {
-      readLock.lock();
-      String partition = formatPartitionKey(partitionStr);
-      ensurePartitionLoadedCorrectly(partition);
-      return fetchAllFileSlices(partition).map(this::addBootstrapBaseFileIfPresent);
-    } finally {
-      readLock.unlock();
-    }
+    return fetchStreamFromPartition(partitionStr, partition -> fetchAllFileSlices(partition)
+        .map(this::addBootstrapBaseFileIfPresent));
   }
 
   /**
@@ -597,18 +784,14 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
     return partitionStr.endsWith("/") ? partitionStr.substring(0, partitionStr.length() - 1) : partitionStr;
   }
 
+  private List<String> formatPartitionKeys(List<String> partitionStrs) {
+    return partitionStrs.stream().map(this::formatPartitionKey).distinct().collect(Collectors.toList());
+  }
+
   @Override
   public final Stream<HoodieFileGroup> getAllFileGroups(String partitionStr) {
-    try {
-      readLock.lock();
-      // Ensure there is consistency in handling trailing slash in partition-path. Always trim it which is what is done
-      // in other places.
-      String partition = formatPartitionKey(partitionStr);
-      ensurePartitionLoadedCorrectly(partition);
-      return fetchAllStoredFileGroups(partition).map(this::addBootstrapBaseFileIfPresent);
-    } finally {
-      readLock.unlock();
-    }
+    return fetchStreamFromPartition(partitionStr, partition -> fetchAllStoredFileGroups(partition)
+        .map(this::addBootstrapBaseFileIfPresent));
   }
 
   // Fetch APIs to be implemented by concrete sub-classes
@@ -892,29 +1075,34 @@ public abstract class AbstractTableFileSystemView implements SyncableFileSystemV
 
   @Override
   public void sync() {
-    HoodieTimeline oldTimeline = getTimeline();
-    HoodieTimeline newTimeline = metaClient.reloadActiveTimeline().filterCompletedAndCompactionInstants();
+    syncLock.lock();
     try {
-      writeLock.lock();
+      HoodieTimeline oldTimeline = getTimeline();
+      HoodieTimeline newTimeline = metaClient.reloadActiveTimeline().filterCompletedAndCompactionInstants();
       runSync(oldTimeline, newTimeline);
     } finally {
-      writeLock.unlock();
+      syncLock.unlock();
     }
   }
 
   /**
-   * Performs complete reset of file-system view. Subsequent partition view calls will load file slices against latest
-   * timeline
+   * Performs complete reset of file-system view holding the global write-lock. Subsequent partition view calls will
+   * load file slices against latest timeline
    *
    * @param oldTimeline Old Hoodie Timeline
    * @param newTimeline New Hoodie Timeline
    */
   protected void runSync(HoodieTimeline oldTimeline, HoodieTimeline newTimeline) {
-    refreshTimeline(newTimeline);
-    addedPartitions.clear();
-    resetViewState();
-    // Initialize with new Hoodie timeline.
-    init(metaClient, newTimeline);
+    writeLock.lock();
+    try {
+      refreshTimeline(newTimeline);
+      addedPartitions.clear();
+      resetViewState();
+      // Initialize with new Hoodie timeline.
+      init(metaClient, newTimeline);
+    } finally {
+      writeLock.unlock();
+    }
   }
 
   /**
@@ -26,6 +26,8 @@ import org.apache.hudi.common.util.Functions.Function2;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -59,6 +61,8 @@ public class FileSystemViewManager {
   private final ConcurrentHashMap<String, SyncableFileSystemView> globalViewMap;
   // Factory Map to create file-system views
   private final Function2<HoodieTableMetaClient, FileSystemViewStorageConfig, SyncableFileSystemView> viewCreator;
+  // Views whose partitions have been preloaded, or are being preloaded
+  private final Set<SyncableFileSystemView> preloadedViews = ConcurrentHashMap.newKeySet();
 
   public FileSystemViewManager(SerializableConfiguration conf, FileSystemViewStorageConfig viewStorageConfig,
       Function2<HoodieTableMetaClient, FileSystemViewStorageConfig, SyncableFileSystemView> viewCreator) {
@@ -76,6 +80,7 @@ public class FileSystemViewManager {
   public void clearFileSystemView(String basePath) {
     SyncableFileSystemView view = globalViewMap.remove(basePath);
     if (view != null) {
+      preloadedViews.remove(view);
       view.close();
     }
   }
@@ -87,10 +92,10 @@ public class FileSystemViewManager {
    * @return
    */
   public SyncableFileSystemView getFileSystemView(String basePath) {
-    return globalViewMap.computeIfAbsent(basePath, (path) -> {
+    return preloadIfEnabled(basePath, globalViewMap.computeIfAbsent(basePath, (path) -> {
       HoodieTableMetaClient metaClient = new HoodieTableMetaClient(conf.newCopy(), path);
       return viewCreator.apply(metaClient, viewStorageConfig);
-    });
+    }));
   }
 
   /**
@@ -100,8 +105,46 @@ public class FileSystemViewManager {
    * @return
    */
   public SyncableFileSystemView getFileSystemView(HoodieTableMetaClient metaClient) {
-    return globalViewMap.computeIfAbsent(metaClient.getBasePath(),
-        (path) -> viewCreator.apply(metaClient, viewStorageConfig));
+    return preloadIfEnabled(metaClient.getBasePath(), globalViewMap.computeIfAbsent(metaClient.getBasePath(),
+        (path) -> viewCreator.apply(metaClient, viewStorageConfig)));
+  }
+
+  /**
+   * Creates a new file-system view for the base-path which is not kept by this manager, for callers that manage the
+   * life cycle of their views. The caller closes the view.
+   *
+   * @param basePath
+   * @return
+   */
+  public SyncableFileSystemView createFileSystemView(String basePath) {
+    HoodieTableMetaClient metaClient = new HoodieTableMetaClient(conf.newCopy(), basePath);
+    SyncableFileSystemView view = viewCreator.apply(metaClient, viewStorageConfig);
+    if (viewStorageConfig.isPreloadEnabled() && view instanceof AbstractTableFileSystemView) {
+      LOG.info("Preloading all partitions of " + basePath);
+      ((AbstractTableFileSystemView) view).loadAllPartitions(viewStorageConfig.getPartitionListingParallelism());
+    }
+    return view;
+  }
+
+  /**
+   * Loads all the partitions of a view upfront if preloading is enabled, once per view. This runs outside of
+   * computeIfAbsent so that listing the table does not block the other tables of the map. Callers racing the first
+   * one get the view while it is being preloaded, partitions it has not loaded yet are loaded on access as usual.
+   */
+  private SyncableFileSystemView preloadIfEnabled(String basePath, SyncableFileSystemView view) {
+    if (viewStorageConfig.isPreloadEnabled() && view instanceof AbstractTableFileSystemView
+        && preloadedViews.add(view)) {
+      LOG.info("Preloading all partitions of " + basePath);
+      ((AbstractTableFileSystemView) view).loadAllPartitions(viewStorageConfig.getPartitionListingParallelism());
+    }
+    return view;
+  }
+
+  /**
+   * Base paths of the tables with a view opened.
+   */
+  public Set<String> getBasePaths() {
+    return new HashSet<>(globalViewMap.keySet());
   }
 
   /**
@@ -110,6 +153,7 @@ public class FileSystemViewManager {
   public void close() {
     this.globalViewMap.values().forEach(SyncableFileSystemView::close);
     this.globalViewMap.clear();
+    this.preloadedViews.clear();
   }
 
   // FACTORY METHODS FOR CREATING FILE-SYSTEM VIEWS
@@ -170,9 +214,9 @@ public class FileSystemViewManager {
       FileSystemViewStorageConfig viewConf, HoodieTableMetaClient metaClient) {
     LOG.info("Creating remote view for basePath " + metaClient.getBasePath() + ". Server="
         + viewConf.getRemoteViewServerHost() + ":" + viewConf.getRemoteViewServerPort() + ", Timeout="
-        + viewConf.getRemoteTimelineClientTimeoutSecs());
+        + viewConf.getRemoteTimelineClientTimeoutSecs() + ", BinaryEncoding=" + viewConf.isRemoteBinaryEncodingEnabled());
     return new RemoteHoodieTableFileSystemView(viewConf.getRemoteViewServerHost(), viewConf.getRemoteViewServerPort(),
-        metaClient, viewConf.getRemoteTimelineClientTimeoutSecs());
+        metaClient, viewConf.getRemoteTimelineClientTimeoutSecs(), viewConf.isRemoteBinaryEncodingEnabled());
   }
 
   /**
@@ -46,6 +46,18 @@ public class FileSystemViewStorageConfig extends DefaultHoodieConfig {
   private static final String ROCKSDB_BASE_PATH_PROP = "hoodie.filesystem.view.rocksdb.base.path";
   public static final String FILESTYSTEM_REMOTE_TIMELINE_CLIENT_TIMEOUT_SECS =
       "hoodie.filesystem.view.remote.timeout.secs";
+  // Ask the timeline server for avro encoded responses, JSON is still used with servers not supporting it
+  public static final String FILESYSTEM_VIEW_REMOTE_BINARY_ENCODING_ENABLE =
+      "hoodie.filesystem.view.remote.binary.encoding.enable";
+  // Interval at which the embedded timeline server reloads timelines to sync views in the background, off (0) by default
+  public static final String FILESYSTEM_VIEW_TIMELINE_POLL_INTERVAL_MS =
+      "hoodie.filesystem.view.timeline.poll.interval.ms";
+  // Whether the embedded rocks-db view keeps its state across restarts, resuming from the timeline it last reflected
+  public static final String FILESYSTEM_VIEW_ROCKSDB_PERSIST_ENABLE = "hoodie.filesystem.view.rocksdb.persist.enable";
+  // Whether to list and load all partitions of a table when its view is created, instead of on first access
+  public static final String FILESYSTEM_VIEW_PRELOAD_ENABLE = "hoodie.filesystem.view.preload.enable";
+  public static final String FILESYSTEM_VIEW_PARTITION_LISTING_PARALLELISM =
+      "hoodie.filesystem.view.partition.listing.parallelism";
 
   public static final FileSystemViewStorageType DEFAULT_VIEW_STORAGE_TYPE = FileSystemViewStorageType.MEMORY;
   public static final FileSystemViewStorageType DEFAULT_SECONDARY_VIEW_STORAGE_TYPE = FileSystemViewStorageType.MEMORY;
@@ -55,6 +67,11 @@ public class FileSystemViewStorageConfig extends DefaultHoodieConfig {
   public static final String DEFUALT_REMOTE_VIEW_SERVER_HOST = "localhost";
   public static final Integer DEFAULT_REMOTE_VIEW_SERVER_PORT = 26754;
   public static final Integer DEFAULT_REMOTE_TIMELINE_CLIENT_TIMEOUT_SECS = 5 * 60; // 5 min
+  public static final String DEFAULT_REMOTE_BINARY_ENCODING_ENABLE = "true";
+  public static final Long DEFAULT_TIMELINE_POLL_INTERVAL_MS = 0L;
+  public static final String DEFAULT_ROCKSDB_PERSIST_ENABLE = "false";
+  public static final String DEFAULT_VIEW_PRELOAD_ENABLE = "false";
+  public static final Integer DEFAULT_PARTITION_LISTING_PARALLELISM = 16;
   public static final String DEFAULT_VIEW_SPILLABLE_DIR = "/tmp/view_map/";
   private static final Double DEFAULT_MEM_FRACTION_FOR_PENDING_COMPACTION = 0.01;
   private static final Double DEFAULT_MEM_FRACTION_FOR_EXTERNAL_DATA_FILE = 0.05;
@@ -124,6 +141,26 @@ public class FileSystemViewStorageConfig extends DefaultHoodieConfig {
     return FileSystemViewStorageType.valueOf(props.getProperty(FILESYSTEM_SECONDARY_VIEW_STORAGE_TYPE));
   }
 
+  public boolean isRemoteBinaryEncodingEnabled() {
+    return Boolean.parseBoolean(props.getProperty(FILESYSTEM_VIEW_REMOTE_BINARY_ENCODING_ENABLE));
+  }
+
+  public long getTimelinePollIntervalMs() {
+    return Long.parseLong(props.getProperty(FILESYSTEM_VIEW_TIMELINE_POLL_INTERVAL_MS));
+  }
+
+  public boolean isRocksDbPersistEnabled() {
+    return Boolean.parseBoolean(props.getProperty(FILESYSTEM_VIEW_ROCKSDB_PERSIST_ENABLE));
+  }
+
+  public boolean isPreloadEnabled() {
+    return Boolean.parseBoolean(props.getProperty(FILESYSTEM_VIEW_PRELOAD_ENABLE));
+  }
+
+  public int getPartitionListingParallelism() {
+    return Integer.parseInt(props.getProperty(FILESYSTEM_VIEW_PARTITION_LISTING_PARALLELISM));
+  }
+
   public boolean shouldEnableBackupForRemoteFileSystemView() {
     return Boolean.parseBoolean(props.getProperty(REMOTE_BACKUP_VIEW_HANDLER_ENABLE));
   }
@@ -206,6 +243,31 @@ public class FileSystemViewStorageConfig extends DefaultHoodieConfig {
       return this;
     }
 
+    public Builder withRemoteBinaryEncoding(boolean enable) {
+      props.setProperty(FILESYSTEM_VIEW_REMOTE_BINARY_ENCODING_ENABLE, Boolean.toString(enable));
+      return this;
+    }
+
+    public Builder withTimelinePollIntervalMs(Long pollIntervalMs) {
+      props.setProperty(FILESYSTEM_VIEW_TIMELINE_POLL_INTERVAL_MS, pollIntervalMs.toString());
+      return this;
+    }
+
+    public Builder withRocksDbPersist(boolean enable) {
+      props.setProperty(FILESYSTEM_VIEW_ROCKSDB_PERSIST_ENABLE, Boolean.toString(enable));
+      return this;
+    }
+
+    public Builder withPreload(boolean enable) {
+      props.setProperty(FILESYSTEM_VIEW_PRELOAD_ENABLE, Boolean.toString(enable));
+      return this;
+    }
+
+    public Builder withPartitionListingParallelism(Integer parallelism) {
+      props.setProperty(FILESYSTEM_VIEW_PARTITION_LISTING_PARALLELISM, parallelism.toString());
+      return this;
+    }
+
     public Builder withEnableBackupForRemoteFileSystemView(boolean enable) {
       props.setProperty(REMOTE_BACKUP_VIEW_HANDLER_ENABLE, Boolean.toString(enable));
       return this;
@@ -229,6 +291,16 @@ public class FileSystemViewStorageConfig extends DefaultHoodieConfig {
           DEFAULT_MAX_MEMORY_FOR_VIEW.toString());
       setDefaultOnCondition(props, !props.containsKey(FILESTYSTEM_REMOTE_TIMELINE_CLIENT_TIMEOUT_SECS),
           FILESTYSTEM_REMOTE_TIMELINE_CLIENT_TIMEOUT_SECS, DEFAULT_REMOTE_TIMELINE_CLIENT_TIMEOUT_SECS.toString());
+      setDefaultOnCondition(props, !props.containsKey(FILESYSTEM_VIEW_REMOTE_BINARY_ENCODING_ENABLE),
+          FILESYSTEM_VIEW_REMOTE_BINARY_ENCODING_ENABLE, DEFAULT_REMOTE_BINARY_ENCODING_ENABLE);
+      setDefaultOnCondition(props, !props.containsKey(FILESYSTEM_VIEW_TIMELINE_POLL_INTERVAL_MS),
+          FILESYSTEM_VIEW_TIMELINE_POLL_INTERVAL_MS, DEFAULT_TIMELINE_POLL_INTERVAL_MS.toString());
+      setDefaultOnCondition(props, !props.containsKey(FILESYSTEM_VIEW_ROCKSDB_PERSIST_ENABLE),
+          FILESYSTEM_VIEW_ROCKSDB_PERSIST_ENABLE, DEFAULT_ROCKSDB_PERSIST_ENABLE);
+      setDefaultOnCondition(props, !props.containsKey(FILESYSTEM_VIEW_PRELOAD_ENABLE),
+          FILESYSTEM_VIEW_PRELOAD_ENABLE, DEFAULT_VIEW_PRELOAD_ENABLE);
+      setDefaultOnCondition(props, !props.containsKey(FILESYSTEM_VIEW_PARTITION_LISTING_PARALLELISM),
+          FILESYSTEM_VIEW_PARTITION_LISTING_PARALLELISM, DEFAULT_PARTITION_LISTING_PARALLELISM.toString());
       setDefaultOnCondition(props, !props.containsKey(FILESYSTEM_VIEW_PENDING_COMPACTION_MEM_FRACTION),
           FILESYSTEM_VIEW_PENDING_COMPACTION_MEM_FRACTION, DEFAULT_MEM_FRACTION_FOR_PENDING_COMPACTION.toString());
       setDefaultOnCondition(props, !props.containsKey(FILESYSTEM_VIEW_BOOTSTRAP_BASE_FILE_FRACTION),
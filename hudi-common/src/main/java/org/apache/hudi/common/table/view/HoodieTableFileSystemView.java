@@ -252,6 +252,7 @@ public class HoodieTableFileSystemView extends IncrementalTimelineSyncFileSystem
   @Override
   protected void storePartitionView(String partitionPath, List<HoodieFileGroup> fileGroups) {
     LOG.info("Adding file-groups for partition :" + partitionPath + ", #FileGroups=" + fileGroups.size());
+    // Swap in a new list rather than updating in place, streams handed out earlier keep reading the previous snapshot
     List<HoodieFileGroup> newList = new ArrayList<>(fileGroups);
     partitionToFileGroupsMap.put(partitionPath, newList);
   }
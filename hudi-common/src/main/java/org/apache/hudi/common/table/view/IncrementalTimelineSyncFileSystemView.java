@@ -61,7 +61,7 @@ public abstract class IncrementalTimelineSyncFileSystemView extends AbstractTabl
   private final boolean incrementalTimelineSyncEnabled;
 
   // This is the visible active timeline used only for incremental view syncing
-  private HoodieTimeline visibleActiveTimeline;
+  private volatile HoodieTimeline visibleActiveTimeline;
 
   protected IncrementalTimelineSyncFileSystemView(boolean enableIncrementalTimelineSync) {
     this.incrementalTimelineSyncEnabled = enableIncrementalTimelineSync;
@@ -95,7 +95,8 @@ public abstract class IncrementalTimelineSyncFileSystemView extends AbstractTabl
   }
 
   /**
-   * Run incremental sync based on the diff result produced.
+   * Run incremental sync based on the diff result produced. Only changes to pending compactions block all readers, the
+   * changes of every other instant lock just the partitions it touched.
    *
    * @param timeline New Timeline
    * @param diffResult Timeline Diff Result
@@ -104,6 +105,10 @@ public abstract class IncrementalTimelineSyncFileSystemView extends AbstractTabl
 
     LOG.info("Timeline Diff Result is :" + diffResult);
 
+    // Partitions loaded while syncing are built against the new timeline, so they already contain the new instants.
+    // The timeline handed out to callers moves only once the sync is done.
+    super.refreshTimeline(timeline);
+
     // First remove pending compaction instants which were completed
     diffResult.getFinishedCompactionInstants().stream().forEach(instant -> {
       try {
@@ -145,9 +150,9 @@ public abstract class IncrementalTimelineSyncFileSystemView extends AbstractTabl
   private void removePendingCompactionInstant(HoodieTimeline timeline, HoodieInstant instant) throws IOException {
     LOG.info("Removing completed compaction instant (" + instant + ")");
     HoodieCompactionPlan plan = CompactionUtils.getCompactionPlan(metaClient, instant.getTimestamp());
-    removePendingCompactionOperations(CompactionUtils.getPendingCompactionOperations(instant, plan)
+    updateViewExclusively(() -> removePendingCompactionOperations(CompactionUtils.getPendingCompactionOperations(instant, plan)
         .map(instantPair -> Pair.of(instantPair.getValue().getKey(),
-            CompactionOperation.convertFromAvroRecordInstance(instantPair.getValue().getValue()))));
+            CompactionOperation.convertFromAvroRecordInstance(instantPair.getValue().getValue())))));
   }
 
   /**
@@ -165,7 +170,7 @@ public abstract class IncrementalTimelineSyncFileSystemView extends AbstractTabl
                 CompactionOperation.convertFromAvroRecordInstance(p.getValue().getValue())))
             .collect(Collectors.toList());
     // First, update Pending compaction instants
-    addPendingCompactionOperations(pendingOps.stream());
+    updateViewExclusively(() -> addPendingCompactionOperations(pendingOps.stream()));
 
     Map<String, List<Pair<String, HoodieFileGroup>>> partitionToFileGroups = pendingOps.stream().map(opPair -> {
       String compactionInstantTime = opPair.getKey();
@@ -173,12 +178,12 @@ public abstract class IncrementalTimelineSyncFileSystemView extends AbstractTabl
       fileGroup.addNewFileSliceAtInstant(compactionInstantTime);
       return Pair.of(compactionInstantTime, fileGroup);
     }).collect(Collectors.groupingBy(x -> x.getValue().getPartitionPath()));
-    partitionToFileGroups.entrySet().forEach(entry -> {
+    partitionToFileGroups.entrySet().forEach(entry -> updatePartitionView(entry.getKey(), () -> {
       if (isPartitionAvailableInStore(entry.getKey())) {
         applyDeltaFileSlicesToPartitionView(entry.getKey(),
             entry.getValue().stream().map(Pair::getValue).collect(Collectors.toList()), DeltaApplyMode.ADD);
       }
-    });
+    }));
   }
 
   /**
@@ -191,7 +196,7 @@ public abstract class IncrementalTimelineSyncFileSystemView extends AbstractTabl
     LOG.info("Syncing committed instant (" + instant + ")");
     HoodieCommitMetadata commitMetadata =
         HoodieCommitMetadata.fromBytes(timeline.getInstantDetails(instant).get(), HoodieCommitMetadata.class);
-    commitMetadata.getPartitionToWriteStats().entrySet().stream().forEach(entry -> {
+    commitMetadata.getPartitionToWriteStats().entrySet().stream().forEach(entry -> updatePartitionView(entry.getKey(), () -> {
       String partition = entry.getKey();
       if (isPartitionAvailableInStore(partition)) {
         LOG.info("Syncing partition (" + partition + ") of instant (" + instant + ")");
@@ -206,7 +211,7 @@ public abstract class IncrementalTimelineSyncFileSystemView extends AbstractTabl
       } else {
         LOG.warn("Skipping partition (" + partition + ") when syncing instant (" + instant + ") as it is not loaded");
       }
-    });
+    }));
     LOG.info("Done Syncing committed instant (" + instant + ")");
   }
 
@@ -275,6 +280,11 @@ public abstract class IncrementalTimelineSyncFileSystemView extends AbstractTabl
 
   private void removeFileSlicesForPartition(HoodieTimeline timeline, HoodieInstant instant, String partition,
       List<String> paths) {
+    updatePartitionView(partition, () -> removeFileSlicesForLockedPartition(timeline, instant, partition, paths));
+  }
+
+  private void removeFileSlicesForLockedPartition(HoodieTimeline timeline, HoodieInstant instant, String partition,
+      List<String> paths) {
     if (isPartitionAvailableInStore(partition)) {
       LOG.info("Removing file slices for partition (" + partition + ") for instant (" + instant + ")");
       FileStatus[] statuses = paths.stream().map(p -> {
@@ -300,7 +310,7 @@ public abstract class IncrementalTimelineSyncFileSystemView extends AbstractTabl
   /**
    * Apply changes to partition file-system view. Base Implementation overwrites the entire partitions view assuming
    * some sort of map (in-mem/disk-based) is used. For View implementation which supports fine-granular updates (e:g
-   * RocksDB), override this method.
+   * RocksDB), override this method. Called holding the write-lock of the partition's stripe.
    *
    * @param partition PartitionPath
    * @param deltaFileGroups Changed file-slices aggregated as file-groups
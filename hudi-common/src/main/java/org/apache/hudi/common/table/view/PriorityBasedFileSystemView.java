@@ -134,6 +134,13 @@ public class PriorityBasedFileSystemView implements SyncableFileSystemView, Seri
         secondaryView::getLatestBaseFilesBeforeOrOn);
   }
 
+  @Override
+  public Stream<Pair<String, HoodieBaseFile>> getLatestBaseFilesBeforeOrOnForPartitions(List<String> partitionPaths,
+      String maxCommitTime) {
+    return execute(partitionPaths, maxCommitTime, preferredView::getLatestBaseFilesBeforeOrOnForPartitions,
+        secondaryView::getLatestBaseFilesBeforeOrOnForPartitions);
+  }
+
   @Override
   public Option<HoodieBaseFile> getLatestBaseFile(String partitionPath, String fileId) {
     return execute(partitionPath, fileId, preferredView::getLatestBaseFile, secondaryView::getLatestBaseFile);
@@ -172,6 +179,13 @@ public class PriorityBasedFileSystemView implements SyncableFileSystemView, Seri
         preferredView::getLatestFileSlicesBeforeOrOn, secondaryView::getLatestFileSlicesBeforeOrOn);
   }
 
+  @Override
+  public Stream<FileSlice> getLatestFileSlicesBeforeOrOnForPartitions(List<String> partitionPaths,
+      String maxCommitTime, boolean includeFileSlicesInPendingCompaction) {
+    return execute(partitionPaths, maxCommitTime, includeFileSlicesInPendingCompaction,
+        preferredView::getLatestFileSlicesBeforeOrOnForPartitions, secondaryView::getLatestFileSlicesBeforeOrOnForPartitions);
+  }
+
   @Override
   public Stream<FileSlice> getLatestMergedFileSlicesBeforeOrOn(String partitionPath, String maxInstantTime) {
     return execute(partitionPath, maxInstantTime, preferredView::getLatestMergedFileSlicesBeforeOrOn,
@@ -25,6 +25,7 @@ import org.apache.hudi.common.model.HoodieFileGroup;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
 import org.apache.hudi.common.table.timeline.HoodieInstant;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.table.timeline.dto.AvroDTOCodec;
 import org.apache.hudi.common.table.timeline.dto.BaseFileDTO;
 import org.apache.hudi.common.table.timeline.dto.CompactionOpDTO;
 import org.apache.hudi.common.table.timeline.dto.FileGroupDTO;
@@ -39,14 +40,21 @@ import org.apache.hudi.exception.HoodieRemoteException;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.StatusLine;
+import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.fluent.Request;
-import org.apache.http.client.fluent.Response;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.ContentType;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -68,6 +76,8 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
   public static final String LATEST_SLICES_RANGE_INSTANT_URL = String.format("%s/%s", BASE_URL, "slices/range/latest/");
   public static final String LATEST_SLICES_BEFORE_ON_INSTANT_URL =
       String.format("%s/%s", BASE_URL, "slices/beforeoron/latest/");
+  public static final String LATEST_SLICES_BEFORE_ON_INSTANT_FOR_PARTITIONS_URL =
+      String.format("%s/%s", BASE_URL, "slices/beforeoron/latest/partitions/");
 
   public static final String PENDING_COMPACTION_OPS = String.format("%s/%s", BASE_URL, "compactions/pending/");
 
@@ -83,6 +93,8 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
       String.format("%s/%s", BASE_URL, "datafiles/range/latest/");
   public static final String LATEST_DATA_FILES_BEFORE_ON_INSTANT_URL =
       String.format("%s/%s", BASE_URL, "datafiles/beforeoron/latest/");
+  public static final String LATEST_DATA_FILES_BEFORE_ON_INSTANT_FOR_PARTITIONS_URL =
+      String.format("%s/%s", BASE_URL, "datafiles/beforeoron/latest/partitions/");
 
   public static final String ALL_FILEGROUPS_FOR_PARTITION_URL =
       String.format("%s/%s", BASE_URL, "filegroups/all/partition/");
@@ -91,8 +103,10 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
   public static final String LAST_INSTANTS = String.format("%s/%s", BASE_URL, "timeline/instants/last");
 
   public static final String TIMELINE = String.format("%s/%s", BASE_URL, "timeline/instants/all");
+  public static final String VIEW_VERSION_URL = String.format("%s/%s", BASE_URL, "version");
 
   // POST Requests
+  // The requests for many partitions carry the JSON list of partition paths as body, as it does not fit in a URL
   public static final String REFRESH_TABLE = String.format("%s/%s", BASE_URL, "refresh/");
 
   public static final String PARTITION_PARAM = "partition";
@@ -105,10 +119,15 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
   public static final String TIMELINE_HASH = "timelinehash";
   public static final String REFRESH_OFF = "refreshoff";
   public static final String INCLUDE_FILES_IN_PENDING_COMPACTION_PARAM = "includependingcompaction";
+  public static final String KNOWN_VERSION_PARAM = "knownversion";
+  public static final String WAIT_MS_PARAM = "waitms";
 
 
   private static final Logger LOG = LogManager.getLogger(RemoteHoodieTableFileSystemView.class);
 
+  // Bound on the partitions fetched in one request, larger lists are split into several requests
+  private static final int MAX_PARTITIONS_PER_REQUEST = 1000;
+
   private final String serverHost;
   private final int serverPort;
   private final String basePath;
@@ -116,6 +135,7 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
   private final HoodieTimeline timeline;
   private final ObjectMapper mapper;
   private final int timeoutSecs;
+  private final boolean useBinaryEncoding;
 
   private boolean closed = false;
 
@@ -123,11 +143,24 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
     GET, POST
   }
 
+  /**
+   * Decodes an avro encoded response.
+   */
+  private interface BinaryResponseDecoder<T> {
+
+    T decode(InputStream in) throws IOException;
+  }
+
   public RemoteHoodieTableFileSystemView(String server, int port, HoodieTableMetaClient metaClient) {
     this(server, port, metaClient, 300);
   }
 
   public RemoteHoodieTableFileSystemView(String server, int port, HoodieTableMetaClient metaClient, int timeoutSecs) {
+    this(server, port, metaClient, timeoutSecs, true);
+  }
+
+  public RemoteHoodieTableFileSystemView(String server, int port, HoodieTableMetaClient metaClient, int timeoutSecs,
+      boolean useBinaryEncoding) {
     this.basePath = metaClient.getBasePath();
     this.serverHost = server;
     this.serverPort = port;
@@ -135,10 +168,29 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
     this.metaClient = metaClient;
     this.timeline = metaClient.getActiveTimeline().filterCompletedAndCompactionInstants();
     this.timeoutSecs = timeoutSecs;
+    this.useBinaryEncoding = useBinaryEncoding;
+  }
+
+  private static <T> BinaryResponseDecoder<List<T>> listOf(Class<T> dtoClass) {
+    return in -> AvroDTOCodec.decodeList(in, dtoClass);
   }
 
   private <T> T executeRequest(String requestPath, Map<String, String> queryParameters, TypeReference reference,
       RequestMethod method) throws IOException {
+    return executeRequest(requestPath, queryParameters, null, reference, null, method);
+  }
+
+  private <T> T executeRequest(String requestPath, Map<String, String> queryParameters, TypeReference reference,
+      BinaryResponseDecoder<T> binaryDecoder, RequestMethod method) throws IOException {
+    return executeRequest(requestPath, queryParameters, null, reference, binaryDecoder, method);
+  }
+
+  /**
+   * Executes the request, asking for an avro encoded response if a binary decoder is passed. The response is decoded
+   * as it is read off the connection, which goes back to the client's connection pool once the response is consumed.
+   */
+  private <T> T executeRequest(String requestPath, Map<String, String> queryParameters, String jsonBody,
+      TypeReference reference, BinaryResponseDecoder<T> binaryDecoder, RequestMethod method) throws IOException {
     ValidationUtils.checkArgument(!closed, "View already closed");
 
     URIBuilder builder =
@@ -152,19 +204,39 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
 
     String url = builder.toString();
     LOG.info("Sending request : (" + url + ")");
-    Response response;
+    Request request;
     int timeout = this.timeoutSecs * 1000; // msec
     switch (method) {
       case GET:
-        response = Request.Get(url).connectTimeout(timeout).socketTimeout(timeout).execute();
+        request = Request.Get(url).connectTimeout(timeout).socketTimeout(timeout);
         break;
       case POST:
       default:
-        response = Request.Post(url).connectTimeout(timeout).socketTimeout(timeout).execute();
+        request = Request.Post(url).connectTimeout(timeout).socketTimeout(timeout);
+        if (null != jsonBody) {
+          request.bodyString(jsonBody, ContentType.APPLICATION_JSON);
+        }
         break;
     }
-    String content = response.returnContent().asString();
-    return mapper.readValue(content, reference);
+    boolean acceptBinary = useBinaryEncoding && null != binaryDecoder;
+    if (acceptBinary) {
+      // Servers not supporting avro answer with JSON
+      request.addHeader(HttpHeaders.ACCEPT, AvroDTOCodec.CONTENT_TYPE + ", application/json");
+    }
+    return request.execute().handleResponse(response -> {
+      StatusLine statusLine = response.getStatusLine();
+      if (statusLine.getStatusCode() >= 300) {
+        throw new HttpResponseException(statusLine.getStatusCode(), statusLine.getReasonPhrase());
+      }
+      HttpEntity entity = response.getEntity();
+      Header contentType = entity.getContentType();
+      try (InputStream in = entity.getContent()) {
+        if (acceptBinary && null != contentType && contentType.getValue().startsWith(AvroDTOCodec.CONTENT_TYPE)) {
+          return binaryDecoder.decode(in);
+        }
+        return mapper.readValue(in, reference);
+      }
+    });
   }
 
   private Map<String, String> getParamsWithPartitionPath(String partitionPath) {
@@ -222,7 +294,7 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
   private Stream<HoodieBaseFile> getLatestBaseFilesFromParams(Map<String, String> paramsMap, String requestPath) {
     try {
       List<BaseFileDTO> dataFiles = executeRequest(requestPath, paramsMap,
-          new TypeReference<List<BaseFileDTO>>() {}, RequestMethod.GET);
+          new TypeReference<List<BaseFileDTO>>() {}, listOf(BaseFileDTO.class), RequestMethod.GET);
       return dataFiles.stream().map(BaseFileDTO::toHoodieBaseFile);
     } catch (IOException e) {
       throw new HoodieRemoteException(e);
@@ -235,13 +307,30 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
     return getLatestBaseFilesFromParams(paramsMap, LATEST_DATA_FILES_BEFORE_ON_INSTANT_URL);
   }
 
+  @Override
+  public Stream<Pair<String, HoodieBaseFile>> getLatestBaseFilesBeforeOrOnForPartitions(List<String> partitionPaths,
+      String maxCommitTime) {
+    Map<String, String> paramsMap = getParams(MAX_INSTANT_PARAM, maxCommitTime);
+    try {
+      List<Pair<String, HoodieBaseFile>> dataFiles = new ArrayList<>();
+      for (String partitionsJson : splitPartitionsToRequests(partitionPaths)) {
+        List<BaseFileDTO> dtos = executeRequest(LATEST_DATA_FILES_BEFORE_ON_INSTANT_FOR_PARTITIONS_URL, paramsMap,
+            partitionsJson, new TypeReference<List<BaseFileDTO>>() {}, listOf(BaseFileDTO.class), RequestMethod.POST);
+        dtos.stream().map(BaseFileDTO::toPartitionAndHoodieBaseFile).forEach(dataFiles::add);
+      }
+      return dataFiles.stream();
+    } catch (IOException e) {
+      throw new HoodieRemoteException(e);
+    }
+  }
+
   @Override
   public Option<HoodieBaseFile> getBaseFileOn(String partitionPath, String instantTime, String fileId) {
     Map<String, String> paramsMap = getParamsWithAdditionalParams(partitionPath,
         new String[] {INSTANT_PARAM, FILEID_PARAM}, new String[] {instantTime, fileId});
     try {
       List<BaseFileDTO> dataFiles = executeRequest(LATEST_DATA_FILE_ON_INSTANT_URL, paramsMap,
-          new TypeReference<List<BaseFileDTO>>() {}, RequestMethod.GET);
+          new TypeReference<List<BaseFileDTO>>() {}, listOf(BaseFileDTO.class), RequestMethod.GET);
       return Option.fromJavaOptional(dataFiles.stream().map(BaseFileDTO::toHoodieBaseFile).findFirst());
     } catch (IOException e) {
       throw new HoodieRemoteException(e);
@@ -266,7 +355,7 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
     Map<String, String> paramsMap = getParamsWithPartitionPath(partitionPath);
     try {
       List<FileSliceDTO> dataFiles = executeRequest(LATEST_PARTITION_SLICES_URL, paramsMap,
-          new TypeReference<List<FileSliceDTO>>() {}, RequestMethod.GET);
+          new TypeReference<List<FileSliceDTO>>() {}, listOf(FileSliceDTO.class), RequestMethod.GET);
       return dataFiles.stream().map(FileSliceDTO::toFileSlice);
     } catch (IOException e) {
       throw new HoodieRemoteException(e);
@@ -278,7 +367,7 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
     Map<String, String> paramsMap = getParamsWithAdditionalParam(partitionPath, FILEID_PARAM, fileId);
     try {
       List<FileSliceDTO> dataFiles = executeRequest(LATEST_PARTITION_SLICE_URL, paramsMap,
-          new TypeReference<List<FileSliceDTO>>() {}, RequestMethod.GET);
+          new TypeReference<List<FileSliceDTO>>() {}, listOf(FileSliceDTO.class), RequestMethod.GET);
       return Option.fromJavaOptional(dataFiles.stream().map(FileSliceDTO::toFileSlice).findFirst());
     } catch (IOException e) {
       throw new HoodieRemoteException(e);
@@ -290,7 +379,7 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
     Map<String, String> paramsMap = getParamsWithPartitionPath(partitionPath);
     try {
       List<FileSliceDTO> dataFiles = executeRequest(LATEST_PARTITION_UNCOMPACTED_SLICES_URL, paramsMap,
-          new TypeReference<List<FileSliceDTO>>() {}, RequestMethod.GET);
+          new TypeReference<List<FileSliceDTO>>() {}, listOf(FileSliceDTO.class), RequestMethod.GET);
       return dataFiles.stream().map(FileSliceDTO::toFileSlice);
     } catch (IOException e) {
       throw new HoodieRemoteException(e);
@@ -305,19 +394,49 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
         new String[] {maxCommitTime, String.valueOf(includeFileSlicesInPendingCompaction)});
     try {
       List<FileSliceDTO> dataFiles = executeRequest(LATEST_SLICES_BEFORE_ON_INSTANT_URL, paramsMap,
-          new TypeReference<List<FileSliceDTO>>() {}, RequestMethod.GET);
+          new TypeReference<List<FileSliceDTO>>() {}, listOf(FileSliceDTO.class), RequestMethod.GET);
       return dataFiles.stream().map(FileSliceDTO::toFileSlice);
     } catch (IOException e) {
       throw new HoodieRemoteException(e);
     }
   }
 
+  @Override
+  public Stream<FileSlice> getLatestFileSlicesBeforeOrOnForPartitions(List<String> partitionPaths,
+      String maxCommitTime, boolean includeFileSlicesInPendingCompaction) {
+    Map<String, String> paramsMap = getParams(MAX_INSTANT_PARAM, maxCommitTime);
+    paramsMap.put(INCLUDE_FILES_IN_PENDING_COMPACTION_PARAM, String.valueOf(includeFileSlicesInPendingCompaction));
+    try {
+      List<FileSlice> fileSlices = new ArrayList<>();
+      for (String partitionsJson : splitPartitionsToRequests(partitionPaths)) {
+        List<FileSliceDTO> dtos = executeRequest(LATEST_SLICES_BEFORE_ON_INSTANT_FOR_PARTITIONS_URL, paramsMap,
+            partitionsJson, new TypeReference<List<FileSliceDTO>>() {}, listOf(FileSliceDTO.class), RequestMethod.POST);
+        dtos.stream().map(FileSliceDTO::toFileSlice).forEach(fileSlices::add);
+      }
+      return fileSlices.stream();
+    } catch (IOException e) {
+      throw new HoodieRemoteException(e);
+    }
+  }
+
+  /**
+   * Splits the partitions into the JSON bodies of requests of at most {@link #MAX_PARTITIONS_PER_REQUEST} partitions.
+   */
+  private List<String> splitPartitionsToRequests(List<String> partitionPaths) throws IOException {
+    List<String> bodies = new ArrayList<>();
+    for (int i = 0; i < partitionPaths.size(); i += MAX_PARTITIONS_PER_REQUEST) {
+      bodies.add(mapper.writeValueAsString(
+          partitionPaths.subList(i, Math.min(partitionPaths.size(), i + MAX_PARTITIONS_PER_REQUEST))));
+    }
+    return bodies;
+  }
+
   @Override
   public Stream<FileSlice> getLatestMergedFileSlicesBeforeOrOn(String partitionPath, String maxInstantTime) {
     Map<String, String> paramsMap = getParamsWithAdditionalParam(partitionPath, MAX_INSTANT_PARAM, maxInstantTime);
     try {
       List<FileSliceDTO> dataFiles = executeRequest(LATEST_SLICES_MERGED_BEFORE_ON_INSTANT_URL, paramsMap,
-          new TypeReference<List<FileSliceDTO>>() {}, RequestMethod.GET);
+          new TypeReference<List<FileSliceDTO>>() {}, listOf(FileSliceDTO.class), RequestMethod.GET);
       return dataFiles.stream().map(FileSliceDTO::toFileSlice);
     } catch (IOException e) {
       throw new HoodieRemoteException(e);
@@ -330,7 +449,7 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
         getParams(INSTANTS_PARAM, StringUtils.join(commitsToReturn.toArray(new String[0]), ","));
     try {
       List<FileSliceDTO> dataFiles = executeRequest(LATEST_SLICES_RANGE_INSTANT_URL, paramsMap,
-          new TypeReference<List<FileSliceDTO>>() {}, RequestMethod.GET);
+          new TypeReference<List<FileSliceDTO>>() {}, listOf(FileSliceDTO.class), RequestMethod.GET);
       return dataFiles.stream().map(FileSliceDTO::toFileSlice);
     } catch (IOException e) {
       throw new HoodieRemoteException(e);
@@ -341,8 +460,8 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
   public Stream<FileSlice> getAllFileSlices(String partitionPath) {
     Map<String, String> paramsMap = getParamsWithPartitionPath(partitionPath);
     try {
-      List<FileSliceDTO> dataFiles =
-          executeRequest(ALL_SLICES_URL, paramsMap, new TypeReference<List<FileSliceDTO>>() {}, RequestMethod.GET);
+      List<FileSliceDTO> dataFiles = executeRequest(ALL_SLICES_URL, paramsMap,
+          new TypeReference<List<FileSliceDTO>>() {}, listOf(FileSliceDTO.class), RequestMethod.GET);
       return dataFiles.stream().map(FileSliceDTO::toFileSlice);
     } catch (IOException e) {
       throw new HoodieRemoteException(e);
@@ -354,13 +473,38 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
     Map<String, String> paramsMap = getParamsWithPartitionPath(partitionPath);
     try {
       List<FileGroupDTO> fileGroups = executeRequest(ALL_FILEGROUPS_FOR_PARTITION_URL, paramsMap,
-          new TypeReference<List<FileGroupDTO>>() {}, RequestMethod.GET);
+          new TypeReference<List<FileGroupDTO>>() {}, listOf(FileGroupDTO.class), RequestMethod.GET);
       return fileGroups.stream().map(dto -> FileGroupDTO.toFileGroup(dto, metaClient));
     } catch (IOException e) {
       throw new HoodieRemoteException(e);
     }
   }
 
+  /**
+   * Version of the server's view of the table. It goes up every time the server syncs the view to a newer timeline.
+   */
+  public long getViewVersion() {
+    return awaitViewVersion(-1, 0);
+  }
+
+  /**
+   * Waits up to the given time for the server to sync its view of the table past the known version. Lets clients learn
+   * about newly completed instants without polling the timeline.
+   *
+   * @param knownVersion Version of the view known to the client
+   * @param maxWaitMs Time to wait for a newer version, the server bounds it to a minute
+   * @return the version of the server's view, past the known one unless the wait timed out
+   */
+  public long awaitViewVersion(long knownVersion, long maxWaitMs) {
+    Map<String, String> paramsMap = getParams(KNOWN_VERSION_PARAM, String.valueOf(knownVersion));
+    paramsMap.put(WAIT_MS_PARAM, String.valueOf(maxWaitMs));
+    try {
+      return executeRequest(VIEW_VERSION_URL, paramsMap, new TypeReference<Long>() {}, RequestMethod.GET);
+    } catch (IOException e) {
+      throw new HoodieRemoteException(e);
+    }
+  }
+
   public boolean refresh() {
     Map<String, String> paramsMap = getParams();
     try {
@@ -396,8 +540,8 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
   public Option<HoodieInstant> getLastInstant() {
     Map<String, String> paramsMap = getParams();
     try {
-      List<InstantDTO> instants =
-          executeRequest(LAST_INSTANT, paramsMap, new TypeReference<List<InstantDTO>>() {}, RequestMethod.GET);
+      List<InstantDTO> instants = executeRequest(LAST_INSTANT, paramsMap,
+          new TypeReference<List<InstantDTO>>() {}, listOf(InstantDTO.class), RequestMethod.GET);
       return Option.fromJavaOptional(instants.stream().map(InstantDTO::toInstant).findFirst());
     } catch (IOException e) {
       throw new HoodieRemoteException(e);
@@ -409,7 +553,8 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
     Map<String, String> paramsMap = getParams();
     try {
       TimelineDTO timeline =
-          executeRequest(TIMELINE, paramsMap, new TypeReference<TimelineDTO>() {}, RequestMethod.GET);
+          executeRequest(TIMELINE, paramsMap, new TypeReference<TimelineDTO>() {}, AvroDTOCodec::decodeTimeline,
+              RequestMethod.GET);
       return TimelineDTO.toTimeline(timeline, metaClient);
     } catch (IOException e) {
       throw new HoodieRemoteException(e);
@@ -426,7 +571,7 @@ public class RemoteHoodieTableFileSystemView implements SyncableFileSystemView,
     Map<String, String> paramsMap = getParamsWithAdditionalParam(partitionPath, FILEID_PARAM, fileId);
     try {
       List<BaseFileDTO> dataFiles = executeRequest(LATEST_PARTITION_DATA_FILE_URL, paramsMap,
-          new TypeReference<List<BaseFileDTO>>() {}, RequestMethod.GET);
+          new TypeReference<List<BaseFileDTO>>() {}, listOf(BaseFileDTO.class), RequestMethod.GET);
       return Option.fromJavaOptional(dataFiles.stream().map(BaseFileDTO::toHoodieBaseFile).findFirst());
     } catch (IOException e) {
       throw new HoodieRemoteException(e);
@@ -26,6 +26,8 @@ import org.apache.hudi.common.model.HoodieFileGroup;
 import org.apache.hudi.common.model.HoodieFileGroupId;
 import org.apache.hudi.common.model.HoodieLogFile;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.timeline.HoodieDefaultTimeline;
+import org.apache.hudi.common.table.timeline.HoodieInstant;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
 import org.apache.hudi.common.util.Option;
 import org.apache.hudi.common.util.RocksDBSchemaHelper;
@@ -39,6 +41,7 @@ import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -53,9 +56,10 @@ import java.util.stream.Stream;
  * Fine-grained retrieval API to fetch latest file-slice and data-file which are common operations for
  * ingestion/compaction are supported.
  *
- * TODO: vb The current implementation works in embedded server mode where each restarts blows away the view stores. To
- * support view-state preservation across restarts, Hoodie timeline also needs to be stored inorder to detect changes to
- * timeline across restarts.
+ * By default each restart blows away the view stores. If persisting is enabled, the instants of the timeline the store
+ * reflects are checkpointed along with it, and a restarted view resumes from the stored state, syncing the instants
+ * completed since the checkpoint instead of listing all partitions again. The checkpoint is dropped while a sync is
+ * under way, so a view restarted in the middle of one is rebuilt from scratch.
  */
 public class RocksDbBasedFileSystemView extends IncrementalTimelineSyncFileSystemView {
 
@@ -74,7 +78,7 @@ public class RocksDbBasedFileSystemView extends IncrementalTimelineSyncFileSyste
     super(config.isIncrementalTimelineSyncEnabled());
     this.config = config;
     this.schemaHelper = new RocksDBSchemaHelper(metaClient);
-    this.rocksDB = new RocksDBDAO(metaClient.getBasePath(), config.getRocksdbBasePath());
+    this.rocksDB = createRocksDB(metaClient);
     init(metaClient, visibleActiveTimeline);
   }
 
@@ -84,13 +88,76 @@ public class RocksDbBasedFileSystemView extends IncrementalTimelineSyncFileSyste
     addFilesToView(fileStatuses);
   }
 
+  private RocksDBDAO createRocksDB(HoodieTableMetaClient metaClient) {
+    return new RocksDBDAO(metaClient.getBasePath(), config.getRocksdbBasePath(), config.isRocksDbPersistEnabled());
+  }
+
   @Override
   protected void init(HoodieTableMetaClient metaClient, HoodieTimeline visibleActiveTimeline) {
     schemaHelper.getAllColumnFamilies().forEach(rocksDB::addColumnFamily);
+    Option<HoodieTimeline> storedTimeline = readCheckpoint(metaClient);
+    if (storedTimeline.isPresent()) {
+      LOG.info("Resuming ROCKSDB based file-system view at " + config.getRocksdbBasePath() + " from instant "
+          + storedTimeline.get().lastInstant());
+      initFromStoredState(metaClient, storedTimeline.get());
+      if (!hasSameInstants(storedTimeline.get(), visibleActiveTimeline)) {
+        runSync(storedTimeline.get(), visibleActiveTimeline);
+      }
+      return;
+    }
     super.init(metaClient, visibleActiveTimeline);
+    writeCheckpoint(visibleActiveTimeline);
     LOG.info("Created ROCKSDB based file-system view at " + config.getRocksdbBasePath());
   }
 
+  @Override
+  protected void runSync(HoodieTimeline oldTimeline, HoodieTimeline newTimeline) {
+    deleteCheckpoint();
+    super.runSync(oldTimeline, newTimeline);
+    writeCheckpoint(newTimeline);
+  }
+
+  /**
+   * Reads the timeline the stored view reflects, if it was persisted by a previous run and is compatible.
+   */
+  private Option<HoodieTimeline> readCheckpoint(HoodieTableMetaClient metaClient) {
+    if (!config.isRocksDbPersistEnabled()) {
+      return Option.empty();
+    }
+    ViewCheckpoint checkpoint = rocksDB.get(schemaHelper.getColFamilyForCheckpoint(), schemaHelper.getKeyForCheckpoint());
+    if (checkpoint == null || checkpoint.version != ViewCheckpoint.CURRENT_VERSION
+        || !checkpoint.basePath.equals(metaClient.getBasePath())) {
+      if (checkpoint != null) {
+        LOG.warn("Ignoring incompatible checkpoint of the ROCKSDB based file-system view at " + config.getRocksdbBasePath());
+      }
+      // whatever is stored is not known to reflect any timeline
+      rocksDB.destroy();
+      rocksDB = createRocksDB(metaClient);
+      schemaHelper.getAllColumnFamilies().forEach(rocksDB::addColumnFamily);
+      return Option.empty();
+    }
+    return Option.of(new HoodieDefaultTimeline(checkpoint.instants.stream(),
+        instant -> metaClient.getActiveTimeline().getInstantDetails(instant)));
+  }
+
+  private void writeCheckpoint(HoodieTimeline visibleActiveTimeline) {
+    if (config.isRocksDbPersistEnabled()) {
+      rocksDB.put(schemaHelper.getColFamilyForCheckpoint(), schemaHelper.getKeyForCheckpoint(),
+          new ViewCheckpoint(metaClient.getBasePath(), visibleActiveTimeline.getInstants().collect(Collectors.toList())));
+    }
+  }
+
+  void deleteCheckpoint() {
+    if (config.isRocksDbPersistEnabled()) {
+      rocksDB.delete(schemaHelper.getColFamilyForCheckpoint(), schemaHelper.getKeyForCheckpoint());
+    }
+  }
+
+  private static boolean hasSameInstants(HoodieTimeline timeline, HoodieTimeline otherTimeline) {
+    return timeline.getInstants().collect(Collectors.toList())
+        .equals(otherTimeline.getInstants().collect(Collectors.toList()));
+  }
+
   @Override
   protected boolean isPendingCompactionScheduledForFileId(HoodieFileGroupId fgId) {
     return getPendingCompactionOperationWithInstant(fgId).isPresent();
@@ -137,8 +204,8 @@ public class RocksDbBasedFileSystemView extends IncrementalTimelineSyncFileSyste
   @Override
   protected void resetViewState() {
     LOG.info("Deleting all rocksdb data associated with table filesystem view");
-    rocksDB.close();
-    rocksDB = new RocksDBDAO(metaClient.getBasePath(), config.getRocksdbBasePath());
+    rocksDB.destroy();
+    rocksDB = createRocksDB(metaClient);
   }
 
   @Override
@@ -398,4 +465,23 @@ public class RocksDbBasedFileSystemView extends IncrementalTimelineSyncFileSyste
   boolean isClosed() {
     return closed;
   }
+
+  /**
+   * Instants of the timeline the stored view reflects.
+   */
+  static class ViewCheckpoint implements Serializable {
+
+    // Bumped whenever the layout of the stored view changes, so that an incompatible store is not resumed from
+    private static final int CURRENT_VERSION = 1;
+
+    private final int version;
+    private final String basePath;
+    private final ArrayList<HoodieInstant> instants;
+
+    ViewCheckpoint(String basePath, List<HoodieInstant> instants) {
+      this.version = CURRENT_VERSION;
+      this.basePath = basePath;
+      this.instants = new ArrayList<>(instants);
+    }
+  }
 }
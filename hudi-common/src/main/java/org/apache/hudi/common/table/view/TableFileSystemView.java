@@ -63,6 +63,14 @@ public interface TableFileSystemView {
      */
     Stream<HoodieBaseFile> getLatestBaseFilesBeforeOrOn(String partitionPath, String maxCommitTime);
 
+    /**
+     * Stream all the latest version data files in the given partitions with precondition that commitTime(file) before
+     * maxCommitTime, paired with their partition path. Fetches all the partitions in one go, instead of a call per
+     * partition.
+     */
+    Stream<Pair<String, HoodieBaseFile>> getLatestBaseFilesBeforeOrOnForPartitions(List<String> partitionPaths,
+        String maxCommitTime);
+
     /**
      * Stream all the latest data files pass.
      */
@@ -115,6 +123,17 @@ public interface TableFileSystemView {
     Stream<FileSlice> getLatestFileSlicesBeforeOrOn(String partitionPath, String maxCommitTime,
         boolean includeFileSlicesInPendingCompaction);
 
+    /**
+     * Stream all latest file slices in the given partitions with precondition that commitTime(file) before
+     * maxCommitTime. Fetches all the partitions in one go, instead of a call per partition.
+     *
+     * @param partitionPaths Partition paths
+     * @param maxCommitTime Max Instant Time
+     * @param includeFileSlicesInPendingCompaction include file-slices that are in pending compaction
+     */
+    Stream<FileSlice> getLatestFileSlicesBeforeOrOnForPartitions(List<String> partitionPaths, String maxCommitTime,
+        boolean includeFileSlicesInPendingCompaction);
+
     /**
      * Stream all "merged" file-slices before on an instant time If a file-group has a pending compaction request, the
      * file-slice before and after compaction request instant is merged and returned.
@@ -40,6 +40,8 @@ import java.util.List;
  * Partitions : Key = "part=<PartitionPath>" Value = Boolean
  *
  * Pending Compactions Key = "part=<PartitionPath>,id=<FileId>" Value = Pair<CompactionTime, CompactionOperation>
+ *
+ * Checkpoint : Key = "checkpoint" Value = Checkpoint of the timeline the stored view reflects, if persisted
  */
 public class RocksDBSchemaHelper {
 
@@ -47,17 +49,23 @@ public class RocksDBSchemaHelper {
   private final String colFamilyForPendingCompaction;
   private final String colFamilyForBootstrapBaseFile;
   private final String colFamilyForStoredPartitions;
+  private final String colFamilyForCheckpoint;
 
   public RocksDBSchemaHelper(HoodieTableMetaClient metaClient) {
     this.colFamilyForBootstrapBaseFile = "hudi_bootstrap_basefile_" + metaClient.getBasePath().replace("/", "_");
     this.colFamilyForPendingCompaction = "hudi_pending_compaction_" + metaClient.getBasePath().replace("/", "_");
     this.colFamilyForStoredPartitions = "hudi_partitions_" + metaClient.getBasePath().replace("/", "_");
     this.colFamilyForView = "hudi_view_" + metaClient.getBasePath().replace("/", "_");
+    this.colFamilyForCheckpoint = "hudi_checkpoint_" + metaClient.getBasePath().replace("/", "_");
   }
 
   public List<String> getAllColumnFamilies() {
     return Arrays.asList(getColFamilyForView(), getColFamilyForPendingCompaction(), getColFamilyForBootstrapBaseFile(),
-        getColFamilyForStoredPartitions());
+        getColFamilyForStoredPartitions(), getColFamilyForCheckpoint());
+  }
+
+  public String getKeyForCheckpoint() {
+    return "checkpoint";
   }
 
   public String getKeyForPartitionLookup(String partition) {
@@ -125,4 +133,8 @@ public class RocksDBSchemaHelper {
   public String getColFamilyForStoredPartitions() {
     return colFamilyForStoredPartitions;
   }
+
+  public String getColFamilyForCheckpoint() {
+    return colFamilyForCheckpoint;
+  }
 }
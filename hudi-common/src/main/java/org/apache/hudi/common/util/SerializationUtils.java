@@ -21,6 +21,7 @@ package org.apache.hudi.common.util;
 import org.apache.hudi.exception.HoodieSerializationException;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import org.objenesis.strategy.StdInstantiatorStrategy;
@@ -28,6 +29,7 @@ import org.objenesis.strategy.StdInstantiatorStrategy;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 
 /**
  * {@link SerializationUtils} class internally uses {@link Kryo} serializer for serializing / deserializing objects.
@@ -81,6 +83,24 @@ public class SerializationUtils {
     return (T) SERIALIZER_REF.get().deserialize(objectData);
   }
 
+  /**
+   * <p>
+   * Deserializes a single {@code Object} from the remaining bytes of a {@link ByteBuffer}, without copying them out of
+   * the buffer first. The position of the passed in buffer is not modified.
+   * </p>
+   *
+   * @param <T> the object type to be deserialized
+   * @param objectData the serialized object, must not be null
+   * @return the deserialized object
+   * @throws IllegalArgumentException if {@code objectData} is {@code null}
+   */
+  public static <T> T deserialize(final ByteBuffer objectData) {
+    if (objectData == null) {
+      throw new IllegalArgumentException("The ByteBuffer must not be null");
+    }
+    return (T) SERIALIZER_REF.get().deserialize(objectData.duplicate());
+  }
+
   private static class KryoSerializerInstance implements Serializable {
     public static final int KRYO_SERIALIZER_INITIAL_BUFFER_SIZE = 1048576;
     private final Kryo kryo;
@@ -106,6 +126,10 @@ public class SerializationUtils {
     Object deserialize(byte[] objectData) {
       return this.kryo.readClassAndObject(new Input(objectData));
     }
+
+    Object deserialize(ByteBuffer objectData) {
+      return this.kryo.readClassAndObject(new ByteBufferInput(objectData));
+    }
   }
 
   /**
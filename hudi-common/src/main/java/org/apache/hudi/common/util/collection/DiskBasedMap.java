@@ -35,6 +35,7 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.io.Serializable;
 import java.net.InetAddress;
+import java.nio.ByteBuffer;
 import java.util.AbstractMap;
 import java.util.Collection;
 import java.util.HashSet;
@@ -53,7 +54,7 @@ import java.util.stream.Stream;
  * without any rollover support. It uses the following : 1) An in-memory map that tracks the key-> latest ValueMetadata.
  * 2) Current position in the file NOTE : Only String.class type supported for Key
  */
-public final class DiskBasedMap<T extends Serializable, R extends Serializable> implements Map<T, R>, Iterable<R> {
+public final class DiskBasedMap<T extends Serializable, R extends Serializable> extends DiskMap<T, R> {
 
   public static final int BUFFER_SIZE = 128 * 1024;  // 128 KB
   private static final Logger LOG = LogManager.getLogger(DiskBasedMap.class);
@@ -75,6 +76,11 @@ public final class DiskBasedMap<T extends Serializable, R extends Serializable>
   private Queue<BufferedRandomAccessFile> openedAccessFiles = new ConcurrentLinkedQueue<>();
 
   public DiskBasedMap(String baseFilePath) throws IOException {
+    this(baseFilePath, new KryoDiskMapSerializer<>());
+  }
+
+  public DiskBasedMap(String baseFilePath, DiskMapSerializer<R> valueSerializer) throws IOException {
+    super(valueSerializer);
     this.valueMetadataMap = new ConcurrentHashMap<>();
     this.writeOnlyFile = new File(baseFilePath, UUID.randomUUID().toString());
     this.filePath = writeOnlyFile.getPath();
@@ -168,12 +174,13 @@ public final class DiskBasedMap<T extends Serializable, R extends Serializable>
    */
   @Override
   public Iterator<R> iterator() {
-    return new LazyFileIterable(filePath, valueMetadataMap).iterator();
+    return new LazyFileIterable(filePath, valueMetadataMap, valueSerializer).iterator();
   }
 
   /**
    * Number of bytes spilled to disk.
    */
+  @Override
   public long sizeOfFileOnDiskInBytes() {
     return filePosition.get();
   }
@@ -208,13 +215,17 @@ public final class DiskBasedMap<T extends Serializable, R extends Serializable>
   }
 
   private R get(ValueMetadata entry) {
-    return get(entry, getRandomAccessFile());
+    return get(entry, getRandomAccessFile(), valueSerializer);
   }
 
   public static <R> R get(ValueMetadata entry, RandomAccessFile file) {
+    return get(entry, file, new KryoDiskMapSerializer<>());
+  }
+
+  public static <R> R get(ValueMetadata entry, RandomAccessFile file, DiskMapSerializer<R> valueSerializer) {
     try {
-      return SerializationUtils
-          .deserialize(SpillableMapUtils.readBytesFromDisk(file, entry.getOffsetOfValue(), entry.getSizeOfValue()));
+      return valueSerializer.deserialize(
+          ByteBuffer.wrap(SpillableMapUtils.readBytesFromDisk(file, entry.getOffsetOfValue(), entry.getSizeOfValue())));
     } catch (IOException e) {
       throw new HoodieIOException("Unable to readFromDisk Hoodie Record from disk", e);
     }
@@ -222,7 +233,7 @@ public final class DiskBasedMap<T extends Serializable, R extends Serializable>
 
   private synchronized R put(T key, R value, boolean flush) {
     try {
-      byte[] val = SerializationUtils.serialize(value);
+      byte[] val = valueSerializer.serialize(value);
       Integer valueSize = val.length;
       Long timestamp = System.currentTimeMillis();
       this.valueMetadataMap.put(key,
@@ -277,9 +288,10 @@ public final class DiskBasedMap<T extends Serializable, R extends Serializable>
     throw new HoodieException("Unsupported Operation Exception");
   }
 
+  @Override
   public Stream<R> valueStream() {
     final BufferedRandomAccessFile file = getRandomAccessFile();
-    return valueMetadataMap.values().stream().sorted().sequential().map(valueMetaData -> (R) get(valueMetaData, file));
+    return valueMetadataMap.values().stream().sorted().sequential().map(valueMetaData -> get(valueMetaData, file, valueSerializer));
   }
 
   @Override
@@ -291,6 +303,32 @@ public final class DiskBasedMap<T extends Serializable, R extends Serializable>
     return entrySet;
   }
 
+  @Override
+  public void close() {
+    valueMetadataMap.clear();
+    try {
+      if (writeOnlyFileHandle != null) {
+        writeOnlyFileHandle.flush();
+        fileOutputStream.getChannel().force(false);
+        writeOnlyFileHandle.close();
+        writeOnlyFileHandle = null;
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to close spill file " + filePath, e);
+    }
+    while (!openedAccessFiles.isEmpty()) {
+      BufferedRandomAccessFile file = openedAccessFiles.poll();
+      if (null != file) {
+        try {
+          file.close();
+        } catch (IOException ioe) {
+          // skip exception
+        }
+      }
+    }
+    writeOnlyFile.delete();
+  }
+
   /**
    * The file metadata that should be spilled to disk.
    */
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util.collection;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A map that keeps only the keys (and a pointer to the value) in memory and spills every value to local disk. This is
+ * the spill target of {@link ExternalSpillableMap}, see {@link ExternalSpillableMap.DiskMapType} for the available
+ * implementations.
+ *
+ * @param <T> key type
+ * @param <R> value type
+ */
+public abstract class DiskMap<T extends Serializable, R extends Serializable> implements Map<T, R>, Iterable<R> {
+
+  // Converts the values to and from the bytes spilled to disk
+  protected final DiskMapSerializer<R> valueSerializer;
+
+  protected DiskMap(DiskMapSerializer<R> valueSerializer) {
+    this.valueSerializer = valueSerializer;
+  }
+
+  /**
+   * Stream over all the values spilled to disk, in the order they were written.
+   */
+  public abstract Stream<R> valueStream();
+
+  /**
+   * Number of bytes spilled to disk.
+   */
+  public abstract long sizeOfFileOnDiskInBytes();
+
+  /**
+   * Releases the file handles held by this map and deletes the spilled data. The map cannot be used after this.
+   */
+  public abstract void close();
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util.collection;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+
+/**
+ * Converts the values of a {@link DiskMap} to and from the bytes spilled to disk.
+ *
+ * @param <R> value type
+ */
+public interface DiskMapSerializer<R> extends Serializable {
+
+  byte[] serialize(R value) throws IOException;
+
+  /**
+   * Reads the value back from the remaining bytes of the buffer. Implementations must not rely on the buffer being
+   * backed by an array.
+   */
+  R deserialize(ByteBuffer bytes);
+}
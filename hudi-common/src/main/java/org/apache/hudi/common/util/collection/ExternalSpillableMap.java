@@ -62,7 +62,7 @@ public class ExternalSpillableMap<T extends Serializable, R extends Serializable
   // Map to store key-values in memory until it hits maxInMemorySizeInBytes
   private final Map<T, R> inMemoryMap;
   // Map to store key-valuemetadata important to find the values spilled to disk
-  private transient volatile DiskBasedMap<T, R> diskBasedMap;
+  private transient volatile DiskMap<T, R> diskBasedMap;
   // TODO(na) : a dynamic sizing factor to ensure we have space for other objects in memory and
   // incorrect payload estimation
   private final Double sizingFactorForInMemoryMap = 0.8;
@@ -78,24 +78,52 @@ public class ExternalSpillableMap<T extends Serializable, R extends Serializable
   private boolean shouldEstimatePayloadSize = true;
   // Base File Path
   private final String baseFilePath;
+  // Type of the map values are spilled to
+  private final DiskMapType diskMapType;
+  // Converts the values spilled to disk to and from bytes
+  private final DiskMapSerializer<R> valueSerializer;
 
   public ExternalSpillableMap(Long maxInMemorySizeInBytes, String baseFilePath, SizeEstimator<T> keySizeEstimator,
       SizeEstimator<R> valueSizeEstimator) throws IOException {
+    this(maxInMemorySizeInBytes, baseFilePath, keySizeEstimator, valueSizeEstimator, DiskMapType.DISK_BASED);
+  }
+
+  public ExternalSpillableMap(Long maxInMemorySizeInBytes, String baseFilePath, SizeEstimator<T> keySizeEstimator,
+      SizeEstimator<R> valueSizeEstimator, DiskMapType diskMapType) throws IOException {
+    this(maxInMemorySizeInBytes, baseFilePath, keySizeEstimator, valueSizeEstimator, diskMapType,
+        new KryoDiskMapSerializer<>());
+  }
+
+  public ExternalSpillableMap(Long maxInMemorySizeInBytes, String baseFilePath, SizeEstimator<T> keySizeEstimator,
+      SizeEstimator<R> valueSizeEstimator, DiskMapType diskMapType, DiskMapSerializer<R> valueSerializer)
+      throws IOException {
     this.inMemoryMap = new HashMap<>();
     this.baseFilePath = baseFilePath;
-    this.diskBasedMap = new DiskBasedMap<>(baseFilePath);
+    this.diskMapType = diskMapType;
+    this.valueSerializer = valueSerializer;
+    this.diskBasedMap = createDiskMap();
     this.maxInMemorySizeInBytes = (long) Math.floor(maxInMemorySizeInBytes * sizingFactorForInMemoryMap);
     this.currentInMemoryMapSize = 0L;
     this.keySizeEstimator = keySizeEstimator;
     this.valueSizeEstimator = valueSizeEstimator;
   }
 
-  private DiskBasedMap<T, R> getDiskBasedMap() {
+  private DiskMap<T, R> createDiskMap() throws IOException {
+    switch (diskMapType) {
+      case MEMORY_MAPPED:
+        return new MemoryMappedDiskMap<>(baseFilePath, valueSerializer);
+      case DISK_BASED:
+      default:
+        return new DiskBasedMap<>(baseFilePath, valueSerializer);
+    }
+  }
+
+  private DiskMap<T, R> getDiskBasedMap() {
     if (null == diskBasedMap) {
       synchronized (this) {
         if (null == diskBasedMap) {
           try {
-            diskBasedMap = new DiskBasedMap<>(baseFilePath);
+            diskBasedMap = createDiskMap();
           } catch (IOException e) {
             throw new HoodieIOException(e.getMessage(), e);
           }
@@ -255,6 +283,27 @@ public class ExternalSpillableMap<T extends Serializable, R extends Serializable
     return entrySet;
   }
 
+  /**
+   * Clears the map and releases the files spilled to disk. Safe to call more than once.
+   */
+  public void close() {
+    inMemoryMap.clear();
+    currentInMemoryMapSize = 0L;
+    if (diskBasedMap != null) {
+      diskBasedMap.close();
+    }
+  }
+
+  /**
+   * The type of {@link DiskMap} values are spilled to.
+   */
+  public enum DiskMapType {
+    // Appends to a single file through a buffered stream, reads with a seek per value
+    DISK_BASED,
+    // Appends into memory mapped segment files, reads slice the mapped segments
+    MEMORY_MAPPED
+  }
+
   /**
    * Iterator that wraps iterating over all the values for this map 1) inMemoryIterator - Iterates over all the data
    * in-memory map 2) diskLazyFileIterator - Iterates over all the data spilled to disk.
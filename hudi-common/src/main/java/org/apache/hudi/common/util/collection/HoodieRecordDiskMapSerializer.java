@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util.collection;
+
+import org.apache.hudi.common.model.BaseAvroPayload;
+import org.apache.hudi.common.model.HoodieAvroPayload;
+import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieRecordLocation;
+import org.apache.hudi.common.model.HoodieRecordPayload;
+import org.apache.hudi.common.util.ReflectionUtils;
+import org.apache.hudi.common.util.SerializationUtils;
+import org.apache.hudi.exception.HoodieException;
+
+import org.apache.avro.util.Utf8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link DiskMapSerializer} for {@link HoodieRecord}s of a known payload class, as held by the log record scanner and
+ * the merge handle.
+ * <p>
+ * A record is laid out as |recordKey|partitionPath|flags|currentLocation?|newLocation?|payloadEncoding|payload|.
+ * Payloads of the configured class that keep their record as avro bytes ({@link BaseAvroPayload} with a
+ * (byte[], Comparable) constructor or {@link HoodieAvroPayload}) are written as the avro bytes plus the ordering
+ * value, without any class names. On read, the payload is rebuilt around the same bytes, so the avro record is only
+ * decoded once the payload is actually combined or written. Any other payload is written through
+ * {@link SerializationUtils}.
+ * <p>
+ * Records read back are sealed, callers unseal them before changing their locations.
+ */
+public class HoodieRecordDiskMapSerializer<T extends HoodieRecordPayload> implements DiskMapSerializer<HoodieRecord<T>> {
+
+  private static final int INITIAL_BUFFER_SIZE = 1024;
+
+  // Flags
+  private static final byte HAS_CURRENT_LOCATION = 1;
+  private static final byte HAS_NEW_LOCATION = 1 << 1;
+
+  // Payload encodings
+  private static final byte PAYLOAD_GENERIC = 0;
+  private static final byte PAYLOAD_AVRO_BYTES = 1;
+  private static final byte PAYLOAD_AVRO_BYTES_WITH_ORDERING = 2;
+
+  // Ordering value encodings
+  private static final byte ORDERING_NATURAL = 0;
+  private static final byte ORDERING_STRING = 1;
+  private static final byte ORDERING_UTF8 = 2;
+  private static final byte ORDERING_INT = 3;
+  private static final byte ORDERING_LONG = 4;
+  private static final byte ORDERING_FLOAT = 5;
+  private static final byte ORDERING_DOUBLE = 6;
+  private static final byte ORDERING_BOOLEAN = 7;
+  private static final byte ORDERING_GENERIC = 8;
+
+  private final String payloadClassName;
+  // Resolved lazily, as neither is serializable
+  private transient Class<?> payloadClass;
+  private transient Constructor<T> payloadConstructor;
+  private transient byte payloadEncoding;
+
+  public HoodieRecordDiskMapSerializer(String payloadClassName) {
+    this.payloadClassName = payloadClassName;
+  }
+
+  private synchronized void init() {
+    if (payloadClass != null) {
+      return;
+    }
+    Class<?> clazz = ReflectionUtils.getClass(payloadClassName);
+    try {
+      if (BaseAvroPayload.class.isAssignableFrom(clazz)) {
+        payloadConstructor = (Constructor<T>) clazz.getConstructor(byte[].class, Comparable.class);
+        payloadEncoding = PAYLOAD_AVRO_BYTES_WITH_ORDERING;
+      } else if (HoodieAvroPayload.class.isAssignableFrom(clazz)) {
+        payloadConstructor = (Constructor<T>) clazz.getConstructor(byte[].class);
+        payloadEncoding = PAYLOAD_AVRO_BYTES;
+      } else {
+        payloadEncoding = PAYLOAD_GENERIC;
+      }
+    } catch (NoSuchMethodException e) {
+      // payload does not support being rebuilt from its bytes
+      payloadConstructor = null;
+      payloadEncoding = PAYLOAD_GENERIC;
+    }
+    payloadClass = clazz;
+  }
+
+  @Override
+  public byte[] serialize(HoodieRecord<T> record) throws IOException {
+    init();
+    ByteArrayOutputStream baos = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+    DataOutputStream out = new DataOutputStream(baos);
+    writeString(out, record.getRecordKey());
+    writeString(out, record.getPartitionPath());
+
+    HoodieRecordLocation currentLocation = record.getCurrentLocation();
+    HoodieRecordLocation newLocation = record.getNewLocation().orElse(null);
+    int flags = (currentLocation != null ? HAS_CURRENT_LOCATION : 0) | (newLocation != null ? HAS_NEW_LOCATION : 0);
+    out.writeByte(flags);
+    if (currentLocation != null) {
+      writeLocation(out, currentLocation);
+    }
+    if (newLocation != null) {
+      writeLocation(out, newLocation);
+    }
+
+    T payload = record.getData();
+    byte encoding = payload.getClass() == payloadClass ? payloadEncoding : PAYLOAD_GENERIC;
+    out.writeByte(encoding);
+    switch (encoding) {
+      case PAYLOAD_AVRO_BYTES_WITH_ORDERING:
+        writeBytes(out, ((BaseAvroPayload) payload).recordBytes);
+        writeOrderingVal(out, ((BaseAvroPayload) payload).getOrderingVal());
+        break;
+      case PAYLOAD_AVRO_BYTES:
+        writeBytes(out, ((HoodieAvroPayload) payload).getRecordBytes());
+        break;
+      default:
+        writeBytes(out, SerializationUtils.serialize(payload));
+        break;
+    }
+    out.flush();
+    return baos.toByteArray();
+  }
+
+  @Override
+  public HoodieRecord<T> deserialize(ByteBuffer bytes) {
+    init();
+    ByteBuffer in = bytes.duplicate();
+    HoodieKey key = new HoodieKey(readString(in), readString(in));
+    byte flags = in.get();
+    HoodieRecordLocation currentLocation = (flags & HAS_CURRENT_LOCATION) != 0 ? readLocation(in) : null;
+    HoodieRecordLocation newLocation = (flags & HAS_NEW_LOCATION) != 0 ? readLocation(in) : null;
+
+    T payload;
+    byte encoding = in.get();
+    switch (encoding) {
+      case PAYLOAD_AVRO_BYTES_WITH_ORDERING:
+        byte[] recordBytes = readBytes(in);
+        payload = newPayload(recordBytes, readOrderingVal(in));
+        break;
+      case PAYLOAD_AVRO_BYTES:
+        payload = newPayload(readBytes(in));
+        break;
+      default:
+        payload = SerializationUtils.deserialize(readBytes(in));
+        break;
+    }
+
+    HoodieRecord<T> record = new HoodieRecord<>(key, payload);
+    if (currentLocation != null) {
+      record.setCurrentLocation(currentLocation);
+    }
+    if (newLocation != null) {
+      record.setNewLocation(newLocation);
+    }
+    record.seal();
+    return record;
+  }
+
+  private T newPayload(Object... args) {
+    try {
+      return payloadConstructor.newInstance(args);
+    } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+      throw new HoodieException("Unable to instantiate payload class " + payloadClassName, e);
+    }
+  }
+
+  private static void writeLocation(DataOutputStream out, HoodieRecordLocation location) throws IOException {
+    writeString(out, location.getInstantTime());
+    writeString(out, location.getFileId());
+  }
+
+  private static HoodieRecordLocation readLocation(ByteBuffer in) {
+    return new HoodieRecordLocation(readString(in), readString(in));
+  }
+
+  private static void writeOrderingVal(DataOutputStream out, Comparable orderingVal) throws IOException {
+    if (orderingVal == BaseAvroPayload.NATURAL_ORDER) {
+      out.writeByte(ORDERING_NATURAL);
+    } else if (orderingVal instanceof String) {
+      out.writeByte(ORDERING_STRING);
+      writeString(out, (String) orderingVal);
+    } else if (orderingVal instanceof Utf8) {
+      out.writeByte(ORDERING_UTF8);
+      writeBytes(out, ((Utf8) orderingVal).getBytes(), ((Utf8) orderingVal).getByteLength());
+    } else if (orderingVal instanceof Integer) {
+      out.writeByte(ORDERING_INT);
+      out.writeInt((Integer) orderingVal);
+    } else if (orderingVal instanceof Long) {
+      out.writeByte(ORDERING_LONG);
+      out.writeLong((Long) orderingVal);
+    } else if (orderingVal instanceof Float) {
+      out.writeByte(ORDERING_FLOAT);
+      out.writeFloat((Float) orderingVal);
+    } else if (orderingVal instanceof Double) {
+      out.writeByte(ORDERING_DOUBLE);
+      out.writeDouble((Double) orderingVal);
+    } else if (orderingVal instanceof Boolean) {
+      out.writeByte(ORDERING_BOOLEAN);
+      out.writeBoolean((Boolean) orderingVal);
+    } else {
+      out.writeByte(ORDERING_GENERIC);
+      writeBytes(out, SerializationUtils.serialize(orderingVal));
+    }
+  }
+
+  private static Comparable readOrderingVal(ByteBuffer in) {
+    byte type = in.get();
+    switch (type) {
+      case ORDERING_NATURAL:
+        return BaseAvroPayload.NATURAL_ORDER;
+      case ORDERING_STRING:
+        return readString(in);
+      case ORDERING_UTF8:
+        return new Utf8(readBytes(in));
+      case ORDERING_INT:
+        return in.getInt();
+      case ORDERING_LONG:
+        return in.getLong();
+      case ORDERING_FLOAT:
+        return in.getFloat();
+      case ORDERING_DOUBLE:
+        return in.getDouble();
+      case ORDERING_BOOLEAN:
+        return in.get() != 0;
+      case ORDERING_GENERIC:
+        return SerializationUtils.deserialize(readBytes(in));
+      default:
+        throw new HoodieException("Unknown ordering value type " + type);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeBytes(out, bytes, bytes.length);
+  }
+
+  private static String readString(ByteBuffer in) {
+    int length = in.getInt();
+    String value;
+    if (in.hasArray()) {
+      value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+      in.position(in.position() + length);
+    } else {
+      byte[] bytes = new byte[length];
+      in.get(bytes);
+      value = new String(bytes, StandardCharsets.UTF_8);
+    }
+    return value;
+  }
+
+  private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+    writeBytes(out, bytes, bytes.length);
+  }
+
+  private static void writeBytes(DataOutputStream out, byte[] bytes, int length) throws IOException {
+    out.writeInt(length);
+    out.write(bytes, 0, length);
+  }
+
+  private static byte[] readBytes(ByteBuffer in) {
+    byte[] bytes = new byte[in.getInt()];
+    in.get(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util.collection;
+
+import org.apache.hudi.common.util.SerializationUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link DiskMapSerializer} writing values through {@link SerializationUtils}. Works for any value type, at the cost
+ * of tagging every value with its class and serializing the whole object graph.
+ */
+public class KryoDiskMapSerializer<R> implements DiskMapSerializer<R> {
+
+  @Override
+  public byte[] serialize(R value) throws IOException {
+    return SerializationUtils.serialize(value);
+  }
+
+  @Override
+  public R deserialize(ByteBuffer bytes) {
+    return SerializationUtils.deserialize(bytes);
+  }
+}
@@ -38,9 +38,18 @@ public class LazyFileIterable<T, R> implements Iterable<R> {
   // Stores the key and corresponding value's latest metadata spilled to disk
   private final Map<T, DiskBasedMap.ValueMetadata> inMemoryMetadataOfSpilledData;
 
+  // Converts the spilled bytes back to values
+  private final DiskMapSerializer<R> valueSerializer;
+
   public LazyFileIterable(String filePath, Map<T, DiskBasedMap.ValueMetadata> map) {
+    this(filePath, map, new KryoDiskMapSerializer<>());
+  }
+
+  public LazyFileIterable(String filePath, Map<T, DiskBasedMap.ValueMetadata> map,
+      DiskMapSerializer<R> valueSerializer) {
     this.filePath = filePath;
     this.inMemoryMetadataOfSpilledData = map;
+    this.valueSerializer = valueSerializer;
   }
 
   @Override
@@ -89,7 +98,7 @@ public class LazyFileIterable<T, R> implements Iterable<R> {
         throw new IllegalStateException("next() called on EOF'ed stream. File :" + filePath);
       }
       Map.Entry<T, DiskBasedMap.ValueMetadata> entry = this.metadataIterator.next();
-      return DiskBasedMap.get(entry.getValue(), readOnlyFileHandle);
+      return (R) DiskBasedMap.get(entry.getValue(), readOnlyFileHandle, valueSerializer);
     }
 
     @Override
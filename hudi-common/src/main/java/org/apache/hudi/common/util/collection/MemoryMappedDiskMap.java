@@ -0,0 +1,430 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util.collection;
+
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.SpillableMapUtils;
+import org.apache.hudi.exception.HoodieCorruptedDataException;
+import org.apache.hudi.exception.HoodieException;
+import org.apache.hudi.exception.HoodieIOException;
+import org.apache.hudi.exception.HoodieNotSupportedException;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * A {@link DiskMap} that appends the serialized values into memory-mapped segment files instead of writing them
+ * through a file stream and reading them back with a seek + read per {@link #get(Object)}.
+ * <p>
+ * Each entry is laid out as |crc|sizeOfValue|value| in the current segment. When the current segment cannot fit the
+ * next entry, a new segment is created and mapped. Reads slice the mapped segment, so {@link #getValueBuffer(Object)}
+ * hands out a read-only view over the spilled bytes without copying them and without any system call.
+ * <p>
+ * Segments live in a directory private to this map, which is removed by {@link #close()}. No shutdown hooks or
+ * delete-on-exit entries are registered, callers are expected to close the map once they are done with it. Closing
+ * unmaps the segments right away rather than when their buffers get garbage collected, so the map must not be read
+ * concurrently with {@link #close()} and buffers handed out before must not be touched after it.
+ */
+public final class MemoryMappedDiskMap<T extends Serializable, R extends Serializable> extends DiskMap<T, R> {
+
+  // Default size of each memory mapped segment
+  public static final long DEFAULT_SEGMENT_SIZE_IN_BYTES = 64 * 1024 * 1024L;
+  private static final Logger LOG = LogManager.getLogger(MemoryMappedDiskMap.class);
+  // |crc|sizeOfValue|
+  private static final int ENTRY_HEADER_SIZE = Long.BYTES + Integer.BYTES;
+
+  // Stores the key and the location of its latest value in the segments
+  private final Map<T, ValueLocation> valueLocationMap;
+  // All the segments created so far, in the order they were created
+  private final List<Segment> segments;
+  // Directory holding the segment files of this map
+  private final File segmentDir;
+  private final long segmentSizeInBytes;
+  // Total number of bytes appended across all segments
+  private final AtomicLong totalBytesWritten;
+  // Segment currently appended to
+  private Segment currentSegment;
+  private volatile boolean closed = false;
+
+  public MemoryMappedDiskMap(String baseFilePath) throws IOException {
+    this(baseFilePath, DEFAULT_SEGMENT_SIZE_IN_BYTES);
+  }
+
+  public MemoryMappedDiskMap(String baseFilePath, long segmentSizeInBytes) throws IOException {
+    this(baseFilePath, segmentSizeInBytes, new KryoDiskMapSerializer<>());
+  }
+
+  public MemoryMappedDiskMap(String baseFilePath, DiskMapSerializer<R> valueSerializer) throws IOException {
+    this(baseFilePath, DEFAULT_SEGMENT_SIZE_IN_BYTES, valueSerializer);
+  }
+
+  public MemoryMappedDiskMap(String baseFilePath, long segmentSizeInBytes, DiskMapSerializer<R> valueSerializer)
+      throws IOException {
+    super(valueSerializer);
+    if (segmentSizeInBytes <= ENTRY_HEADER_SIZE || segmentSizeInBytes > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Invalid segment size " + segmentSizeInBytes);
+    }
+    this.valueLocationMap = new ConcurrentHashMap<>();
+    this.segments = new CopyOnWriteArrayList<>();
+    this.segmentSizeInBytes = segmentSizeInBytes;
+    this.totalBytesWritten = new AtomicLong(0L);
+    this.segmentDir = new File(baseFilePath, "mmap-" + UUID.randomUUID().toString());
+    if (!segmentDir.mkdirs()) {
+      throw new IOException("Unable to create spill directory " + segmentDir.getAbsolutePath());
+    }
+    LOG.info("Spilling to memory mapped segments under " + segmentDir.getAbsolutePath());
+  }
+
+  private Segment rollOver(int minimumCapacity) {
+    long capacity = Math.max(segmentSizeInBytes, minimumCapacity);
+    File segmentFile = new File(segmentDir, String.valueOf(segments.size()));
+    try {
+      Segment segment = new Segment(segments.size(), segmentFile, (int) capacity);
+      segments.add(segment);
+      LOG.debug("Rolled over to spill segment " + segmentFile.getAbsolutePath() + " of size " + capacity);
+      return segment;
+    } catch (IOException e) {
+      throw new HoodieIOException("Unable to create spill segment " + segmentFile.getAbsolutePath(), e);
+    }
+  }
+
+  private void ensureOpen() {
+    if (closed) {
+      throw new IllegalStateException("MemoryMappedDiskMap at " + segmentDir + " is already closed");
+    }
+  }
+
+  /**
+   * Returns a read-only view of the serialized value for the key, backed by the mapped segment. The returned buffer is
+   * only valid until this map is closed, the segment is unmapped then.
+   */
+  public ByteBuffer getValueBuffer(Object key) {
+    ValueLocation location = valueLocationMap.get(key);
+    if (location == null) {
+      return null;
+    }
+    return getValueBuffer(location);
+  }
+
+  private ByteBuffer getValueBuffer(ValueLocation location) {
+    ensureOpen();
+    ByteBuffer entry = segments.get(location.segmentId).slice(location.offset, location.size + ENTRY_HEADER_SIZE);
+    long crc = entry.getLong(0);
+    int valueSize = entry.getInt(Long.BYTES);
+    if (valueSize != location.size) {
+      throw new HoodieCorruptedDataException("unequal size of payload written to external file, data may be corrupted");
+    }
+    entry.position(ENTRY_HEADER_SIZE);
+    ByteBuffer value = entry.slice();
+    if (crc != generateChecksum(value.duplicate())) {
+      throw new HoodieCorruptedDataException(
+          "checksum of payload written to external disk does not match, data may be corrupted");
+    }
+    return value;
+  }
+
+  private R readValue(ValueLocation location) {
+    return valueSerializer.deserialize(getValueBuffer(location));
+  }
+
+  private static long generateChecksum(ByteBuffer data) {
+    CRC32 crc = new CRC32();
+    crc.update(data);
+    return crc.getValue();
+  }
+
+  @Override
+  public Iterator<R> iterator() {
+    return valueStream().iterator();
+  }
+
+  @Override
+  public Stream<R> valueStream() {
+    return valueLocationMap.values().stream().sorted().sequential().map(this::readValue);
+  }
+
+  @Override
+  public long sizeOfFileOnDiskInBytes() {
+    return totalBytesWritten.get();
+  }
+
+  @Override
+  public int size() {
+    return valueLocationMap.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return valueLocationMap.isEmpty();
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return valueLocationMap.containsKey(key);
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    throw new HoodieNotSupportedException("unable to compare values in map");
+  }
+
+  @Override
+  public R get(Object key) {
+    ValueLocation location = valueLocationMap.get(key);
+    if (location == null) {
+      return null;
+    }
+    return readValue(location);
+  }
+
+  @Override
+  public synchronized R put(T key, R value) {
+    ensureOpen();
+    try {
+      byte[] val = valueSerializer.serialize(value);
+      int entrySize = ENTRY_HEADER_SIZE + val.length;
+      if (currentSegment == null || currentSegment.remaining() < entrySize) {
+        currentSegment = rollOver(entrySize);
+      }
+      int offset = currentSegment.append(SpillableMapUtils.generateChecksum(val), val);
+      totalBytesWritten.addAndGet(entrySize);
+      // Publish the location only after the bytes are in place, readers go through the concurrent map
+      valueLocationMap.put(key, new ValueLocation(currentSegment.id, offset, val.length));
+    } catch (IOException io) {
+      throw new HoodieIOException("Unable to store data in memory mapped disk map", io);
+    }
+    return value;
+  }
+
+  @Override
+  public R remove(Object key) {
+    R value = get(key);
+    valueLocationMap.remove(key);
+    return value;
+  }
+
+  @Override
+  public void putAll(Map<? extends T, ? extends R> m) {
+    for (Map.Entry<? extends T, ? extends R> entry : m.entrySet()) {
+      put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Override
+  public void clear() {
+    // As with DiskBasedMap, the spilled bytes stay in the segments until the map is closed
+    valueLocationMap.clear();
+  }
+
+  @Override
+  public Set<T> keySet() {
+    return valueLocationMap.keySet();
+  }
+
+  @Override
+  public Collection<R> values() {
+    throw new HoodieException("Unsupported Operation Exception");
+  }
+
+  @Override
+  public Set<Entry<T, R>> entrySet() {
+    Set<Entry<T, R>> entrySet = new HashSet<>();
+    for (Map.Entry<T, ValueLocation> entry : valueLocationMap.entrySet()) {
+      entrySet.add(new AbstractMap.SimpleEntry<>(entry.getKey(), readValue(entry.getValue())));
+    }
+    return entrySet;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    valueLocationMap.clear();
+    currentSegment = null;
+    for (Segment segment : new ArrayList<>(segments)) {
+      segment.close();
+    }
+    segments.clear();
+    if (!segmentDir.delete()) {
+      LOG.warn("Unable to delete spill directory " + segmentDir.getAbsolutePath());
+    }
+  }
+
+  /**
+   * A single memory mapped, append-only segment file.
+   */
+  private static final class Segment {
+
+    private final int id;
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    // Only the writer moves the position of this buffer, readers work on slices of duplicates
+    private final MappedByteBuffer buffer;
+
+    Segment(int id, File file, int capacity) throws IOException {
+      this.id = id;
+      this.file = file;
+      this.randomAccessFile = new RandomAccessFile(file, "rw");
+      this.channel = randomAccessFile.getChannel();
+      this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    int remaining() {
+      return buffer.remaining();
+    }
+
+    /**
+     * Appends an entry and returns the offset it was written at.
+     */
+    int append(long crc, byte[] value) {
+      int offset = buffer.position();
+      buffer.putLong(crc);
+      buffer.putInt(value.length);
+      buffer.put(value);
+      return offset;
+    }
+
+    ByteBuffer slice(int offset, int length) {
+      ByteBuffer view = buffer.asReadOnlyBuffer();
+      view.limit(offset + length);
+      view.position(offset);
+      return view.slice();
+    }
+
+    void close() {
+      BufferUnmapper.unmap(buffer);
+      try {
+        channel.close();
+        randomAccessFile.close();
+      } catch (IOException e) {
+        LOG.warn("Unable to close spill segment " + file.getAbsolutePath(), e);
+      }
+      if (!file.delete()) {
+        LOG.warn("Unable to delete spill segment " + file.getAbsolutePath());
+      }
+    }
+  }
+
+  /**
+   * Releases the mapping of a buffer when its segment is closed. Otherwise the mapping, and with it the disk space of
+   * the deleted segment file, would linger until the buffer is garbage collected, which may take long for buffers that
+   * made it to the old generation. Uses sun.misc.Unsafe#invokeCleaner on Java 9+ and the cleaner of
+   * sun.nio.ch.DirectBuffer on Java 8. If neither is accessible, mappings are left to the garbage collector.
+   */
+  private static final class BufferUnmapper {
+
+    private static final Option<Consumer<MappedByteBuffer>> UNMAPPER = createUnmapper();
+
+    static void unmap(MappedByteBuffer buffer) {
+      if (UNMAPPER.isPresent()) {
+        try {
+          UNMAPPER.get().accept(buffer);
+        } catch (RuntimeException e) {
+          LOG.warn("Unable to unmap spill segment, it stays mapped until garbage collected", e);
+        }
+      }
+    }
+
+    private static Option<Consumer<MappedByteBuffer>> createUnmapper() {
+      try {
+        Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+        Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        Object unsafe = theUnsafe.get(null);
+        return Option.of(buffer -> invoke(invokeCleaner, unsafe, buffer));
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        // Java 8, Unsafe can not clean buffers yet
+      }
+      try {
+        Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+        Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+        return Option.of(buffer -> {
+          Object bufferCleaner = invoke(cleaner, buffer);
+          if (bufferCleaner != null) {
+            invoke(clean, bufferCleaner);
+          }
+        });
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        LOG.warn("Unable to unmap buffers explicitly, closed spill segments stay mapped until garbage collected", e);
+        return Option.empty();
+      }
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) {
+      try {
+        return method.invoke(target, args);
+      } catch (ReflectiveOperationException e) {
+        throw new HoodieException("Unable to invoke " + method, e);
+      }
+    }
+  }
+
+  /**
+   * Location of a spilled value.
+   */
+  private static final class ValueLocation implements Comparable<ValueLocation> {
+
+    private final int segmentId;
+    // Offset of the entry (not the value) within the segment
+    private final int offset;
+    // Size (numberOfBytes) of the value
+    private final int size;
+
+    ValueLocation(int segmentId, int offset, int size) {
+      this.segmentId = segmentId;
+      this.offset = offset;
+      this.size = size;
+    }
+
+    @Override
+    public int compareTo(ValueLocation o) {
+      int result = Integer.compare(segmentId, o.segmentId);
+      return result != 0 ? result : Integer.compare(offset, o.offset);
+    }
+  }
+}
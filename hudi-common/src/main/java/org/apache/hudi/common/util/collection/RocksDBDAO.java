@@ -59,15 +59,28 @@ public class RocksDBDAO {
 
   private static final Logger LOG = LogManager.getLogger(RocksDBDAO.class);
 
+  private static final String PERSISTENT_DIR_NAME = "persistent";
+
   private transient ConcurrentHashMap<String, ColumnFamilyHandle> managedHandlesMap;
   private transient ConcurrentHashMap<String, ColumnFamilyDescriptor> managedDescriptorMap;
   private transient RocksDB rocksDB;
   private boolean closed = false;
   private final String rocksDBBasePath;
+  // Whether the data outlives this DAO, to be opened again by the next DAO created for the same base path
+  private final boolean persistent;
 
   public RocksDBDAO(String basePath, String rocksDBBasePath) {
-    this.rocksDBBasePath =
-        String.format("%s/%s/%s", rocksDBBasePath, basePath.replace("/", "_"), UUID.randomUUID().toString());
+    this(basePath, rocksDBBasePath, false);
+  }
+
+  /**
+   * Creates a DAO whose data is deleted on close, or a persistent one opening the data left by the previous persistent
+   * DAO of the same base path. Only one persistent DAO of a base path can be open at a time.
+   */
+  public RocksDBDAO(String basePath, String rocksDBBasePath, boolean persistent) {
+    this.persistent = persistent;
+    this.rocksDBBasePath = String.format("%s/%s/%s", rocksDBBasePath, basePath.replace("/", "_"),
+        persistent ? PERSISTENT_DIR_NAME : UUID.randomUUID().toString());
     init();
   }
 
@@ -83,8 +96,12 @@ public class RocksDBDAO {
    */
   private void init() {
     try {
-      LOG.info("DELETING RocksDB persisted at " + rocksDBBasePath);
-      FileIOUtils.deleteDirectory(new File(rocksDBBasePath));
+      if (persistent) {
+        LOG.info("Opening RocksDB persisted at " + rocksDBBasePath);
+      } else {
+        LOG.info("DELETING RocksDB persisted at " + rocksDBBasePath);
+        FileIOUtils.deleteDirectory(new File(rocksDBBasePath));
+      }
 
       managedHandlesMap = new ConcurrentHashMap<>();
       managedDescriptorMap = new ConcurrentHashMap<>();
@@ -440,14 +457,30 @@ public class RocksDBDAO {
       managedHandlesMap.clear();
       managedDescriptorMap.clear();
       getRocksDB().close();
-      try {
-        FileIOUtils.deleteDirectory(new File(rocksDBBasePath));
-      } catch (IOException e) {
-        throw new HoodieIOException(e.getMessage(), e);
+      if (!persistent) {
+        deleteData();
       }
     }
   }
 
+  /**
+   * Close the DAO object and delete its data, even if it is persistent.
+   */
+  public synchronized void destroy() {
+    close();
+    if (persistent) {
+      deleteData();
+    }
+  }
+
+  private void deleteData() {
+    try {
+      FileIOUtils.deleteDirectory(new File(rocksDBBasePath));
+    } catch (IOException e) {
+      throw new HoodieIOException(e.getMessage(), e);
+    }
+  }
+
   String getRocksDBBasePath() {
     return rocksDBBasePath;
   }
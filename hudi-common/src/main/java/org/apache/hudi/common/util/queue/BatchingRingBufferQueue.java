@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util.queue;
+
+import org.apache.hudi.common.util.DefaultSizeEstimator;
+import org.apache.hudi.common.util.SizeEstimator;
+import org.apache.hudi.common.util.ValidationUtils;
+import org.apache.hudi.exception.HoodieException;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Drop-in replacement of {@link BoundedInMemoryQueue} which hands records over to the consumer in batches, through a
+ * ring of preallocated slots instead of a {@link java.util.concurrent.LinkedBlockingQueue}.
+ *
+ * Every producer thread fills a batch of its own and publishes it into the next slot of the ring, so the hand-off
+ * (sequence claim, memory barrier and wake up of the consumer) is paid once per batch rather than once per record, and
+ * no lock is taken on either side. Batch arrays are handed back and forth between producers and the consumer through
+ * the slots, so a steady state hand-off does not allocate.
+ *
+ * As in the parent queue, the size of every {@link #RECORD_SAMPLING_RATE}th record is sampled, and the number of
+ * records in flight is bounded by the memory limit: both the batch size and the number of batches producers can run
+ * ahead of the consumer follow the average record size.
+ *
+ * This queue supports multiple producer single consumer pattern.
+ *
+ * @param <I> input payload data type
+ * @param <O> output payload data type
+ */
+public class BatchingRingBufferQueue<I, O> extends BoundedInMemoryQueue<I, O> {
+
+  // number of slots of the ring, bounds the number of batches in flight
+  public static final int RING_SIZE = 256;
+  // maximum number of records handed over in one batch
+  public static final int MAX_BATCH_SIZE = 128;
+  // a memory limit worth of records is split in at least this many batches, to keep producers and consumer overlapping
+  private static final int MIN_BATCHES_IN_FLIGHT = 16;
+  // waiting threads spin, then yield, then park between checks, for longer once the wait gets long
+  private static final int SPIN_TRIES = 100;
+  private static final int YIELD_TRIES = 200;
+  private static final int SHORT_PARK_TRIES = 2000;
+  private static final long SHORT_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+  private static final long LONG_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final Slot[] ring;
+  // sequence of the next batch to be published, claimed by producers
+  private final AtomicLong claimSequence = new AtomicLong(0);
+  // sequence of the next batch to be read, the slots of all the batches before it can be reused
+  private volatile long consumeSequence = 0;
+  // batches of all the producer threads, to publish the partially filled ones on close
+  private final Queue<Batch> producerBatches = new ConcurrentLinkedQueue<>();
+  private final ThreadLocal<Batch> producerBatch = ThreadLocal.withInitial(this::newProducerBatch);
+  // number of records published so far, and consumed so far
+  private final AtomicLong numPublishedRecords = new AtomicLong(0);
+  private volatile long numConsumedRecords = 0;
+  // records per batch and batches in flight, both derived from the sampled record size
+  private volatile int batchSize = 1;
+  private volatile int maxBatchesInFlight = 1;
+  private long numSamples = 0;
+  private volatile boolean isWriteDone = false;
+  // Singleton (w.r.t this instance) Iterator for this queue
+  private final RingBufferIterator iterator = new RingBufferIterator();
+
+  /**
+   * Construct BatchingRingBufferQueue with default SizeEstimator.
+   *
+   * @param memoryLimit MemoryLimit in bytes
+   * @param transformFunction Transformer Function to convert input payload type to stored payload type
+   */
+  public BatchingRingBufferQueue(final long memoryLimit, final Function<I, O> transformFunction) {
+    this(memoryLimit, transformFunction, new DefaultSizeEstimator() {});
+  }
+
+  /**
+   * Construct BatchingRingBufferQueue with passed in size estimator.
+   *
+   * @param memoryLimit MemoryLimit in bytes
+   * @param transformFunction Transformer Function to convert input payload type to stored payload type
+   * @param payloadSizeEstimator Payload Size Estimator
+   */
+  public BatchingRingBufferQueue(final long memoryLimit, final Function<I, O> transformFunction,
+      final SizeEstimator<O> payloadSizeEstimator) {
+    super(memoryLimit, transformFunction, payloadSizeEstimator);
+    this.ring = new Slot[RING_SIZE];
+    for (int i = 0; i < RING_SIZE; i++) {
+      ring[i] = new Slot(i - RING_SIZE);
+    }
+  }
+
+  @Override
+  public int size() {
+    return (int) (numPublishedRecords.get() - numConsumedRecords);
+  }
+
+  /**
+   * Adds the record to the batch of the calling producer thread after applying transformation, publishing the batch
+   * once it is full.
+   *
+   * @param t Item to be queueed
+   */
+  @Override
+  public void insertRecord(I t) throws Exception {
+    // If already closed, throw exception
+    if (isWriteDone) {
+      throw new IllegalStateException("Queue closed for enqueueing new entries");
+    }
+
+    Batch batch = producerBatch.get();
+    // We are retrieving insert value in the record queueing thread to offload computation
+    // around schema validation
+    // and record creation to it.
+    final O payload = transformFunction.apply(t);
+    if (batch.numRecordsSeen++ % RECORD_SAMPLING_RATE == 0) {
+      sampleRecordSize(payload);
+    }
+    batch.records[batch.size++] = payload;
+    if (batch.size >= Math.min(batchSize, batch.records.length)) {
+      publish(batch);
+    }
+  }
+
+  /**
+   * Computes the average record size in bytes from the sampled records, and from it the number of records to hold in
+   * memory, the size of the batches and how many of them can be in flight.
+   */
+  private synchronized void sampleRecordSize(final O payload) {
+    final long recordSizeInBytes = payloadSizeEstimator.sizeEstimate(payload);
+    avgRecordSizeInBytes = Math.max(1, (avgRecordSizeInBytes * numSamples + recordSizeInBytes) / (numSamples + 1));
+    numSamples++;
+    currentRateLimit = (int) Math.min(RECORD_CACHING_LIMIT, Math.max(1, memoryLimit / avgRecordSizeInBytes));
+    final int newBatchSize = Math.max(1, Math.min(MAX_BATCH_SIZE, currentRateLimit / MIN_BATCHES_IN_FLIGHT));
+    maxBatchesInFlight = Math.max(1, Math.min(RING_SIZE, currentRateLimit / newBatchSize));
+    batchSize = newBatchSize;
+  }
+
+  /**
+   * Publishes the records of the batch into the next slot of the ring, once the consumer is far enough behind.
+   */
+  private void publish(Batch batch) {
+    final long sequence = claimSequence.getAndIncrement();
+    int attempt = 0;
+    while (sequence - consumeSequence >= maxBatchesInFlight) {
+      // We need to stop queueing if queue-reader has failed and exited.
+      throwExceptionIfFailed();
+      backOff(attempt++);
+    }
+    throwExceptionIfFailed();
+    final Slot slot = ring[(int) (sequence % RING_SIZE)];
+    // swap the filled records with the array the consumer is done with
+    final Object[] records = batch.records;
+    batch.records = slot.records != null ? slot.records : new Object[MAX_BATCH_SIZE];
+    slot.records = records;
+    slot.size = batch.size;
+    numPublishedRecords.addAndGet(batch.size);
+    batch.size = 0;
+    // makes the batch visible to the consumer
+    slot.sequence = sequence;
+  }
+
+  /**
+   * Publishes the partially filled batches of all the producers and marks the end of the records. All the producers are
+   * done queueing when this is called.
+   */
+  @Override
+  public void close() {
+    if (isWriteDone) {
+      return;
+    }
+    for (Batch batch : producerBatches) {
+      if (batch.size > 0) {
+        publish(batch);
+      }
+    }
+    // done queueing records notifying queue-reader.
+    isWriteDone = true;
+  }
+
+  @Override
+  public Iterator<O> iterator() {
+    return iterator;
+  }
+
+  private Batch newProducerBatch() {
+    Batch batch = new Batch();
+    producerBatches.add(batch);
+    return batch;
+  }
+
+  private static void backOff(int attempt) {
+    if (attempt < SPIN_TRIES) {
+      return;
+    } else if (attempt < YIELD_TRIES) {
+      Thread.yield();
+      return;
+    }
+    LockSupport.parkNanos(attempt < SHORT_PARK_TRIES ? SHORT_PARK_NANOS : LONG_PARK_NANOS);
+    if (Thread.interrupted()) {
+      throw new HoodieException("Interrupted while waiting on the ring buffer", new InterruptedException());
+    }
+  }
+
+  /**
+   * A slot of the ring, holding the batch with sequence {@link #sequence} once that is published.
+   */
+  private static final class Slot {
+
+    private volatile long sequence;
+    private Object[] records;
+    private int size;
+
+    private Slot(long sequence) {
+      this.sequence = sequence;
+    }
+  }
+
+  /**
+   * Records being batched up by a producer thread.
+   */
+  private static final class Batch {
+
+    private Object[] records = new Object[MAX_BATCH_SIZE];
+    private int size = 0;
+    private long numRecordsSeen = 0;
+  }
+
+  /**
+   * Iterator for the ring buffer, reading the published batches in sequence.
+   */
+  private final class RingBufferIterator implements Iterator<O> {
+
+    // batch being read and position of the next record in it
+    private Slot slot;
+    private int position;
+    private boolean isReadDone = false;
+
+    @Override
+    public boolean hasNext() {
+      if (slot != null && position < slot.size) {
+        return true;
+      }
+      if (slot != null) {
+        releaseSlot();
+      }
+      return !isReadDone && acquireSlot();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public O next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException("No more records left in the queue");
+      }
+      final O ret = (O) slot.records[position];
+      // do not hold on to records handed out
+      slot.records[position++] = null;
+      return ret;
+    }
+
+    /**
+     * Waits for the next batch to be published, returns false once all the batches are read.
+     */
+    private boolean acquireSlot() {
+      final long sequence = consumeSequence;
+      final Slot next = ring[(int) (sequence % RING_SIZE)];
+      int attempt = 0;
+      while (next.sequence != sequence) {
+        throwExceptionIfFailed();
+        // all the producers are done and every claimed batch was read
+        if (isWriteDone && sequence == claimSequence.get()) {
+          isReadDone = true;
+          return false;
+        }
+        backOff(attempt++);
+      }
+      // Check one more time here as it is possible producer errored out and closed immediately
+      throwExceptionIfFailed();
+      ValidationUtils.checkState(next.size > 0, "Published batches are never empty");
+      this.slot = next;
+      this.position = 0;
+      return true;
+    }
+
+    private void releaseSlot() {
+      numConsumedRecords += slot.size;
+      slot = null;
+      // the slot can be reused by producers from here on
+      consumeSequence++;
+    }
+  }
+}
@@ -46,6 +46,16 @@ public class BoundedInMemoryExecutor<I, O, E> {
 
   private static final Logger LOG = LogManager.getLogger(BoundedInMemoryExecutor.class);
 
+  /**
+   * Implementation of the queue between producers and consumer.
+   */
+  public enum QueueType {
+    // records are handed over one at a time through a linked blocking queue, see BoundedInMemoryQueue
+    BLOCKING,
+    // records are handed over in batches through a lock-free ring buffer, see BatchingRingBufferQueue
+    RING_BUFFER
+  }
+
   // Executor service used for launching writer thread.
   private final ExecutorService executorService;
   // Used for buffering records which is controlled by HoodieWriteConfig#WRITE_BUFFER_LIMIT_BYTES.
@@ -60,14 +70,36 @@ public class BoundedInMemoryExecutor<I, O, E> {
     this(bufferLimitInBytes, Arrays.asList(producer), consumer, transformFunction, new DefaultSizeEstimator<>());
   }
 
+  public BoundedInMemoryExecutor(final long bufferLimitInBytes, BoundedInMemoryQueueProducer<I> producer,
+      Option<BoundedInMemoryQueueConsumer<O, E>> consumer, final Function<I, O> transformFunction,
+      QueueType queueType) {
+    this(bufferLimitInBytes, Arrays.asList(producer), consumer, transformFunction, new DefaultSizeEstimator<>(),
+        queueType);
+  }
+
   public BoundedInMemoryExecutor(final long bufferLimitInBytes, List<BoundedInMemoryQueueProducer<I>> producers,
       Option<BoundedInMemoryQueueConsumer<O, E>> consumer, final Function<I, O> transformFunction,
       final SizeEstimator<O> sizeEstimator) {
+    this(bufferLimitInBytes, producers, consumer, transformFunction, sizeEstimator, QueueType.BLOCKING);
+  }
+
+  public BoundedInMemoryExecutor(final long bufferLimitInBytes, List<BoundedInMemoryQueueProducer<I>> producers,
+      Option<BoundedInMemoryQueueConsumer<O, E>> consumer, final Function<I, O> transformFunction,
+      final SizeEstimator<O> sizeEstimator, QueueType queueType) {
     this.producers = producers;
     this.consumer = consumer;
     // Ensure single thread for each producer thread and one for consumer
     this.executorService = Executors.newFixedThreadPool(producers.size() + 1);
-    this.queue = new BoundedInMemoryQueue<>(bufferLimitInBytes, transformFunction, sizeEstimator);
+    switch (queueType) {
+      case BLOCKING:
+        this.queue = new BoundedInMemoryQueue<>(bufferLimitInBytes, transformFunction, sizeEstimator);
+        break;
+      case RING_BUFFER:
+        this.queue = new BatchingRingBufferQueue<>(bufferLimitInBytes, transformFunction, sizeEstimator);
+        break;
+      default:
+        throw new HoodieException("Unsupported queue type " + queueType);
+    }
   }
 
   /**
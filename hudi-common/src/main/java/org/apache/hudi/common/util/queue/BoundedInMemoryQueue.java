@@ -56,7 +56,7 @@ public class BoundedInMemoryQueue<I, O> implements Iterable<O> {
   // rate used for sampling records to determine avg record size in bytes.
   public static final int RECORD_SAMPLING_RATE = 64;
   // maximum records that will be cached
-  private static final int RECORD_CACHING_LIMIT = 128 * 1024;
+  protected static final int RECORD_CACHING_LIMIT = 128 * 1024;
   private static final Logger LOG = LogManager.getLogger(BoundedInMemoryQueue.class);
   // It indicates number of records to cache. We will be using sampled record's average size to
   // determine how many
@@ -67,7 +67,7 @@ public class BoundedInMemoryQueue<I, O> implements Iterable<O> {
   // internal queue for records.
   private final LinkedBlockingQueue<Option<O>> queue = new LinkedBlockingQueue<>();
   // maximum amount of memory to be used for queueing records.
-  private final long memoryLimit;
+  protected final long memoryLimit;
   // it holds the root cause of the exception in case either queueing records (consuming from
   // inputIterator) fails or
   // thread reading records from queue fails.
@@ -77,9 +77,9 @@ public class BoundedInMemoryQueue<I, O> implements Iterable<O> {
   // used for indicating that all records have been enqueued
   private final AtomicBoolean isWriteDone = new AtomicBoolean(false);
   // Function to transform the input payload to the expected output payload
-  private final Function<I, O> transformFunction;
+  protected final Function<I, O> transformFunction;
   // Payload Size Estimator
-  private final SizeEstimator<O> payloadSizeEstimator;
+  protected final SizeEstimator<O> payloadSizeEstimator;
   // Singleton (w.r.t this instance) Iterator for this queue
   private final QueueIterator iterator;
   // indicates rate limit (number of records to cache). it is updated whenever there is a change
@@ -222,7 +222,7 @@ public class BoundedInMemoryQueue<I, O> implements Iterable<O> {
     isWriteDone.set(true);
   }
 
-  private void throwExceptionIfFailed() {
+  protected void throwExceptionIfFailed() {
     if (this.hasFailed.get() != null) {
       throw new HoodieException("operation has failed", this.hasFailed.get());
     }
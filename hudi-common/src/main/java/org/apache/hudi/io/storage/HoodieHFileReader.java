@@ -28,6 +28,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.apache.avro.Schema;
 import org.apache.avro.generic.IndexedRecord;
@@ -62,6 +63,8 @@ public class HoodieHFileReader<R extends IndexedRecord> implements HoodieFileRea
   public static final String KEY_BLOOM_FILTER_TYPE_CODE = "bloomFilterTypeCode";
   public static final String KEY_MIN_RECORD = "minRecordKey";
   public static final String KEY_MAX_RECORD = "maxRecordKey";
+  // Key lookups seek per key only when the file holds at least this many records per looked up key
+  private static final int MIN_RECORDS_PER_KEY_TO_SEEK = 8;
 
   public HoodieHFileReader(Configuration configuration, Path path, CacheConfig cacheConfig) throws IOException {
     this.conf = configuration;
@@ -156,6 +159,38 @@ public class HoodieHFileReader<R extends IndexedRecord> implements HoodieFileRea
     }
   }
 
+  /**
+   * Reads the records with the given keys. Only the values of matching cells are decoded: small key sets are looked up
+   * with one seek per key in key order, larger ones in a single pass comparing the row key of every cell.
+   */
+  public List<Pair<String, R>> readRecordsByKeys(Set<String> keys, Schema writerSchema, Schema readerSchema) {
+    List<Pair<String, R>> recordList = new LinkedList<>();
+    if (keys.isEmpty()) {
+      return recordList;
+    }
+    try {
+      HFileScanner scanner = reader.getScanner(false, false);
+      if ((long) keys.size() * MIN_RECORDS_PER_KEY_TO_SEEK <= reader.getEntries()) {
+        for (String key : new TreeSet<>(keys)) {
+          if (scanner.seekTo(new KeyValue(key.getBytes(), null, null, null)) == 0) {
+            recordList.add(new Pair<>(key, getRecordFromCell(scanner.getKeyValue(), writerSchema, readerSchema)));
+          }
+        }
+      } else if (scanner.seekTo()) {
+        do {
+          Cell c = scanner.getKeyValue();
+          String key = new String(c.getRowArray(), c.getRowOffset(), c.getRowLength());
+          if (keys.contains(key)) {
+            recordList.add(new Pair<>(key, getRecordFromCell(c, writerSchema, readerSchema)));
+          }
+        } while (scanner.next());
+      }
+      return recordList;
+    } catch (IOException e) {
+      throw new HoodieException("Error reading records by key from hfile " + path, e);
+    }
+  }
+
   public List<Pair<String, R>> readAllRecords() throws IOException {
     Schema schema = new Schema.Parser().parse(new String(reader.loadFileInfo().get(KEY_SCHEMA.getBytes())));
     return readAllRecords(schema, schema);
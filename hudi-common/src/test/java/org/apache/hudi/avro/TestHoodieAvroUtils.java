@@ -29,12 +29,15 @@ import org.codehaus.jackson.node.NullNode;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -197,4 +200,42 @@ public class TestHoodieAvroUtils {
     //evolvedField5.defaultVal() returns null.
     assertNull(rec1.get("evolved_field1"));
   }
+
+  @Test
+  public void testRewriterIsSharedAcrossEqualSchemas() {
+    Schema schema = new Schema.Parser().parse(EXAMPLE_SCHEMA);
+    Schema evolvedSchema = new Schema.Parser().parse(EVOLVED_SCHEMA);
+    HoodieAvroRecordRewriter rewriter = HoodieAvroRecordRewriter.of(schema, evolvedSchema);
+    assertSame(rewriter, HoodieAvroRecordRewriter.of(new Schema.Parser().parse(EXAMPLE_SCHEMA),
+        new Schema.Parser().parse(EVOLVED_SCHEMA)));
+    assertNotSame(rewriter, HoodieAvroRecordRewriter.withOnlyNewSchemaFields(schema, evolvedSchema));
+  }
+
+  @Test
+  public void testRewriteWithoutValidation() {
+    GenericRecord rec = new GenericData.Record(new Schema.Parser().parse(EXAMPLE_SCHEMA));
+    rec.put("_row_key", "key1");
+    rec.put("non_pii_col", "val1");
+    rec.put("pii_col", "val2");
+    rec.put("timestamp", 3.5);
+    GenericRecord rec1 = HoodieAvroUtils.rewriteRecord(rec, new Schema.Parser().parse(SCHEMA_WITH_NON_NULLABLE_FIELD), false);
+    assertEquals("key1", rec1.get("_row_key"));
+    assertNull(rec1.get("non_nullable_field_wo_default"));
+  }
+
+  @Test
+  public void testComplexDefaultValuesAreNotShared() {
+    Schema schema = new Schema.Parser().parse("{\"type\": \"record\",\"name\": \"testrec\",\"fields\": [ "
+        + "{\"name\": \"key\", \"type\": \"string\"}]}");
+    Schema evolvedSchema = new Schema.Parser().parse("{\"type\": \"record\",\"name\": \"testrec1\",\"fields\": [ "
+        + "{\"name\": \"key\", \"type\": \"string\"},"
+        + "{\"name\": \"tags\", \"type\": {\"type\": \"array\", \"items\": \"string\"}, \"default\": []}]}");
+    GenericRecord rec = new GenericData.Record(schema);
+    rec.put("key", "val");
+
+    GenericRecord rec1 = HoodieAvroUtils.rewriteRecord(rec, evolvedSchema);
+    GenericRecord rec2 = HoodieAvroUtils.rewriteRecord(rec, evolvedSchema);
+    assertEquals(Collections.emptyList(), rec1.get("tags"));
+    assertNotSame(rec1.get("tags"), rec2.get("tags"));
+  }
 }
@@ -42,6 +42,8 @@ import org.apache.hudi.common.testutils.HoodieCommonTestHarness;
 import org.apache.hudi.common.testutils.HoodieTestUtils;
 import org.apache.hudi.common.testutils.SchemaTestUtil;
 import org.apache.hudi.common.testutils.minicluster.MiniClusterUtil;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.collection.ExternalSpillableMap.DiskMapType;
 import org.apache.hudi.exception.CorruptedLogFileException;
 
 import org.apache.avro.Schema;
@@ -836,6 +838,185 @@ public class TestHoodieLogFormat extends HoodieCommonTestHarness {
     assertEquals(200, readKeys.size(), "Stream collect should return all 200 records after rollback of delete");
   }
 
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  public void testAvroLogRecordReaderWithParallelScan(boolean readBlocksLazily)
+      throws IOException, URISyntaxException, InterruptedException {
+    Schema schema = HoodieAvroUtils.addMetadataFields(getSimpleSchema());
+    // Set a small threshold so that every block goes to a new log file
+    Writer writer =
+        HoodieLogFormat.newWriterBuilder().onParentPath(partitionPath).withFileExtension(HoodieLogFile.DELTA_EXTENSION)
+            .withSizeThreshold(1024).withFileId("test-fileid1").overBaseCommit("100").withFs(fs).build();
+    Map<HoodieLogBlock.HeaderMetadataType, String> header = new HashMap<>();
+    header.put(HoodieLogBlock.HeaderMetadataType.SCHEMA, schema.toString());
+
+    // Instants 100 to 109 each update the same 100 keys, more data blocks than a parallel scan deserializes ahead
+    List<IndexedRecord> records = SchemaTestUtil.generateHoodieTestRecords(0, 100);
+    List<String> recordKeys = records.stream()
+        .map(r -> ((GenericRecord) r).get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString())
+        .collect(Collectors.toList());
+    for (int instant = 100; instant <= 109; instant++) {
+      header.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, String.valueOf(instant));
+      List<IndexedRecord> updatedRecords = SchemaTestUtil.updateHoodieTestRecords(recordKeys,
+          SchemaTestUtil.generateHoodieTestRecords(0, 100), String.valueOf(instant));
+      writer = writer.appendBlock(getDataBlock(updatedRecords, header));
+    }
+
+    // Rollback instant 109
+    header.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, "110");
+    header.put(HoodieLogBlock.HeaderMetadataType.TARGET_INSTANT_TIME, "109");
+    header.put(HoodieLogBlock.HeaderMetadataType.COMMAND_BLOCK_TYPE,
+        String.valueOf(HoodieCommandBlock.HoodieCommandBlockTypeEnum.ROLLBACK_PREVIOUS_BLOCK.ordinal()));
+    writer = writer.appendBlock(new HoodieCommandBlock(header));
+    header.remove(HoodieLogBlock.HeaderMetadataType.TARGET_INSTANT_TIME);
+    header.remove(HoodieLogBlock.HeaderMetadataType.COMMAND_BLOCK_TYPE);
+
+    // Delete 10 keys
+    header.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, "111");
+    HoodieKey[] deletedKeys = records.subList(0, 10).stream()
+        .map(r -> new HoodieKey(((GenericRecord) r).get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString(),
+            ((GenericRecord) r).get(HoodieRecord.PARTITION_PATH_METADATA_FIELD).toString()))
+        .toArray(HoodieKey[]::new);
+    writer = writer.appendBlock(new HoodieDeleteBlock(deletedKeys, header));
+    writer.close();
+
+    List<String> allLogFiles =
+        FSUtils.getAllLogFiles(fs, partitionPath, "test-fileid1", HoodieLogFile.DELTA_EXTENSION, "100")
+            .map(s -> s.getPath().toString()).sorted().collect(Collectors.toList());
+    assertTrue(allLogFiles.size() > 1, "Blocks should be spread across log files");
+
+    HoodieMergedLogRecordScanner sequentialScanner = new HoodieMergedLogRecordScanner(fs, basePath, allLogFiles,
+        schema, "111", 10240L, readBlocksLazily, false, bufferSize, BASE_OUTPUT_PATH, DiskMapType.DISK_BASED, false, 1);
+    HoodieMergedLogRecordScanner parallelScanner = new HoodieMergedLogRecordScanner(fs, basePath, allLogFiles,
+        schema, "111", 10240L, readBlocksLazily, false, bufferSize, BASE_OUTPUT_PATH, DiskMapType.DISK_BASED, false, 4);
+
+    assertEquals(sequentialScanner.getTotalLogFiles(), parallelScanner.getTotalLogFiles());
+    assertEquals(sequentialScanner.getTotalLogBlocks(), parallelScanner.getTotalLogBlocks());
+    assertEquals(sequentialScanner.getTotalLogRecords(), parallelScanner.getTotalLogRecords());
+    assertEquals(1, parallelScanner.getTotalRollbacks());
+    assertEquals(900, parallelScanner.getTotalLogRecords(), "Rolled back block should not be merged");
+    assertEquals(100, parallelScanner.getNumMergedRecordsInLog());
+    for (String key : recordKeys) {
+      Option<IndexedRecord> expected = sequentialScanner.getRecords().get(key).getData().getInsertValue(schema);
+      Option<IndexedRecord> actual = parallelScanner.getRecords().get(key).getData().getInsertValue(schema);
+      assertEquals(expected.isPresent(), actual.isPresent());
+      if (actual.isPresent()) {
+        assertEquals("108", ((GenericRecord) actual.get()).get(HoodieRecord.COMMIT_TIME_METADATA_FIELD).toString());
+        assertEquals(expected.get(), actual.get());
+      }
+    }
+    assertEquals(10, recordKeys.stream().filter(key -> {
+      try {
+        return !parallelScanner.getRecords().get(key).getData().getInsertValue(schema).isPresent();
+      } catch (IOException io) {
+        throw new UncheckedIOException(io);
+      }
+    }).count(), "Deleted keys should have empty payloads");
+    sequentialScanner.close();
+    parallelScanner.close();
+  }
+
+  @ParameterizedTest
+  @EnumSource(names = { "AVRO_DATA_BLOCK", "HFILE_DATA_BLOCK" })
+  public void testReadDataBlockRecordsByKey(HoodieLogBlockType dataBlockType)
+      throws IOException, URISyntaxException, InterruptedException {
+    Writer writer =
+        HoodieLogFormat.newWriterBuilder().onParentPath(partitionPath).withFileExtension(HoodieLogFile.DELTA_EXTENSION)
+            .withFileId("test-fileid1").overBaseCommit("100").withFs(fs).build();
+    Schema schema = HoodieAvroUtils.addMetadataFields(getSimpleSchema());
+    List<IndexedRecord> records = SchemaTestUtil.generateHoodieTestRecords(0, 100);
+    Map<String, IndexedRecord> recordsByKey = records.stream().collect(Collectors.toMap(
+        r -> ((GenericRecord) r).get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString(), r -> r));
+    Map<HoodieLogBlock.HeaderMetadataType, String> header = new HashMap<>();
+    header.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, "100");
+    header.put(HoodieLogBlock.HeaderMetadataType.SCHEMA, schema.toString());
+    writer = writer.appendBlock(getDataBlock(dataBlockType, new ArrayList<>(records), header));
+    writer.close();
+
+    List<String> recordKeys = new ArrayList<>(recordsByKey.keySet());
+    // a few keys are looked up individually, many keys are matched in a single pass
+    for (int numKeys : new int[] {5, 50}) {
+      Set<String> keys = new HashSet<>(recordKeys.subList(0, numKeys));
+      keys.add("non-existent-key");
+
+      Reader reader = HoodieLogFormat.newReader(fs, writer.getLogFile(), schema);
+      HoodieDataBlock dataBlockRead = (HoodieDataBlock) reader.next();
+      List<IndexedRecord> filteredRecords = dataBlockRead.getRecords(keys);
+      assertEquals(numKeys, filteredRecords.size());
+      for (IndexedRecord record : filteredRecords) {
+        String key = ((GenericRecord) record).get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString();
+        assertTrue(keys.contains(key));
+        assertEquals(recordsByKey.get(key), record);
+      }
+      assertEquals(100, dataBlockRead.getRecords().size(), "Block should still be readable in full");
+      reader.close();
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  public void testAvroLogRecordReaderWithKeyFilter(boolean readBlocksLazily)
+      throws IOException, URISyntaxException, InterruptedException {
+    Schema schema = HoodieAvroUtils.addMetadataFields(getSimpleSchema());
+    Writer writer =
+        HoodieLogFormat.newWriterBuilder().onParentPath(partitionPath).withFileExtension(HoodieLogFile.DELTA_EXTENSION)
+            .withFileId("test-fileid1").overBaseCommit("100").withFs(fs).build();
+    Map<HoodieLogBlock.HeaderMetadataType, String> header = new HashMap<>();
+    header.put(HoodieLogBlock.HeaderMetadataType.SCHEMA, schema.toString());
+
+    List<IndexedRecord> records = SchemaTestUtil.generateHoodieTestRecords(0, 100);
+    List<String> recordKeys = records.stream()
+        .map(r -> ((GenericRecord) r).get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString())
+        .collect(Collectors.toList());
+    header.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, "100");
+    writer = writer.appendBlock(getDataBlock(new ArrayList<>(records), header));
+    header.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, "101");
+    writer = writer.appendBlock(getDataBlock(SchemaTestUtil.updateHoodieTestRecords(recordKeys,
+        SchemaTestUtil.generateHoodieTestRecords(0, 100), "101"), header));
+
+    // Delete the first 10 keys
+    header.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, "102");
+    HoodieKey[] deletedKeys = records.subList(0, 10).stream()
+        .map(r -> new HoodieKey(((GenericRecord) r).get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString(),
+            ((GenericRecord) r).get(HoodieRecord.PARTITION_PATH_METADATA_FIELD).toString()))
+        .toArray(HoodieKey[]::new);
+    writer = writer.appendBlock(new HoodieDeleteBlock(deletedKeys, header));
+    writer.close();
+
+    List<String> allLogFiles =
+        FSUtils.getAllLogFiles(fs, partitionPath, "test-fileid1", HoodieLogFile.DELTA_EXTENSION, "100")
+            .map(s -> s.getPath().toString()).collect(Collectors.toList());
+    // 5 deleted and 15 updated keys
+    Set<String> keys = new HashSet<>(recordKeys.subList(5, 25));
+
+    HoodieMergedLogRecordScanner fullScanner = new HoodieMergedLogRecordScanner(fs, basePath, allLogFiles, schema,
+        "102", 10240L, readBlocksLazily, false, bufferSize, BASE_OUTPUT_PATH, DiskMapType.DISK_BASED, false, 1);
+    HoodieMergedLogRecordScanner filteredScanner = new HoodieMergedLogRecordScanner(fs, basePath, allLogFiles, schema,
+        "102", 10240L, readBlocksLazily, false, bufferSize, BASE_OUTPUT_PATH, DiskMapType.DISK_BASED, false, 1,
+        Option.of(keys));
+
+    assertEquals(40, filteredScanner.getTotalLogRecords(), "Only records of the filtered keys should be read");
+    assertEquals(20, filteredScanner.getNumMergedRecordsInLog());
+    assertEquals(keys, filteredScanner.getRecords().keySet());
+    for (String key : keys) {
+      Option<IndexedRecord> expected = fullScanner.getRecords().get(key).getData().getInsertValue(schema);
+      Option<IndexedRecord> actual = filteredScanner.getRecords().get(key).getData().getInsertValue(schema);
+      assertEquals(expected.isPresent(), actual.isPresent());
+      if (actual.isPresent()) {
+        assertEquals(expected.get(), actual.get());
+      }
+    }
+    assertEquals(5, keys.stream().filter(key -> {
+      try {
+        return !filteredScanner.getRecords().get(key).getData().getInsertValue(schema).isPresent();
+      } catch (IOException io) {
+        throw new UncheckedIOException(io);
+      }
+    }).count(), "Deleted keys should have empty payloads");
+    fullScanner.close();
+    filteredScanner.close();
+  }
+
   @ParameterizedTest
   @ValueSource(booleans = {true, false})
   public void testAvroLogRecordReaderWithFailedRollbacks(boolean readBlocksLazily)
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.table.timeline.dto;
+
+import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.model.BaseFile;
+import org.apache.hudi.common.model.CompactionOperation;
+import org.apache.hudi.common.model.FileSlice;
+import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.model.HoodieLogFile;
+import org.apache.hudi.common.table.timeline.HoodieDefaultTimeline;
+import org.apache.hudi.common.table.timeline.HoodieInstant;
+import org.apache.hudi.common.table.timeline.HoodieInstant.State;
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.util.Option;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.permission.FsPermission;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link AvroDTOCodec}.
+ */
+public class TestAvroDTOCodec {
+
+  private static final String PARTITION = "2016/05/01";
+  private static final String WRITE_TOKEN = "1-0-1";
+
+  @Test
+  public void testFileSlicesRoundTrip() throws IOException {
+    // enough slices to span several avro array blocks
+    List<FileSlice> slices = IntStream.range(0, 2500).mapToObj(this::createFileSlice).collect(Collectors.toList());
+    List<FileSliceDTO> dtos = slices.stream().map(FileSliceDTO::fromFileSlice).collect(Collectors.toList());
+    assertTrue(AvroDTOCodec.canEncode(dtos));
+
+    List<FileSlice> decoded = AvroDTOCodec.decodeList(encode(dtos), FileSliceDTO.class).stream()
+        .map(FileSliceDTO::toFileSlice).collect(Collectors.toList());
+    assertEquals(slices, decoded);
+
+    HoodieBaseFile baseFile = decoded.get(1).getBaseFile().get();
+    assertEquals(100L, baseFile.getFileSize());
+    assertEquals(1000L, baseFile.getFileStatus().getModificationTime());
+    assertEquals("owner", baseFile.getFileStatus().getOwner());
+    assertEquals(new FsPermission((short) 0644), baseFile.getFileStatus().getPermission());
+    assertEquals("/tmp/bootstrap/file-1.parquet", baseFile.getBootstrapBaseFile().get().getPath());
+    // slices without a base file stay without one
+    assertFalse(decoded.get(0).getBaseFile().isPresent());
+  }
+
+  @Test
+  public void testTimelineRoundTrip() throws IOException {
+    HoodieTimeline timeline = new HoodieDefaultTimeline(Arrays.asList(
+        new HoodieInstant(State.COMPLETED, HoodieTimeline.COMMIT_ACTION, "001"),
+        new HoodieInstant(State.REQUESTED, HoodieTimeline.COMPACTION_ACTION, "002")).stream(),
+        instant -> Option.empty());
+    TimelineDTO dto = TimelineDTO.fromTimeline(timeline);
+    assertTrue(AvroDTOCodec.canEncode(dto));
+
+    TimelineDTO decoded = AvroDTOCodec.decodeTimeline(encode(dto));
+    assertEquals(timeline.getInstants().collect(Collectors.toList()),
+        decoded.instants.stream().map(InstantDTO::toInstant).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testCanEncode() throws IOException {
+    assertTrue(AvroDTOCodec.canEncode(Collections.emptyList()));
+    assertTrue(AvroDTOCodec.decodeList(encode(Collections.emptyList()), BaseFileDTO.class).isEmpty());
+    // responses without an avro form go out as JSON
+    assertFalse(AvroDTOCodec.canEncode(true));
+    CompactionOperation op = new CompactionOperation("file-1", PARTITION, "001", Option.empty(),
+        Collections.emptyList(), Option.empty(), Option.empty(), Collections.emptyMap());
+    assertFalse(AvroDTOCodec.canEncode(Collections.singletonList(CompactionOpDTO.fromCompactionOperation("002", op))));
+  }
+
+  private FileSlice createFileSlice(int i) {
+    String fileId = "file-" + i;
+    FileSlice slice = new FileSlice(PARTITION, "001", fileId);
+    if (i % 2 == 1) {
+      Path path = new Path("/tmp/table/" + PARTITION, FSUtils.makeDataFileName("001", WRITE_TOKEN, fileId));
+      FileStatus status = new FileStatus(100L, false, 3, 128 * 1024 * 1024L, 1000L, 2000L,
+          new FsPermission((short) 0644), "owner", "group", path);
+      slice.setBaseFile(new HoodieBaseFile(status, new BaseFile("/tmp/bootstrap/" + fileId + ".parquet")));
+    }
+    for (int version = 1; version <= 2; version++) {
+      slice.addLogFile(new HoodieLogFile(new Path("/tmp/table/" + PARTITION,
+          FSUtils.makeLogFileName(fileId, HoodieLogFile.DELTA_EXTENSION, "001", version, WRITE_TOKEN))));
+    }
+    return slice;
+  }
+
+  private static ByteArrayInputStream encode(Object response) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    AvroDTOCodec.encode(response, out);
+    return new ByteArrayInputStream(out.toByteArray());
+  }
+}
@@ -34,6 +34,7 @@ import org.apache.hudi.common.model.HoodieBaseFile;
 import org.apache.hudi.common.model.HoodieFileGroup;
 import org.apache.hudi.common.model.HoodieFileGroupId;
 import org.apache.hudi.common.model.HoodieLogFile;
+import org.apache.hudi.common.model.HoodiePartitionMetadata;
 import org.apache.hudi.common.model.HoodieTableType;
 import org.apache.hudi.common.table.timeline.HoodieActiveTimeline;
 import org.apache.hudi.common.table.timeline.HoodieInstant;
@@ -66,11 +67,15 @@ import java.util.ArrayList;
 import java.util.Arrays;
 
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -1262,6 +1267,144 @@ public class TestHoodieTableFileSystemView extends HoodieCommonTestHarness {
     assertTrue(fileIdsInCompaction.contains(fileId));
   }
 
+  @Test
+  public void testConcurrentPartitionLoadingAndSync() throws Exception {
+    int numPartitions = 16;
+    List<String> partitionPaths = new ArrayList<>();
+    Map<String, String> partitionToFileId = new HashMap<>();
+    for (int i = 0; i < numPartitions; i++) {
+      String partitionPath = String.format("2016/05/%02d", i + 1);
+      String fileId = UUID.randomUUID().toString();
+      new File(basePath + "/" + partitionPath).mkdirs();
+      new File(basePath + "/" + partitionPath + "/" + FSUtils.makeDataFileName("1", TEST_WRITE_TOKEN, fileId))
+          .createNewFile();
+      partitionPaths.add(partitionPath);
+      partitionToFileId.put(partitionPath, fileId);
+    }
+    saveAsComplete(metaClient.getActiveTimeline(), new HoodieInstant(true, HoodieTimeline.COMMIT_ACTION, "1"),
+        Option.empty());
+    refreshFsView();
+
+    // partitions are loaded and read from several threads while commits keep getting synced into the view
+    int numCommits = 5;
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Long>> futures = new ArrayList<>();
+      for (int i = 0; i < 4 * numPartitions; i++) {
+        String partitionPath = partitionPaths.get(i % numPartitions);
+        futures.add(executor.submit(() -> roView.getLatestBaseFiles(partitionPath).count()));
+      }
+      for (int i = 2; i <= numCommits + 1; i++) {
+        String commitTime = String.valueOf(i);
+        for (String partitionPath : partitionPaths) {
+          new File(basePath + "/" + partitionPath + "/"
+              + FSUtils.makeDataFileName(commitTime, TEST_WRITE_TOKEN, partitionToFileId.get(partitionPath))).createNewFile();
+        }
+        saveAsComplete(metaClient.getActiveTimeline(), new HoodieInstant(true, HoodieTimeline.COMMIT_ACTION, commitTime),
+            Option.empty());
+        fsView.sync();
+      }
+      // every version of a file group replaces the previous one
+      for (Future<Long> future : futures) {
+        assertEquals(1L, future.get().longValue());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    String lastCommitTime = String.valueOf(numCommits + 1);
+    partitionPaths.forEach(partitionPath -> {
+      List<HoodieBaseFile> baseFiles = roView.getLatestBaseFiles(partitionPath).collect(Collectors.toList());
+      assertEquals(1, baseFiles.size());
+      assertEquals(lastCommitTime, baseFiles.get(0).getCommitTime());
+    });
+  }
+
+  @Test
+  public void testLatestFilesForPartitions() throws Exception {
+    int numPartitions = 20;
+    List<String> partitionPaths = new ArrayList<>();
+    Map<String, String> partitionToFileId = new HashMap<>();
+    for (int i = 0; i < numPartitions; i++) {
+      String partitionPath = String.format("2016/06/%02d", i + 1);
+      String fileId = UUID.randomUUID().toString();
+      new File(basePath + "/" + partitionPath).mkdirs();
+      new File(basePath + "/" + partitionPath + "/" + FSUtils.makeDataFileName("1", TEST_WRITE_TOKEN, fileId))
+          .createNewFile();
+      // a newer version of the file in every other partition
+      if (i % 2 == 0) {
+        new File(basePath + "/" + partitionPath + "/" + FSUtils.makeDataFileName("2", TEST_WRITE_TOKEN, fileId))
+            .createNewFile();
+      }
+      partitionPaths.add(partitionPath);
+      partitionToFileId.put(partitionPath, fileId);
+    }
+    // partitions without files come back empty
+    partitionPaths.add("2016/07/01");
+    saveAsComplete(metaClient.getActiveTimeline(), new HoodieInstant(true, HoodieTimeline.COMMIT_ACTION, "1"),
+        Option.empty());
+    saveAsComplete(metaClient.getActiveTimeline(), new HoodieInstant(true, HoodieTimeline.COMMIT_ACTION, "2"),
+        Option.empty());
+    refreshFsView();
+
+    List<Pair<String, HoodieBaseFile>> baseFiles =
+        roView.getLatestBaseFilesBeforeOrOnForPartitions(partitionPaths, "1").collect(Collectors.toList());
+    assertEquals(numPartitions, baseFiles.size());
+    baseFiles.forEach(partitionAndFile -> {
+      assertEquals(partitionToFileId.get(partitionAndFile.getKey()), partitionAndFile.getValue().getFileId());
+      assertEquals("1", partitionAndFile.getValue().getCommitTime());
+    });
+
+    Map<String, List<FileSlice>> partitionToFileSlices =
+        rtView.getLatestFileSlicesBeforeOrOnForPartitions(partitionPaths, "2", true)
+            .collect(Collectors.groupingBy(FileSlice::getPartitionPath));
+    assertEquals(numPartitions, partitionToFileSlices.size());
+    for (int i = 0; i < numPartitions; i++) {
+      List<FileSlice> fileSlices = partitionToFileSlices.get(partitionPaths.get(i));
+      assertEquals(1, fileSlices.size());
+      assertEquals(partitionToFileId.get(partitionPaths.get(i)), fileSlices.get(0).getFileId());
+      assertEquals(i % 2 == 0 ? "2" : "1", fileSlices.get(0).getBaseInstantTime());
+      // the same as fetching the partition on its own
+      assertEquals(rtView.getLatestFileSlicesBeforeOrOn(partitionPaths.get(i), "2", true)
+          .collect(Collectors.toList()), fileSlices);
+    }
+  }
+
+  @Test
+  public void testLoadAllPartitions() throws Exception {
+    List<String> partitionPaths = new ArrayList<>();
+    Map<String, String> partitionToFileId = new HashMap<>();
+    for (int i = 0; i < 10; i++) {
+      String partitionPath = String.format("%04d/%02d/01", 2016 + i % 3, i + 1);
+      String fileId = UUID.randomUUID().toString();
+      new HoodiePartitionMetadata(metaClient.getFs(), "1", new Path(basePath), new Path(basePath, partitionPath))
+          .trySave(0);
+      new File(basePath + "/" + partitionPath + "/" + FSUtils.makeDataFileName("1", TEST_WRITE_TOKEN, fileId))
+          .createNewFile();
+      partitionPaths.add(partitionPath);
+      partitionToFileId.put(partitionPath, fileId);
+    }
+    // folders without the partition metafile are not partitions
+    new File(basePath + "/2016/13/01").mkdirs();
+    new File(basePath + "/2016/13/01/" + FSUtils.makeDataFileName("1", TEST_WRITE_TOKEN, UUID.randomUUID().toString()))
+        .createNewFile();
+    saveAsComplete(metaClient.getActiveTimeline(), new HoodieInstant(true, HoodieTimeline.COMMIT_ACTION, "1"),
+        Option.empty());
+    refreshFsView();
+
+    ((AbstractTableFileSystemView) fsView).loadAllPartitions(4);
+    // the files are served from the loaded view from now on
+    for (String partitionPath : partitionPaths) {
+      new File(basePath + "/" + partitionPath + "/"
+          + FSUtils.makeDataFileName("1", TEST_WRITE_TOKEN, partitionToFileId.get(partitionPath))).delete();
+    }
+    for (String partitionPath : partitionPaths) {
+      List<HoodieBaseFile> baseFiles = roView.getLatestBaseFiles(partitionPath).collect(Collectors.toList());
+      assertEquals(1, baseFiles.size());
+      assertEquals(partitionToFileId.get(partitionPath), baseFiles.get(0).getFileId());
+    }
+    assertEquals(1, roView.getLatestBaseFiles("2016/13/01").count());
+  }
+
   private static void saveAsComplete(HoodieActiveTimeline timeline, HoodieInstant inflight, Option<byte[]> data) {
     if (inflight.getAction().equals(HoodieTimeline.COMPACTION_ACTION)) {
       timeline.transitionCompactionInflightToComplete(inflight, data);
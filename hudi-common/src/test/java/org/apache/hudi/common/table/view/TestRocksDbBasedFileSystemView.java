@@ -18,20 +18,86 @@
 
 package org.apache.hudi.common.table.view;
 
+import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.model.HoodieCommitMetadata;
+import org.apache.hudi.common.model.HoodieWriteStat;
+import org.apache.hudi.common.table.timeline.HoodieInstant;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.util.Option;
 
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
  * Tests RocksDB based file system view {@link RocksDbBasedFileSystemView}.
  */
 public class TestRocksDbBasedFileSystemView extends TestHoodieTableFileSystemView {
 
+  private static final String WRITE_TOKEN = "1-0-1";
+
   @Override
   protected SyncableFileSystemView getFileSystemView(HoodieTimeline timeline) throws IOException {
     String subdirPath = Files.createTempDirectory(tempDir, null).toAbsolutePath().toString();
     return new RocksDbBasedFileSystemView(metaClient, timeline,
         FileSystemViewStorageConfig.newBuilder().withRocksDBPath(subdirPath).build());
   }
+
+  @Test
+  public void testResumeFromPersistedView() throws IOException {
+    String partitionPath = "2016/05/01";
+    new File(basePath + "/" + partitionPath).mkdirs();
+    FileSystemViewStorageConfig config = FileSystemViewStorageConfig.newBuilder()
+        .withRocksDBPath(Files.createTempDirectory(tempDir, null).toAbsolutePath().toString())
+        .withIncrementalTimelineSync(true).withRocksDbPersist(true).build();
+
+    File file1 = addCommit(partitionPath, "1", "file1");
+    RocksDbBasedFileSystemView view = new RocksDbBasedFileSystemView(metaClient, getCompletedTimeline(), config);
+    assertEquals(1, view.getLatestBaseFiles(partitionPath).count());
+    view.close();
+
+    // the file is only known to the stored view from now on, the new commit is synced incrementally on restart
+    file1.delete();
+    addCommit(partitionPath, "2", "file2");
+    view = new RocksDbBasedFileSystemView(metaClient, getCompletedTimeline(), config);
+    assertEquals("2", view.getLastInstant().get().getTimestamp());
+    Set<String> fileIds = view.getLatestBaseFiles(partitionPath).map(HoodieBaseFile::getFileId).collect(Collectors.toSet());
+    assertEquals(2, fileIds.size());
+    view.close();
+
+    // a view restarted in the middle of a sync does not resume
+    view = new RocksDbBasedFileSystemView(metaClient, getCompletedTimeline(), config);
+    view.deleteCheckpoint();
+    view.close();
+    view = new RocksDbBasedFileSystemView(metaClient, getCompletedTimeline(), config);
+    assertEquals(1, view.getLatestBaseFiles(partitionPath).count());
+    view.close();
+  }
+
+  private HoodieTimeline getCompletedTimeline() {
+    return metaClient.reloadActiveTimeline().filterCompletedAndCompactionInstants();
+  }
+
+  private File addCommit(String partitionPath, String instantTime, String fileId) throws IOException {
+    File file = new File(basePath + "/" + partitionPath + "/" + FSUtils.makeDataFileName(instantTime, WRITE_TOKEN, fileId));
+    file.createNewFile();
+    HoodieWriteStat writeStat = new HoodieWriteStat();
+    writeStat.setFileId(fileId);
+    writeStat.setPath(partitionPath + "/" + file.getName());
+    HoodieCommitMetadata metadata = new HoodieCommitMetadata();
+    metadata.addWriteStat(partitionPath, writeStat);
+    HoodieInstant inflight = new HoodieInstant(true, HoodieTimeline.COMMIT_ACTION, instantTime);
+    metaClient.getActiveTimeline().createNewInstant(inflight);
+    metaClient.getActiveTimeline().saveAsComplete(inflight,
+        Option.of(metadata.toJsonString().getBytes(StandardCharsets.UTF_8)));
+    return file;
+  }
 }
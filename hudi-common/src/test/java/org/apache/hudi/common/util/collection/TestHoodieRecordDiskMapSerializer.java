@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util.collection;
+
+import org.apache.hudi.avro.HoodieAvroUtils;
+import org.apache.hudi.common.model.EmptyHoodieRecordPayload;
+import org.apache.hudi.common.model.HoodieAvroPayload;
+import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieRecordLocation;
+import org.apache.hudi.common.model.HoodieRecordPayload;
+import org.apache.hudi.common.model.OverwriteWithLatestAvroPayload;
+import org.apache.hudi.common.testutils.HoodieCommonTestHarness;
+import org.apache.hudi.common.testutils.SchemaTestUtil;
+import org.apache.hudi.common.testutils.SpillableMapTestUtils;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.SerializationUtils;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.util.Utf8;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.apache.hudi.common.testutils.SchemaTestUtil.getSimpleSchema;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link HoodieRecordDiskMapSerializer}.
+ */
+public class TestHoodieRecordDiskMapSerializer extends HoodieCommonTestHarness {
+
+  private Schema schema;
+  private GenericRecord avroRecord;
+
+  @BeforeEach
+  public void setup() throws IOException, URISyntaxException {
+    initPath();
+    schema = HoodieAvroUtils.addMetadataFields(getSimpleSchema());
+    avroRecord = (GenericRecord) SchemaTestUtil.generateHoodieTestRecords(0, 1).get(0);
+  }
+
+  @Test
+  public void testRoundTripWithOrderingValues() throws IOException {
+    HoodieRecordDiskMapSerializer<OverwriteWithLatestAvroPayload> serializer =
+        new HoodieRecordDiskMapSerializer<>(OverwriteWithLatestAvroPayload.class.getName());
+    List<Comparable> orderingVals = Arrays.asList("a", new Utf8("b"), 1, 2L, 3.0f, 4.0d, true, new Key(5));
+    for (Comparable orderingVal : orderingVals) {
+      HoodieRecord<OverwriteWithLatestAvroPayload> record = newRecord(new OverwriteWithLatestAvroPayload(avroRecord,
+          orderingVal));
+      HoodieRecord<OverwriteWithLatestAvroPayload> copy = serializer.deserialize(ByteBuffer.wrap(
+          serializer.serialize(record)));
+      assertEquals(record.getKey(), copy.getKey());
+      assertEquals(orderingVal, copy.getData().getOrderingVal());
+      assertArrayEquals(record.getData().recordBytes, copy.getData().recordBytes);
+      assertEquals(avroRecord, copy.getData().getInsertValue(schema).get());
+    }
+
+    HoodieRecord<OverwriteWithLatestAvroPayload> record =
+        newRecord(new OverwriteWithLatestAvroPayload(Option.of(avroRecord)));
+    HoodieRecord<OverwriteWithLatestAvroPayload> copy =
+        serializer.deserialize(ByteBuffer.wrap(serializer.serialize(record)));
+    assertSame(OverwriteWithLatestAvroPayload.NATURAL_ORDER, copy.getData().getOrderingVal());
+  }
+
+  @Test
+  public void testRoundTripKeepsLocations() throws IOException {
+    HoodieRecordDiskMapSerializer<HoodieAvroPayload> serializer =
+        new HoodieRecordDiskMapSerializer<>(HoodieAvroPayload.class.getName());
+    HoodieRecord<HoodieAvroPayload> record = newRecord(new HoodieAvroPayload(Option.of(avroRecord)));
+    record.setCurrentLocation(new HoodieRecordLocation("100", "file-1"));
+    record.setNewLocation(new HoodieRecordLocation("101", "file-1"));
+
+    HoodieRecord<HoodieAvroPayload> copy = serializer.deserialize(ByteBuffer.wrap(serializer.serialize(record)));
+    assertEquals(record.getKey(), copy.getKey());
+    assertEquals(record.getCurrentLocation(), copy.getCurrentLocation());
+    assertEquals(record.getNewLocation().get(), copy.getNewLocation().get());
+    assertEquals(avroRecord, copy.getData().getInsertValue(schema).get());
+
+    HoodieRecord<HoodieAvroPayload> noLocation = newRecord(new HoodieAvroPayload(Option.empty()));
+    copy = serializer.deserialize(ByteBuffer.wrap(serializer.serialize(noLocation)));
+    assertFalse(copy.isCurrentLocationKnown());
+    assertFalse(copy.getNewLocation().isPresent());
+    assertFalse(copy.getData().getInsertValue(schema).isPresent());
+  }
+
+  @Test
+  public void testOtherPayloadsFallBackToKryo() throws IOException {
+    HoodieRecordDiskMapSerializer serializer =
+        new HoodieRecordDiskMapSerializer<>(OverwriteWithLatestAvroPayload.class.getName());
+    HoodieRecord record = newRecord(new EmptyHoodieRecordPayload());
+    HoodieRecord copy = serializer.deserialize(ByteBuffer.wrap(serializer.serialize(record)));
+    assertEquals(record.getKey(), copy.getKey());
+    assertTrue(copy.getData() instanceof EmptyHoodieRecordPayload);
+  }
+
+  @Test
+  public void testSpillsSmallerThanKryo() throws IOException {
+    HoodieRecordDiskMapSerializer<OverwriteWithLatestAvroPayload> serializer =
+        new HoodieRecordDiskMapSerializer<>(OverwriteWithLatestAvroPayload.class.getName());
+    HoodieRecord<OverwriteWithLatestAvroPayload> record =
+        newRecord(new OverwriteWithLatestAvroPayload(avroRecord, 1L));
+    assertTrue(serializer.serialize(record).length < SerializationUtils.serialize(record).length);
+  }
+
+  @Test
+  public void testDiskMapsWithRecordSerializer() throws IOException, URISyntaxException {
+    List<IndexedRecord> iRecords = SchemaTestUtil.generateHoodieTestRecords(0, 100);
+    DiskMapSerializer<HoodieRecord<? extends HoodieRecordPayload>> serializer =
+        (DiskMapSerializer) new HoodieRecordDiskMapSerializer<>(HoodieAvroPayload.class.getName());
+    List<DiskMap<String, HoodieRecord<? extends HoodieRecordPayload>>> maps =
+        Arrays.asList(new DiskBasedMap<>(basePath, serializer), new MemoryMappedDiskMap<>(basePath, serializer));
+    for (DiskMap<String, HoodieRecord<? extends HoodieRecordPayload>> records : maps) {
+      List<String> recordKeys = SpillableMapTestUtils.upsertRecords(iRecords, records);
+      for (int i = 0; i < recordKeys.size(); i++) {
+        HoodieRecord<? extends HoodieRecordPayload> rec = records.get(recordKeys.get(i));
+        assertEquals(recordKeys.get(i), rec.getRecordKey());
+        assertEquals(SpillableMapTestUtils.DUMMY_FILE_ID, rec.getCurrentLocation().getFileId());
+        assertEquals(iRecords.get(i), rec.getData().getInsertValue(schema).get());
+      }
+      assertEquals(recordKeys.stream().sorted().collect(Collectors.toList()),
+          records.valueStream().map(HoodieRecord::getRecordKey).sorted().collect(Collectors.toList()));
+      records.close();
+    }
+  }
+
+  private <T extends HoodieRecordPayload> HoodieRecord<T> newRecord(T payload) {
+    return new HoodieRecord<>(new HoodieKey(avroRecord.get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString(),
+        avroRecord.get(HoodieRecord.PARTITION_PATH_METADATA_FIELD).toString()), payload);
+  }
+
+  /**
+   * Ordering value without a dedicated encoding.
+   */
+  private static class Key implements Comparable<Key> {
+    private final int id;
+
+    Key(int id) {
+      this.id = id;
+    }
+
+    @Override
+    public int compareTo(Key o) {
+      return Integer.compare(id, o.id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key && ((Key) o).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+      return id;
+    }
+  }
+}
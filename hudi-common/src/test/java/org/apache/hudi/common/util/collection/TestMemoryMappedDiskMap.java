@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.common.util.collection;
+
+import org.apache.hudi.avro.HoodieAvroUtils;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieRecordPayload;
+import org.apache.hudi.common.table.timeline.HoodieActiveTimeline;
+import org.apache.hudi.common.testutils.HoodieCommonTestHarness;
+import org.apache.hudi.common.testutils.SchemaTestUtil;
+import org.apache.hudi.common.testutils.SpillableMapTestUtils;
+import org.apache.hudi.common.util.DefaultSizeEstimator;
+import org.apache.hudi.common.util.HoodieRecordSizeEstimator;
+import org.apache.hudi.common.util.SerializationUtils;
+import org.apache.hudi.common.util.collection.ExternalSpillableMap.DiskMapType;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.IndexedRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.apache.hudi.common.testutils.SchemaTestUtil.getSimpleSchema;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests memory mapped disk map {@link MemoryMappedDiskMap}.
+ */
+public class TestMemoryMappedDiskMap extends HoodieCommonTestHarness {
+
+  @BeforeEach
+  public void setup() {
+    initPath();
+  }
+
+  @Test
+  public void testSimpleInsertAndGet() throws IOException, URISyntaxException {
+    Schema schema = HoodieAvroUtils.addMetadataFields(getSimpleSchema());
+    MemoryMappedDiskMap<String, HoodieRecord<? extends HoodieRecordPayload>> records =
+        new MemoryMappedDiskMap<>(basePath);
+    List<IndexedRecord> iRecords = SchemaTestUtil.generateHoodieTestRecords(0, 100);
+    List<String> recordKeys = SpillableMapTestUtils.upsertRecords(iRecords, records);
+
+    assertTrue(records.sizeOfFileOnDiskInBytes() > 0);
+    assertEquals(100, records.size());
+    for (int i = 0; i < recordKeys.size(); i++) {
+      HoodieRecord<? extends HoodieRecordPayload> rec = records.get(recordKeys.get(i));
+      assertEquals(recordKeys.get(i), rec.getRecordKey());
+      GenericRecord value = (GenericRecord) rec.getData().getInsertValue(schema).get();
+      assertEquals(((GenericRecord) iRecords.get(i)).get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString(),
+          value.get(HoodieRecord.RECORD_KEY_METADATA_FIELD).toString());
+    }
+    assertNull(records.get("non-existent-key"));
+    records.close();
+  }
+
+  @Test
+  public void testValueBufferIsReadOnlyView() throws IOException, URISyntaxException {
+    MemoryMappedDiskMap<String, HoodieRecord<? extends HoodieRecordPayload>> records =
+        new MemoryMappedDiskMap<>(basePath);
+    List<String> recordKeys =
+        SpillableMapTestUtils.upsertRecords(SchemaTestUtil.generateHoodieTestRecords(0, 10), records);
+
+    ByteBuffer buffer = records.getValueBuffer(recordKeys.get(0));
+    assertTrue(buffer.isReadOnly());
+    HoodieRecord<? extends HoodieRecordPayload> rec = SerializationUtils.deserialize(buffer);
+    assertEquals(recordKeys.get(0), rec.getRecordKey());
+    // deserializing must not consume the handed out buffer
+    assertEquals(0, buffer.position());
+    records.close();
+  }
+
+  @Test
+  public void testUpsertAndSegmentRollover() throws IOException, URISyntaxException {
+    Schema schema = HoodieAvroUtils.addMetadataFields(getSimpleSchema());
+    // tiny segments so that almost every entry rolls over into a new segment
+    MemoryMappedDiskMap<String, HoodieRecord<? extends HoodieRecordPayload>> records =
+        new MemoryMappedDiskMap<>(basePath, 1024);
+    List<String> recordKeys =
+        SpillableMapTestUtils.upsertRecords(SchemaTestUtil.generateHoodieTestRecords(0, 100), records);
+    long sizeAfterInserts = records.sizeOfFileOnDiskInBytes();
+
+    List<IndexedRecord> updatedRecords = SchemaTestUtil.updateHoodieTestRecords(recordKeys,
+        SchemaTestUtil.generateHoodieTestRecords(0, 100), HoodieActiveTimeline.createNewInstantTime());
+    String newCommitTime =
+        ((GenericRecord) updatedRecords.get(0)).get(HoodieRecord.COMMIT_TIME_METADATA_FIELD).toString();
+    SpillableMapTestUtils.upsertRecords(updatedRecords, records);
+
+    // upserts are appended, older values stay on disk until close
+    assertTrue(records.sizeOfFileOnDiskInBytes() > sizeAfterInserts);
+    assertEquals(100, records.size());
+    Iterator<HoodieRecord<? extends HoodieRecordPayload>> itr = records.iterator();
+    int count = 0;
+    while (itr.hasNext()) {
+      HoodieRecord<? extends HoodieRecordPayload> rec = itr.next();
+      assertTrue(recordKeys.contains(rec.getRecordKey()));
+      GenericRecord value = (GenericRecord) rec.getData().getInsertValue(schema).get();
+      assertEquals(newCommitTime, value.get(HoodieRecord.COMMIT_TIME_METADATA_FIELD).toString());
+      count++;
+    }
+    assertEquals(100, count);
+    records.close();
+  }
+
+  @Test
+  public void testCloseRemovesSegments() throws IOException, URISyntaxException {
+    MemoryMappedDiskMap<String, HoodieRecord<? extends HoodieRecordPayload>> records =
+        new MemoryMappedDiskMap<>(basePath, 4096);
+    List<String> recordKeys =
+        SpillableMapTestUtils.upsertRecords(SchemaTestUtil.generateHoodieTestRecords(0, 100), records);
+    File[] segmentDirs = new File(basePath).listFiles((dir, name) -> name.startsWith("mmap-"));
+    assertEquals(1, segmentDirs.length);
+    assertTrue(segmentDirs[0].list().length > 1);
+
+    records.close();
+    assertFalse(segmentDirs[0].exists());
+    assertTrue(records.isEmpty());
+    assertThrows(IllegalStateException.class, () -> records.put(recordKeys.get(0), null));
+    // closing again is a no-op
+    records.close();
+  }
+
+  @Test
+  public void testExternalSpillableMapWithMemoryMappedDiskMap() throws IOException, URISyntaxException {
+    Schema schema = HoodieAvroUtils.addMetadataFields(getSimpleSchema());
+    ExternalSpillableMap<String, HoodieRecord<? extends HoodieRecordPayload>> records =
+        new ExternalSpillableMap<>(16L, basePath, new DefaultSizeEstimator(), new HoodieRecordSizeEstimator(schema),
+            DiskMapType.MEMORY_MAPPED); // 16B
+    List<String> recordKeys =
+        SpillableMapTestUtils.upsertRecords(SchemaTestUtil.generateHoodieTestRecords(0, 100), records);
+
+    assertTrue(records.getDiskBasedMapNumEntries() > 0);
+    assertTrue(records.getSizeOfFileOnDiskInBytes() > 0);
+    recordKeys.forEach(key -> assertEquals(key, records.get(key).getRecordKey()));
+
+    records.close();
+    assertEquals(0, records.size());
+    assertEquals(0, new File(basePath).listFiles((dir, name) -> name.startsWith("mmap-")).length);
+  }
+}
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.hadoop;
+
+import org.apache.hudi.common.config.SerializableConfiguration;
+import org.apache.hudi.common.table.view.FileSystemViewManager;
+import org.apache.hudi.common.table.view.FileSystemViewStorageConfig;
+import org.apache.hudi.common.table.view.SyncableFileSystemView;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * JVM-wide cache of the file system views of the tables queried through the input formats, so that the queries of a
+ * long running process like HiveServer2 do not each list the partitions of the tables they read.
+ * <p>
+ * The views are kept by base path, at most {@link #MAX_TABLES_PROP} of them, and dropped once they were not used for
+ * {@link #TTL_MS_PROP}. A view older than {@link #REFRESH_INTERVAL_MS_PROP} is synced to the latest instant of its
+ * table before it is handed out, incrementally unless turned off with
+ * {@link FileSystemViewStorageConfig#FILESYSTEM_VIEW_INCREMENTAL_SYNC_MODE}. The views are built according to the
+ * hoodie.filesystem.view.* properties, which also allows serving them from a remote timeline server.
+ * <p>
+ * A query may still be using a view when it is evicted, so an evicted view is closed only once it has not been handed
+ * out for {@link #TTL_MS_PROP}.
+ * <p>
+ * The cache is created from the configuration of the first query that uses it.
+ */
+public class HoodieFileSystemViewCache {
+
+  private static final Logger LOG = LogManager.getLogger(HoodieFileSystemViewCache.class);
+
+  public static final String ENABLE_PROP = "hoodie.mr.view.cache.enable";
+  public static final String MAX_TABLES_PROP = "hoodie.mr.view.cache.max.tables";
+  public static final String TTL_MS_PROP = "hoodie.mr.view.cache.ttl.ms";
+  public static final String REFRESH_INTERVAL_MS_PROP = "hoodie.mr.view.cache.refresh.interval.ms";
+  public static final boolean DEFAULT_ENABLE = false;
+  public static final int DEFAULT_MAX_TABLES = 100;
+  // 30 minutes
+  public static final long DEFAULT_TTL_MS = 30 * 60 * 1000L;
+  // sync on every query
+  public static final long DEFAULT_REFRESH_INTERVAL_MS = 0L;
+
+  private static final String VIEW_PROPS_PREFIX = "hoodie.filesystem.view.";
+
+  private static HoodieFileSystemViewCache instance;
+
+  private final FileSystemViewManager viewManager;
+  private final int maxTables;
+  private final long ttlMs;
+  private final long refreshIntervalMs;
+  // cached tables by base path, in order of their last use
+  private final LinkedHashMap<String, CachedView> cachedViews = new LinkedHashMap<>(16, 0.75f, true);
+  // evicted views, closed once they were not used within the TTL
+  private final List<CachedView> evictedViews = new ArrayList<>();
+
+  HoodieFileSystemViewCache(Configuration conf) {
+    Properties viewProps = new Properties();
+    conf.getValByRegex("^" + VIEW_PROPS_PREFIX.replace(".", "\\.") + ".*").forEach(viewProps::setProperty);
+    if (!viewProps.containsKey(FileSystemViewStorageConfig.FILESYSTEM_VIEW_INCREMENTAL_SYNC_MODE)) {
+      viewProps.setProperty(FileSystemViewStorageConfig.FILESYSTEM_VIEW_INCREMENTAL_SYNC_MODE, "true");
+    }
+    this.viewManager = FileSystemViewManager.createViewManager(new SerializableConfiguration(conf),
+        FileSystemViewStorageConfig.newBuilder().fromProperties(viewProps).build());
+    this.maxTables = conf.getInt(MAX_TABLES_PROP, DEFAULT_MAX_TABLES);
+    this.ttlMs = conf.getLong(TTL_MS_PROP, DEFAULT_TTL_MS);
+    this.refreshIntervalMs = conf.getLong(REFRESH_INTERVAL_MS_PROP, DEFAULT_REFRESH_INTERVAL_MS);
+  }
+
+  public static boolean isEnabled(Configuration conf) {
+    return conf.getBoolean(ENABLE_PROP, DEFAULT_ENABLE);
+  }
+
+  public static synchronized HoodieFileSystemViewCache getInstance(Configuration conf) {
+    if (instance == null) {
+      LOG.info("Creating file system view cache");
+      instance = new HoodieFileSystemViewCache(conf);
+    }
+    return instance;
+  }
+
+  /**
+   * View of the table at the base path, synced to its latest instant unless it was synced within the refresh
+   * interval.
+   */
+  public SyncableFileSystemView getFileSystemView(String basePath) {
+    long now = System.currentTimeMillis();
+    CachedView cachedView;
+    synchronized (this) {
+      evict(now);
+      cachedView = cachedViews.get(basePath);
+      if (cachedView == null) {
+        cachedView = new CachedView(basePath, now);
+        cachedViews.put(basePath, cachedView);
+        evict(now);
+      }
+      cachedView.lastAccessTime = now;
+    }
+    synchronized (cachedView) {
+      if (cachedView.view == null) {
+        // a view just created is built from the latest instant already
+        cachedView.view = viewManager.createFileSystemView(basePath);
+      } else if (now - cachedView.lastSyncTime >= refreshIntervalMs) {
+        LOG.info("Syncing cached file system view of " + basePath);
+        cachedView.view.sync();
+        cachedView.lastSyncTime = System.currentTimeMillis();
+      }
+      return cachedView.view;
+    }
+  }
+
+  /**
+   * Base paths of the cached views.
+   */
+  synchronized Set<String> getBasePaths() {
+    return new HashSet<>(cachedViews.keySet());
+  }
+
+  /**
+   * Base paths of the evicted views which are not closed yet.
+   */
+  synchronized List<String> getEvictedBasePaths() {
+    List<String> basePaths = new ArrayList<>();
+    evictedViews.forEach(evictedView -> basePaths.add(evictedView.basePath));
+    return basePaths;
+  }
+
+  /**
+   * Drops the views which were not used within the TTL and the least recently used ones above the maximum number of
+   * tables, and closes the dropped views which were not used within the TTL.
+   */
+  private void evict(long now) {
+    Iterator<Map.Entry<String, CachedView>> iterator = cachedViews.entrySet().iterator();
+    while (iterator.hasNext()) {
+      CachedView cachedView = iterator.next().getValue();
+      if (cachedViews.size() > maxTables || now - cachedView.lastAccessTime > ttlMs) {
+        LOG.info("Evicting cached file system view of " + cachedView.basePath);
+        evictedViews.add(cachedView);
+        iterator.remove();
+      }
+    }
+    // the last access of an evicted view is final, no query gets it anymore
+    Iterator<CachedView> evictedIterator = evictedViews.iterator();
+    while (evictedIterator.hasNext()) {
+      CachedView evictedView = evictedIterator.next();
+      if (now - evictedView.lastAccessTime > ttlMs) {
+        LOG.info("Closing evicted file system view of " + evictedView.basePath);
+        evictedView.close();
+        evictedIterator.remove();
+      }
+    }
+  }
+
+  private static class CachedView {
+
+    private final String basePath;
+    private long lastAccessTime;
+    private long lastSyncTime;
+    private SyncableFileSystemView view;
+
+    private CachedView(String basePath, long createTime) {
+      this.basePath = basePath;
+      this.lastAccessTime = createTime;
+      this.lastSyncTime = createTime;
+    }
+
+    private synchronized void close() {
+      if (view != null) {
+        view.close();
+      }
+    }
+  }
+}
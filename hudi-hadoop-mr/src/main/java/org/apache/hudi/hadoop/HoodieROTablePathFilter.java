@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.Set;
 import org.apache.hadoop.conf.Configurable;
 import org.apache.hudi.common.config.SerializableConfiguration;
+import org.apache.hudi.common.fs.FSUtils;
 import org.apache.hudi.common.model.HoodieBaseFile;
 import org.apache.hudi.common.model.HoodiePartitionMetadata;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
@@ -163,9 +164,15 @@ public class HoodieROTablePathFilter implements Configurable, PathFilter, Serial
             metaClientCache.put(baseDir.toString(), metaClient);
           }
 
-          HoodieTableFileSystemView fsView = new HoodieTableFileSystemView(metaClient,
-              metaClient.getActiveTimeline().getCommitsTimeline().filterCompletedInstants(), fs.listStatus(folder));
-          List<HoodieBaseFile> latestFiles = fsView.getLatestBaseFiles().collect(Collectors.toList());
+          List<HoodieBaseFile> latestFiles;
+          if (HoodieFileSystemViewCache.isEnabled(conf.get())) {
+            latestFiles = HoodieFileSystemViewCache.getInstance(conf.get()).getFileSystemView(metaClient.getBasePath())
+                .getLatestBaseFiles(FSUtils.getRelativePartitionPath(baseDir, folder)).collect(Collectors.toList());
+          } else {
+            HoodieTableFileSystemView fsView = new HoodieTableFileSystemView(metaClient,
+                metaClient.getActiveTimeline().getCommitsTimeline().filterCompletedInstants(), fs.listStatus(folder));
+            latestFiles = fsView.getLatestBaseFiles().collect(Collectors.toList());
+          }
           // populate the cache
           if (!hoodiePathCache.containsKey(folder.toString())) {
             hoodiePathCache.put(folder.toString(), new HashSet<>());
@@ -30,6 +30,9 @@ public final class HoodieRealtimeConfig {
   // size + small memory
   public static final String COMPACTION_LAZY_BLOCK_READ_ENABLED_PROP = "compaction.lazy.block.read.enabled";
   public static final String DEFAULT_COMPACTION_LAZY_BLOCK_READ_ENABLED = "true";
+  // Number of log files read and log blocks deserialized concurrently while merging a split, 1 disables it
+  public static final String COMPACTION_LOG_SCAN_PARALLELISM_PROP = "compaction.log.scan.parallelism";
+  public static final int DEFAULT_COMPACTION_LOG_SCAN_PARALLELISM = 1;
 
   // Property to set the max memory for dfs inputstream buffer size
   public static final String MAX_DFS_STREAM_BUFFER_SIZE_PROP = "hoodie.memory.dfs.buffer.max.size";
@@ -39,4 +42,10 @@ public final class HoodieRealtimeConfig {
   public static final String SPILLABLE_MAP_BASE_PATH_PROP = "hoodie.memory.spillable.map.path";
   // Default file path prefix for spillable file
   public static final String DEFAULT_SPILLABLE_MAP_BASE_PATH = "/tmp/";
+  // Property to select how the merged log records spill to disk, one of ExternalSpillableMap.DiskMapType
+  public static final String SPILLABLE_MAP_DISK_TYPE_PROP = "hoodie.memory.spillable.map.disk.type";
+  public static final String DEFAULT_SPILLABLE_MAP_DISK_TYPE = "DISK_BASED";
+  // Property to spill the merged log records with HoodieRecordDiskMapSerializer instead of generic kryo
+  public static final String SPILLABLE_MAP_RECORD_SERIALIZER_ENABLE_PROP = "hoodie.memory.spillable.map.record.serializer.enable";
+  public static final String DEFAULT_SPILLABLE_MAP_RECORD_SERIALIZER_ENABLE = "false";
 }
@@ -240,9 +240,8 @@ public class HoodieCombineHiveInputFormat<K extends WritableComparable, V extend
       // using combine.createPool.
       iss = Arrays.asList(combine.getSplits(job, 1));
     } else {
-      for (Path path : inpDirs) {
-        processPaths(job, combine, iss, path);
-      }
+      // **MOD** the splits of the directories are computed concurrently
+      iss = processPathsInParallel(job, combine, inpDirs);
 
       if (inpFiles.size() > 0) {
         // Processing files
@@ -343,6 +342,12 @@ public class HoodieCombineHiveInputFormat<K extends WritableComparable, V extend
 
     // Store the previous value for the path specification
     String oldPaths = job.get(org.apache.hadoop.mapreduce.lib.input.FileInputFormat.INPUT_DIR);
+    // **MOD** list the files of the input paths concurrently, unless configured otherwise
+    String oldListStatusNumThreads = job.get(org.apache.hadoop.mapreduce.lib.input.FileInputFormat.LIST_STATUS_NUM_THREADS);
+    if (oldListStatusNumThreads == null) {
+      job.setInt(org.apache.hadoop.mapreduce.lib.input.FileInputFormat.LIST_STATUS_NUM_THREADS,
+          job.getInt(HoodieInputFormatUtils.SPLIT_COMPUTATION_PARALLELISM_PROP, HoodieInputFormatUtils.DEFAULT_SPLIT_COMPUTATION_PARALLELISM));
+    }
     if (LOG.isDebugEnabled()) {
       LOG.debug("The received input paths are: [" + oldPaths + "] against the property "
           + org.apache.hadoop.mapreduce.lib.input.FileInputFormat.INPUT_DIR);
@@ -370,6 +375,9 @@ public class HoodieCombineHiveInputFormat<K extends WritableComparable, V extend
     if (oldPaths != null) {
       job.set(org.apache.hadoop.mapreduce.lib.input.FileInputFormat.INPUT_DIR, oldPaths);
     }
+    if (oldListStatusNumThreads == null) {
+      job.unset(org.apache.hadoop.mapreduce.lib.input.FileInputFormat.LIST_STATUS_NUM_THREADS);
+    }
 
     // clear work from ThreadLocal after splits generated in case of thread is reused in pool.
     Utilities.clearWorkMapForConf(job);
@@ -386,6 +394,55 @@ public class HoodieCombineHiveInputFormat<K extends WritableComparable, V extend
     iss.addAll(Arrays.asList(combine.getSplits(currJob, 1)));
   }
 
+  /**
+   * Computes the splits of each of the paths on its own, on up to
+   * {@link HoodieInputFormatUtils#SPLIT_COMPUTATION_PARALLELISM_PROP} threads. The splits are returned in the order of
+   * the paths.
+   * <p>
+   * The shim's getSplits sets the split sizes on the shim itself, so each path gets a shim of its own with the same
+   * flags rather than sharing the given one across threads. No pools are created on the shim at this point, the
+   * directories are only filtered by the hoodie input formats.
+   */
+  protected List<CombineFileSplit> processPathsInParallel(JobConf job, HoodieCombineFileInputFormatShim combine, List<Path> paths)
+      throws IOException {
+    List<CombineFileSplit> iss = new ArrayList<>();
+    int numThreads = Math.min(paths.size(), job.getInt(HoodieInputFormatUtils.SPLIT_COMPUTATION_PARALLELISM_PROP,
+        HoodieInputFormatUtils.DEFAULT_SPLIT_COMPUTATION_PARALLELISM));
+    if (numThreads <= 1) {
+      for (Path path : paths) {
+        processPaths(job, combine, iss, path);
+      }
+      return iss;
+    }
+
+    LOG.info("Computing splits of " + paths.size() + " paths with " + numThreads + " threads");
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try {
+      List<Future<List<CombineFileSplit>>> futureList = new ArrayList<>(paths.size());
+      for (Path path : paths) {
+        HoodieCombineFileInputFormatShim pathCombine = createInputFormatShim();
+        pathCombine.setHoodieFilter(combine.hoodieFilter);
+        pathCombine.setRealTime(combine.isRealTime);
+        futureList.add(executor.submit(() -> {
+          List<CombineFileSplit> pathSplits = new ArrayList<>();
+          processPaths(job, pathCombine, pathSplits, path);
+          return pathSplits;
+        }));
+      }
+      for (Future<List<CombineFileSplit>> future : futureList) {
+        iss.addAll(future.get());
+      }
+      return iss;
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof IOException ? (IOException) e.getCause()
+          : new IOException("Error computing splits of " + paths.size() + " paths", e.getCause());
+    } catch (InterruptedException e) {
+      throw new IOException("Interrupted computing splits of " + paths.size() + " paths", e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   /**
    * HiveFileFormatUtils.getPartitionDescFromPathRecursively is no longer available since Hive 3.
    * This method is to make it compatible with both Hive 2 and Hive 3.
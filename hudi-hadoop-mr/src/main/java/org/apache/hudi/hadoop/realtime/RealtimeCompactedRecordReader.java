@@ -24,6 +24,7 @@ import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.model.HoodieRecordPayload;
 import org.apache.hudi.common.table.log.HoodieMergedLogRecordScanner;
 import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.collection.ExternalSpillableMap;
 import org.apache.hudi.hadoop.config.HoodieRealtimeConfig;
 import org.apache.hudi.hadoop.utils.HoodieInputFormatUtils;
 import org.apache.hudi.hadoop.utils.HoodieRealtimeRecordReaderUtils;
@@ -73,7 +74,13 @@ class RealtimeCompactedRecordReader extends AbstractRealtimeRecordReader
         Boolean.parseBoolean(jobConf.get(HoodieRealtimeConfig.COMPACTION_LAZY_BLOCK_READ_ENABLED_PROP, HoodieRealtimeConfig.DEFAULT_COMPACTION_LAZY_BLOCK_READ_ENABLED)),
         false,
         jobConf.getInt(HoodieRealtimeConfig.MAX_DFS_STREAM_BUFFER_SIZE_PROP, HoodieRealtimeConfig.DEFAULT_MAX_DFS_STREAM_BUFFER_SIZE),
-        jobConf.get(HoodieRealtimeConfig.SPILLABLE_MAP_BASE_PATH_PROP, HoodieRealtimeConfig.DEFAULT_SPILLABLE_MAP_BASE_PATH));
+        jobConf.get(HoodieRealtimeConfig.SPILLABLE_MAP_BASE_PATH_PROP, HoodieRealtimeConfig.DEFAULT_SPILLABLE_MAP_BASE_PATH),
+        ExternalSpillableMap.DiskMapType.valueOf(jobConf.get(HoodieRealtimeConfig.SPILLABLE_MAP_DISK_TYPE_PROP,
+            HoodieRealtimeConfig.DEFAULT_SPILLABLE_MAP_DISK_TYPE).toUpperCase()),
+        Boolean.parseBoolean(jobConf.get(HoodieRealtimeConfig.SPILLABLE_MAP_RECORD_SERIALIZER_ENABLE_PROP,
+            HoodieRealtimeConfig.DEFAULT_SPILLABLE_MAP_RECORD_SERIALIZER_ENABLE)),
+        jobConf.getInt(HoodieRealtimeConfig.COMPACTION_LOG_SCAN_PARALLELISM_PROP,
+            HoodieRealtimeConfig.DEFAULT_COMPACTION_LOG_SCAN_PARALLELISM));
   }
 
   @Override
@@ -156,6 +163,9 @@ class RealtimeCompactedRecordReader extends AbstractRealtimeRecordReader
   @Override
   public void close() throws IOException {
     parquetReader.close();
+    if (deltaRecordMap instanceof ExternalSpillableMap) {
+      ((ExternalSpillableMap) deltaRecordMap).close();
+    }
   }
 
   @Override
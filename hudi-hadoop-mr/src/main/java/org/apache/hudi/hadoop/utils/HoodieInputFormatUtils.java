@@ -28,11 +28,13 @@ import org.apache.hudi.common.table.timeline.HoodieDefaultTimeline;
 import org.apache.hudi.common.table.timeline.HoodieInstant;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
 import org.apache.hudi.common.table.view.HoodieTableFileSystemView;
+import org.apache.hudi.common.table.view.SyncableFileSystemView;
 import org.apache.hudi.common.table.view.TableFileSystemView;
 import org.apache.hudi.common.util.Option;
 import org.apache.hudi.common.util.StringUtils;
 import org.apache.hudi.exception.HoodieIOException;
 import org.apache.hudi.hadoop.FileStatusWithBootstrapBaseFile;
+import org.apache.hudi.hadoop.HoodieFileSystemViewCache;
 import org.apache.hudi.hadoop.HoodieHFileInputFormat;
 import org.apache.hudi.hadoop.HoodieParquetInputFormat;
 import org.apache.hudi.hadoop.LocatedFileStatusWithBootstrapBaseFile;
@@ -69,6 +71,9 @@ public class HoodieInputFormatUtils {
   public static final int HOODIE_RECORD_KEY_COL_POS = 2;
   public static final int HOODIE_PARTITION_PATH_COL_POS = 3;
   public static final String HOODIE_READ_COLUMNS_PROP = "hoodie.read.columns.set";
+  // Number of threads computing the splits of the partitions of a query and listing their files
+  public static final String SPLIT_COMPUTATION_PARALLELISM_PROP = "hoodie.mr.split.computation.parallelism";
+  public static final int DEFAULT_SPLIT_COMPUTATION_PARALLELISM = 16;
 
   private static final Logger LOG = LogManager.getLogger(HoodieInputFormatUtils.class);
 
@@ -404,11 +409,16 @@ public class HoodieInputFormatUtils {
     if (LOG.isDebugEnabled()) {
       LOG.debug("Hoodie Metadata initialized with completed commit Ts as :" + metadata);
     }
-    // Get all commits, delta commits, compactions, as all of them produce a base parquet file today
-    HoodieTimeline timeline = metadata.getActiveTimeline().getCommitsTimeline().filterCompletedInstants();
-    TableFileSystemView.BaseFileOnlyView roView = new HoodieTableFileSystemView(metadata, timeline, statuses);
-    // filter files on the latest commit found
-    List<HoodieBaseFile> filteredFiles = roView.getLatestBaseFiles().collect(Collectors.toList());
+    List<HoodieBaseFile> filteredFiles;
+    if (HoodieFileSystemViewCache.isEnabled(job)) {
+      filteredFiles = getLatestBaseFilesFromCachedView(job, metadata, fileStatuses);
+    } else {
+      // Get all commits, delta commits, compactions, as all of them produce a base parquet file today
+      HoodieTimeline timeline = metadata.getActiveTimeline().getCommitsTimeline().filterCompletedInstants();
+      TableFileSystemView.BaseFileOnlyView roView = new HoodieTableFileSystemView(metadata, timeline, statuses);
+      // filter files on the latest commit found
+      filteredFiles = roView.getLatestBaseFiles().collect(Collectors.toList());
+    }
     LOG.info("Total paths to process after hoodie filter " + filteredFiles.size());
     List<FileStatus> returns = new ArrayList<>();
     for (HoodieBaseFile filteredFile : filteredFiles) {
@@ -421,6 +431,66 @@ public class HoodieInputFormatUtils {
     return returns;
   }
 
+  /**
+   * Looks up the latest base files among the given files in the cached view of the table, instead of building a view
+   * from the files.
+   */
+  private static List<HoodieBaseFile> getLatestBaseFilesFromCachedView(Configuration conf,
+      HoodieTableMetaClient metaClient, List<FileStatus> fileStatuses) {
+    SyncableFileSystemView view = HoodieFileSystemViewCache.getInstance(conf).getFileSystemView(metaClient.getBasePath());
+    return getLatestListedBaseFiles(view, metaClient, fileStatuses);
+  }
+
+  /**
+   * Latest base file of each file group of the view among the listed files. The view can be synced past the listing,
+   * a file group whose latest base file in the view was not listed falls back to its latest listed base file.
+   */
+  static List<HoodieBaseFile> getLatestListedBaseFiles(TableFileSystemView.BaseFileOnlyView view,
+      HoodieTableMetaClient metaClient, List<FileStatus> fileStatuses) {
+    Path basePath = new Path(metaClient.getBasePath());
+    Set<Path> partitionPaths = fileStatuses.stream().map(status -> status.getPath().getParent()).collect(Collectors.toSet());
+    Set<Path> paths = fileStatuses.stream().map(status -> Path.getPathWithoutSchemeAndAuthority(status.getPath()))
+        .collect(Collectors.toSet());
+    List<HoodieBaseFile> latestBaseFiles = new ArrayList<>();
+    for (Path partitionPath : partitionPaths) {
+      String relPartitionPath = FSUtils.getRelativePartitionPath(basePath, partitionPath);
+      Set<String> unlistedFileIds = new HashSet<>();
+      view.getLatestBaseFiles(relPartitionPath).forEach(baseFile -> {
+        if (isListed(paths, baseFile)) {
+          latestBaseFiles.add(baseFile);
+        } else {
+          unlistedFileIds.add(baseFile.getFileId());
+        }
+      });
+      if (!unlistedFileIds.isEmpty()) {
+        LOG.info("Latest base files of " + unlistedFileIds.size() + " file groups in " + relPartitionPath
+            + " were committed after the listing, falling back to the listed ones");
+        Map<String, HoodieBaseFile> listedBaseFiles = new HashMap<>();
+        view.getAllBaseFiles(relPartitionPath)
+            .filter(baseFile -> unlistedFileIds.contains(baseFile.getFileId()) && isListed(paths, baseFile))
+            .forEach(baseFile -> listedBaseFiles.merge(baseFile.getFileId(), baseFile, (file1, file2) ->
+                HoodieTimeline.compareTimestamps(file1.getCommitTime(), HoodieTimeline.GREATER_THAN, file2.getCommitTime())
+                    ? file1 : file2));
+        latestBaseFiles.addAll(listedBaseFiles.values());
+      }
+    }
+    return latestBaseFiles;
+  }
+
+  private static boolean isListed(Set<Path> paths, HoodieBaseFile baseFile) {
+    return paths.contains(Path.getPathWithoutSchemeAndAuthority(new Path(baseFile.getPath())));
+  }
+
+  /**
+   * File slice view of the table, the cached one if the {@link HoodieFileSystemViewCache} is enabled.
+   */
+  public static TableFileSystemView.SliceView getSliceView(Configuration conf, HoodieTableMetaClient metaClient) {
+    if (HoodieFileSystemViewCache.isEnabled(conf)) {
+      return HoodieFileSystemViewCache.getInstance(conf).getFileSystemView(metaClient.getBasePath());
+    }
+    return new HoodieTableFileSystemView(metaClient, metaClient.getActiveTimeline());
+  }
+
   /**
    * Checks the file status for a race condition which can set the file size to 0. 1. HiveInputFormat does
    * super.listStatus() and gets back a FileStatus[] 2. Then it creates the HoodieTableMetaClient for the paths listed.
@@ -26,7 +26,7 @@ import org.apache.hudi.common.model.HoodieRecord;
 import org.apache.hudi.common.table.HoodieTableMetaClient;
 import org.apache.hudi.common.table.timeline.HoodieInstant;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
-import org.apache.hudi.common.table.view.HoodieTableFileSystemView;
+import org.apache.hudi.common.table.view.TableFileSystemView;
 import org.apache.hudi.common.util.CollectionUtils;
 import org.apache.hudi.common.util.Option;
 import org.apache.hudi.exception.HoodieException;
@@ -50,6 +50,10 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -63,61 +67,112 @@ public class HoodieRealtimeInputFormatUtils extends HoodieInputFormatUtils {
     // TODO(vc): Should we handle also non-hoodie splits here?
     Map<Path, HoodieTableMetaClient> partitionsToMetaClient = getTableMetaClientByBasePath(conf, partitionsToParquetSplits.keySet());
 
+    // one file system view and max commit time per table, shared by all of its partitions
+    Map<String, TableSplitContext> basePathToContext = new HashMap<>();
+    partitionsToMetaClient.values().forEach(metaClient ->
+        basePathToContext.computeIfAbsent(metaClient.getBasePath(), basePath -> new TableSplitContext(conf, metaClient)));
+
     // for all unique split parents, obtain all delta files based on delta commit timeline,
-    // grouped on file id
+    // grouped on file id. The partitions are processed concurrently, listing their files in parallel.
+    List<Path> partitionPaths = new ArrayList<>(partitionsToParquetSplits.keySet());
+    int numThreads = Math.max(1, Math.min(partitionPaths.size(),
+        conf.getInt(SPLIT_COMPUTATION_PARALLELISM_PROP, DEFAULT_SPLIT_COMPUTATION_PARALLELISM)));
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
     List<InputSplit> rtSplits = new ArrayList<>();
-    partitionsToParquetSplits.keySet().forEach(partitionPath -> {
-      // for each partition path obtain the data & log file groupings, then map back to inputsplits
-      HoodieTableMetaClient metaClient = partitionsToMetaClient.get(partitionPath);
-      HoodieTableFileSystemView fsView = new HoodieTableFileSystemView(metaClient, metaClient.getActiveTimeline());
-      String relPartitionPath = FSUtils.getRelativePartitionPath(new Path(metaClient.getBasePath()), partitionPath);
-
-      try {
-        // Both commit and delta-commits are included - pick the latest completed one
-        Option<HoodieInstant> latestCompletedInstant =
-            metaClient.getActiveTimeline().getCommitsTimeline().filterCompletedInstants().lastInstant();
+    try {
+      List<Future<List<InputSplit>>> futures = partitionPaths.stream()
+          .map(partitionPath -> executor.submit(() -> getRealtimeSplits(partitionPath,
+              basePathToContext.get(partitionsToMetaClient.get(partitionPath).getBasePath()),
+              partitionsToParquetSplits.get(partitionPath))))
+          .collect(Collectors.toList());
+      for (Future<List<InputSplit>> future : futures) {
+        rtSplits.addAll(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HoodieException("Interrupted while obtaining data file/log file groupings", e);
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof HoodieException ? (HoodieException) e.getCause()
+          : new HoodieException("Error obtaining data file/log file groupings", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    LOG.info("Returning a total splits of " + rtSplits.size() + " computed with " + numThreads + " threads");
+    return rtSplits.toArray(new InputSplit[0]);
+  }
 
-        Stream<FileSlice> latestFileSlices = latestCompletedInstant
-            .map(instant -> fsView.getLatestMergedFileSlicesBeforeOrOn(relPartitionPath, instant.getTimestamp()))
-            .orElse(Stream.empty());
+  /**
+   * Realtime splits of the base file splits of one partition.
+   */
+  private static List<InputSplit> getRealtimeSplits(Path partitionPath, TableSplitContext context,
+      List<FileSplit> partitionSplits) {
+    // for each partition path obtain the data & log file groupings, then map back to inputsplits
+    String relPartitionPath = FSUtils.getRelativePartitionPath(new Path(context.basePath), partitionPath);
+    List<InputSplit> rtSplits = new ArrayList<>();
+    try {
+      Stream<FileSlice> latestFileSlices = context.latestCompletedInstant
+          .map(instant -> context.fsView.getLatestMergedFileSlicesBeforeOrOn(relPartitionPath, instant.getTimestamp()))
+          .orElse(Stream.empty());
 
-        // subgroup splits again by file id & match with log files.
-        Map<String, List<FileSplit>> groupedInputSplits = partitionsToParquetSplits.get(partitionPath).stream()
-            .collect(Collectors.groupingBy(split -> FSUtils.getFileId(split.getPath().getName())));
-        // Get the maxCommit from the last delta or compaction or commit - when bootstrapped from COW table
-        String maxCommitTime = metaClient.getActiveTimeline().getTimelineOfActions(CollectionUtils.createSet(HoodieTimeline.COMMIT_ACTION,
-                HoodieTimeline.ROLLBACK_ACTION, HoodieTimeline.DELTA_COMMIT_ACTION))
-            .filterCompletedInstants().lastInstant().get().getTimestamp();
-        latestFileSlices.forEach(fileSlice -> {
-          List<FileSplit> dataFileSplits = groupedInputSplits.get(fileSlice.getFileId());
-          dataFileSplits.forEach(split -> {
-            try {
-              List<String> logFilePaths = fileSlice.getLogFiles().sorted(HoodieLogFile.getLogFileComparator())
-                  .map(logFile -> logFile.getPath().toString()).collect(Collectors.toList());
-              if (split instanceof BootstrapBaseFileSplit) {
-                BootstrapBaseFileSplit eSplit = (BootstrapBaseFileSplit) split;
-                String[] hosts = split.getLocationInfo() != null ? Arrays.stream(split.getLocationInfo())
-                    .filter(x -> !x.isInMemory()).toArray(String[]::new) : new String[0];
-                String[] inMemoryHosts = split.getLocationInfo() != null ? Arrays.stream(split.getLocationInfo())
-                    .filter(SplitLocationInfo::isInMemory).toArray(String[]::new) : new String[0];
-                FileSplit baseSplit = new FileSplit(eSplit.getPath(), eSplit.getStart(), eSplit.getLength(),
-                    hosts, inMemoryHosts);
-                rtSplits.add(new RealtimeBootstrapBaseFileSplit(baseSplit,metaClient.getBasePath(),
-                    logFilePaths, maxCommitTime, eSplit.getBootstrapFileSplit()));
-              } else {
-                rtSplits.add(new HoodieRealtimeFileSplit(split, metaClient.getBasePath(), logFilePaths, maxCommitTime));
-              }
-            } catch (IOException e) {
-              throw new HoodieIOException("Error creating hoodie real time split ", e);
+      // subgroup splits again by file id & match with log files.
+      Map<String, List<FileSplit>> groupedInputSplits = partitionSplits.stream()
+          .collect(Collectors.groupingBy(split -> FSUtils.getFileId(split.getPath().getName())));
+      String maxCommitTime = context.getMaxCommitTime();
+      latestFileSlices.forEach(fileSlice -> {
+        List<FileSplit> dataFileSplits = groupedInputSplits.get(fileSlice.getFileId());
+        dataFileSplits.forEach(split -> {
+          try {
+            List<String> logFilePaths = fileSlice.getLogFiles().sorted(HoodieLogFile.getLogFileComparator())
+                .map(logFile -> logFile.getPath().toString()).collect(Collectors.toList());
+            if (split instanceof BootstrapBaseFileSplit) {
+              BootstrapBaseFileSplit eSplit = (BootstrapBaseFileSplit) split;
+              String[] hosts = split.getLocationInfo() != null ? Arrays.stream(split.getLocationInfo())
+                  .filter(x -> !x.isInMemory()).toArray(String[]::new) : new String[0];
+              String[] inMemoryHosts = split.getLocationInfo() != null ? Arrays.stream(split.getLocationInfo())
+                  .filter(SplitLocationInfo::isInMemory).toArray(String[]::new) : new String[0];
+              FileSplit baseSplit = new FileSplit(eSplit.getPath(), eSplit.getStart(), eSplit.getLength(),
+                  hosts, inMemoryHosts);
+              rtSplits.add(new RealtimeBootstrapBaseFileSplit(baseSplit, context.basePath,
+                  logFilePaths, maxCommitTime, eSplit.getBootstrapFileSplit()));
+            } else {
+              rtSplits.add(new HoodieRealtimeFileSplit(split, context.basePath, logFilePaths, maxCommitTime));
             }
-          });
+          } catch (IOException e) {
+            throw new HoodieIOException("Error creating hoodie real time split ", e);
+          }
         });
-      } catch (Exception e) {
-        throw new HoodieException("Error obtaining data file/log file grouping: " + partitionPath, e);
-      }
-    });
-    LOG.info("Returning a total splits of " + rtSplits.size());
-    return rtSplits.toArray(new InputSplit[0]);
+      });
+    } catch (Exception e) {
+      throw new HoodieException("Error obtaining data file/log file grouping: " + partitionPath, e);
+    }
+    return rtSplits;
+  }
+
+  /**
+   * File system view and timeline of a table, shared by the split computations of its partitions.
+   */
+  private static class TableSplitContext {
+
+    private final String basePath;
+    private final TableFileSystemView.SliceView fsView;
+    // Both commit and delta-commits are included - pick the latest completed one
+    private final Option<HoodieInstant> latestCompletedInstant;
+    // The maxCommit from the last delta or compaction or commit - when bootstrapped from COW table
+    private final Option<HoodieInstant> maxCommitInstant;
+
+    private TableSplitContext(Configuration conf, HoodieTableMetaClient metaClient) {
+      this.basePath = metaClient.getBasePath();
+      this.fsView = getSliceView(conf, metaClient);
+      this.latestCompletedInstant =
+          metaClient.getActiveTimeline().getCommitsTimeline().filterCompletedInstants().lastInstant();
+      this.maxCommitInstant = metaClient.getActiveTimeline().getTimelineOfActions(CollectionUtils.createSet(
+          HoodieTimeline.COMMIT_ACTION, HoodieTimeline.ROLLBACK_ACTION, HoodieTimeline.DELTA_COMMIT_ACTION))
+          .filterCompletedInstants().lastInstant();
+    }
+
+    private String getMaxCommitTime() {
+      return maxCommitInstant.get().getTimestamp();
+    }
   }
 
   // Return parquet file with a list of log files in the same file group.
@@ -133,7 +188,7 @@ public class HoodieRealtimeInputFormatUtils extends HoodieInputFormatUtils {
     partitionsToParquetSplits.keySet().forEach(partitionPath -> {
       // for each partition path obtain the data & log file groupings, then map back to inputsplits
       HoodieTableMetaClient metaClient = partitionsToMetaClient.get(partitionPath);
-      HoodieTableFileSystemView fsView = new HoodieTableFileSystemView(metaClient, metaClient.getActiveTimeline());
+      TableFileSystemView.SliceView fsView = getSliceView(conf, metaClient);
       String relPartitionPath = FSUtils.getRelativePartitionPath(new Path(metaClient.getBasePath()), partitionPath);
 
       try {
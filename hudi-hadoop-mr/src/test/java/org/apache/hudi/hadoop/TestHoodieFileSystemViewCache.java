@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.hadoop;
+
+import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.table.view.FileSystemViewStorageConfig;
+import org.apache.hudi.common.table.view.HoodieTableFileSystemView;
+import org.apache.hudi.common.table.view.SyncableFileSystemView;
+import org.apache.hudi.common.testutils.HoodieCommonTestHarness;
+import org.apache.hudi.common.testutils.HoodieTestTable;
+import org.apache.hudi.common.testutils.HoodieTestUtils;
+
+import org.apache.hadoop.conf.Configuration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link HoodieFileSystemViewCache}.
+ */
+public class TestHoodieFileSystemViewCache extends HoodieCommonTestHarness {
+
+  private static final String PARTITION = "2017/01/01";
+
+  private HoodieTestTable testTable;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    initMetaClient();
+    testTable = HoodieTestTable.of(metaClient);
+  }
+
+  @Test
+  public void testViewIsSyncedToLatestInstant() throws Exception {
+    testTable.addCommit("001").withBaseFilesInPartition(PARTITION, "f1", "f2");
+    Configuration conf = new Configuration(metaClient.getHadoopConf());
+    // the test commits carry no metadata to sync incrementally from
+    conf.setBoolean(FileSystemViewStorageConfig.FILESYSTEM_VIEW_INCREMENTAL_SYNC_MODE, false);
+    HoodieFileSystemViewCache cache = new HoodieFileSystemViewCache(conf);
+    SyncableFileSystemView view = cache.getFileSystemView(basePath);
+    assertEquals("001", getLatestCommitTimes(view).get("f1"));
+
+    testTable.addCommit("002").withBaseFilesInPartition(PARTITION, "f1");
+    assertSame(view, cache.getFileSystemView(basePath));
+    Map<String, String> latestCommitTimes = getLatestCommitTimes(view);
+    assertEquals("002", latestCommitTimes.get("f1"));
+    assertEquals("001", latestCommitTimes.get("f2"));
+  }
+
+  @Test
+  public void testViewIsServedWithinRefreshInterval() throws Exception {
+    testTable.addCommit("001").withBaseFilesInPartition(PARTITION, "f1");
+    Configuration conf = new Configuration(metaClient.getHadoopConf());
+    conf.setLong(HoodieFileSystemViewCache.REFRESH_INTERVAL_MS_PROP, Long.MAX_VALUE);
+    HoodieFileSystemViewCache cache = new HoodieFileSystemViewCache(conf);
+    cache.getFileSystemView(basePath);
+
+    testTable.addCommit("002").withBaseFilesInPartition(PARTITION, "f1");
+    assertEquals("001", getLatestCommitTimes(cache.getFileSystemView(basePath)).get("f1"));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedViewIsEvicted() throws Exception {
+    testTable.addCommit("001").withBaseFilesInPartition(PARTITION, "f1");
+    String otherBasePath = Paths.get(basePath, "other").toString();
+    HoodieTestTable.of(HoodieTestUtils.init(otherBasePath)).addCommit("001").withBaseFilesInPartition(PARTITION, "f2");
+
+    Configuration conf = new Configuration(metaClient.getHadoopConf());
+    conf.setInt(HoodieFileSystemViewCache.MAX_TABLES_PROP, 1);
+    HoodieFileSystemViewCache cache = new HoodieFileSystemViewCache(conf);
+    cache.getFileSystemView(basePath);
+    assertEquals(Collections.singleton(basePath), cache.getBasePaths());
+    assertEquals("001", getLatestCommitTimes(cache.getFileSystemView(otherBasePath)).get("f2"));
+    assertEquals(Collections.singleton(otherBasePath), cache.getBasePaths());
+  }
+
+  @Test
+  public void testEvictedViewIsClosedOnceUnusedWithinTtl() throws Exception {
+    testTable.addCommit("001").withBaseFilesInPartition(PARTITION, "f1");
+    String otherBasePath = Paths.get(basePath, "other").toString();
+    HoodieTestTable.of(HoodieTestUtils.init(otherBasePath)).addCommit("001").withBaseFilesInPartition(PARTITION, "f2");
+
+    Configuration conf = new Configuration(metaClient.getHadoopConf());
+    conf.setInt(HoodieFileSystemViewCache.MAX_TABLES_PROP, 1);
+    conf.setLong(HoodieFileSystemViewCache.TTL_MS_PROP, 2000L);
+    HoodieFileSystemViewCache cache = new HoodieFileSystemViewCache(conf);
+    SyncableFileSystemView view = cache.getFileSystemView(basePath);
+    cache.getFileSystemView(otherBasePath);
+    // the query that got the view just now can still use it
+    assertEquals(Collections.singletonList(basePath), cache.getEvictedBasePaths());
+    assertFalse(((HoodieTableFileSystemView) view).isClosed());
+    assertEquals("001", getLatestCommitTimes(view).get("f1"));
+
+    Thread.sleep(2500L);
+    cache.getFileSystemView(otherBasePath);
+    assertTrue(((HoodieTableFileSystemView) view).isClosed());
+    assertFalse(cache.getEvictedBasePaths().contains(basePath));
+  }
+
+  @Test
+  public void testConcurrentQueriesWithEviction() throws Exception {
+    testTable.addCommit("001").withBaseFilesInPartition(PARTITION, "f1");
+    String otherBasePath = Paths.get(basePath, "other").toString();
+    HoodieTestTable.of(HoodieTestUtils.init(otherBasePath)).addCommit("001").withBaseFilesInPartition(PARTITION, "f2");
+
+    Configuration conf = new Configuration(metaClient.getHadoopConf());
+    conf.setBoolean(FileSystemViewStorageConfig.FILESYSTEM_VIEW_INCREMENTAL_SYNC_MODE, false);
+    // every query of a table evicts the view of the other table
+    conf.setInt(HoodieFileSystemViewCache.MAX_TABLES_PROP, 1);
+    HoodieFileSystemViewCache cache = new HoodieFileSystemViewCache(conf);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        String queriedBasePath = i % 2 == 0 ? basePath : otherBasePath;
+        String fileId = i % 2 == 0 ? "f1" : "f2";
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < 50; j++) {
+            SyncableFileSystemView view = cache.getFileSystemView(queriedBasePath);
+            assertEquals("001", getLatestCommitTimes(view).get(fileId));
+            assertFalse(((HoodieTableFileSystemView) view).isClosed());
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(1, cache.getBasePaths().size());
+  }
+
+  private static Map<String, String> getLatestCommitTimes(SyncableFileSystemView view) {
+    return view.getLatestBaseFiles(PARTITION)
+        .collect(Collectors.toMap(HoodieBaseFile::getFileId, HoodieBaseFile::getCommitTime));
+  }
+}
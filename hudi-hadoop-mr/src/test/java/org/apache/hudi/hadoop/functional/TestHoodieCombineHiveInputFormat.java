@@ -27,6 +27,7 @@ import org.apache.hudi.common.testutils.SchemaTestUtil;
 import org.apache.hudi.common.testutils.minicluster.MiniClusterUtil;
 import org.apache.hudi.hadoop.hive.HoodieCombineHiveInputFormat;
 import org.apache.hudi.hadoop.testutils.InputFormatTestUtil;
+import org.apache.hudi.hadoop.utils.HoodieInputFormatUtils;
 
 import org.apache.avro.Schema;
 import org.apache.hadoop.conf.Configuration;
@@ -43,6 +44,7 @@ import org.apache.hadoop.mapred.FileInputFormat;
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.lib.CombineFileSplit;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -51,11 +53,16 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.apache.hadoop.hive.ql.exec.Utilities.HAS_MAP_WORK;
 import static org.apache.hadoop.hive.ql.exec.Utilities.MAPRED_MAPPER_CLASS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestHoodieCombineHiveInputFormat extends HoodieCommonTestHarness {
@@ -84,6 +91,60 @@ public class TestHoodieCombineHiveInputFormat extends HoodieCommonTestHarness {
     HoodieTestUtils.init(MiniClusterUtil.configuration, tempDir.toAbsolutePath().toString(), HoodieTableType.MERGE_ON_READ);
   }
 
+  @Test
+  public void testParallelSplitComputationOfMultiplePartitions() throws Exception {
+    Schema schema = HoodieAvroUtils.addMetadataFields(SchemaTestUtil.getEvolvedSchema());
+    String commitTime = "100";
+    List<File> partitionDirs = InputFormatTestUtil.prepareMultiPartitionParquetTable(tempDir, schema,
+        Arrays.asList("2016/05/01", "2016/05/02", "2016/05/03", "2016/05/04"), 2, 10, commitTime);
+    InputFormatTestUtil.commit(tempDir, commitTime);
+    List<Path> paths = partitionDirs.stream().map(dir -> new Path(dir.getPath())).collect(Collectors.toList());
+
+    JobConf conf = new JobConf();
+    TestCombineHiveInputFormat inputFormat = new TestCombineHiveInputFormat();
+    conf.setInt(HoodieInputFormatUtils.SPLIT_COMPUTATION_PARALLELISM_PROP, 3);
+    List<CombineFileSplit> parallelSplits = inputFormat.getSplitsOfPaths(conf, paths);
+    // a single thread computes the splits of the paths one after the other
+    conf.setInt(HoodieInputFormatUtils.SPLIT_COMPUTATION_PARALLELISM_PROP, 1);
+    List<CombineFileSplit> sequentialSplits = inputFormat.getSplitsOfPaths(conf, paths);
+
+    assertEquals(toSplitPaths(sequentialSplits), toSplitPaths(parallelSplits));
+    // every split belongs to a single partition, and the splits follow the order of the partitions
+    List<String> partitionsOfSplits = new ArrayList<>();
+    for (CombineFileSplit split : parallelSplits) {
+      List<String> partitions = Arrays.stream(split.getPaths()).map(path -> path.getParent().getName()).distinct()
+          .collect(Collectors.toList());
+      assertEquals(1, partitions.size());
+      if (partitionsOfSplits.isEmpty() || !partitionsOfSplits.get(partitionsOfSplits.size() - 1).equals(partitions.get(0))) {
+        partitionsOfSplits.add(partitions.get(0));
+      }
+    }
+    assertEquals(Arrays.asList("01", "02", "03", "04"), partitionsOfSplits);
+    assertEquals(2 * partitionDirs.size(), parallelSplits.stream().mapToInt(split -> split.getPaths().length).sum());
+
+    // the failure of a path surfaces as the IOException of the split computation
+    List<Path> pathsWithMissingPartition = new ArrayList<>(paths);
+    pathsWithMissingPartition.add(new Path(tempDir.toAbsolutePath().toString(), "2016/05/09"));
+    conf.setInt(HoodieInputFormatUtils.SPLIT_COMPUTATION_PARALLELISM_PROP, 3);
+    assertThrows(IOException.class, () -> inputFormat.getSplitsOfPaths(conf, pathsWithMissingPartition));
+  }
+
+  private static List<String> toSplitPaths(List<CombineFileSplit> splits) {
+    return splits.stream().map(split -> Arrays.toString(split.getPaths())).collect(Collectors.toList());
+  }
+
+  /**
+   * Exposes the split computation of the input paths of {@link HoodieCombineHiveInputFormat}.
+   */
+  private static class TestCombineHiveInputFormat extends HoodieCombineHiveInputFormat<NullWritable, ArrayWritable> {
+
+    private List<CombineFileSplit> getSplitsOfPaths(JobConf conf, List<Path> paths) throws IOException {
+      HoodieCombineFileInputFormatShim combine = createInputFormatShim();
+      combine.setHoodieFilter(true);
+      return processPathsInParallel(conf, combine, paths);
+    }
+  }
+
   @Test
   @Disabled
   public void testHoodieRealtimeCombineHoodieInputFormat() throws Exception {
@@ -131,6 +131,18 @@ public class InputFormatTestUtil {
     return partitionPath.toFile();
   }
 
+  public static List<File> prepareMultiPartitionParquetTable(java.nio.file.Path basePath, Schema schema,
+      List<String> partitionPaths, int numberOfFiles, int numberOfRecords, String commitNumber) throws IOException {
+    HoodieTestUtils.init(HoodieTestUtils.getDefaultHadoopConf(), basePath.toString());
+    List<File> partitionDirs = new ArrayList<>();
+    for (String partitionPath : partitionPaths) {
+      java.nio.file.Path partitionDir = basePath.resolve(Paths.get(partitionPath));
+      createData(schema, partitionDir, numberOfFiles, numberOfRecords, commitNumber);
+      partitionDirs.add(partitionDir.toFile());
+    }
+    return partitionDirs;
+  }
+
   public static File prepareSimpleParquetTable(java.nio.file.Path basePath, Schema schema, int numberOfFiles,
       int numberOfRecords, String commitNumber) throws Exception {
     HoodieTestUtils.init(HoodieTestUtils.getDefaultHadoopConf(), basePath.toString());
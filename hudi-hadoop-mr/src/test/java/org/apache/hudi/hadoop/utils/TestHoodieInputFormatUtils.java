@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.hadoop.utils;
+
+import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.table.view.HoodieTableFileSystemView;
+import org.apache.hudi.common.testutils.HoodieCommonTestHarness;
+import org.apache.hudi.common.testutils.HoodieTestTable;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests {@link HoodieInputFormatUtils}.
+ */
+public class TestHoodieInputFormatUtils extends HoodieCommonTestHarness {
+
+  private static final String PARTITION = "2017/01/01";
+
+  private HoodieTestTable testTable;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    initMetaClient();
+    testTable = HoodieTestTable.of(metaClient);
+  }
+
+  @Test
+  public void testLatestListedBaseFilesWithCommitAfterListing() throws Exception {
+    testTable.addCommit("001").withBaseFilesInPartition(PARTITION, "f1", "f2");
+    HoodieTableFileSystemView view = new HoodieTableFileSystemView(metaClient,
+        metaClient.getActiveTimeline().getCommitsTimeline().filterCompletedInstants());
+    view.getLatestBaseFiles(PARTITION).count();
+    List<FileStatus> fileStatuses = Arrays.asList(metaClient.getFs().listStatus(new Path(basePath, PARTITION),
+        path -> path.getName().endsWith(".parquet")));
+
+    // a commit completes between the listing of the files and the lookup in the synced view
+    testTable.addCommit("002").withBaseFilesInPartition(PARTITION, "f1").withBaseFilesInPartition("2017/01/02", "f3");
+    view.sync();
+    assertEquals("002", view.getLatestBaseFile(PARTITION, "f1").get().getCommitTime());
+
+    Map<String, String> latestCommitTimes = HoodieInputFormatUtils.getLatestListedBaseFiles(view, metaClient, fileStatuses)
+        .stream().collect(Collectors.toMap(HoodieBaseFile::getFileId, HoodieBaseFile::getCommitTime));
+    assertEquals(2, latestCommitTimes.size());
+    assertEquals("001", latestCommitTimes.get("f1"));
+    assertEquals("001", latestCommitTimes.get("f2"));
+  }
+}
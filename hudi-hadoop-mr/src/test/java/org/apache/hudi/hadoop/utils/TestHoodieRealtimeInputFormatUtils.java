@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.hadoop.utils;
+
+import org.apache.hudi.avro.HoodieAvroUtils;
+import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.model.HoodieTableType;
+import org.apache.hudi.common.table.log.HoodieLogFormat;
+import org.apache.hudi.common.testutils.HoodieTestUtils;
+import org.apache.hudi.common.testutils.SchemaTestUtil;
+import org.apache.hudi.exception.HoodieException;
+import org.apache.hudi.hadoop.realtime.HoodieRealtimeFileSplit;
+import org.apache.hudi.hadoop.testutils.InputFormatTestUtil;
+
+import org.apache.avro.Schema;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestHoodieRealtimeInputFormatUtils {
+
+  private JobConf jobConf;
+  private FileSystem fs;
+
+  @TempDir
+  public java.nio.file.Path basePath;
+
+  @BeforeEach
+  public void setUp() {
+    Configuration hadoopConf = HoodieTestUtils.getDefaultHadoopConf();
+    jobConf = new JobConf(hadoopConf);
+    fs = FSUtils.getFs(basePath.toString(), hadoopConf);
+  }
+
+  @Test
+  public void testRealtimeSplitsOfMultiplePartitions() throws Exception {
+    Schema schema = HoodieAvroUtils.addMetadataFields(SchemaTestUtil.getEvolvedSchema());
+    HoodieTestUtils.init(jobConf, basePath.toString(), HoodieTableType.MERGE_ON_READ);
+    String baseInstant = "100";
+    List<File> partitionDirs = InputFormatTestUtil.prepareMultiPartitionParquetTable(basePath, schema,
+        Arrays.asList("2016/05/01", "2016/05/02", "2016/05/03", "2016/05/04"), 2, 10, baseInstant);
+    InputFormatTestUtil.commit(basePath, baseInstant);
+    // only the first file group of each partition has a log file
+    String deltaInstant = "101";
+    for (File partitionDir : partitionDirs) {
+      HoodieLogFormat.Writer writer = InputFormatTestUtil.writeDataBlockToLogFile(partitionDir, fs, schema, "fileid0",
+          baseInstant, deltaInstant, 10, 0, 0);
+      writer.close();
+    }
+    InputFormatTestUtil.deltaCommit(basePath, deltaInstant);
+
+    List<FileSplit> baseFileSplits = toFileSplits(partitionDirs);
+    jobConf.setInt(HoodieInputFormatUtils.SPLIT_COMPUTATION_PARALLELISM_PROP, 3);
+    InputSplit[] parallelSplits = HoodieRealtimeInputFormatUtils.getRealtimeSplits(jobConf, baseFileSplits.stream());
+    jobConf.setInt(HoodieInputFormatUtils.SPLIT_COMPUTATION_PARALLELISM_PROP, 1);
+    InputSplit[] sequentialSplits = HoodieRealtimeInputFormatUtils.getRealtimeSplits(jobConf, baseFileSplits.stream());
+
+    assertEquals(baseFileSplits.size(), parallelSplits.length);
+    assertEquals(toSplitPaths(sequentialSplits), toSplitPaths(parallelSplits));
+    for (InputSplit split : parallelSplits) {
+      HoodieRealtimeFileSplit rtSplit = (HoodieRealtimeFileSplit) split;
+      // all the partitions share the timeline of the table
+      assertEquals(deltaInstant, rtSplit.getMaxCommitTime());
+      assertEquals(basePath.toString(), new Path(rtSplit.getBasePath()).toUri().getPath());
+      String fileId = FSUtils.getFileId(rtSplit.getPath().getName());
+      if (fileId.equals("fileid0")) {
+        assertEquals(1, rtSplit.getDeltaLogPaths().size());
+        Path logPath = new Path(rtSplit.getDeltaLogPaths().get(0));
+        assertEquals(rtSplit.getPath().getParent().getName(), logPath.getParent().getName());
+        assertEquals(fileId, FSUtils.getFileIdFromLogPath(logPath));
+      } else {
+        assertTrue(rtSplit.getDeltaLogPaths().isEmpty());
+      }
+    }
+
+    // the failure of a partition surfaces as the exception of that partition
+    List<FileSplit> missingFileGroupSplits = baseFileSplits.stream()
+        .filter(split -> !(split.getPath().getParent().getName().equals("03")
+            && FSUtils.getFileId(split.getPath().getName()).equals("fileid1")))
+        .collect(Collectors.toList());
+    jobConf.setInt(HoodieInputFormatUtils.SPLIT_COMPUTATION_PARALLELISM_PROP, 3);
+    HoodieException e = assertThrows(HoodieException.class,
+        () -> HoodieRealtimeInputFormatUtils.getRealtimeSplits(jobConf, missingFileGroupSplits.stream()));
+    assertTrue(e.getMessage().contains("2016/05/03"), e.getMessage());
+  }
+
+  private List<FileSplit> toFileSplits(List<File> partitionDirs) {
+    List<FileSplit> splits = new ArrayList<>();
+    for (File partitionDir : partitionDirs) {
+      for (File baseFile : Objects.requireNonNull(partitionDir.listFiles((dir, name) -> name.endsWith(".parquet")))) {
+        splits.add(new FileSplit(new Path(baseFile.getPath()), 0, baseFile.length(), jobConf));
+      }
+    }
+    return splits;
+  }
+
+  private static List<String> toSplitPaths(InputSplit[] splits) {
+    return Arrays.stream(splits).map(split -> ((FileSplit) split).getPath().toString()).collect(Collectors.toList());
+  }
+}
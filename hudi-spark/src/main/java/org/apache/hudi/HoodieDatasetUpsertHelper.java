@@ -0,0 +1,434 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi;
+
+import org.apache.hudi.client.HoodieInternalWriteStatus;
+import org.apache.hudi.common.fs.FSUtils;
+import org.apache.hudi.common.model.HoodieBaseFile;
+import org.apache.hudi.common.model.HoodieFileFormat;
+import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieTableType;
+import org.apache.hudi.common.model.OverwriteWithLatestAvroPayload;
+import org.apache.hudi.common.model.WriteOperationType;
+import org.apache.hudi.common.util.NumericUtils;
+import org.apache.hudi.common.util.Option;
+import org.apache.hudi.common.util.collection.Pair;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.exception.HoodieUpsertException;
+import org.apache.hudi.index.HoodieIndex;
+import org.apache.hudi.index.bucket.HoodieBucketIndex;
+import org.apache.hudi.io.HoodieRowCreateHandle;
+import org.apache.hudi.io.HoodieRowMergeHandle;
+import org.apache.hudi.table.HoodieTable;
+import org.apache.hudi.table.action.commit.SmallFile;
+import org.apache.hudi.table.action.commit.UpsertPartitioner;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.spark.Partitioner;
+import org.apache.spark.TaskContext;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.sql.Column;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.apache.spark.sql.SQLContext;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.execution.datasources.PartitionedFile;
+import org.apache.spark.sql.expressions.Window;
+import org.apache.spark.sql.functions;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.sql.vectorized.ColumnarBatch;
+import org.apache.spark.storage.StorageLevel;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import scala.Function1;
+import scala.Tuple2;
+import scala.collection.JavaConverters;
+
+/**
+ * Helper class to upsert and insert {@link Dataset<Row>}s with the datasource implementation, without converting the
+ * rows to avro records. It does the following steps.
+ *  1. Adds the hoodie columns to the input dataset and drops duplicate keys, keeping the row with the largest
+ *     precombine field.
+ *  2. Looks up the file groups of the existing keys in the index and tags the rows with them.
+ *  3. Assigns the rows to buckets, one per file group to merge into, packing the inserts of each partition path into
+ *     its small files first and into as many new file groups as needed after.
+ *  4. Writes every bucket through {@link HoodieRowMergeHandle} or {@link HoodieRowCreateHandle}.
+ * <p>
+ * Rows are merged the way {@link OverwriteWithLatestAvroPayload} merges records, the latest incoming row replaces the
+ * stored one. Writes needing any other merge semantics go through the avro records of {@link HoodieSparkSqlWriter}.
+ */
+public class HoodieDatasetUpsertHelper {
+
+  private static final Logger LOG = LogManager.getLogger(HoodieDatasetUpsertHelper.class);
+
+  private static final String LOCATED_FILE_ID = "_hoodie_located_file_id";
+  private static final String DELETE_MARKER_FIELD = "_hoodie_is_deleted";
+  private static final int RECORD_KEY_POS = HoodieRecord.HOODIE_META_COLUMNS_NAME_TO_POS.get(HoodieRecord.RECORD_KEY_METADATA_FIELD);
+  private static final int PARTITION_PATH_POS = HoodieRecord.HOODIE_META_COLUMNS_NAME_TO_POS.get(HoodieRecord.PARTITION_PATH_METADATA_FIELD);
+  // Until the rows are written, the file name column carries the id of the file group a row was tagged with
+  private static final int FILE_ID_POS = HoodieRecord.HOODIE_META_COLUMNS_NAME_TO_POS.get(HoodieRecord.FILENAME_METADATA_FIELD);
+
+  /**
+   * Whether the given write can be carried out on rows. Takes a copy on write table with parquet base files, the
+   * {@link OverwriteWithLatestAvroPayload} without deletes and an index that neither needs to be updated with the
+   * written locations nor decides the file groups of new keys itself.
+   */
+  public static boolean canWriteAsRows(HoodieWriteConfig config, HoodieTable table, StructType schema,
+      WriteOperationType operation) {
+    if (operation != WriteOperationType.UPSERT && operation != WriteOperationType.INSERT) {
+      return false;
+    }
+    if (table.getMetaClient().getTableType() != HoodieTableType.COPY_ON_WRITE
+        || table.getBaseFileFormat() != HoodieFileFormat.PARQUET
+        || table.getMetaClient().getTableConfig().getBootstrapBasePath().isPresent()) {
+      return false;
+    }
+    if (!OverwriteWithLatestAvroPayload.class.getName().equals(config.getPayloadClass())
+        || Arrays.asList(schema.fieldNames()).contains(DELETE_MARKER_FIELD)) {
+      return false;
+    }
+    return canWriteWithIndex(table.getIndex(), operation);
+  }
+
+  /**
+   * Rows are written without updating the index and new keys go into small or new file groups, so the index has to
+   * find the written keys in the files on its own. Upserts also need every key to be looked up in its own partition path.
+   * {@link HoodieBucketIndex} maps keys to the file groups of their buckets, which new file groups would break.
+   */
+  static boolean canWriteWithIndex(HoodieIndex index, WriteOperationType operation) {
+    if (!index.isImplicitWithStorage() || index instanceof HoodieBucketIndex) {
+      return false;
+    }
+    return operation == WriteOperationType.INSERT || !index.isGlobal();
+  }
+
+  /**
+   * Prepares the input dataset for upsert or insert. Adds the hoodie columns and, when records are to be combined
+   * before writing, keeps only the row with the largest precombine field of every key.
+   */
+  public static Dataset<Row> prepareHoodieDatasetForUpsert(SQLContext sqlContext, HoodieWriteConfig config,
+      Dataset<Row> rows, WriteOperationType operation) {
+    Dataset<Row> hoodieDataset = HoodieDatasetBulkInsertHelper.addHoodieColumns(sqlContext, config, rows);
+    boolean combine = operation == WriteOperationType.UPSERT ? config.shouldCombineBeforeUpsert()
+        : config.shouldCombineBeforeInsert();
+    if (!combine) {
+      return hoodieDataset;
+    }
+    String precombineField = config.getProps().getProperty(DataSourceWriteOptions.PRECOMBINE_FIELD_OPT_KEY());
+    String rowNumber = "_hoodie_row_number";
+    return hoodieDataset
+        .withColumn(rowNumber, functions.row_number().over(Window
+            .partitionBy(HoodieRecord.RECORD_KEY_METADATA_FIELD, HoodieRecord.PARTITION_PATH_METADATA_FIELD)
+            .orderBy(functions.col(precombineField).desc())))
+        .where(functions.col(rowNumber).equalTo(1))
+        .drop(rowNumber);
+  }
+
+  /**
+   * Writes the prepared dataset and returns the statuses of the written files.
+   *
+   * @param baseFileReader reads the rows of a base file, with the schema of the prepared dataset.
+   */
+  public static List<HoodieInternalWriteStatus> write(SQLContext sqlContext, JavaSparkContext jsc,
+      HoodieWriteConfig config, HoodieTable table, Dataset<Row> hoodieDataset, WriteOperationType operation,
+      String instantTime, Function1<PartitionedFile, scala.collection.Iterator<Object>> baseFileReader) {
+    StructType structType = hoodieDataset.schema();
+    Dataset<Row> taggedDataset = operation == WriteOperationType.UPSERT
+        ? tagLocation(sqlContext, jsc, table, hoodieDataset) : hoodieDataset;
+    JavaRDD<InternalRow> taggedRows = taggedDataset.queryExecution().toRdd().toJavaRDD()
+        .map(InternalRow::copy)
+        .persist(StorageLevel.MEMORY_AND_DISK_SER());
+    try {
+      // count the rows per partition path and file group, an empty file id stands for the inserts of a partition path
+      Map<Tuple2<String, String>, Long> rowsPerFileGroup = taggedRows
+          .map(row -> new Tuple2<>(row.getUTF8String(PARTITION_PATH_POS).toString(), row.getUTF8String(FILE_ID_POS).toString()))
+          .countByValue();
+      BucketAssignment buckets = new BucketAssignment(config, table, rowsPerFileGroup);
+      if (buckets.size() == 0) {
+        return Collections.emptyList();
+      }
+      LOG.info("Writing " + rowsPerFileGroup.values().stream().mapToLong(Long::longValue).sum() + " rows into "
+          + buckets.size() + " buckets");
+
+      return taggedRows
+          .mapToPair(row -> new Tuple2<>(buckets.getBucket(row), row))
+          .partitionBy(new BucketPartitioner(buckets.size()))
+          .mapPartitionsWithIndex((bucketIndex, rows) -> writeBucket(config, table, buckets.get(bucketIndex),
+              rows, instantTime, structType, baseFileReader), true)
+          .collect();
+    } finally {
+      taggedRows.unpersist();
+    }
+  }
+
+  /**
+   * Tags the rows with the file groups their keys are stored in, by way of the file name column.
+   */
+  private static Dataset<Row> tagLocation(SQLContext sqlContext, JavaSparkContext jsc, HoodieTable table,
+      Dataset<Row> hoodieDataset) {
+    JavaRDD<HoodieKey> keys = hoodieDataset
+        .select(HoodieRecord.RECORD_KEY_METADATA_FIELD, HoodieRecord.PARTITION_PATH_METADATA_FIELD)
+        .javaRDD()
+        .map(row -> new HoodieKey(row.getString(0), row.getString(1)));
+    JavaRDD<Row> locations = ((HoodieIndex<?>) table.getIndex()).fetchRecordLocation(keys, jsc, table)
+        .filter(keyLocation -> keyLocation._2.isPresent())
+        .map(keyLocation -> RowFactory.create(keyLocation._1.getRecordKey(), keyLocation._1.getPartitionPath(),
+            keyLocation._2.get().getRight()));
+    StructType locationSchema = new StructType()
+        .add(HoodieRecord.RECORD_KEY_METADATA_FIELD, DataTypes.StringType, false)
+        .add(HoodieRecord.PARTITION_PATH_METADATA_FIELD, DataTypes.StringType, false)
+        .add(LOCATED_FILE_ID, DataTypes.StringType, false);
+    Dataset<Row> locationDataset = sqlContext.createDataFrame(locations, locationSchema);
+
+    List<Column> orderedFields = Arrays.stream(hoodieDataset.schema().fieldNames())
+        .map(name -> HoodieRecord.FILENAME_METADATA_FIELD.equals(name)
+            ? functions.coalesce(functions.col(LOCATED_FILE_ID), functions.lit("")).as(name)
+            : functions.col(name))
+        .collect(Collectors.toList());
+    return hoodieDataset
+        .join(locationDataset, JavaConverters.asScalaBufferConverter(
+            Arrays.asList(HoodieRecord.RECORD_KEY_METADATA_FIELD, HoodieRecord.PARTITION_PATH_METADATA_FIELD)).asScala(),
+            "left_outer")
+        .select(JavaConverters.collectionAsScalaIterableConverter(orderedFields).asScala().toSeq());
+  }
+
+  private static Iterator<HoodieInternalWriteStatus> writeBucket(HoodieWriteConfig config, HoodieTable table,
+      RowBucket bucket, Iterator<Tuple2<Integer, InternalRow>> bucketRows, String instantTime, StructType structType,
+      Function1<PartitionedFile, scala.collection.Iterator<Object>> baseFileReader) throws IOException {
+    if (!bucketRows.hasNext()) {
+      return Collections.emptyIterator();
+    }
+    Iterator<InternalRow> rows = new Iterator<InternalRow>() {
+      @Override
+      public boolean hasNext() {
+        return bucketRows.hasNext();
+      }
+
+      @Override
+      public InternalRow next() {
+        return bucketRows.next()._2;
+      }
+    };
+    int taskPartitionId = TaskContext.getPartitionId();
+    long stageId = TaskContext.get().stageId();
+    long taskAttemptId = TaskContext.get().taskAttemptId();
+
+    if (bucket.baseFile.isPresent()) {
+      HoodieBaseFile baseFile = bucket.baseFile.get();
+      HoodieRowMergeHandle handle = new HoodieRowMergeHandle(table, config, bucket.partitionPath, bucket.fileId,
+          baseFile, rows, instantTime, taskPartitionId, stageId, taskAttemptId, structType);
+      scala.collection.Iterator<Object> oldRows = baseFileReader.apply(
+          new PartitionedFile(InternalRow.empty(), baseFile.getPath(), 0, baseFile.getFileLen(), new String[0]));
+      while (oldRows.hasNext()) {
+        Object next = oldRows.next();
+        if (next instanceof ColumnarBatch) {
+          ((ColumnarBatch) next).rowIterator().forEachRemaining(handle::write);
+        } else {
+          handle.write((InternalRow) next);
+        }
+      }
+      return Collections.singletonList(handle.close()).iterator();
+    }
+
+    List<HoodieInternalWriteStatus> writeStatuses = new ArrayList<>();
+    int numFilesWritten = 0;
+    HoodieRowCreateHandle handle = null;
+    while (rows.hasNext()) {
+      if (handle == null || !handle.canWrite()) {
+        if (handle != null) {
+          writeStatuses.add(handle.close());
+        }
+        handle = new HoodieRowCreateHandle(table, config, bucket.partitionPath,
+            String.format("%s-%d", bucket.fileId, numFilesWritten++), instantTime, taskPartitionId, stageId,
+            taskAttemptId, structType);
+      }
+      handle.write(rows.next());
+    }
+    writeStatuses.add(handle.close());
+    return writeStatuses.iterator();
+  }
+
+  /**
+   * A file group the rows are merged into, or a new file group a share of the inserts of a partition path goes to.
+   */
+  private static class RowBucket implements Serializable {
+
+    private final String partitionPath;
+    // file id of the file group to merge into, or the prefix of the new file ids
+    private final String fileId;
+    private final Option<HoodieBaseFile> baseFile;
+
+    private RowBucket(String partitionPath, String fileId, Option<HoodieBaseFile> baseFile) {
+      this.partitionPath = partitionPath;
+      this.fileId = fileId;
+      this.baseFile = baseFile;
+    }
+  }
+
+  /**
+   * Assigns the tagged rows to buckets, the way {@link UpsertPartitioner} assigns records. The rows of a file group all
+   * go to its bucket. The inserts of a partition path are first packed into its small files, merged by the buckets of
+   * their file groups, and the rest is spread over enough new file groups to fill files of the insert split size.
+   */
+  private static class BucketAssignment implements Serializable {
+
+    private final List<RowBucket> buckets = new ArrayList<>();
+    private final Map<Pair<String, String>, Integer> fileGroupToBucket = new HashMap<>();
+    // buckets of the inserts of each partition path, along with their cumulative share of the inserts
+    private final Map<String, List<Pair<Integer, Double>>> partitionPathToInsertBuckets = new HashMap<>();
+    private final Map<String, Long> partitionPathToNumInserts = new HashMap<>();
+
+    private BucketAssignment(HoodieWriteConfig config, HoodieTable table, Map<Tuple2<String, String>, Long> rowsPerFileGroup) {
+      for (Map.Entry<Tuple2<String, String>, Long> entry : rowsPerFileGroup.entrySet()) {
+        String partitionPath = entry.getKey()._1;
+        String fileId = entry.getKey()._2;
+        if (fileId.isEmpty()) {
+          partitionPathToNumInserts.put(partitionPath, entry.getValue());
+        } else {
+          addMergeBucket(table, partitionPath, fileId);
+        }
+      }
+      if (!partitionPathToNumInserts.isEmpty()) {
+        assignInserts(config, table);
+      }
+    }
+
+    private void assignInserts(HoodieWriteConfig config, HoodieTable table) {
+      long averageRecordSize = UpsertPartitioner.averageBytesPerRecord(
+          table.getMetaClient().getActiveTimeline().getCommitTimeline().filterCompletedInstants(), config);
+      Map<String, List<SmallFile>> partitionSmallFilesMap =
+          UpsertPartitioner.getSmallBaseFiles(table, config, new ArrayList<>(partitionPathToNumInserts.keySet()));
+      for (Map.Entry<String, Long> entry : partitionPathToNumInserts.entrySet()) {
+        String partitionPath = entry.getKey();
+        long numInserts = entry.getValue();
+        long unassignedInserts = numInserts;
+        List<Pair<Integer, Long>> rowsPerBucket = new ArrayList<>();
+
+        // first try packing the inserts into the small files, merging them in along with the updates
+        for (SmallFile smallFile : partitionSmallFilesMap.getOrDefault(partitionPath, Collections.emptyList())) {
+          long rowsToAppend = Math.min((config.getParquetMaxFileSize() - smallFile.sizeBytes) / averageRecordSize,
+              unassignedInserts);
+          if (rowsToAppend > 0) {
+            Integer bucket = fileGroupToBucket.get(Pair.of(partitionPath, smallFile.location.getFileId()));
+            if (bucket == null) {
+              bucket = addMergeBucket(table, partitionPath, smallFile.location.getFileId());
+            }
+            rowsPerBucket.add(Pair.of(bucket, rowsToAppend));
+            unassignedInserts -= rowsToAppend;
+          }
+        }
+
+        if (unassignedInserts > 0) {
+          long insertRowsPerBucket = config.shouldAutoTuneInsertSplits()
+              ? config.getParquetMaxFileSize() / averageRecordSize : config.getCopyOnWriteInsertSplitSize();
+          int numBuckets = (int) Math.ceil((double) unassignedInserts / Math.max(1, insertRowsPerBucket));
+          for (int i = 0; i < numBuckets; i++) {
+            rowsPerBucket.add(Pair.of(buckets.size(), unassignedInserts / numBuckets));
+            buckets.add(new RowBucket(partitionPath, FSUtils.createNewFileIdPfx(), Option.empty()));
+          }
+        }
+        LOG.info("Inserts of partition path " + partitionPath + " go to buckets " + rowsPerBucket);
+
+        List<Pair<Integer, Double>> insertBuckets = new ArrayList<>();
+        double cumulativeWeight = 0;
+        for (Pair<Integer, Long> bucketRows : rowsPerBucket) {
+          cumulativeWeight += (double) bucketRows.getRight() / numInserts;
+          insertBuckets.add(Pair.of(bucketRows.getLeft(), cumulativeWeight));
+        }
+        partitionPathToInsertBuckets.put(partitionPath, insertBuckets);
+      }
+    }
+
+    private int addMergeBucket(HoodieTable table, String partitionPath, String fileId) {
+      Option<HoodieBaseFile> baseFile = table.getBaseFileOnlyView().getLatestBaseFile(partitionPath, fileId);
+      if (!baseFile.isPresent()) {
+        throw new HoodieUpsertException("Could not find the base file of file group " + fileId + " in partition "
+            + partitionPath + " to merge into");
+      }
+      int bucket = buckets.size();
+      fileGroupToBucket.put(Pair.of(partitionPath, fileId), bucket);
+      buckets.add(new RowBucket(partitionPath, fileId, baseFile));
+      return bucket;
+    }
+
+    private int getBucket(InternalRow row) {
+      String partitionPath = row.getUTF8String(PARTITION_PATH_POS).toString();
+      String fileId = row.getUTF8String(FILE_ID_POS).toString();
+      if (!fileId.isEmpty()) {
+        return fileGroupToBucket.get(Pair.of(partitionPath, fileId));
+      }
+      // pick the bucket by the weights, like UpsertPartitioner does
+      List<Pair<Integer, Double>> insertBuckets = partitionPathToInsertBuckets.get(partitionPath);
+      long numInserts = Math.max(1, partitionPathToNumInserts.get(partitionPath));
+      long hashOfKey = NumericUtils.getMessageDigestHash("MD5", row.getUTF8String(RECORD_KEY_POS).toString());
+      double r = (double) Math.floorMod(hashOfKey, numInserts) / numInserts;
+      for (Pair<Integer, Double> insertBucket : insertBuckets) {
+        if (r <= insertBucket.getRight()) {
+          return insertBucket.getLeft();
+        }
+      }
+      return insertBuckets.get(insertBuckets.size() - 1).getLeft();
+    }
+
+    private RowBucket get(int bucket) {
+      return buckets.get(bucket);
+    }
+
+    private int size() {
+      return buckets.size();
+    }
+  }
+
+  /**
+   * Sends the rows of every bucket to the partition with its index.
+   */
+  private static class BucketPartitioner extends Partitioner {
+
+    private final int numBuckets;
+
+    private BucketPartitioner(int numBuckets) {
+      this.numBuckets = numBuckets;
+    }
+
+    @Override
+    public int numPartitions() {
+      return numBuckets;
+    }
+
+    @Override
+    public int getPartition(Object key) {
+      return (Integer) key;
+    }
+  }
+}
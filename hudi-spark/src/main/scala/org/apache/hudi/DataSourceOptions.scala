@@ -231,6 +231,7 @@ object DataSourceWriteOptions {
 
   /**
    * When set to true, will perform write operations directly using the spark native `Row` representation.
+   * Upserts and inserts fall back to avro records, when the table or payload is not supported by the row writer.
    * By default, false (will be enabled as default in a future release)
    */
   val ENABLE_ROW_WRITER_OPT_KEY = "hoodie.datasource.write.row.writer.enable"
@@ -31,7 +31,8 @@ import org.apache.hudi.client.{HoodieWriteClient, WriteStatus}
 import org.apache.hudi.common.config.TypedProperties
 import org.apache.hudi.common.model.{HoodieRecordPayload, HoodieTableType, WriteOperationType}
 import org.apache.hudi.common.table.{HoodieTableConfig, HoodieTableMetaClient}
-import org.apache.hudi.common.table.timeline.HoodieActiveTimeline
+import org.apache.hudi.common.table.timeline.{HoodieActiveTimeline, HoodieInstant, HoodieTimeline}
+import org.apache.hudi.common.table.timeline.HoodieInstant.State
 import org.apache.hudi.common.util.ReflectionUtils
 import org.apache.hudi.config.HoodieBootstrapConfig.{BOOTSTRAP_BASE_PATH_PROP, BOOTSTRAP_INDEX_CLASS_PROP, DEFAULT_BOOTSTRAP_INDEX_CLASS}
 import org.apache.hudi.config.HoodieWriteConfig
@@ -39,11 +40,14 @@ import org.apache.hudi.exception.HoodieException
 import org.apache.hudi.hive.{HiveSyncConfig, HiveSyncTool}
 import org.apache.hudi.internal.HoodieDataSourceInternalWriter
 import org.apache.hudi.sync.common.AbstractSyncTool
+import org.apache.hudi.table.HoodieTable
 import org.apache.log4j.LogManager
 import org.apache.spark.SparkContext
 import org.apache.spark.api.java.{JavaRDD, JavaSparkContext}
 import org.apache.spark.rdd.RDD
 import org.apache.spark.sql.{DataFrame, SQLContext, SaveMode}
+import org.apache.spark.sql.execution.datasources.parquet.ParquetFileFormat
+import org.apache.spark.sql.types.StructType
 
 import scala.collection.JavaConversions._
 import scala.collection.mutable.ListBuffer
@@ -113,12 +117,26 @@ private[hudi] object HoodieSparkSqlWriter {
         tableConfig = tableMetaClient.getTableConfig
       }
 
-      // short-circuit if bulk_insert via row is enabled.
+      // short-circuit if writing via row is enabled.
       // scalastyle:off
       if (parameters(ENABLE_ROW_WRITER_OPT_KEY).toBoolean) {
-        val (success, commitTime: common.util.Option[String]) = bulkInsertAsRow(sqlContext, parameters, df, tblName,
-                                                                                basePath, path, instantTime)
-        return (success, commitTime, common.util.Option.empty(), hoodieWriteClient.orNull, tableConfig)
+        if (operation == WriteOperationType.UPSERT || operation == WriteOperationType.INSERT) {
+          val writeConfig = DataSourceUtils.createHoodieConfig(
+            AvroConversionUtils.convertStructTypeToAvroSchema(df.schema, s"${tblName}_record", s"hoodie.${tblName}").toString,
+            path.get, tblName, mapAsJavaMap(parameters))
+          val metaClient = new HoodieTableMetaClient(sparkContext.hadoopConfiguration, path.get)
+          val table = HoodieTable.create(metaClient, writeConfig, sparkContext.hadoopConfiguration)
+          if (HoodieDatasetUpsertHelper.canWriteAsRows(writeConfig, table, df.schema, operation)) {
+            val (success, commitTime: common.util.Option[String]) = writeAsRow(sqlContext, parameters, df, writeConfig,
+              table, operation, basePath, instantTime)
+            return (success, commitTime, common.util.Option.empty(), hoodieWriteClient.orNull, tableConfig)
+          }
+          log.warn(s"$operation via row is not supported for this table, writing avro records instead")
+        } else {
+          val (success, commitTime: common.util.Option[String]) = bulkInsertAsRow(sqlContext, parameters, df, tblName,
+                                                                                  basePath, path, instantTime)
+          return (success, commitTime, common.util.Option.empty(), hoodieWriteClient.orNull, tableConfig)
+        }
       }
       // scalastyle:on
 
@@ -281,6 +299,56 @@ private[hudi] object HoodieSparkSqlWriter {
     (syncHiveSucess, common.util.Option.ofNullable(instantTime))
   }
 
+  def writeAsRow(sqlContext: SQLContext,
+                 parameters: Map[String, String],
+                 df: DataFrame,
+                 writeConfig: HoodieWriteConfig,
+                 table: HoodieTable[_],
+                 operation: WriteOperationType,
+                 basePath: Path,
+                 instantTime: String): (Boolean, common.util.Option[String]) = {
+    val jsc = new JavaSparkContext(sqlContext.sparkContext)
+    val hoodieDF = HoodieDatasetUpsertHelper.prepareHoodieDatasetForUpsert(sqlContext, writeConfig, df, operation)
+    val baseFileReader = new ParquetFileFormat().buildReaderWithPartitionValues(
+      sparkSession = sqlContext.sparkSession,
+      dataSchema = hoodieDF.schema,
+      partitionSchema = StructType(Seq.empty),
+      requiredSchema = hoodieDF.schema,
+      filters = Seq.empty,
+      options = Map.empty,
+      hadoopConf = sqlContext.sparkSession.sessionState.newHadoopConf())
+
+    val client = new HoodieWriteClient[HoodieRecordPayload[Nothing]](jsc, writeConfig, true)
+    try {
+      client.setOperationType(operation)
+      client.startCommitWithTime(instantTime)
+      table.getMetaClient.reloadActiveTimeline().transitionRequestedToInflight(
+        new HoodieInstant(State.REQUESTED, HoodieTimeline.COMMIT_ACTION, instantTime), common.util.Option.empty())
+      val writeStatuses = HoodieDatasetUpsertHelper.write(sqlContext, jsc, writeConfig, table, hoodieDF, operation,
+        instantTime, baseFileReader)
+      val errorCount = writeStatuses.count(ws => ws.hasErrors)
+      if (errorCount > 0) {
+        log.error(s"$operation via row failed with errors in $errorCount files")
+        client.rollback(instantTime)
+        return (false, common.util.Option.ofNullable(instantTime))
+      }
+      val metaMap = parameters.filter(kv => kv._1.startsWith(parameters(COMMIT_METADATA_KEYPREFIX_OPT_KEY)))
+      val commitSuccess = client.commitStats(instantTime, seqAsJavaList(writeStatuses.map(ws => ws.getStat)),
+        if (metaMap.isEmpty) common.util.Option.empty() else common.util.Option.of(mapAsJavaMap(metaMap)))
+      log.info(s"Commit $instantTime ${if (commitSuccess) "successful" else "failed"}!")
+      val hiveSyncEnabled = parameters.get(HIVE_SYNC_ENABLED_OPT_KEY).exists(r => r.toBoolean)
+      val metaSyncEnabled = parameters.get(META_SYNC_ENABLED_OPT_KEY).exists(r => r.toBoolean)
+      val syncHiveSuccess = if (commitSuccess && (hiveSyncEnabled || metaSyncEnabled)) {
+        metaSync(parameters, basePath, sqlContext.sparkContext.hadoopConfiguration)
+      } else {
+        true
+      }
+      (commitSuccess && syncHiveSuccess, common.util.Option.ofNullable(instantTime))
+    } finally {
+      client.close()
+    }
+  }
+
   def toProperties(params: Map[String, String]): TypedProperties = {
     val props = new TypedProperties()
     params.foreach(kv => props.setProperty(kv._1, kv._2))
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi;
+
+import org.apache.hudi.common.model.WriteOperationType;
+import org.apache.hudi.config.HoodieWriteConfig;
+import org.apache.hudi.index.bloom.HoodieBloomIndex;
+import org.apache.hudi.index.bloom.HoodieGlobalBloomIndex;
+import org.apache.hudi.index.bucket.HoodieBucketIndex;
+import org.apache.hudi.index.record.HoodieRecordIndex;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link HoodieDatasetUpsertHelper}.
+ */
+public class TestHoodieDatasetUpsertHelper {
+
+  private final HoodieWriteConfig config = HoodieWriteConfig.newBuilder().withPath("/tmp").build();
+
+  @Test
+  public void testIndexesImplicitWithStorage() {
+    assertTrue(HoodieDatasetUpsertHelper.canWriteWithIndex(new HoodieBloomIndex<>(config), WriteOperationType.UPSERT));
+    assertTrue(HoodieDatasetUpsertHelper.canWriteWithIndex(new HoodieBloomIndex<>(config), WriteOperationType.INSERT));
+    // a global index looks up keys across partition paths, which tagging the rows does not do
+    assertFalse(HoodieDatasetUpsertHelper.canWriteWithIndex(new HoodieGlobalBloomIndex<>(config), WriteOperationType.UPSERT));
+    assertTrue(HoodieDatasetUpsertHelper.canWriteWithIndex(new HoodieGlobalBloomIndex<>(config), WriteOperationType.INSERT));
+  }
+
+  @Test
+  public void testIndexUpdatedWithLocations() {
+    // inserted keys would never reach the record index, the next upsert would duplicate them
+    assertFalse(HoodieDatasetUpsertHelper.canWriteWithIndex(new HoodieRecordIndex<>(config), WriteOperationType.INSERT));
+    assertFalse(HoodieDatasetUpsertHelper.canWriteWithIndex(new HoodieRecordIndex<>(config), WriteOperationType.UPSERT));
+  }
+
+  @Test
+  public void testBucketIndex() {
+    // new keys have to go into the file groups of their buckets
+    assertFalse(HoodieDatasetUpsertHelper.canWriteWithIndex(new HoodieBucketIndex<>(config), WriteOperationType.INSERT));
+    assertFalse(HoodieDatasetUpsertHelper.canWriteWithIndex(new HoodieBucketIndex<>(config), WriteOperationType.UPSERT));
+  }
+}
@@ -285,6 +285,53 @@ class HoodieSparkSqlWriterSuite extends FunSuite with Matchers {
       }
     })
 
+  test("test upsert dataset via row") {
+    initSparkContext("test_upsert_row_datasource")
+    val path = java.nio.file.Files.createTempDirectory("hoodie_test_path")
+    try {
+
+      val hoodieFooTableName = "hoodie_foo_tbl"
+
+      //create a new table
+      val fooTableModifier = Map("path" -> path.toAbsolutePath.toString,
+        HoodieWriteConfig.TABLE_NAME -> hoodieFooTableName,
+        HoodieWriteConfig.UPSERT_PARALLELISM -> "4",
+        DataSourceWriteOptions.OPERATION_OPT_KEY -> DataSourceWriteOptions.UPSERT_OPERATION_OPT_VAL,
+        DataSourceWriteOptions.ENABLE_ROW_WRITER_OPT_KEY -> "true",
+        DataSourceWriteOptions.RECORDKEY_FIELD_OPT_KEY -> "_row_key",
+        DataSourceWriteOptions.PARTITIONPATH_FIELD_OPT_KEY -> "partition",
+        DataSourceWriteOptions.PRECOMBINE_FIELD_OPT_KEY -> "ts",
+        DataSourceWriteOptions.KEYGENERATOR_CLASS_OPT_KEY -> classOf[SimpleKeyGenerator].getCanonicalName)
+      val fooTableParams = HoodieWriterUtils.parametersWithWriteDefaults(fooTableModifier)
+
+      val schema = DataSourceTestUtils.getStructTypeExampleSchema
+      val structType = AvroConversionUtils.convertAvroSchemaToStructType(schema)
+      val records = convertRowListToSeq(DataSourceTestUtils.generateRandomRows(100))
+      val df = spark.createDataFrame(sc.parallelize(records), structType)
+      val (firstSuccess, firstCommit, _, _, _) = HoodieSparkSqlWriter.write(sqlContext, SaveMode.Append, fooTableParams, df)
+      assert(firstSuccess)
+
+      // update half of the rows and add as many new ones
+      val updates = records.take(50).map(row => Row(row.getString(0), row.getString(1), 0L))
+      val inserts = convertRowListToSeq(DataSourceTestUtils.generateRandomRows(50))
+      val df2 = spark.createDataFrame(sc.parallelize(updates ++ inserts), structType)
+      val (secondSuccess, secondCommit, _, _, _) = HoodieSparkSqlWriter.write(sqlContext, SaveMode.Append, fooTableParams, df2)
+      assert(secondSuccess)
+
+      val snapshotDf = spark.read.format("org.apache.hudi").load(path.toAbsolutePath.toString + "/*/*/*/*")
+      assert(snapshotDf.count() == 150)
+      val trimmedDf = snapshotDf.select("_row_key", "partition", "ts")
+      val expectedDf = spark.createDataFrame(sc.parallelize(updates ++ records.drop(50) ++ inserts), structType)
+      assert(expectedDf.except(trimmedDf).count() == 0)
+      // untouched rows keep the commit they were written with
+      assert(snapshotDf.filter(s"${HoodieRecord.COMMIT_TIME_METADATA_FIELD} = '${firstCommit.get}'").count() == 50)
+      assert(snapshotDf.filter(s"${HoodieRecord.COMMIT_TIME_METADATA_FIELD} = '${secondCommit.get}'").count() == 100)
+    } finally {
+      spark.stop()
+      FileUtils.deleteDirectory(path.toFile)
+    }
+  }
+
   case class Test(uuid: String, ts: Long)
 
   import scala.collection.JavaConverters
@@ -19,6 +19,7 @@
 package org.apache.hudi.timeline.service;
 
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.table.timeline.dto.AvroDTOCodec;
 import org.apache.hudi.common.table.timeline.dto.BaseFileDTO;
 import org.apache.hudi.common.table.timeline.dto.CompactionOpDTO;
 import org.apache.hudi.common.table.timeline.dto.FileGroupDTO;
@@ -33,7 +34,7 @@ import org.apache.hudi.timeline.service.handlers.BaseFileHandler;
 import org.apache.hudi.timeline.service.handlers.FileSliceHandler;
 import org.apache.hudi.timeline.service.handlers.TimelineHandler;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.javalin.Context;
 import io.javalin.Handler;
@@ -43,6 +44,8 @@ import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
@@ -61,10 +64,13 @@ public class FileSystemViewHandler {
   private final TimelineHandler instantHandler;
   private final FileSliceHandler sliceHandler;
   private final BaseFileHandler dataFileHandler;
+  private final TimelineWatcher timelineWatcher;
 
-  public FileSystemViewHandler(Javalin app, Configuration conf, FileSystemViewManager viewManager) throws IOException {
+  public FileSystemViewHandler(Javalin app, Configuration conf, FileSystemViewManager viewManager,
+      TimelineWatcher timelineWatcher) throws IOException {
     this.viewManager = viewManager;
     this.app = app;
+    this.timelineWatcher = timelineWatcher;
     this.instantHandler = new TimelineHandler(conf, viewManager);
     this.sliceHandler = new FileSliceHandler(conf, viewManager);
     this.dataFileHandler = new BaseFileHandler(conf, viewManager);
@@ -98,13 +104,24 @@ public class FileSystemViewHandler {
 
     String localTimelineHash = localTimeline.getTimelineHash();
     if (!localTimelineHash.equals(timelineHashFromClient)) {
-      return true;
+      // The view may have been synced past the client's timeline in the background
+      return !isLocalViewAhead(localTimeline, lastKnownInstantFromClient);
     }
 
     // As a safety check, even if hash is same, ensure instant is present
     return !localTimeline.containsOrBeforeTimelineStarts(lastKnownInstantFromClient);
   }
 
+  /**
+   * Determines if local view of table's timeline has instants completed after the last one known to the client.
+   */
+  private static boolean isLocalViewAhead(HoodieTimeline localTimeline, String lastKnownInstantFromClient) {
+    return localTimeline.lastInstant().map(lastInstant -> HoodieTimeline.compareTimestamps(lastInstant.getTimestamp(),
+        HoodieTimeline.GREATER_THAN, lastKnownInstantFromClient)).orElse(false)
+        && (HoodieTimeline.INVALID_INSTANT_TS.equals(lastKnownInstantFromClient)
+            || localTimeline.containsOrBeforeTimelineStarts(lastKnownInstantFromClient));
+  }
+
   /**
    * Syncs data-set view if local view is behind.
    */
@@ -121,6 +138,7 @@ public class FileSystemViewHandler {
               + " as last known instant but server has the folling timeline :"
               + localTimeline.getInstants().collect(Collectors.toList()));
           view.sync();
+          timelineWatcher.onViewSynced(basePath);
           return true;
         }
       }
@@ -128,7 +146,33 @@ public class FileSystemViewHandler {
     return false;
   }
 
-  private void writeValueAsString(Context ctx, Object obj) throws JsonProcessingException {
+  /**
+   * Writes the response avro encoded if the client accepts it and the response has an avro form, as JSON otherwise.
+   * Either way Javalin gzips it for clients sending Accept-Encoding.
+   */
+  private void writeResponse(Context ctx, Object obj) throws IOException {
+    String accept = ctx.header("Accept");
+    if (null != accept && accept.contains(AvroDTOCodec.CONTENT_TYPE) && AvroDTOCodec.canEncode(obj)) {
+      long beginEncodeTs = System.currentTimeMillis();
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      AvroDTOCodec.encode(obj, out);
+      long endEncodeTs = System.currentTimeMillis();
+      LOG.debug("Avro encoding TimeTaken=" + (endEncodeTs - beginEncodeTs) + ", Size=" + out.size());
+      ctx.contentType(AvroDTOCodec.CONTENT_TYPE);
+      ctx.result(new ByteArrayInputStream(out.toByteArray()));
+      return;
+    }
+    writeValueAsString(ctx, obj);
+  }
+
+  /**
+   * Reads the partition paths of a request covering many partitions from its body.
+   */
+  private static List<String> readPartitionPaths(Context ctx) throws IOException {
+    return OBJECT_MAPPER.readValue(ctx.body(), new TypeReference<List<String>>() {});
+  }
+
+  private void writeValueAsString(Context ctx, Object obj) throws IOException {
     boolean prettyPrint = ctx.queryParam("pretty") != null;
     long beginJsonTs = System.currentTimeMillis();
     String result =
@@ -145,13 +189,13 @@ public class FileSystemViewHandler {
     app.get(RemoteHoodieTableFileSystemView.LAST_INSTANT, new ViewHandler(ctx -> {
       List<InstantDTO> dtos = instantHandler
           .getLastInstant(ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getValue());
-      writeValueAsString(ctx, dtos);
+      writeResponse(ctx, dtos);
     }, false));
 
     app.get(RemoteHoodieTableFileSystemView.TIMELINE, new ViewHandler(ctx -> {
       TimelineDTO dto = instantHandler
           .getTimeline(ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getValue());
-      writeValueAsString(ctx, dto);
+      writeResponse(ctx, dto);
     }, false));
   }
 
@@ -163,7 +207,7 @@ public class FileSystemViewHandler {
       List<BaseFileDTO> dtos = dataFileHandler.getLatestDataFiles(
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.queryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM,""));
-      writeValueAsString(ctx, dtos);
+      writeResponse(ctx, dtos);
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_PARTITION_DATA_FILE_URL, new ViewHandler(ctx -> {
@@ -171,13 +215,13 @@ public class FileSystemViewHandler {
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.queryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM,""),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.FILEID_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      writeResponse(ctx, dtos);
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_ALL_DATA_FILES, new ViewHandler(ctx -> {
       List<BaseFileDTO> dtos = dataFileHandler
           .getLatestDataFiles(ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      writeResponse(ctx, dtos);
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_DATA_FILES_BEFORE_ON_INSTANT_URL, new ViewHandler(ctx -> {
@@ -185,7 +229,15 @@ public class FileSystemViewHandler {
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.queryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM,""),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.MAX_INSTANT_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      writeResponse(ctx, dtos);
+    }, true));
+
+    app.post(RemoteHoodieTableFileSystemView.LATEST_DATA_FILES_BEFORE_ON_INSTANT_FOR_PARTITIONS_URL, new ViewHandler(ctx -> {
+      List<BaseFileDTO> dtos = dataFileHandler.getLatestDataFilesBeforeOrOnForPartitions(
+          ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
+          readPartitionPaths(ctx),
+          ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.MAX_INSTANT_PARAM).getOrThrow());
+      writeResponse(ctx, dtos);
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_DATA_FILE_ON_INSTANT_URL, new ViewHandler(ctx -> {
@@ -194,21 +246,21 @@ public class FileSystemViewHandler {
           ctx.queryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM,""),
           ctx.queryParam(RemoteHoodieTableFileSystemView.INSTANT_PARAM),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.FILEID_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      writeResponse(ctx, dtos);
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.ALL_DATA_FILES, new ViewHandler(ctx -> {
       List<BaseFileDTO> dtos = dataFileHandler.getAllDataFiles(
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.queryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM,""));
-      writeValueAsString(ctx, dtos);
+      writeResponse(ctx, dtos);
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_DATA_FILES_RANGE_INSTANT_URL, new ViewHandler(ctx -> {
       List<BaseFileDTO> dtos = dataFileHandler.getLatestDataFilesInRange(
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(), Arrays
               .asList(ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.INSTANTS_PARAM).getOrThrow().split(",")));
-      writeValueAsString(ctx, dtos);
+      writeResponse(ctx, dtos);
     }, true));
   }
 
@@ -220,7 +272,7 @@ public class FileSystemViewHandler {
       List<FileSliceDTO> dtos = sliceHandler.getLatestFileSlices(
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.queryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM,""));
-      writeValueAsString(ctx, dtos);
+      writeResponse(ctx, dtos);
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_PARTITION_SLICE_URL, new ViewHandler(ctx -> {
@@ -228,28 +280,28 @@ public class FileSystemViewHandler {
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.queryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM,""),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.FILEID_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      writeResponse(ctx, dtos);
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_PARTITION_UNCOMPACTED_SLICES_URL, new ViewHandler(ctx -> {
       List<FileSliceDTO> dtos = sliceHandler.getLatestUnCompactedFileSlices(
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.queryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM,""));
-      writeValueAsString(ctx, dtos);
+      writeResponse(ctx, dtos);
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.ALL_SLICES_URL, new ViewHandler(ctx -> {
       List<FileSliceDTO> dtos = sliceHandler.getAllFileSlices(
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.queryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM,""));
-      writeValueAsString(ctx, dtos);
+      writeResponse(ctx, dtos);
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_SLICES_RANGE_INSTANT_URL, new ViewHandler(ctx -> {
       List<FileSliceDTO> dtos = sliceHandler.getLatestFileSliceInRange(
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(), Arrays
               .asList(ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.INSTANTS_PARAM).getOrThrow().split(",")));
-      writeValueAsString(ctx, dtos);
+      writeResponse(ctx, dtos);
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_SLICES_MERGED_BEFORE_ON_INSTANT_URL, new ViewHandler(ctx -> {
@@ -257,7 +309,7 @@ public class FileSystemViewHandler {
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.queryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM,""),
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.MAX_INSTANT_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      writeResponse(ctx, dtos);
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.LATEST_SLICES_BEFORE_ON_INSTANT_URL, new ViewHandler(ctx -> {
@@ -268,27 +320,50 @@ public class FileSystemViewHandler {
           Boolean.parseBoolean(
               ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.INCLUDE_FILES_IN_PENDING_COMPACTION_PARAM)
                   .getOrThrow()));
-      writeValueAsString(ctx, dtos);
+      writeResponse(ctx, dtos);
+    }, true));
+
+    app.post(RemoteHoodieTableFileSystemView.LATEST_SLICES_BEFORE_ON_INSTANT_FOR_PARTITIONS_URL, new ViewHandler(ctx -> {
+      List<FileSliceDTO> dtos = sliceHandler.getLatestFileSlicesBeforeOrOnForPartitions(
+          ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
+          readPartitionPaths(ctx),
+          ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.MAX_INSTANT_PARAM).getOrThrow(),
+          Boolean.parseBoolean(
+              ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.INCLUDE_FILES_IN_PENDING_COMPACTION_PARAM)
+                  .getOrThrow()));
+      writeResponse(ctx, dtos);
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.PENDING_COMPACTION_OPS, new ViewHandler(ctx -> {
       List<CompactionOpDTO> dtos = sliceHandler.getPendingCompactionOperations(
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow());
-      writeValueAsString(ctx, dtos);
+      writeResponse(ctx, dtos);
     }, true));
 
     app.get(RemoteHoodieTableFileSystemView.ALL_FILEGROUPS_FOR_PARTITION_URL, new ViewHandler(ctx -> {
       List<FileGroupDTO> dtos = sliceHandler.getAllFileGroups(
           ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow(),
           ctx.queryParam(RemoteHoodieTableFileSystemView.PARTITION_PARAM,""));
-      writeValueAsString(ctx, dtos);
+      writeResponse(ctx, dtos);
     }, true));
 
     app.post(RemoteHoodieTableFileSystemView.REFRESH_TABLE, new ViewHandler(ctx -> {
-      boolean success = sliceHandler
-          .refreshTable(ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow());
+      String basePath = ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow();
+      boolean success = sliceHandler.refreshTable(basePath);
+      timelineWatcher.onViewSynced(basePath);
       writeValueAsString(ctx, success);
     }, false));
+
+    app.get(RemoteHoodieTableFileSystemView.VIEW_VERSION_URL, new ViewHandler(ctx -> {
+      String basePath = ctx.validatedQueryParam(RemoteHoodieTableFileSystemView.BASEPATH_PARAM).getOrThrow();
+      // The view gets watched from the first request for it on
+      viewManager.getFileSystemView(basePath);
+      // answered asynchronously, long-polling clients do not hold on to the request threads
+      ctx.result(timelineWatcher.awaitViewVersion(basePath,
+          Long.parseLong(ctx.queryParam(RemoteHoodieTableFileSystemView.KNOWN_VERSION_PARAM, "-1")),
+          Long.parseLong(ctx.queryParam(RemoteHoodieTableFileSystemView.WAIT_MS_PARAM, "0")))
+          .thenApply(version -> Long.toString(version)));
+    }, false));
   }
 
   private static boolean isRefreshCheckDisabledInQuery(Context ctxt) {
@@ -47,17 +47,29 @@ public class TimelineService {
   private transient FileSystem fs;
   private transient Javalin app = null;
   private transient FileSystemViewManager fsViewsManager;
+  private final long timelinePollIntervalMs;
+  private transient TimelineWatcher timelineWatcher = null;
 
   public int getServerPort() {
     return serverPort;
   }
 
-  public TimelineService(int serverPort, FileSystemViewManager globalFileSystemViewManager, Configuration conf)
-      throws IOException {
+  /**
+   * @param timelinePollIntervalMs Interval at which timelines are reloaded to sync views in the background, 0 to only
+   *                               sync views when requests find them behind
+   */
+  public TimelineService(int serverPort, FileSystemViewManager globalFileSystemViewManager, Configuration conf,
+      long timelinePollIntervalMs) throws IOException {
     this.conf = FSUtils.prepareHadoopConf(conf);
     this.fs = FileSystem.get(conf);
     this.serverPort = serverPort;
     this.fsViewsManager = globalFileSystemViewManager;
+    this.timelinePollIntervalMs = timelinePollIntervalMs;
+  }
+
+  public TimelineService(int serverPort, FileSystemViewManager globalFileSystemViewManager, Configuration conf)
+      throws IOException {
+    this(serverPort, globalFileSystemViewManager, conf, 0);
   }
 
   public TimelineService(int serverPort, FileSystemViewManager globalFileSystemViewManager) throws IOException {
@@ -66,7 +78,8 @@ public class TimelineService {
 
   public TimelineService(Config config) throws IOException {
     this(config.serverPort, buildFileSystemViewManager(config,
-        new SerializableConfiguration(FSUtils.prepareHadoopConf(new Configuration()))));
+        new SerializableConfiguration(FSUtils.prepareHadoopConf(new Configuration()))), new Configuration(),
+        config.timelinePollIntervalMs);
   }
 
   public static class Config implements Serializable {
@@ -94,18 +107,38 @@ public class TimelineService {
     @Parameter(names = {"--rocksdb-path", "-rp"}, description = "Root directory for RocksDB")
     public String rocksDBPath = FileSystemViewStorageConfig.DEFAULT_ROCKSDB_BASE_PATH;
 
+    @Parameter(names = {"--rocksdb-persist", "-rps"},
+        description = "Keep the RocksDB views across restarts, resuming them by incrementally syncing the instants"
+            + " completed since they were last synced")
+    public Boolean rocksDBPersist = false;
+
+    @Parameter(names = {"--timeline-poll-interval-ms", "-tp"},
+        description = "Interval at which the timelines of the tables served are reloaded, to sync their views in the"
+            + " background as instants complete. Off (0) by default, views are then synced when requests find them behind")
+    public Long timelinePollIntervalMs = FileSystemViewStorageConfig.DEFAULT_TIMELINE_POLL_INTERVAL_MS;
+
+    @Parameter(names = {"--preload-partitions", "-pp"},
+        description = "List and load all partitions of a table when its view is created, instead of on first access")
+    public Boolean preloadPartitions = false;
+
+    @Parameter(names = {"--partition-listing-parallelism", "-lp"},
+        description = "Number of partitions listed and loaded concurrently when preloading a view")
+    public Integer partitionListingParallelism = FileSystemViewStorageConfig.DEFAULT_PARTITION_LISTING_PARALLELISM;
+
     @Parameter(names = {"--help", "-h"})
     public Boolean help = false;
   }
 
   public int startService() throws IOException {
     app = Javalin.create();
-    FileSystemViewHandler router = new FileSystemViewHandler(app, conf, fsViewsManager);
+    timelineWatcher = new TimelineWatcher(fsViewsManager, conf, timelinePollIntervalMs);
+    FileSystemViewHandler router = new FileSystemViewHandler(app, conf, fsViewsManager, timelineWatcher);
     app.get("/", ctx -> ctx.result("Hello World"));
     router.register();
     app.start(serverPort);
     // If port = 0, a dynamic port is assigned. Store it.
     serverPort = app.port();
+    timelineWatcher.start();
     LOG.info("Starting Timeline server on port :" + serverPort);
     return serverPort;
   }
@@ -118,20 +151,28 @@ public class TimelineService {
     switch (config.viewStorageType) {
       case MEMORY:
         FileSystemViewStorageConfig.Builder inMemConfBuilder = FileSystemViewStorageConfig.newBuilder();
-        inMemConfBuilder.withStorageType(FileSystemViewStorageType.MEMORY);
+        inMemConfBuilder.withStorageType(FileSystemViewStorageType.MEMORY)
+            .withPreload(config.preloadPartitions)
+            .withPartitionListingParallelism(config.partitionListingParallelism);
         return FileSystemViewManager.createViewManager(conf, inMemConfBuilder.build());
       case SPILLABLE_DISK: {
         FileSystemViewStorageConfig.Builder spillableConfBuilder = FileSystemViewStorageConfig.newBuilder();
         spillableConfBuilder.withStorageType(FileSystemViewStorageType.SPILLABLE_DISK)
             .withBaseStoreDir(config.baseStorePathForFileGroups)
             .withMaxMemoryForView(config.maxViewMemPerTableInMB * 1024 * 1024L)
-            .withMemFractionForPendingCompaction(config.memFractionForCompactionPerTable);
+            .withMemFractionForPendingCompaction(config.memFractionForCompactionPerTable)
+            .withPreload(config.preloadPartitions)
+            .withPartitionListingParallelism(config.partitionListingParallelism);
         return FileSystemViewManager.createViewManager(conf, spillableConfBuilder.build());
       }
       case EMBEDDED_KV_STORE: {
         FileSystemViewStorageConfig.Builder rocksDBConfBuilder = FileSystemViewStorageConfig.newBuilder();
         rocksDBConfBuilder.withStorageType(FileSystemViewStorageType.EMBEDDED_KV_STORE)
-            .withRocksDBPath(config.rocksDBPath);
+            .withRocksDBPath(config.rocksDBPath)
+            .withRocksDbPersist(config.rocksDBPersist)
+            .withIncrementalTimelineSync(config.rocksDBPersist)
+            .withPreload(config.preloadPartitions)
+            .withPartitionListingParallelism(config.partitionListingParallelism);
         return FileSystemViewManager.createViewManager(conf, rocksDBConfBuilder.build());
       }
       default:
@@ -141,6 +182,8 @@ public class TimelineService {
 
   public void close() {
     LOG.info("Closing Timeline Service");
+    this.timelineWatcher.close();
+    this.timelineWatcher = null;
     this.app.stop();
     this.app = null;
     this.fsViewsManager.close();
@@ -165,7 +208,7 @@ public class TimelineService {
 
     Configuration conf = FSUtils.prepareHadoopConf(new Configuration());
     FileSystemViewManager viewManager = buildFileSystemViewManager(cfg, new SerializableConfiguration(conf));
-    TimelineService service = new TimelineService(cfg.serverPort, viewManager);
+    TimelineService service = new TimelineService(cfg.serverPort, viewManager, conf, cfg.timelinePollIntervalMs);
     service.run();
   }
 }
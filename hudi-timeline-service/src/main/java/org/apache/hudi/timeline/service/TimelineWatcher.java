@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hudi.timeline.service;
+
+import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.hudi.common.table.view.FileSystemViewManager;
+import org.apache.hudi.common.table.view.SyncableFileSystemView;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the timelines of the tables whose views are served and syncs their views in the background once new instants
+ * complete, so that requests seldom find the view behind and pay for syncing it. Every sync of the view of a table
+ * bumps its view version, which clients can long-poll to learn about new instants without polling the timeline.
+ */
+public class TimelineWatcher {
+
+  private static final Logger LOG = LogManager.getLogger(TimelineWatcher.class);
+
+  // Upper bound on how long a request waits for a newer view version
+  public static final long MAX_WAIT_MS = 60 * 1000L;
+
+  private final FileSystemViewManager viewManager;
+  private final Configuration conf;
+  private final long pollIntervalMs;
+  private final ConcurrentHashMap<String, ViewVersion> viewVersions = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, HoodieTableMetaClient> metaClients = new ConcurrentHashMap<>();
+  private ScheduledExecutorService executor;
+
+  /**
+   * @param pollIntervalMs interval at which the timelines are reloaded, watching is off if it is not positive
+   */
+  public TimelineWatcher(FileSystemViewManager viewManager, Configuration conf, long pollIntervalMs) {
+    this.viewManager = viewManager;
+    this.conf = conf;
+    this.pollIntervalMs = pollIntervalMs;
+  }
+
+  public void start() {
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "hoodie-timeline-watcher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    if (pollIntervalMs <= 0) {
+      LOG.info("Timeline watching is disabled, views are only synced when requests find them behind");
+      return;
+    }
+    executor.scheduleWithFixedDelay(this::syncChangedViews, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    LOG.info("Watching timelines every " + pollIntervalMs + " ms");
+  }
+
+  public void close() {
+    if (null != executor) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  /**
+   * Reloads the timeline of every table with a view and syncs the view if it changed.
+   */
+  void syncChangedViews() {
+    for (String basePath : viewManager.getBasePaths()) {
+      try {
+        syncIfChanged(basePath);
+      } catch (RuntimeException e) {
+        // the table may have been dropped, keep watching the others
+        LOG.warn("Failed to sync the view of " + basePath, e);
+      }
+    }
+  }
+
+  private void syncIfChanged(String basePath) {
+    HoodieTableMetaClient metaClient =
+        metaClients.computeIfAbsent(basePath, path -> new HoodieTableMetaClient(conf, path));
+    HoodieTimeline timeline = metaClient.reloadActiveTimeline().filterCompletedAndCompactionInstants();
+    String timelineHash = timeline.getTimelineHash();
+    ViewVersion viewVersion = getViewVersion(basePath);
+    if (!viewVersion.isTimelineChanged(timelineHash)) {
+      return;
+    }
+
+    SyncableFileSystemView view = viewManager.getFileSystemView(basePath);
+    boolean synced = false;
+    synchronized (view) {
+      // requests may have synced the view already
+      if (!timelineHash.equals(view.getTimeline().filterCompletedAndCompactionInstants().getTimelineHash())) {
+        long beginTs = System.currentTimeMillis();
+        view.sync();
+        synced = true;
+        LOG.info("Synced view of " + basePath + " to " + timeline.lastInstant() + ", Time taken ="
+            + (System.currentTimeMillis() - beginTs));
+      }
+    }
+    // only remembered once the view reflects it, a failed sync is retried at the next poll
+    viewVersion.observeTimeline(timelineHash);
+    if (synced) {
+      onViewSynced(basePath);
+    }
+  }
+
+  /**
+   * Called after the view of a table was synced or refreshed, bumping its version.
+   */
+  public void onViewSynced(String basePath) {
+    getViewVersion(basePath).bump();
+  }
+
+  /**
+   * Waits up to the given time, bounded by {@link #MAX_WAIT_MS}, for the version of the view of the table to get past
+   * the known one. No thread is held while waiting, the returned future is completed by the sync bumping the version
+   * or by the timeout.
+   *
+   * @return the version of the view, past the known one unless the wait timed out
+   */
+  public CompletableFuture<Long> awaitViewVersion(String basePath, long knownVersion, long maxWaitMs) {
+    ViewVersion viewVersion = getViewVersion(basePath);
+    CompletableFuture<Long> future = viewVersion.awaitNewerThan(knownVersion);
+    if (!future.isDone()) {
+      executor.schedule(() -> viewVersion.timeout(future), Math.min(maxWaitMs, MAX_WAIT_MS), TimeUnit.MILLISECONDS);
+    }
+    return future;
+  }
+
+  private ViewVersion getViewVersion(String basePath) {
+    return viewVersions.computeIfAbsent(basePath, path -> new ViewVersion());
+  }
+
+  /**
+   * Version of the view of a table, along with the hash of the timeline last seen by the watcher.
+   */
+  private static class ViewVersion {
+
+    private long version = 0;
+    private String timelineHash = null;
+    private final List<CompletableFuture<Long>> waiters = new ArrayList<>();
+
+    /**
+     * @return whether the timeline differs from the one last observed
+     */
+    synchronized boolean isTimelineChanged(String newTimelineHash) {
+      return !newTimelineHash.equals(timelineHash);
+    }
+
+    synchronized void observeTimeline(String newTimelineHash) {
+      timelineHash = newTimelineHash;
+    }
+
+    void bump() {
+      List<CompletableFuture<Long>> toComplete;
+      long newVersion;
+      synchronized (this) {
+        newVersion = ++version;
+        toComplete = new ArrayList<>(waiters);
+        waiters.clear();
+      }
+      toComplete.forEach(waiter -> waiter.complete(newVersion));
+    }
+
+    synchronized CompletableFuture<Long> awaitNewerThan(long knownVersion) {
+      if (version > knownVersion) {
+        return CompletableFuture.completedFuture(version);
+      }
+      CompletableFuture<Long> waiter = new CompletableFuture<>();
+      waiters.add(waiter);
+      return waiter;
+    }
+
+    void timeout(CompletableFuture<Long> waiter) {
+      long currentVersion;
+      synchronized (this) {
+        if (!waiters.remove(waiter)) {
+          return;
+        }
+        currentVersion = version;
+      }
+      waiter.complete(currentVersion);
+    }
+  }
+}
@@ -58,6 +58,13 @@ public class BaseFileHandler extends Handler {
         .map(BaseFileDTO::fromHoodieBaseFile).collect(Collectors.toList());
   }
 
+  public List<BaseFileDTO> getLatestDataFilesBeforeOrOnForPartitions(String basePath, List<String> partitionPaths,
+      String maxInstantTime) {
+    return viewManager.getFileSystemView(basePath)
+        .getLatestBaseFilesBeforeOrOnForPartitions(partitionPaths, maxInstantTime)
+        .map(BaseFileDTO::fromPartitionAndHoodieBaseFile).collect(Collectors.toList());
+  }
+
   public List<BaseFileDTO> getLatestDataFileOn(String basePath, String partitionPath, String instantTime,
                                                String fileId) {
     List<BaseFileDTO> result = new ArrayList<>();
@@ -63,6 +63,13 @@ public class FileSliceHandler extends Handler {
         .map(FileSliceDTO::fromFileSlice).collect(Collectors.toList());
   }
 
+  public List<FileSliceDTO> getLatestFileSlicesBeforeOrOnForPartitions(String basePath, List<String> partitionPaths,
+      String maxInstantTime, boolean includeFileSlicesInPendingCompaction) {
+    return viewManager.getFileSystemView(basePath)
+        .getLatestFileSlicesBeforeOrOnForPartitions(partitionPaths, maxInstantTime, includeFileSlicesInPendingCompaction)
+        .map(FileSliceDTO::fromFileSlice).collect(Collectors.toList());
+  }
+
   public List<FileSliceDTO> getLatestUnCompactedFileSlices(String basePath, String partitionPath) {
     return viewManager.getFileSystemView(basePath).getLatestUnCompactedFileSlices(partitionPath)
         .map(FileSliceDTO::fromFileSlice).collect(Collectors.toList());
@@ -19,6 +19,9 @@
 package org.apache.hudi.timeline.service.functional;
 
 import org.apache.hudi.common.config.SerializableConfiguration;
+import org.apache.hudi.common.table.timeline.HoodieActiveTimeline;
+import org.apache.hudi.common.table.timeline.HoodieInstant;
+import org.apache.hudi.common.table.timeline.HoodieInstant.State;
 import org.apache.hudi.common.table.timeline.HoodieTimeline;
 import org.apache.hudi.common.table.view.FileSystemViewManager;
 import org.apache.hudi.common.table.view.FileSystemViewStorageConfig;
@@ -26,10 +29,15 @@ import org.apache.hudi.common.table.view.FileSystemViewStorageType;
 import org.apache.hudi.common.table.view.RemoteHoodieTableFileSystemView;
 import org.apache.hudi.common.table.view.SyncableFileSystemView;
 import org.apache.hudi.common.table.view.TestHoodieTableFileSystemView;
+import org.apache.hudi.common.util.Option;
 import org.apache.hudi.timeline.service.TimelineService;
 
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Bring up a remote Timeline Server and run all test-cases of TestHoodieTableFileSystemView against it.
@@ -55,4 +63,32 @@ public class TestRemoteHoodieTableFileSystemView extends TestHoodieTableFileSyst
     view = new RemoteHoodieTableFileSystemView("localhost", server.getServerPort(), metaClient);
     return view;
   }
+
+  @Test
+  public void testViewVersionFollowsTimeline() throws Exception {
+    FileSystemViewStorageConfig sConf =
+        FileSystemViewStorageConfig.newBuilder().withStorageType(FileSystemViewStorageType.MEMORY).build();
+    TimelineService watchingServer = new TimelineService(0,
+        FileSystemViewManager.createViewManager(new SerializableConfiguration(metaClient.getHadoopConf()), sConf),
+        metaClient.getHadoopConf(), 100);
+    try {
+      watchingServer.startService();
+      RemoteHoodieTableFileSystemView remoteView =
+          new RemoteHoodieTableFileSystemView("localhost", watchingServer.getServerPort(), metaClient);
+      long version = remoteView.getViewVersion();
+      // nothing changes, the wait times out
+      assertEquals(version, remoteView.awaitViewVersion(version, 300));
+
+      HoodieActiveTimeline timeline = metaClient.getActiveTimeline();
+      HoodieInstant requested = new HoodieInstant(State.REQUESTED, HoodieTimeline.COMMIT_ACTION, "1");
+      timeline.createNewInstant(requested);
+      timeline.transitionRequestedToInflight(requested, Option.empty());
+      timeline.saveAsComplete(new HoodieInstant(true, HoodieTimeline.COMMIT_ACTION, "1"), Option.empty());
+
+      // the server syncs its view on its own and lets the waiting client know
+      assertTrue(remoteView.awaitViewVersion(version, 30000) > version);
+    } finally {
+      watchingServer.close();
+    }
+  }
 }